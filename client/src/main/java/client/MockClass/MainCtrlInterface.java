@@ -107,6 +107,13 @@ public interface MainCtrlInterface {
      */
     void handleServerNotFound();
 
+    /**
+     * Replaces the event in every scene that holds it, after changes to it were missed
+     *
+     * @param event the event as loaded from the server
+     */
+    void reloadEvent(Event event);
+
     /**
      * display the statistics page
      * @param event the current event
@@ -50,6 +50,8 @@ public class MyModule implements Module {
         binder.bind(TagPageCtrl.class).in(Scopes.SINGLETON);
         binder.bind(UserConfig.class).in(Scopes.SINGLETON);
         binder.bind(ServerUtils.class).to(ServerUtilsImpl.class).in(Scopes.SINGLETON);
+        binder.bind(RequestMetrics.class).in(Scopes.SINGLETON);
+        binder.bind(AsyncServerUtils.class).in(Scopes.SINGLETON);
         binder.bind(LanguageConf.class).in(Scopes.SINGLETON);
         binder.bind(IOInterface.class).toInstance(new FileIO(UserConfig.class.getClassLoader()
                 .getResource("client/config.properties")));
@@ -1,9 +1,7 @@
 package client.components;
 
-import client.MockClass.MainCtrlInterface;
 import client.utils.EmailService;
 import client.utils.LanguageConf;
-import client.utils.currency.CurrencyConverter;
 import commons.Transaction;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -18,7 +16,6 @@ import commons.Event;
 
 import java.awt.*;
 import java.io.IOException;
-import java.net.ConnectException;
 import java.text.NumberFormat;
 import java.util.Currency;
 import java.util.Locale;
@@ -36,8 +33,7 @@ public class ExpandedOpenDebtsListItem extends HBox {
     private final Consumer<Transaction> callBackSettle;
     private final EmailService emailService;
     private final LanguageConf languageConf;
-    private final CurrencyConverter converter;
-    private final MainCtrlInterface mainCtrl;
+    private final double convertedAmount;
     private final Event event;
     private int size;
 
@@ -49,8 +45,8 @@ public class ExpandedOpenDebtsListItem extends HBox {
      * @param languageConf   languageConf of the page
      * @param callBackShrink shrink when this component is clicked
      * @param callBackSettle settle when clicked
-     * @param converter      currency converter
-     * @param mainCtrl       main controller
+     * @param convertedAmount amount in the currency of the transaction,
+     *                       NaN if it could not be converted
      * @param emailService   email service
      * @param event          event
      */
@@ -58,8 +54,7 @@ public class ExpandedOpenDebtsListItem extends HBox {
                                      LanguageConf languageConf,
                                      Consumer<ExpandedOpenDebtsListItem> callBackShrink,
                                      Consumer<Transaction> callBackSettle,
-                                     CurrencyConverter converter,
-                                     MainCtrlInterface mainCtrl,
+                                     double convertedAmount,
                                      EmailService emailService,
                                      Event event) {
         this.transaction = transaction;
@@ -67,8 +62,7 @@ public class ExpandedOpenDebtsListItem extends HBox {
         this.callBackSettle = callBackSettle;
         this.emailService = emailService;
         this.languageConf = languageConf;
-        this.converter = converter;
-        this.mainCtrl = mainCtrl;
+        this.convertedAmount = convertedAmount;
         this.event = event;
         FXMLLoader fxmlLoader = new FXMLLoader(
                 getClass().getResource("/client/components/ExpandedOpenDebtsListItem.fxml")
@@ -86,16 +80,7 @@ public class ExpandedOpenDebtsListItem extends HBox {
             alert.showAndWait();
             return;
         }
-        double convertedAmount;
-        try {
-            convertedAmount = converter.convert("USD", transaction.getCurrency(),
-                    transaction.getAmount(), transaction.getDate().toInstant());
-        } catch (CurrencyConverter.CurrencyConversionException e) {
-            return;
-        } catch (ConnectException e) {
-            mainCtrl.handleServerNotFound();
-            return;
-        }
+        if(Double.isNaN(convertedAmount)) return;
         String template = languageConf.get("OpenDebtsListItem.template");
         NumberFormat formatter = NumberFormat.getCurrencyInstance(Locale.getDefault());
         formatter.setMaximumFractionDigits(2);
@@ -186,22 +171,20 @@ public class ExpandedOpenDebtsListItem extends HBox {
         return transaction;
     }
 
+    /**
+     * @return amount in the currency of the transaction
+     */
+    public double getConvertedAmount() {
+        return convertedAmount;
+    }
+
     /**
      * sends email reminder to the debtor
      */
     public void sendEmail() {
         String subject = languageConf.get("EmailService.reminderHeader");
         String body = languageConf.get("EmailService.reminderBody");
-        boolean status = true;
-        double convertedAmount = 0;
-        try {
-            convertedAmount = converter.convert("USD", transaction.getCurrency(),
-                    transaction.getAmount(), transaction.getDate().toInstant());
-        } catch (CurrencyConverter.CurrencyConversionException e) {
-            status = false;
-        } catch (ConnectException e) {
-            mainCtrl.handleServerNotFound();
-        }
+        boolean status = !Double.isNaN(convertedAmount);
 
         if(!status){
             System.out.println("Email couldn't be sent");
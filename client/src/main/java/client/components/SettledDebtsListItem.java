@@ -1,9 +1,7 @@
 package client.components;
 
-import client.MockClass.MainCtrlInterface;
 import client.utils.LanguageConf;
 import client.utils.UserConfig;
-import client.utils.currency.CurrencyConverter;
 import commons.Transaction;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -12,7 +10,6 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 
 import java.io.IOException;
-import java.net.ConnectException;
 import java.text.NumberFormat;
 import java.util.Currency;
 import java.util.Locale;
@@ -31,14 +28,12 @@ public class SettledDebtsListItem extends HBox {
      * @param userConfig user config
      * @param languageConf language config
      * @param callBackCancel callback when cancel button is pressed
-     * @param converter currency converter
-     * @param mainCtrl main controller
+     * @param convertedAmount amount in the preferred currency, NaN if it could not be converted
      */
     public SettledDebtsListItem(Transaction transaction, UserConfig userConfig,
                                 LanguageConf languageConf,
                                 Consumer<Transaction> callBackCancel,
-                                CurrencyConverter converter,
-                                MainCtrlInterface mainCtrl) {
+                                double convertedAmount) {
         this.transaction = transaction;
         this.callBackCancel = callBackCancel;
         FXMLLoader fxmlLoader = new FXMLLoader(
@@ -57,16 +52,7 @@ public class SettledDebtsListItem extends HBox {
             alert.showAndWait();
             return;
         }
-        double convertedAmount;
-        try {
-            convertedAmount = converter.convert("USD", userConfig.getCurrency(),
-                    transaction.getAmount(), transaction.getDate().toInstant());
-        } catch (CurrencyConverter.CurrencyConversionException e) {
-            return;
-        } catch (ConnectException e) {
-            mainCtrl.handleServerNotFound();
-            return;
-        }
+        if(Double.isNaN(convertedAmount)) return;
         NumberFormat formater = NumberFormat.getCurrencyInstance(Locale.getDefault());
         formater.setMaximumFractionDigits(2);
         formater.setCurrency(Currency.getInstance(userConfig.getCurrency()));
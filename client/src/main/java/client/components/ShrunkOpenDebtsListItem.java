@@ -1,8 +1,6 @@
 package client.components;
 
-import client.MockClass.MainCtrlInterface;
 import client.utils.LanguageConf;
-import client.utils.currency.CurrencyConverter;
 import commons.Transaction;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -11,7 +9,6 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 
 import java.io.IOException;
-import java.net.ConnectException;
 import java.text.NumberFormat;
 import java.util.Currency;
 import java.util.Locale;
@@ -23,6 +20,7 @@ public class ShrunkOpenDebtsListItem extends HBox {
     private final Transaction transaction;
     private final Consumer<ShrunkOpenDebtsListItem> callBackExpand;
     private final Consumer<Transaction> callBackSettle;
+    private final double convertedAmount;
 
     /**
      * Constructor for ShrunkOpenDebtsListItem
@@ -31,16 +29,16 @@ public class ShrunkOpenDebtsListItem extends HBox {
      * @param languageConf languageConf of the page
      * @param callBackExpand shrink when this component is clicked
      * @param callBackSettle settle when clicked
-     * @param converter currency converter
-     * @param mainCtrl main controller
+     * @param convertedAmount amount in the currency of the transaction,
+     *                        NaN if it could not be converted
      */
     public ShrunkOpenDebtsListItem(Transaction transaction,
                                    LanguageConf languageConf,
                                    Consumer<ShrunkOpenDebtsListItem> callBackExpand,
                                    Consumer<Transaction> callBackSettle,
-                                   CurrencyConverter converter,
-                                   MainCtrlInterface mainCtrl) {
+                                   double convertedAmount) {
         this.transaction = transaction;
+        this.convertedAmount = convertedAmount;
         this.callBackExpand = callBackExpand;
         this.callBackSettle = callBackSettle;
         FXMLLoader fxmlLoader = new FXMLLoader(
@@ -58,16 +56,7 @@ public class ShrunkOpenDebtsListItem extends HBox {
             alert.showAndWait();
             return;
         }
-        double convertedAmount;
-        try {
-            convertedAmount = converter.convert("USD", transaction.getCurrency(),
-                    transaction.getAmount(), transaction.getDate().toInstant());
-        } catch (CurrencyConverter.CurrencyConversionException e) {
-            return;
-        } catch (ConnectException e) {
-            mainCtrl.handleServerNotFound();
-            return;
-        }
+        if(Double.isNaN(convertedAmount)) return;
         String template = languageConf.get("OpenDebtsListItem.template");
         NumberFormat formater = NumberFormat.getCurrencyInstance(Locale.getDefault());
         formater.setMaximumFractionDigits(2);
@@ -93,6 +82,13 @@ public class ShrunkOpenDebtsListItem extends HBox {
         callBackSettle.accept(transaction);
     }
 
+    /**
+     * @return amount in the currency of the transaction
+     */
+    public double getConvertedAmount() {
+        return convertedAmount;
+    }
+
     /**
      * @return pre-made transaction
      */
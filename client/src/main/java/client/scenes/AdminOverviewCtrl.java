@@ -3,6 +3,7 @@ package client.scenes;
 import client.components.Confirmation;
 import client.MockClass.MainCtrlInterface;
 import client.components.EventListItemAdmin;
+import client.utils.AsyncServerUtils;
 import client.utils.CommonFunctions;
 import client.utils.LanguageConf;
 import client.utils.ServerUtils;
@@ -12,6 +13,9 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.inject.Inject;
 import commons.Event;
+import commons.EventChanges;
+import commons.EventSummary;
+import commons.EventSummaryPage;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.Scene;
@@ -26,13 +30,15 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
 import java.net.ConnectException;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public class AdminOverviewCtrl{
+    private static final int PAGE_SIZE = 50;
 
     private final ServerUtils server;
+    private final AsyncServerUtils asyncServer;
     private final MainCtrlInterface mainCtrl;
 
     private final UserConfig userConfig;
@@ -40,6 +46,9 @@ public class AdminOverviewCtrl{
 
     @FXML
     private VBox eventList;
+
+    @FXML
+    private ScrollPane eventScrollPane;
     private String password;
 
     @FXML
@@ -52,7 +61,12 @@ public class AdminOverviewCtrl{
     private CheckBox reverseOrderCheckBox;
 
     private final LanguageConf languageConf;
-    private List<Event> allEvents;
+    private final List<EventSummary> allEvents = new ArrayList<>();
+    private int loadedPages;
+    private boolean hasNextPage;
+    // epoch and sequence number of the admin change feed the list is up to date with
+    private volatile long epoch;
+    private volatile long sequence;
 
     private Thread poller;
 
@@ -60,6 +74,7 @@ public class AdminOverviewCtrl{
      * adminOverview screen controller constructor
      *
      * @param server       utils
+     * @param asyncServer  utils running requests off the UI thread
      * @param mainCtrl     main scene controller
      * @param userConfig   the user configuration
      * @param languageConf the languageconf instance
@@ -67,12 +82,14 @@ public class AdminOverviewCtrl{
     @Inject
     public AdminOverviewCtrl(
             ServerUtils server,
+            AsyncServerUtils asyncServer,
             MainCtrlInterface mainCtrl,
             UserConfig userConfig,
             LanguageConf languageConf
     ) {
 
         this.server = server;
+        this.asyncServer = asyncServer;
         this.mainCtrl = mainCtrl;
         this.userConfig = userConfig;
         this.initialDirectory = userConfig.getInitialExportDirectory();
@@ -90,45 +107,141 @@ public class AdminOverviewCtrl{
         orderByChoiceBox.getItems().add(languageConf.get("AdminOverview.numOfParticipants"));
         orderByChoiceBox.getItems().add(languageConf.get("AdminOverview.lastActivity"));
         orderByChoiceBox.setValue(languageConf.get("AdminOverview.creationDate"));
-        orderByChoiceBox.setOnAction((e1) -> orderAndDisplayEvents());
+        orderByChoiceBox.setOnAction((e1) -> loadAllEvents());
+
+        reverseOrderCheckBox.setOnAction((e1) -> loadAllEvents());
+
+        // load the next page once the list is scrolled to the bottom
+        eventScrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue.doubleValue() >= eventScrollPane.getVmax() && hasNextPage)
+                loadNextPage();
+        });
+    }
 
-        reverseOrderCheckBox.setOnAction((e1) -> orderAndDisplayEvents());
+    /**
+     * @return sort key for the server matching the selected order
+     */
+    private String getSortKey() {
+        return switch (orderByChoiceBox.getSelectionModel().getSelectedIndex()) {
+            case 1 -> "title";
+            case 2 -> "participants";
+            case 3 -> "lastActivity";
+            default -> "creationDate";
+        };
     }
 
-    private void orderAndDisplayEvents() {
+    /**
+     * @return true if the selected order is descending
+     */
+    private boolean isDescending() {
+        // the event name is sorted ascending, all other orders descending
+        boolean descending = orderByChoiceBox.getSelectionModel().getSelectedIndex() != 1;
+        return reverseOrderCheckBox.isSelected() != descending;
+    }
+
+    /**
+     * @return the order the server sorts the summaries in
+     */
+    private Comparator<EventSummary> getOrder() {
+        Comparator<EventSummary> order = switch (getSortKey()) {
+            case "title" -> Comparator.comparing(EventSummary::getTitle);
+            case "participants" -> Comparator.comparingLong(EventSummary::getParticipantCount);
+            case "lastActivity" -> Comparator.comparing(EventSummary::getLastActivity);
+            default -> Comparator.comparing(EventSummary::getCreationDate);
+        };
+        if (isDescending()) order = order.reversed();
+        return order.thenComparing(EventSummary::getId);
+    }
+
+    /**
+     * Fetches the next page of summaries in the selected order and appends it to the list
+     */
+    private void loadNextPage() {
         addIconsToButtons();
-        switch (orderByChoiceBox.getSelectionModel().getSelectedIndex()) {
-            case 0: // Order by creation date
-                allEvents.sort(Comparator.comparing(Event::getCreationDate).reversed());
-                break;
-            case 1: // Order by event name
-                allEvents.sort(Comparator.comparing(o -> o.getTitle().toLowerCase()));
-                break;
-            case 2: // order by num of participants
-                allEvents.sort(Comparator.comparingInt(o -> -o.getParticipants().size()));
-                break;
-            case 3: // order by last activity
-                allEvents.sort(Comparator.comparing(Event::getLastActivity).reversed());
-                break;
+        EventSummaryPage page;
+        try {
+            page = server.getEventSummaries(password, loadedPages, PAGE_SIZE,
+                    getSortKey(), isDescending());
+        } catch (ConnectException e) {
+            mainCtrl.handleServerNotFound();
+            return;
         }
+        if (page == null) return;
+        if (loadedPages == 0) {
+            epoch = page.getEpoch();
+            sequence = page.getSequence();
+        }
+        loadedPages++;
+        hasNextPage = page.hasNext();
+        // changes may have moved an event that is already shown onto this page
+        Set<String> shown = allEvents.stream().map(EventSummary::getId)
+                .collect(Collectors.toSet());
+        for (EventSummary event : page.getSummaries()) {
+            if (!shown.add(event.getId())) continue;
+            allEvents.add(event);
+            eventList.getChildren().add(createItem(event));
+        }
+    }
 
-        if (reverseOrderCheckBox.isSelected()) allEvents = allEvents.reversed();
-
+    /**
+     * Applies changes of the admin change feed to the shown events without reloading them.
+     * Created or updated events that sort after the last loaded event
+     * are left for the page they are on.
+     *
+     * @param changes created, updated and deleted events
+     */
+    private void applyChanges(EventChanges changes) {
+        if (changes.isReset()) {
+            loadAllEvents();
+            return;
+        }
+        Set<String> removed = new HashSet<>(changes.getDeleted());
+        changes.getChanged().forEach(event -> removed.add(event.getId()));
+        allEvents.removeIf(event -> removed.contains(event.getId()));
+        Comparator<EventSummary> order = getOrder();
+        for (EventSummary event : changes.getChanged()) {
+            int index = Collections.binarySearch(allEvents, event, order);
+            int position = index < 0 ? -index - 1 : index;
+            if (position == allEvents.size() && hasNextPage) continue;
+            allEvents.add(position, event);
+        }
+        eventList.getChildren().setAll(allEvents.stream().map(this::createItem).toList());
+    }
 
-        eventList.getChildren().clear();
+    /**
+     * @param event summary of the event
+     * @return list item showing the event
+     */
+    private EventListItemAdmin createItem(EventSummary event) {
+        return new EventListItemAdmin(
+                event.getTitle(),
+                event.getId(),
+                () -> deleteEventButton(event),
+                () -> {
+                    Event full = fetchEvent(event.getId());
+                    if (full != null) eventExportHandler(full);
+                },
+                () -> {
+                    Event full = fetchEvent(event.getId());
+                    if (full == null) return;
+                    stopPoller();
+                    mainCtrl.showEventPage(full);
+                }
+        );
+    }
 
-        for (Event event : allEvents) {
-            final EventListItemAdmin item = new EventListItemAdmin(
-                    event.getTitle(),
-                    event.getId(),
-                    () -> deleteEventButton(event),
-                    () -> eventExportHandler(event),
-                    () -> {
-                        stopPoller();
-                        mainCtrl.showEventPage(event);
-                    }
-                    );
-            eventList.getChildren().add(item);
+    /**
+     * The list only holds summaries, the full event is fetched when it is needed
+     *
+     * @param id id of the event
+     * @return the full event or null if the server could not be reached
+     */
+    private Event fetchEvent(String id) {
+        try {
+            return server.getEvent(id);
+        } catch (ConnectException e) {
+            mainCtrl.handleServerNotFound();
+            return null;
         }
     }
 
@@ -147,9 +260,9 @@ public class AdminOverviewCtrl{
     /**
      * Deletes the event from the server and refreshes the list
      *
-     * @param event event to delete
+     * @param event summary of the event to delete
      */
-    private void deleteEventButton(Event event) {
+    private void deleteEventButton(EventSummary event) {
         Confirmation confirmation =
                 new Confirmation(String.format
                         (languageConf.get("AdminOverview.deleteEventConfirmationMessage"),
@@ -176,8 +289,9 @@ public class AdminOverviewCtrl{
             java.awt.Toolkit.getDefaultToolkit().beep();
             alert.showAndWait();
         } else {
-            allEvents.remove(event);
-            loadAllEvents();
+            // the change feed also reports the deletion, removing it again does nothing
+            allEvents.removeIf(e -> e.getId().equals(event.getId()));
+            eventList.getChildren().setAll(allEvents.stream().map(this::createItem).toList());
         }
     }
 
@@ -207,16 +321,14 @@ public class AdminOverviewCtrl{
     }
 
     /**
-     * Reload the events with events from the server
+     * Reload the events from the server, starting again at the first page
      */
     public void loadAllEvents() {
-        try {
-            allEvents = server.getEvents(password);
-        } catch (ConnectException e) {
-            mainCtrl.handleServerNotFound();
-            return;
-        }
-        orderAndDisplayEvents();
+        allEvents.clear();
+        eventList.getChildren().clear();
+        loadedPages = 0;
+        hasNextPage = false;
+        loadNextPage();
     }
 
 
@@ -295,35 +407,49 @@ public class AdminOverviewCtrl{
         }
 
         ObjectReader reader = new ObjectMapper().reader().forType(Event.class);
+        List<CompletableFuture<Integer>> imports = new ArrayList<>();
         for(File file : files) {
             try {
                 Event event = reader.readValue(file);
-                int status = server.importEvent(password, event);
-                switch (status) {
-                    case 400 -> {
-                        Alert alert = new Alert(Alert.AlertType.ERROR,
-                                languageConf.get("AdminOverview.missingParticipantError"));
-                        alert.setHeaderText(languageConf.get("AdminOverview.importError"));
-                        java.awt.Toolkit.getDefaultToolkit().beep();
-                        alert.showAndWait();
-                    }
-                    case 409 -> {
-                        Alert alert = new Alert(Alert.AlertType.WARNING,
-                                languageConf.get("AdminOverview.eventConflictError"));
-                        alert.setHeaderText(languageConf.get("AdminOverview.importError"));
-                        java.awt.Toolkit.getDefaultToolkit().beep();
-                        alert.showAndWait();
-                    }
-                }
+                imports.add(asyncServer.importEvent(password, event)
+                        .whenComplete(this::showImportResult));
             } catch (IOException e) {
-                Alert alert = new Alert(Alert.AlertType.ERROR,
-                        languageConf.get("AdminOverview.readError"));
-                alert.setHeaderText(languageConf.get("AdminOverview.importError"));
-                java.awt.Toolkit.getDefaultToolkit().beep();
-                alert.showAndWait();
+                showImportError(Alert.AlertType.ERROR, "AdminOverview.readError");
             }
         }
-        loadAllEvents();
+        // the files are sent at the same time, the list is reloaded once all are done
+        CompletableFuture.allOf(imports.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> loadAllEvents());
+    }
+
+    /**
+     * @param status status code of the import response
+     * @param error exception if the import failed
+     */
+    private void showImportResult(Integer status, Throwable error) {
+        if (error != null) {
+            if (error instanceof ConnectException) mainCtrl.handleServerNotFound();
+            else showImportError(Alert.AlertType.ERROR, "AdminOverview.readError");
+            return;
+        }
+        switch (status) {
+            case 400 -> showImportError(Alert.AlertType.ERROR,
+                    "AdminOverview.missingParticipantError");
+            case 409 -> showImportError(Alert.AlertType.WARNING,
+                    "AdminOverview.eventConflictError");
+            default -> { }
+        }
+    }
+
+    /**
+     * @param type type of the alert
+     * @param message key of the message to show
+     */
+    private void showImportError(Alert.AlertType type, String message) {
+        Alert alert = new Alert(type, languageConf.get(message));
+        alert.setHeaderText(languageConf.get("AdminOverview.importError"));
+        java.awt.Toolkit.getDefaultToolkit().beep();
+        alert.showAndWait();
     }
 
     /**
@@ -336,30 +462,48 @@ public class AdminOverviewCtrl{
         }
         poller = new Thread(() -> {
             while(!Thread.currentThread().isInterrupted()) {
-                int status;
-                try {
-                    status = server.pollEvents(password, timeOut);
-                } catch (ConnectException e) {
-                    Platform.runLater(mainCtrl::handleServerNotFound);
-                    return;
-                }
-                if(status == 204)
-                    Platform.runLater(this::loadAllEvents);
-                else if(status != 408) {
-                    Platform.runLater(() -> {
-                        Alert alert = new Alert(Alert.AlertType.ERROR);
-                        alert.setHeaderText(languageConf.get("unexpectedError"));
-                        java.awt.Toolkit.getDefaultToolkit().beep();
-                        alert.show();
-                        stopPoller();
-                        mainCtrl.showAdminLogin();
-                    });
-                    return;
-                }
+                if(!poll(timeOut)) return;
             }});
         poller.start();
     }
 
+    /**
+     * Waits for a change after the sequence number the list is up to date with
+     * and fetches only the changed events
+     *
+     * @param timeOut time in ms until server sends a time-out signal
+     * @return false if polling has to stop
+     */
+    private boolean poll(Long timeOut) {
+        try {
+            long seen = epoch;
+            long since = sequence;
+            int status = server.pollEvents(password, timeOut, seen, since);
+            if(status == 204) {
+                // a restarted server answers with a new epoch and asks for a full reload
+                EventChanges changes = server.getEventChanges(password, seen, since);
+                if(changes == null) return true;
+                epoch = changes.getEpoch();
+                sequence = changes.getSequence();
+                Platform.runLater(() -> applyChanges(changes));
+            } else if(status != 408) {
+                Platform.runLater(() -> {
+                    Alert alert = new Alert(Alert.AlertType.ERROR);
+                    alert.setHeaderText(languageConf.get("unexpectedError"));
+                    java.awt.Toolkit.getDefaultToolkit().beep();
+                    alert.show();
+                    stopPoller();
+                    mainCtrl.showAdminLogin();
+                });
+                return false;
+            }
+            return true;
+        } catch (ConnectException e) {
+            Platform.runLater(mainCtrl::handleServerNotFound);
+            return false;
+        }
+    }
+
     /**
      * Stop the long poller
      */
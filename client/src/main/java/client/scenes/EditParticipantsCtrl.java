@@ -120,6 +120,16 @@ public class EditParticipantsCtrl {
         ft.setOnFinished(e -> confirmationLabel.setVisible(false));
     }
 
+    /**
+     * Shows the event loaded again after changes were missed, if the page is open
+     *
+     * @param event the event as loaded from the server
+     */
+    public void reloadEvent(Event event) {
+        this.event = event;
+        if (opened) displayEditParticipantsPage(event);
+    }
+
     /**
      * Call this function when showing this page
      *
@@ -242,6 +242,13 @@ public class EventPageCtrl {
             }
             updateExpenses(event);
         });
+        websocket.on(RESYNC, id -> {
+            try {
+                mainCtrl.reloadEvent(server.getEvent((String) id));
+            } catch (ConnectException e) {
+                mainCtrl.handleServerNotFound();
+            }
+        });
     }
 
     /**
@@ -348,6 +355,13 @@ public class EventPageCtrl {
         };
 
         expenseVbox.getChildren().clear();
+        double[] amounts;
+        try {
+            amounts = toPreferredAmounts(expList);
+        } catch (ConnectException e) {
+            mainCtrl.handleServerNotFound();
+            return;
+        }
         for (int i = 0; i < expList.size(); i++) {
             Expense e = expList.get(i);
             String partString = "Included participants: " +
@@ -355,7 +369,7 @@ public class EventPageCtrl {
                             event.getParticipants());
 
             ExpenseItem ei = new ExpenseItem(
-                    toString(e),
+                    toString(e, amounts[i]),
                     partString,
                     e.getType(),
                     () -> {
@@ -445,8 +459,16 @@ public class EventPageCtrl {
             }
         });
         ObservableList<String> items = FXCollections.observableArrayList();
-        for (Expense expense : expenses) {
-            String expenseString = toString(expense);
+        double[] amounts;
+        try {
+            amounts = toPreferredAmounts(expenses);
+        } catch (ConnectException e) {
+            mainCtrl.handleServerNotFound();
+            return;
+        }
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense expense = expenses.get(i);
+            String expenseString = toString(expense, amounts[i]);
             String temp = buildParticipantsList(expense.getExpenseParticipants(),
                     ev.getParticipants());
             items.add(expenseString + "\n" + "Included participants:   " + temp);
@@ -480,23 +502,29 @@ public class EventPageCtrl {
      * @return human-readable form
      */
     public String toString(Expense exp) {
+        try {
+            return toString(exp, toPreferredAmounts(List.of(exp))[0]);
+        } catch (ConnectException e) {
+            mainCtrl.handleServerNotFound();
+            return "...";
+        }
+    }
+
+    /**
+     * @param exp the expense
+     * @param converted amount in the preferred currency, NaN to show the amount as it is
+     * @return human-readable form
+     */
+    private String toString(Expense exp, double converted) {
         String date = DateTimeFormatter.ISO_LOCAL_DATE
                 .format(exp.getDate().toInstant()
                         .atZone(TimeZone.getDefault().toZoneId()));
 
-        double amount = exp.getAmount();
+        double amount = exp.getAmount().toDouble();
         String currency = exp.getCurrency().toUpperCase();
-        try {
-            if(!userConfig.getCurrency().equals("NONE")) {
-                amount = converter.convert("USD", userConfig.getCurrency(),
-                        amount, exp.getDate().toInstant());
-                currency = userConfig.getCurrency().toUpperCase();
-            }
-
-        } catch (CurrencyConverter.CurrencyConversionException ignored) {
-        } catch (ConnectException e) {
-            mainCtrl.handleServerNotFound();
-            return "...";
+        if(!Double.isNaN(converted)) {
+            amount = converted;
+            currency = userConfig.getCurrency().toUpperCase();
         }
         NumberFormat formater = NumberFormat.getCurrencyInstance(Locale.getDefault());
         formater.setMaximumFractionDigits(2);
@@ -509,6 +537,29 @@ public class EventPageCtrl {
                 exp.getPurpose();
     }
 
+    /**
+     * converts the amounts of the expenses to the preferred currency of the user at once
+     *
+     * @param expenses expenses to convert
+     * @return converted amount of each expense in order,
+     * NaN if there is no preferred currency or the amount cannot be converted
+     * @throws ConnectException if the server cannot be reached
+     */
+    private double[] toPreferredAmounts(List<Expense> expenses) throws ConnectException {
+        double[] amounts = new double[expenses.size()];
+        Arrays.fill(amounts, Double.NaN);
+        if(userConfig.getCurrency().equals("NONE")) return amounts;
+        List<CurrencyConverter.Amount> items = expenses.stream()
+                .map(exp -> new CurrencyConverter.Amount(exp.getAmount().toDouble(),
+                        Money.BASE_CURRENCY, exp.getDate().toInstant()))
+                .toList();
+        try {
+            return converter.convertAll(items, userConfig.getCurrency());
+        } catch (CurrencyConverter.CurrencyConversionException ignored) {
+            return amounts;
+        }
+    }
+
     /**
      * return all expenses
      *
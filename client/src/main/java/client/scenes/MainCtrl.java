@@ -368,7 +368,7 @@ public class MainCtrl implements MainCtrlInterface{
         addExpenseCtrl.setExpenseAuthor(exp.getExpenseAuthor().getName());
         addExpenseCtrl.setPurpose(exp.getPurpose());
 
-        addExpenseCtrl.setAmount(exp.getAmount(), exp.getDate(), exp.getCurrency());
+        addExpenseCtrl.setAmount(exp.getAmount().toDouble(), exp.getDate(), exp.getCurrency());
         addExpenseCtrl.setCurrency(exp.getCurrency());
         addExpenseCtrl.setDate(exp.getDate().toInstant().
                 atZone(ZoneId.systemDefault()).toLocalDate());
@@ -388,6 +388,22 @@ public class MainCtrl implements MainCtrlInterface{
         primaryStage.setScene(startScreen);
         startScreenCtrl.showServerNotFoundError();
     }
+    /**
+     * Replaces the event in every scene that holds it, after changes to it were missed,
+     * the open scene shows the loaded event right away
+     *
+     * @param event the event as loaded from the server
+     */
+    @Override
+    public void reloadEvent(Event event) {
+        this.event = event;
+        eventPageCtrl.displayEvent(event);
+        editParticipantsCtrl.reloadEvent(event);
+        openDebtsPageCtrl.reloadEvent(event);
+        statisticsCtrl.reloadEvent(event);
+        tagPageCtrl.reloadEvent(event);
+    }
+
     /**
      * display the statistics page
      * @param event event to display
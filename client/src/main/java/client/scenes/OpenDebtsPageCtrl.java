@@ -19,6 +19,8 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.layout.VBox;
 
 import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,7 +46,6 @@ public class OpenDebtsPageCtrl {
     private final CurrencyConverter converter;
     private final UserConfig userConfig;
     private final EmailService emailService;
-    private Map<String, Double> participantDebtMap;
 
     private enum Tab{OPEN, SETTLED}
     private Tab tab;
@@ -78,7 +79,6 @@ public class OpenDebtsPageCtrl {
         this.converter = converter;
         this.userConfig = userConfig;
         this.emailService = emailService;
-        participantDebtMap = new HashMap<>();
         tab = Tab.OPEN;
         opened = false;
     }
@@ -128,107 +128,76 @@ public class OpenDebtsPageCtrl {
         if(!opened || tab == Tab.SETTLED) return;
         this.event = event;
 
-        Map<String, Double> map = new HashMap<>();
-        Map<Participant, Map<Participant, Double>> partToPartMap = new HashMap<>();
-
-        for (Participant p1 : event.getParticipants()) {
-            partToPartMap.put(p1, new HashMap<>());
-            for (Participant p2 : event.getParticipants()) {
-                partToPartMap.get(p1).put(p2, 0.0);
-            }
-        }
-
-        event.getParticipants().forEach(x -> map.put(x.getName(), 0.0));
         allDebtsPane.getChildren().clear();
         if (event.getExpenses().isEmpty() && event.getTransactions().isEmpty()) return;
-        initializePage(map, partToPartMap);
+        minCashFlow(calculateBalances(event), event);
+    }
 
-        if (map.equals(participantDebtMap)) return;
-        participantDebtMap = map;
+    /**
+     * Shows the event loaded again after changes were missed, if the page is open
+     *
+     * @param event the event as loaded from the server
+     */
+    public void reloadEvent(Event event) {
+        this.event = event;
+        if (tab == Tab.SETTLED) displaySettledDebts();
+        else displayOpenDebtsPage(event);
     }
 
     /**
-     * Initializes the graph and the open debts
+     * Computes the net balance of every participant in minor units of the base currency,
+     * positive if the participant is owed money
      *
-     * @param graphMap map to be used to populate the graph
-     * @param debtMap  map to be used to populate the debts
+     * @param event the event
+     * @return balances indexed like the participants of the event
      */
-    public void initializePage(Map<String, Double> graphMap,
-                               Map<Participant, Map<Participant, Double>> debtMap) {
+    public long[] calculateBalances(Event event) {
+        List<Participant> participants = event.getParticipants();
+        Map<Participant, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < participants.size(); i++) {
+            ordinals.put(participants.get(i), i);
+        }
+        long[] balances = new long[participants.size()];
         for (Expense e : event.getExpenses()) {
-            for (Participant p : e.getExpenseParticipants()) {
-                double cost = e.getAmount() / e.getExpenseParticipants().size();
-                graphMap.put(p.getName(), graphMap.get(p.getName()) + cost);
-                if (e.getExpenseAuthor().equals(p)) continue;
-
-                Map<Participant, Double> temp = debtMap.get(e.getExpenseAuthor());
-
-                temp.put(p, temp.get(p) + cost);
+            List<Participant> split = e.getExpenseParticipants();
+            if (split.isEmpty()) continue;
+            long[] shares = e.getAmount().split(split.size());
+            balances[ordinals.get(e.getExpenseAuthor())] += e.getAmount().getMinorUnits();
+            for (int i = 0; i < split.size(); i++) {
+                balances[ordinals.get(split.get(i))] -= shares[i];
             }
         }
-        for (Participant receiver : debtMap.keySet()) {
-            for (Participant giver : debtMap.get(receiver).keySet()) {
-                double cost = debtMap.get(receiver).get(giver)
-                        - event.getTransactions().stream().
-                        filter(x -> x.getGiver().equals(giver) && x.getReceiver().
-                                equals(receiver))
-                        .mapToDouble(Transaction::getAmount)
-                        .sum();
-                debtMap.get(receiver).put(giver, cost);
-            }
+        for (Transaction t : event.getTransactions()) {
+            balances[ordinals.get(t.getGiver())] += t.getAmount().getMinorUnits();
+            balances[ordinals.get(t.getReceiver())] -= t.getAmount().getMinorUnits();
         }
-        minCashFlow(debtMap, event);
+        return balances;
     }
 
     /**
-     * Given a set of debts with Map<Participant, Map<Participant,Double>> calculates the
+     * Given the balances of all participants calculates the
      * minimum cash flow to settle all debts.
      *
-     * @param debtMap Map of all the debts using an adjacency map data structure
+     * @param balances balance per participant in minor units of the base currency
      * @param event   event that the debts occur in
      */
-    public void minCashFlow(Map<Participant, Map<Participant, Double>> debtMap, Event event) {
-        Map<Participant, Double> map = new HashMap<>();
-        event.getParticipants().forEach(p -> map.put(p, 0.0));
-        for (Participant p : event.getParticipants()) {
-            for (Participant i : event.getParticipants()) {
-                if (p.equals(i)) continue;
-                map.put(p, map.get(p) + debtMap.get(i).get(p) - debtMap.get(p).get(i));
-            }
+    public void minCashFlow(long[] balances, Event event) {
+        List<Participant> participants = event.getParticipants();
+        SettlementSolver.Transfers transfers = SettlementSolver.solve(balances);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int t = 0; t < transfers.size(); t++) {
+            transactions.add(new Transaction(participants.get(transfers.giver(t)),
+                    participants.get(transfers.receiver(t)),
+                    new Money(transfers.amount(t), Money.BASE_CURRENCY), userConfig.getCurrency()));
+        }
+        double[] amounts = convertAll(transactions, userConfig.getCurrency());
+        if(amounts == null) return;
+        for (int t = 0; t < transactions.size(); t++) {
+            allDebtsPane.getChildren().add(
+                    new ShrunkOpenDebtsListItem(transactions.get(t),
+                            languageConf, this::resizeOpenDebtItem,
+                            this::settleDebtClicked, amounts[t]));
         }
-        recursionCalculate(map);
-    }
-
-    /**
-     * Recursively calculates the minimum amount of transactions needed to settle
-     * all debts with a maximum on n-1 where n is the number of participants.
-     * Works via finding the maximum debit and credit and decrementing them
-     * from each other until they are both zero.
-     *
-     * @param debtMap map of all the participants and minimum cash flows that conclude all debts
-     */
-    public void recursionCalculate(Map<Participant, Double> debtMap) {
-        Participant maxCredit = getMax(debtMap);
-        Participant maxDebit = getMin(debtMap);
-        if (debtMap.get(maxDebit) == 0 && debtMap.get(maxCredit) == 0)
-            return;
-
-        //Check to stop a stackoverflow error if a floating point issue has occurred
-        if((debtMap.get(maxDebit) == 0 || debtMap.get(maxCredit) == 0)
-                && Math.floor(debtMap.get(maxDebit)) == 0
-                || Math.floor(debtMap.get(maxCredit)) == 0)
-            return;
-
-        double min = Math.min(-debtMap.get(maxDebit), debtMap.get(maxCredit));
-        debtMap.put(maxCredit, debtMap.get(maxCredit) - min);
-        debtMap.put(maxDebit, debtMap.get(maxDebit) + min);
-        recursionCalculate(debtMap);
-
-        allDebtsPane.getChildren().add(
-                new ShrunkOpenDebtsListItem(
-                        new Transaction(maxCredit, maxDebit, min, userConfig.getCurrency()),
-                        languageConf, this::resizeOpenDebtItem,
-                        this::settleDebtClicked, converter, mainCtrl));
     }
 
     /**
@@ -254,13 +223,13 @@ public class OpenDebtsPageCtrl {
             ShrunkOpenDebtsListItem oldItem = (ShrunkOpenDebtsListItem) list.get(index);
             list.set(index, new ExpandedOpenDebtsListItem(oldItem.getTransaction(),
                     languageConf, this::resizeOpenDebtItem,
-                    this::settleDebtClicked, converter, mainCtrl, emailService, event));
+                    this::settleDebtClicked, oldItem.getConvertedAmount(), emailService, event));
         } else {
             ExpandedOpenDebtsListItem oldItem = (ExpandedOpenDebtsListItem) list.get(index);
             allDebtsPane.getChildren().set(index, new ShrunkOpenDebtsListItem(
                     oldItem.getTransaction(),
                     languageConf, this::resizeOpenDebtItem,
-                    this::settleDebtClicked, converter, mainCtrl));
+                    this::settleDebtClicked, oldItem.getConvertedAmount()));
         }
     }
 
@@ -327,10 +296,37 @@ public class OpenDebtsPageCtrl {
         if(!opened) return;
         allDebtsPane.getChildren().clear();
         List<Transaction> sorted = event.getTransactions().stream().sorted().toList();
-        for(Transaction t : sorted) {
+        double[] amounts = convertAll(sorted, userConfig.getCurrency());
+        if(amounts == null) return;
+        for(int i = 0; i < sorted.size(); i++) {
             allDebtsPane.getChildren().add(
-                    new SettledDebtsListItem(t, userConfig, languageConf,
-                            this::cancelTransaction, converter, mainCtrl));
+                    new SettledDebtsListItem(sorted.get(i), userConfig, languageConf,
+                            this::cancelTransaction, amounts[i]));
+        }
+    }
+
+    /**
+     * Converts the amounts of all transactions at once
+     *
+     * @param transactions transactions with amounts in the base currency
+     * @param currency currency to convert to
+     * @return converted amount of each transaction in order,
+     * NaN for all if the conversion failed, null if the server cannot be reached
+     */
+    private double[] convertAll(List<Transaction> transactions, String currency) {
+        List<CurrencyConverter.Amount> amounts = transactions.stream()
+                .map(t -> new CurrencyConverter.Amount(t.getAmount().toDouble(),
+                        Money.BASE_CURRENCY, t.getDate().toInstant()))
+                .toList();
+        try {
+            return converter.convertAll(amounts, currency);
+        } catch (CurrencyConverter.CurrencyConversionException e) {
+            double[] failed = new double[transactions.size()];
+            Arrays.fill(failed, Double.NaN);
+            return failed;
+        } catch (ConnectException e) {
+            mainCtrl.handleServerNotFound();
+            return null;
         }
     }
 
@@ -348,36 +344,6 @@ public class OpenDebtsPageCtrl {
         }
     }
 
-    /**
-     * Finds the maximum value from the map and returns the key
-     *
-     * @param debtMap map to be searched
-     * @return the Participant key with the maximum value
-     */
-    public static Participant getMax(Map<Participant, Double> debtMap) {
-        Participant result = null;
-        for (Participant p : debtMap.keySet()) {
-            if (result == null) result = p;
-            else if (debtMap.get(p) > debtMap.get(result)) result = p;
-        }
-        return result;
-    }
-
-    /**
-     * Finds the minimum value from the map and returns the key
-     *
-     * @param debtMap map to be searched
-     * @return the Participant key with the minimum value
-     */
-    public static Participant getMin(Map<Participant, Double> debtMap) {
-        Participant result = null;
-        for (Participant p : debtMap.keySet()) {
-            if (result == null) result = p;
-            else if (debtMap.get(p) < debtMap.get(result)) result = p;
-        }
-        return result;
-    }
-
     /**
      * Initializes the shortcuts for DebtsPage:
      *      Escape: go back
@@ -3,6 +3,7 @@ package client.scenes;
 import client.MockClass.MainCtrlInterface;
 import client.components.Confirmation;
 import client.components.EventListItem;
+import client.utils.AsyncServerUtils;
 import client.utils.CommonFunctions;
 import client.utils.LanguageConf;
 import client.utils.ServerUtils;
@@ -17,8 +18,9 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.layout.VBox;
 
 import java.net.ConnectException;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static client.utils.CommonFunctions.lengthListener;
@@ -28,6 +30,7 @@ import static java.lang.String.format;
 public class StartScreenCtrl {
 
     private final ServerUtils server;
+    private final AsyncServerUtils asyncServer;
     private final MainCtrlInterface mainCtrl;
     private final LanguageConf languageConf;
 
@@ -55,6 +58,7 @@ public class StartScreenCtrl {
      * start screen controller constructor
      *
      * @param server       utils
+     * @param asyncServer  utils running requests off the UI thread
      * @param mainCtrl     main scene controller
      * @param languageConf language config instance
      * @param userConfig   the user configuration
@@ -62,12 +66,14 @@ public class StartScreenCtrl {
     @Inject
     public StartScreenCtrl(
             ServerUtils server,
+            AsyncServerUtils asyncServer,
             MainCtrlInterface mainCtrl,
             LanguageConf languageConf,
             UserConfig userConfig
     ) {
         this.mainCtrl = mainCtrl;
         this.server = server;
+        this.asyncServer = asyncServer;
 
         this.languageConf = languageConf;
         this.userConfig = userConfig;
@@ -94,52 +100,62 @@ public class StartScreenCtrl {
 
 
     /**
-     * Reloads the event codes from the user config and updates the event list
+     * Reloads the event codes from the user config and updates the event list.
+     * The last known titles are shown right away, the summaries of all recent events
+     * are then requested at once and replace them when they arrive.
      */
     public void reloadEventCodes() {
         List<String> recentEventCodes = userConfig.getRecentEventCodes();
-        List<EventListItem> list = new ArrayList<>();
+        showEvents(recentEventCodes, userConfig.getRecentEventTitles());
+        asyncServer.getEventSummaries(recentEventCodes).whenComplete((summaries, error) -> {
+            if (error instanceof ConnectException
+                    || error != null && error.getCause() instanceof ConnectException) {
+                mainCtrl.handleServerNotFound();
+                return;
+            }
+            // the server answered with an error, the last known titles stay
+            if (error != null) return;
+            Map<String, String> titles = new HashMap<>();
+            summaries.forEach(summary -> titles.put(summary.getId(), summary.getTitle()));
+            userConfig.setRecentEventTitles(titles);
+            showEvents(recentEventCodes, titles);
+        });
+    }
 
+    /**
+     * Replaces the list with the events that have a title
+     *
+     * @param recentEventCodes codes of the recent events
+     * @param titles titles of the events by code
+     */
+    private void showEvents(List<String> recentEventCodes, Map<String, String> titles) {
         eventList.getChildren().clear();
-
         for (String eventCode : recentEventCodes) {
-            try {
-                Event event = server.getEvent(eventCode);
-                if (event == null) {
-                    throw new IllegalArgumentException("Event does not exist for code: "
-                            + eventCode);
-                }
-                EventListItem eventListItem = new EventListItem(
-                        event.getTitle(),
-                        eventCode,
-                        () -> {
-                            Confirmation confirmation =
-                                    new Confirmation((format(languageConf.get(
-                                            "StartScreen.deleteConfirmMessage"),
-                                            event.getTitle())),
-                                            languageConf.get(
-                                                    "Confirmation.areYouSure"),
-                                            languageConf);
-                            Optional<ButtonType> result = confirmation.showAndWait();
-                            if (result.isPresent() && result.get() == ButtonType.YES) {
-                                eventList.getChildren().remove(
-                                        list.get(
-                                        recentEventCodes.indexOf(
-                                                eventCode)));
-                                userConfig.deleteEventCode(eventCode);
-                            }
-                        },
-                        (String c) -> {
-                            code.setText(c);
-                            join();
+            String title = titles.get(eventCode);
+            if (title == null) continue;
+            EventListItem eventListItem = new EventListItem(
+                    title,
+                    eventCode,
+                    () -> {
+                        Confirmation confirmation =
+                                new Confirmation((format(languageConf.get(
+                                        "StartScreen.deleteConfirmMessage"),
+                                        title)),
+                                        languageConf.get(
+                                                "Confirmation.areYouSure"),
+                                        languageConf);
+                        Optional<ButtonType> result = confirmation.showAndWait();
+                        if (result.isPresent() && result.get() == ButtonType.YES) {
+                            userConfig.deleteEventCode(eventCode);
+                            showEvents(userConfig.getRecentEventCodes(), titles);
                         }
-                );
-                list.add(eventListItem);
-                eventList.getChildren().add(eventListItem);
-            } catch (Exception e) {
-                mainCtrl.handleServerNotFound();
-                break;
-            }
+                    },
+                    (String c) -> {
+                        code.setText(c);
+                        join();
+                    }
+            );
+            eventList.getChildren().add(eventListItem);
         }
     }
 
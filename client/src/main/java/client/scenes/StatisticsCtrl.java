@@ -10,6 +10,7 @@ import client.utils.currency.CurrencyConverter;
 import com.google.inject.Inject;
 import commons.Event;
 import commons.Expense;
+import commons.Money;
 import commons.Tag;
 import javafx.fxml.FXML;
 import javafx.scene.Scene;
@@ -165,6 +166,16 @@ public class StatisticsCtrl {
         initPieChart(event);
     }
 
+    /**
+     * Shows the event loaded again after changes were missed, if the page is open
+     *
+     * @param event the event as loaded from the server
+     */
+    public void reloadEvent(Event event) {
+        this.event = event;
+        initPieChart(event);
+    }
+
     /**
      * method for handling the back button action
      * @param event
@@ -181,22 +192,18 @@ public class StatisticsCtrl {
      * @return the total cost
      */
     public double initCost(Event event) {
-        double totalCost = 0;
-        for (Expense exp : event.getExpenses()) {
-            double amount = exp.getAmount();
-            try {
-                if(!userConfig.getCurrency().equals("NONE")) {
-                    amount = converter.convert("USD", userConfig.getCurrency(),
-                            amount, exp.getDate().toInstant());
-                    totalCost += amount;
-                }
+        return initCost(toPreferredUnits(event));
+    }
 
-            } catch (CurrencyConverter.CurrencyConversionException ignored) {
-            } catch (ConnectException e) {
-                mainCtrl.handleServerNotFound();
-            }
-        }
+    /**
+     * @param units amount of each expense in minor units of the preferred currency
+     * @return the total cost
+     */
+    private double initCost(long[] units) {
+        long totalUnits = 0;
+        for (long amount : units) totalUnits += amount;
         String preferedCurrency = userConfig.getCurrency();
+        double totalCost = (double) totalUnits / Money.unitsPerMajor(preferedCurrency);
         String form = getCurrencySymbol(totalCost, preferedCurrency);
         cost.setText(languageConf.get("Statistics.totalCost") + form);
         return totalCost;
@@ -208,19 +215,21 @@ public class StatisticsCtrl {
      */
     public void initPieChart(Event event) {
         if(!opened) return;
-        double temp = 0;
-        double totalCost = initCost(event);
-        temp = updateTagsPieChart(event, totalCost);
-        updateNoTagSlice(event, totalCost);
+        long[] units = toPreferredUnits(event);
+        double totalCost = initCost(units);
+        updateTagsPieChart(event, units, totalCost);
+        updateNoTagSlice(event, units, totalCost);
         populateLegend(event);
     }
 
     /**
      * see which tags have associated expenses
      * @param event the current event
+     * @param units amount of each expense in minor units of the preferred currency
      * @param totalCost the total cost of the event
+     * @return the cost of all tagged expenses
      */
-    private double updateTagsPieChart(Event event, double totalCost) {
+    private double updateTagsPieChart(Event event, long[] units, double totalCost) {
         double temp = 0;
         List<Long> remove = new ArrayList<>();
         for(Map.Entry<Long, PieChart.Data> entry : map.entrySet()) {
@@ -232,7 +241,7 @@ public class StatisticsCtrl {
         for (long id : remove) map.remove(id);
         for (Tag tag : event.getTags()) {
             if (tag != null) {
-                double currCost = getAmount(event, tag);
+                double currCost = getAmount(event, tag, units);
                 temp += currCost;
                 if (currCost > 0) {
                     updateOrAddTagSlice(tag, currCost, totalCost);
@@ -298,33 +307,26 @@ public class StatisticsCtrl {
     /**
      * calculate the cost of the no tag expenses
      * @param event the current event
+     * @param units amount of each expense in minor units of the preferred currency
      * @return the amount
      */
-    private double  calculateExpensesNoTag(Event event) {
-        double costExpensesNoTag = 0;
-        for (Expense expense : event.getExpenses()) {
-            if (expense.getType() == null) {
-                double amount = expense.getAmount();
-                try {
-                    amount = converter.convert("USD", userConfig.getCurrency(),
-                            amount, expense.getDate().toInstant());
-                    costExpensesNoTag += amount;
-                } catch (CurrencyConverter.CurrencyConversionException ignored) {
-                } catch (ConnectException e) {
-                    mainCtrl.handleServerNotFound();
-                }
-            }
+    private double  calculateExpensesNoTag(Event event, long[] units) {
+        long costExpensesNoTag = 0;
+        List<Expense> expenses = event.getExpenses();
+        for (int i = 0; i < expenses.size(); i++) {
+            if (expenses.get(i).getType() == null) costExpensesNoTag += units[i];
         }
-        return costExpensesNoTag;
+        return (double) costExpensesNoTag / Money.unitsPerMajor(userConfig.getCurrency());
     }
 
     /**
      * update the no tag slices
      * @param event the current event
+     * @param units amount of each expense in minor units of the preferred currency
      * @param totalCost the total cost of the event
      */
-    private void updateNoTagSlice(Event event, double totalCost) {
-        double costExpensesNoTag = calculateExpensesNoTag(event);
+    private void updateNoTagSlice(Event event, long[] units, double totalCost) {
+        double costExpensesNoTag = calculateExpensesNoTag(event, units);
         if(costExpensesNoTag > 0) {
             String text = configureNoTag(costExpensesNoTag, totalCost);
             taglessSlice.setName(text);
@@ -363,27 +365,58 @@ public class StatisticsCtrl {
      * @return the amount
      */
     public double getAmount(Event event, Tag tag) {
-        double rez = 0;
-        for (Expense exp : event.getExpenses()) {
-            double amount = exp.getAmount();
-            try {
-                if(!userConfig.getCurrency().equals("NONE")) {
-                    amount = converter.convert("USD", userConfig.getCurrency(),
-                            amount, exp.getDate().toInstant());
-                }
+        return getAmount(event, tag, toPreferredUnits(event));
+    }
 
-            } catch (CurrencyConverter.CurrencyConversionException ignored) {
-            } catch (ConnectException e) {
-                mainCtrl.handleServerNotFound();
-            }
+    /**
+     * @param event the current event
+     * @param tag the current tag
+     * @param units amount of each expense in minor units of the preferred currency
+     * @return the amount
+     */
+    private double getAmount(Event event, Tag tag, long[] units) {
+        long rez = 0;
+        List<Expense> expenses = event.getExpenses();
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense exp = expenses.get(i);
+            if (tag == null || exp.getType() == null || !exp.getType().equals(tag)) continue;
+            rez += units[i];
+        }
+        return (double) rez / Money.unitsPerMajor(userConfig.getCurrency());
+    }
 
-            if (tag != null && exp.getType() != null) {
-                if (exp.getType().equals(tag)) {
-                    rez += amount;
-                }
+    /**
+     * converts the amounts of all expenses to the preferred currency of the user at once,
+     * without a preferred currency the amounts stay in the base currency
+     * @param event the current event
+     * @return amount of each expense in minor units of the preferred currency,
+     * in the order of the expenses, 0 for amounts that cannot be converted
+     */
+    private long[] toPreferredUnits(Event event) {
+        List<Expense> expenses = event.getExpenses();
+        String preferedCurrency = userConfig.getCurrency();
+        long[] units = new long[expenses.size()];
+        if(preferedCurrency.equals("NONE")) {
+            for (int i = 0; i < units.length; i++) {
+                units[i] = expenses.get(i).getAmount().getMinorUnits();
             }
+            return units;
+        }
+        List<CurrencyConverter.Amount> amounts = expenses.stream()
+                .map(exp -> new CurrencyConverter.Amount(exp.getAmount().toDouble(),
+                        Money.BASE_CURRENCY, exp.getDate().toInstant()))
+                .toList();
+        try {
+            double[] converted = converter.convertAll(amounts, preferedCurrency);
+            for (int i = 0; i < units.length; i++) {
+                if(!Double.isNaN(converted[i]))
+                    units[i] = Money.of(converted[i], preferedCurrency).getMinorUnits();
+            }
+        } catch (CurrencyConverter.CurrencyConversionException ignored) {
+        } catch (ConnectException e) {
+            mainCtrl.handleServerNotFound();
         }
-        return rez;
+        return units;
     }
 
     /**
@@ -89,6 +89,15 @@ public class TagPageCtrl {
     }
 
 
+    /**
+     * Uses the event loaded again after changes were missed
+     *
+     * @param event the event as loaded from the server
+     */
+    public void reloadEvent(Event event) {
+        if (this.event != null) displayTagPage(event);
+    }
+
     /**
      * method for populating the tag list
      * @param event the current event
@@ -0,0 +1,114 @@
+package client.utils;
+
+import com.google.inject.Inject;
+import commons.Event;
+import commons.EventSummary;
+import javafx.application.Platform;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs requests of {@link ServerUtils} off the JavaFX application thread.
+ * <p>
+ * Every request runs on its own virtual thread, so a slow server never freezes the UI
+ * and independent requests wait for the server at the same time.
+ * The returned futures are completed on the JavaFX application thread,
+ * so callbacks attached to them may update the scene directly.
+ */
+public class AsyncServerUtils {
+    private final ServerUtils server;
+    private final Executor background;
+    private final Executor ui;
+
+    /**
+     * A request to the server
+     *
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    public interface ServerCall<T> {
+        /**
+         * @param server server to send the request to
+         * @return result of the request
+         * @throws ConnectException if the server cannot be reached
+         */
+        T call(ServerUtils server) throws ConnectException;
+    }
+
+    /**
+     * @param server server utils doing the requests
+     */
+    @Inject
+    public AsyncServerUtils(ServerUtils server) {
+        this(server, Executors.newVirtualThreadPerTaskExecutor(), Platform::runLater);
+    }
+
+    /**
+     * @param server server utils doing the requests
+     * @param background executor the requests run on
+     * @param ui executor the futures are completed on
+     */
+    public AsyncServerUtils(ServerUtils server, Executor background, Executor ui) {
+        this.server = server;
+        this.background = background;
+        this.ui = ui;
+    }
+
+    /**
+     * @param call request to run
+     * @param <T> type of the result
+     * @return future of the result, completed exceptionally if the request throws
+     */
+    public <T> CompletableFuture<T> supply(ServerCall<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        background.execute(() -> {
+            try {
+                T value = call.call(server);
+                ui.execute(() -> result.complete(value));
+            } catch (Exception e) {
+                ui.execute(() -> result.completeExceptionally(e));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @param id the id of the event to get
+     * @return future of the event, null if it does not exist
+     */
+    public CompletableFuture<Event> getEvent(String id) {
+        return supply(s -> s.getEvent(id));
+    }
+
+    /**
+     * The ids are sent in requests of at most {@value EventSummary#MAX_PER_REQUEST} ids,
+     * one after another
+     *
+     * @param ids the ids of the events
+     * @return future of the summaries of the events that exist, in the order of the ids
+     */
+    public CompletableFuture<List<EventSummary>> getEventSummaries(List<String> ids) {
+        return supply(s -> {
+            List<EventSummary> summaries = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += EventSummary.MAX_PER_REQUEST) {
+                summaries.addAll(s.getEventSummaries(
+                        ids.subList(i, Math.min(ids.size(), i + EventSummary.MAX_PER_REQUEST))));
+            }
+            return summaries;
+        });
+    }
+
+    /**
+     * @param password the admin password
+     * @param event the event to import
+     * @return future of the status code of the response
+     */
+    public CompletableFuture<Integer> importEvent(String password, Event event) {
+        return supply(s -> s.importEvent(password, event));
+    }
+}
@@ -0,0 +1,151 @@
+package client.utils;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Index of the participants and expenses of an event by id,
+ * so websocket changes find the entity they change without scanning the event.
+ * <p>
+ * The index keeps the position of every entity in the lists of the event.
+ * Lists changed without the store are noticed on the next lookup and indexed again.
+ */
+public class EventStore {
+    private final Event event;
+    private final LongIntMap participants;
+    private final LongIntMap expenses;
+
+    /**
+     * @param event event to index, changes to it should go through the store
+     */
+    public EventStore(Event event) {
+        this.event = event;
+        this.participants = new LongIntMap(event.getParticipants().size());
+        this.expenses = new LongIntMap(event.getExpenses().size());
+        index(participants, event.getParticipants(), Participant::getId);
+        index(expenses, event.getExpenses(), Expense::getId);
+    }
+
+    /**
+     * @return the indexed event
+     */
+    public Event getEvent() {
+        return event;
+    }
+
+    /**
+     * @param id id of the participant
+     * @return the participant of the event, null if there is none with the id
+     */
+    public Participant getParticipant(long id) {
+        int position = position(participants, event.getParticipants(), Participant::getId, id);
+        return position < 0 ? null : event.getParticipants().get(position);
+    }
+
+    /**
+     * @param id id of the expense
+     * @return the expense of the event, null if there is none with the id
+     */
+    public Expense getExpense(long id) {
+        int position = position(expenses, event.getExpenses(), Expense::getId, id);
+        return position < 0 ? null : event.getExpenses().get(position);
+    }
+
+    /**
+     * Events have few tags, they are not indexed
+     *
+     * @param id id of the tag
+     * @return the tag of the event, null if there is none with the id
+     */
+    public Tag getTag(long id) {
+        return event.getTags().stream().filter(t -> t.getId() == id).findFirst().orElse(null);
+    }
+
+    /**
+     * @param participant participant to add at the end of the event
+     */
+    public void addParticipant(Participant participant) {
+        participants.put(participant.getId(), event.getParticipants().size());
+        event.getParticipants().add(participant);
+    }
+
+    /**
+     * @param expense expense to add at the end of the event
+     */
+    public void addExpense(Expense expense) {
+        expenses.put(expense.getId(), event.getExpenses().size());
+        event.getExpenses().add(expense);
+    }
+
+    /**
+     * Takes the time of the number of participants after the removed one
+     *
+     * @param id id of the participant
+     * @return the removed participant, null if there is none with the id
+     */
+    public Participant removeParticipant(long id) {
+        return remove(participants, event.getParticipants(), Participant::getId, id);
+    }
+
+    /**
+     * Takes the time of the number of expenses after the removed one
+     *
+     * @param id id of the expense
+     * @return the removed expense, null if there is none with the id
+     */
+    public Expense removeExpense(long id) {
+        return remove(expenses, event.getExpenses(), Expense::getId, id);
+    }
+
+    /**
+     * @param index index to fill
+     * @param list entities of the event
+     * @param idOf id of an entity
+     * @param <T> type of the entities
+     */
+    private static <T> void index(LongIntMap index, List<T> list, ToLongFunction<T> idOf) {
+        index.clear();
+        for (int i = 0; i < list.size(); i++) index.put(idOf.applyAsLong(list.get(i)), i);
+    }
+
+    /**
+     * @param index index of the list
+     * @param list entities of the event
+     * @param idOf id of an entity
+     * @param id id to look up
+     * @param <T> type of the entities
+     * @return position of the entity in the list, -1 if it is not there
+     */
+    private static <T> int position(LongIntMap index, List<T> list,
+                                    ToLongFunction<T> idOf, long id) {
+        int position = index.get(id);
+        if (position >= 0 && position < list.size()
+                && idOf.applyAsLong(list.get(position)) == id) return position;
+        // the list was changed without the store
+        index(index, list, idOf);
+        return index.get(id);
+    }
+
+    /**
+     * @param index index of the list
+     * @param list entities of the event
+     * @param idOf id of an entity
+     * @param id id of the entity to remove
+     * @param <T> type of the entities
+     * @return the removed entity, null if it is not there
+     */
+    private static <T> T remove(LongIntMap index, List<T> list,
+                                ToLongFunction<T> idOf, long id) {
+        int position = position(index, list, idOf, id);
+        if (position < 0) return null;
+        T removed = list.remove(position);
+        index.remove(id);
+        for (int i = position; i < list.size(); i++) index.put(idOf.applyAsLong(list.get(i)), i);
+        return removed;
+    }
+}
@@ -0,0 +1,136 @@
+package client.utils;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to non-negative int values without boxing either.
+ * <p>
+ * Open addressing with linear probing, removal shifts the following entries back
+ * so lookups never have to skip deleted slots.
+ */
+final class LongIntMap {
+    static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * @param expected number of entries to make room for
+     */
+    LongIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * @param key key to look up
+     * @return the value of the key, {@link #MISSING} if there is none
+     */
+    int get(long key) {
+        int slot = find(key);
+        return slot < 0 ? MISSING : values[slot];
+    }
+
+    /**
+     * @param key key to set
+     * @param value value of the key, not negative
+     */
+    void put(long key, int value) {
+        int mask = keys.length - 1;
+        int slot = home(key);
+        while (used[slot] && keys[slot] != key) slot = (slot + 1) & mask;
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        if (size * 2 > keys.length) resize(keys.length * 2);
+    }
+
+    /**
+     * @param key key to remove, nothing happens if it is not there
+     */
+    void remove(long key) {
+        int free = find(key);
+        if (free < 0) return;
+        used[free] = false;
+        size--;
+        int mask = keys.length - 1;
+        for (int slot = (free + 1) & mask; used[slot]; slot = (slot + 1) & mask) {
+            // an entry stays if the free slot is not on its way from its home slot
+            if (isBetween(free, home(keys[slot]), slot)) continue;
+            keys[free] = keys[slot];
+            values[free] = values[slot];
+            used[free] = true;
+            used[slot] = false;
+            free = slot;
+        }
+    }
+
+    /**
+     * Removes all entries
+     */
+    void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * @return number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param key key to look up
+     * @return slot of the key, -1 if it is not there
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = home(key); used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * @param key key
+     * @return slot the probing for the key starts at
+     */
+    private int home(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+    }
+
+    /**
+     * @param from exclusive start of the range
+     * @param slot slot to check
+     * @param to inclusive end of the range, which may wrap around the end of the table
+     * @return true iff the slot lies in the range
+     */
+    private static boolean isBetween(int from, int slot, int to) {
+        return from <= to ? slot > from && slot <= to : slot > from || slot <= to;
+    }
+
+    /**
+     * @param capacity new number of slots, a power of two
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package client.utils;
+
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the round-trip time of every request to the server in a histogram per endpoint.
+ * <p>
+ * An endpoint is the method and the path with its ids replaced by {},
+ * so GET api/events/ABCDE and GET api/events/FGHIJ are counted together.
+ * Requests that fail before a response arrives are not recorded.
+ */
+public class RequestMetrics implements ClientRequestFilter, ClientResponseFilter {
+    /**
+     * Upper bounds of the buckets in milliseconds, the last bucket has no bound
+     */
+    public static final long[] BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+    private static final String START = RequestMetrics.class.getName() + ".start";
+
+    private final Map<String, AtomicLongArray> histograms;
+
+    /**
+     * Creates empty histograms
+     */
+    public RequestMetrics() {
+        this.histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param request request about to be sent
+     */
+    @Override
+    public void filter(ClientRequestContext request) {
+        request.setProperty(START, System.nanoTime());
+    }
+
+    /**
+     * @param request request that was sent
+     * @param response response that arrived
+     */
+    @Override
+    public void filter(ClientRequestContext request, ClientResponseContext response) {
+        if (!(request.getProperty(START) instanceof Long start)) return;
+        record(request.getMethod() + " " + endpoint(request.getUri().getPath()),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @param endpoint method and path of the endpoint
+     * @param millis round-trip time in milliseconds
+     */
+    public void record(String endpoint, long millis) {
+        int bucket = Arrays.binarySearch(BOUNDS, millis);
+        if (bucket < 0) bucket = -bucket - 1;
+        histograms.computeIfAbsent(endpoint, e -> new AtomicLongArray(BOUNDS.length + 1))
+                .incrementAndGet(bucket);
+    }
+
+    /**
+     * Replaces every path segment that is not a lowercase word,
+     * like event codes, numeric ids and dates, with {}
+     *
+     * @param path path of a request
+     * @return the path of its endpoint
+     */
+    public static String endpoint(String path) {
+        String[] segments = path.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            if (!segments[i].matches("[a-z]*")) segments[i] = "{}";
+        }
+        return String.join("/", segments);
+    }
+
+    /**
+     * @return the number of requests in each bucket of {@link #BOUNDS} by endpoint,
+     * sorted by endpoint
+     */
+    public Map<String, long[]> getHistograms() {
+        Map<String, long[]> result = new TreeMap<>();
+        histograms.forEach((endpoint, counts) -> {
+            long[] copy = new long[counts.length()];
+            for (int i = 0; i < copy.length; i++) copy[i] = counts.get(i);
+            result.put(endpoint, copy);
+        });
+        return result;
+    }
+
+    /**
+     * @param endpoint method and path of the endpoint
+     * @param percentile fraction of requests between 0 and 1
+     * @return upper bound in milliseconds of the bucket the percentile falls in,
+     * -1 if there were no requests, Long.MAX_VALUE if it is above the last bound
+     */
+    public long getPercentile(String endpoint, double percentile) {
+        AtomicLongArray counts = histograms.get(endpoint);
+        if (counts == null) return -1;
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+        if (total == 0) return -1;
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return BOUNDS[i];
+        }
+        return Long.MAX_VALUE;
+    }
+}
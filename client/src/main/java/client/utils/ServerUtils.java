@@ -14,6 +14,14 @@ public interface ServerUtils {
      */
     Event getEvent(String id) throws ConnectException;
 
+    /**
+     * Gets the summaries of many events in one request, without their participants and expenses
+     *
+     * @param ids the ids of the events
+     * @return summaries of the events that exist, in the order of the ids
+     */
+    List<EventSummary> getEventSummaries(List<String> ids) throws ConnectException;
+
     /**
      * @param event the new event to be created
      * @return the created entry in the db
@@ -94,6 +102,15 @@ public interface ServerUtils {
 
     int deleteExpense(long id, String eventID) throws ConnectException;
 
+    /**
+     * Applies all operations in one request, either all or none of them are applied
+     *
+     * @param eventID id of the event
+     * @param batch operations in the order they are applied
+     * @return the applied operations with the saved entities, null if the batch was refused
+     */
+    EventBatch applyBatch(String eventID, EventBatch batch) throws ConnectException;
+
     /**
      * Verify the input password
      *
@@ -103,21 +120,38 @@ public interface ServerUtils {
     boolean verifyPassword(String inputPassword) throws ConnectException;
 
     /**
-
-     * Sends an API call to server to get all events
+     * Gets one page of event summaries, full events are fetched with {@link #getEvent(String)}
      *
      * @param inputPassword the admin password
-     * @return all events
+     * @param page index of the page, starting at 0
+     * @param size number of events per page
+     * @param sort title, creationDate, lastActivity or participants
+     * @param descending true to sort in descending order
+     * @return the page of summaries or null if the request was refused
      */
-    List<Event> getEvents(String inputPassword) throws ConnectException;
+    EventSummaryPage getEventSummaries(String inputPassword, int page, int size,
+                                       String sort, boolean descending) throws ConnectException;
 
     /**
      * @param inputPassword the admin password
      * @param timeOut time in ms until server sends a time-out signal
-     * @return 204 if there is a change in the database, 408 if time-outed
+     * @param epoch epoch of the change feed the client has seen
+     * @param since sequence number of the change feed the client has seen
+     * @return 204 if there is a change in the database after since or the server restarted,
+     * 408 if time-outed
      */
 
-    int pollEvents(String inputPassword, Long timeOut) throws ConnectException;
+    int pollEvents(String inputPassword, Long timeOut, long epoch, long since)
+            throws ConnectException;
+
+    /**
+     * @param inputPassword the admin password
+     * @param epoch epoch of the change feed the client has seen
+     * @param since sequence number of the change feed the client has seen
+     * @return the events changed after since or null if the request was refused
+     */
+    EventChanges getEventChanges(String inputPassword, long epoch, long since)
+            throws ConnectException;
 
     /**
      * Sends an API call to add the event
@@ -20,11 +20,16 @@ import commons.*;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.GenericType;
 import jakarta.ws.rs.core.Response;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache5.connector.Apache5ClientProperties;
+import org.glassfish.jersey.apache5.connector.Apache5ConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
 
 import java.net.ConnectException;
 import java.util.List;
@@ -35,13 +40,37 @@ import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 public class ServerUtilsImpl implements ServerUtils {
 
     private final UserConfig userConfig;
+    private final RequestMetrics metrics;
+    private final Client client;
 
     /**
-     * @param userConfig user configuration with server url
+     * Builds the one client all requests are sent with, so its providers are set up once
+     * and connections to the server are kept alive and reused between requests
+     *
+     * @param userConfig user configuration with server url and connection settings
+     * @param metrics histograms the round-trip time of every request is recorded in
      */
     @Inject
-    public ServerUtilsImpl(UserConfig userConfig) {
+    public ServerUtilsImpl(UserConfig userConfig, RequestMetrics metrics) {
         this.userConfig = userConfig;
+        this.metrics = metrics;
+        // all requests go to the one server, so a route may use the whole pool
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+        connections.setMaxTotal(userConfig.getMaxConnections());
+        connections.setDefaultMaxPerRoute(userConfig.getMaxConnections());
+        this.client = ClientBuilder.newClient(new ClientConfig()
+                .connectorProvider(new Apache5ConnectorProvider())
+                .property(Apache5ClientProperties.CONNECTION_MANAGER, connections)
+                .property(ClientProperties.CONNECT_TIMEOUT, userConfig.getConnectTimeout())
+                .property(ClientProperties.READ_TIMEOUT, userConfig.getReadTimeout())
+                .register(metrics));
+    }
+
+    /**
+     * @return round-trip times of the requests sent so far
+     */
+    public RequestMetrics getMetrics() {
+        return metrics;
     }
 
     private String getPath() {
@@ -55,7 +84,7 @@ public class ServerUtilsImpl implements ServerUtils {
     @Override
     public Event getEvent(String id) {
         try{
-            return ClientBuilder.newClient(new ClientConfig())
+            return client
                     .target(getPath()).path("api/events/" + id)
                     .request(APPLICATION_JSON)
                     .accept(APPLICATION_JSON)
@@ -66,6 +95,28 @@ public class ServerUtilsImpl implements ServerUtils {
         }
     }
 
+    /**
+     * @param ids the ids of the events
+     * @return summaries of the events that exist, in the order of the ids
+     */
+    @Override
+    public List<EventSummary> getEventSummaries(List<String> ids) throws ConnectException {
+        if (ids.isEmpty()) return List.of();
+        try {
+            return client
+                    .target(getPath()).path("api/events/summaries")
+                    .queryParam("ids", ids.toArray())
+                    .request(APPLICATION_JSON)
+                    .accept(APPLICATION_JSON)
+                    .get(new GenericType<>() {});
+        } catch (ProcessingException e) {
+            if(e.getMessage().contains("Connection refused"))
+                throw (ConnectException) e.getCause();
+            else
+                throw new WebApplicationException();
+        }
+    }
+
     /**
      * @param event the new event to be created
      * @return the created entry in the db
@@ -73,7 +124,7 @@ public class ServerUtilsImpl implements ServerUtils {
     @Override
     public Event createEvent(Event event) throws ConnectException {
         try {
-            return ClientBuilder.newClient(new ClientConfig()) //
+            return client //
                     .target(getPath()).path("api/events") //
                     .request(APPLICATION_JSON) //
                     .accept(APPLICATION_JSON) //
@@ -86,6 +137,30 @@ public class ServerUtilsImpl implements ServerUtils {
         }
     }
 
+    /**
+     * Applies all operations in one request, either all or none of them are applied
+     *
+     * @param eventID id of the event
+     * @param batch operations in the order they are applied
+     * @return the applied operations with the saved entities, null if the batch was refused
+     */
+    @Override
+    public EventBatch applyBatch(String eventID, EventBatch batch) throws ConnectException {
+        try(Response response = client
+                .target(getPath()).path("api/events/" + eventID + "/batch")
+                .request(APPLICATION_JSON)
+                .accept(APPLICATION_JSON)
+                .post(Entity.entity(batch, APPLICATION_JSON))) {
+            if(response.getStatus() != Response.Status.OK.getStatusCode()) return null;
+            return response.readEntity(EventBatch.class);
+        } catch (ProcessingException e) {
+            if(e.getMessage().contains("Connection refused"))
+                throw (ConnectException) e.getCause();
+            else
+                throw new WebApplicationException();
+        }
+    }
+
     /**
      * Sends a delete request for event
      *
@@ -94,7 +169,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int deleteEvent(String id) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath()).path("api/events/" + id)
                 .request(APPLICATION_JSON)
                 .delete()) {
@@ -116,7 +191,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int createParticipant(String eventId, Participant participant) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath()).path("api/events/" + eventId + "/participants")
                 .request(APPLICATION_JSON)
                 .post(Entity.entity(participant, APPLICATION_JSON))) {
@@ -138,7 +213,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int updateParticipant(String eventId, Participant participant) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventId + "/participants/" + participant.getId())
                 .request(APPLICATION_JSON)
@@ -161,7 +236,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int deleteParticipant(String eventId, long participantId) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventId + "/participants/" + participantId)
                 .request(APPLICATION_JSON)
@@ -182,7 +257,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     public Expense getExpense(long id, String eventID) throws ConnectException {
         try {
-            return ClientBuilder.newClient(new ClientConfig())
+            return client
                     .target(getPath())
                     .path("api/events/" + eventID + "/expenses/" + id)
                     .request(APPLICATION_JSON)
@@ -202,7 +277,7 @@ public class ServerUtilsImpl implements ServerUtils {
      * @return status code
      */
     public int createExpense(String eventID, Expense expense) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventID + "/expenses")
                 .request(APPLICATION_JSON)
@@ -223,7 +298,7 @@ public class ServerUtilsImpl implements ServerUtils {
      * @return status code
      */
     public int updateExpense(long id, String eventID, Expense expense) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventID + "/expenses/" + id)
                 .request(APPLICATION_JSON)
@@ -243,7 +318,7 @@ public class ServerUtilsImpl implements ServerUtils {
      * @return status code
      */
     public int deleteExpense(long id, String eventID) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventID + "/expenses/" + id)
                 .request(APPLICATION_JSON)
@@ -264,7 +339,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public boolean verifyPassword(String inputPassword) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig()) //
+        try(Response response = client //
                 .target(getPath()).path("admin/verify") //
                 .request(APPLICATION_JSON) //
                 .accept(APPLICATION_JSON) //
@@ -280,20 +355,30 @@ public class ServerUtilsImpl implements ServerUtils {
 
 
     /**
-     * Sends an API call to server to get all events
+     * Gets one page of event summaries, full events are fetched with {@link #getEvent(String)}
      *
      * @param inputPassword the admin password
-     * @return all events
+     * @param page index of the page, starting at 0
+     * @param size number of events per page
+     * @param sort title, creationDate, lastActivity or participants
+     * @param descending true to sort in descending order
+     * @return the page of summaries
      */
     @Override
-    public List<Event> getEvents(String inputPassword) throws ConnectException {
+    public EventSummaryPage getEventSummaries(String inputPassword, int page, int size,
+                                              String sort, boolean descending)
+            throws ConnectException {
         try {
-            return ClientBuilder.newClient(new ClientConfig()) //
+            return client //
                     .target(getPath()).path("admin/events") //
+                    .queryParam("page", page)
+                    .queryParam("size", size)
+                    .queryParam("sort", sort)
+                    .queryParam("direction", descending ? "desc" : "asc")
                     .request(APPLICATION_JSON) //
                     .header("Authorization", inputPassword)
                     .accept(APPLICATION_JSON) //
-                    .get(new GenericType<>() {});
+                    .get(EventSummaryPage.class);
         } catch (ProcessingException e) {
             if(e.getMessage().contains("Connection refused"))
                 throw (ConnectException) e.getCause();
@@ -304,16 +389,25 @@ public class ServerUtilsImpl implements ServerUtils {
 
     /**
      * @param inputPassword admin password
+     * @param timeOut time in ms until server sends a time-out signal
+     * @param epoch epoch of the change feed the client has seen
+     * @param since sequence number of the change feed the client has seen
      * @return HTTP response - 204 if there is an update and 408 if not
      */
     @Override
-    public int pollEvents(String inputPassword, Long timeOut) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig()) //
+    public int pollEvents(String inputPassword, Long timeOut, long epoch, long since)
+            throws ConnectException {
+        try(Response response = client //
                 .target(getPath()).path("admin/events/poll") //
+                .queryParam("epoch", epoch)
+                .queryParam("since", since)
                 .request(APPLICATION_JSON) //
                 .header("Authorization", inputPassword)
                 .header("TimeOut", timeOut)
                 .accept(APPLICATION_JSON) //
+                // the server holds the request for up to timeOut before answering
+                .property(ClientProperties.READ_TIMEOUT,
+                        (int) (timeOut + userConfig.getReadTimeout()))
                 .get()) {
             return response.getStatus();
         } catch (ProcessingException e) {
@@ -326,6 +420,32 @@ public class ServerUtilsImpl implements ServerUtils {
         }
     }
 
+    /**
+     * @param inputPassword the admin password
+     * @param epoch epoch of the change feed the client has seen
+     * @param since sequence number of the change feed the client has seen
+     * @return the events changed after since
+     */
+    @Override
+    public EventChanges getEventChanges(String inputPassword, long epoch, long since)
+            throws ConnectException {
+        try {
+            return client //
+                    .target(getPath()).path("admin/events/changes") //
+                    .queryParam("epoch", epoch)
+                    .queryParam("since", since)
+                    .request(APPLICATION_JSON) //
+                    .header("Authorization", inputPassword)
+                    .accept(APPLICATION_JSON) //
+                    .get(EventChanges.class);
+        } catch (ProcessingException e) {
+            if(e.getMessage().contains("Connection refused"))
+                throw (ConnectException) e.getCause();
+            else
+                throw new WebApplicationException();
+        }
+    }
+
     /**
      * Sends an API call to add the event
      * The ids of expenses and participants gets reassigned so use the returned event!
@@ -336,7 +456,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int importEvent(String password, Event event) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath()).path("admin/events")
                 .request(APPLICATION_JSON)
                 .header("Authorization", password)
@@ -359,7 +479,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int updateEventTitle(Event event) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + event.getId())
                 .request(APPLICATION_JSON)
@@ -380,7 +500,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int addTransaction(String eventID, Transaction transaction) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventID + "/transactions")
                 .request(APPLICATION_JSON)
@@ -401,7 +521,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int removeTransaction(Transaction transaction) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + transaction.getEventID() +
                         "/transactions/" + transaction.getId())
@@ -423,7 +543,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int addTag(String eventID, Tag tag) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventID + "/tags")
                 .request(APPLICATION_JSON)
@@ -446,7 +566,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int updateTag(long id, String eventID, Tag tag) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventID + "/tags/" + id)
                 .request(APPLICATION_JSON)
@@ -468,7 +588,7 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public int deleteTag(long id, String eventID) throws ConnectException {
-        try(Response response = ClientBuilder.newClient(new ClientConfig())
+        try(Response response = client
                 .target(getPath())
                 .path("api/events/" + eventID + "/tags/" + id)
                 .request(APPLICATION_JSON)
@@ -490,21 +610,17 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public Map<String, Double> getExchangeRates(String date) throws ConnectException {
-        try {
-            Response response =  ClientBuilder.newClient(new ClientConfig())
-                    .target(getPath())
-                    .path("api/currency/" + date)
-                    .request(APPLICATION_JSON)
-                    .accept(APPLICATION_JSON).buildGet().invoke();
+        try (Response response = client
+                .target(getPath())
+                .path("api/currency/" + date)
+                .request(APPLICATION_JSON)
+                .accept(APPLICATION_JSON).buildGet().invoke()) {
 
             System.out.println(response.getStatus());
             if(response.getStatus() != Response.Status.OK.getStatusCode()) {
                 return Map.of("status", Double.parseDouble(String.valueOf(response.getStatus())));
             }
-            Map<String, Double> map = response.readEntity(new GenericType<>(){});
-            response.close();
-            return map;
-
+            return response.readEntity(new GenericType<>(){});
         } catch (ProcessingException e) {
             if(e.getMessage().contains("Connection refused"))
                 throw (ConnectException) e.getCause();
@@ -521,11 +637,10 @@ public class ServerUtilsImpl implements ServerUtils {
      */
     @Override
     public boolean ping(String url) {
-        try {
-            Response response = ClientBuilder.newClient(new ClientConfig())
-                    .target("http://" + url + "/")
-                    .path("ping")
-                    .request().get();
+        try (Response response = client
+                .target("http://" + url + "/")
+                .path("ping")
+                .request().get()) {
             return response.getStatus() == Response.Status.NO_CONTENT.getStatusCode();
         } catch (ProcessingException e) {
             return false;
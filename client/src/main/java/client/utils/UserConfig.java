@@ -163,6 +163,36 @@ public class UserConfig {
         }
     }
 
+    /**
+     * @return last known titles of the recent events by event code,
+     * empty if none are stored or they cannot be read
+     */
+    public Map<String, String> getRecentEventTitles() {
+        String titles = configProperties.getProperty("recentEventTitles", "");
+        if (titles.isEmpty()) return new HashMap<>();
+        try {
+            return new ObjectMapper().readerForMapOf(String.class).readValue(titles);
+        } catch (JsonProcessingException e) {
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Stores the titles, so the recent events can be shown before the server answers
+     *
+     * @param titles titles of the recent events by event code
+     */
+    public void setRecentEventTitles(Map<String, String> titles) {
+        if (titles.equals(getRecentEventTitles())) return;
+        try (BufferedWriter writer = new BufferedWriter(io.write())) {
+            configProperties.setProperty("recentEventTitles",
+                    new ObjectMapper().writeValueAsString(titles));
+            configProperties.store(writer, "Updated titles of recent events");
+        } catch (Exception e) {
+            System.out.println("Something went wrong while writing to the config file.");
+        }
+    }
+
     /**
      * @return currently set preferred currency
      */
@@ -218,6 +248,27 @@ public class UserConfig {
         callback = function;
     }
 
+    /**
+     * @return milliseconds to wait for a connection to the server, 5 seconds by default
+     */
+    public int getConnectTimeout() {
+        return Integer.parseInt(configProperties.getProperty("connectTimeout", "5000"));
+    }
+
+    /**
+     * @return milliseconds to wait for a response of the server, 30 seconds by default
+     */
+    public int getReadTimeout() {
+        return Integer.parseInt(configProperties.getProperty("readTimeout", "30000"));
+    }
+
+    /**
+     * @return most connections the client opens to the server at once, 10 by default
+     */
+    public int getMaxConnections() {
+        return Integer.parseInt(configProperties.getProperty("maxConnections", "10"));
+    }
+
     /**
      * Username of the mail address
      * @return mail password in the config file
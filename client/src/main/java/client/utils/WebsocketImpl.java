@@ -24,6 +24,10 @@ public class WebsocketImpl implements Websocket {
     private final EnumMap<WebsocketActions, List<Consumer<Object>>> functions;
     private final EnumMap<WebsocketActions, Consumer<Object>> pastMistakes;
     private final UserConfig userConfig;
+    private String eventID;
+    // seq header of the last frame of every server publishing to the subscription
+    private final Map<String, Long> lastSequences = new HashMap<>();
+    private EventStore eventStore;
 
     /**
      * Websocket client constructor
@@ -61,6 +65,8 @@ public class WebsocketImpl implements Websocket {
             throw new RuntimeException("Could not connect to server", e);
         }
         // Subscribe to specific event channel
+        this.eventID = eventID;
+        lastSequences.clear();
         stompSession.subscribe("/event/" + eventID, sessionHandler);
     }
 
@@ -104,48 +110,30 @@ public class WebsocketImpl implements Websocket {
         this.resetAction(WebsocketActions.ADD_PARTICIPANT);
         this.resetAction(WebsocketActions.REMOVE_PARTICIPANT);
 
+        EventStore store = storeOf(event);
         pastMistakes.put(WebsocketActions.UPDATE_PARTICIPANT, (Object part) -> {
             Participant p = (Participant) part;
-            int index = -1;
-            for (int i = 0; i < event.getParticipants().size(); i++) {
-                Participant curr = event.getParticipants().get(i);
-                if (curr.getId() == p.getId()) {
-                    index = i;
-                    break;
-                }
-            }
-            if (index == -1) {
+            Participant curr = store.getParticipant(p.getId());
+            if (curr == null) {
                 throw new RuntimeException("The updated participant's ID (" + p.getId() +
                         ") does not match with any ID's of the already existing participants");
             }
-            event.getParticipants().remove(index);
-            event.getParticipants().add(index, p);
-            //updates the participants in expenses
-            for(Expense expense : event.getExpenses()) {
-                linkExpenseParticipants(expense, event.getParticipants());
-            }
+            // the expenses keep referring to the same instance
+            copyParticipant(p, curr);
             updatePartCallback.accept(event);
         });
         pastMistakes.put(WebsocketActions.ADD_PARTICIPANT, (Object part) -> {
             Participant p = (Participant) part;
-            event.getParticipants().add(p);
+            store.addParticipant(p);
             addPartCallback.accept(event);
         });
         pastMistakes.put(WebsocketActions.REMOVE_PARTICIPANT, (Object part) -> {
             long partId = (long) part;
-            int index = -1;
-            for (int i = 0; i < event.getParticipants().size(); i++) {
-                Participant curr = event.getParticipants().get(i);
-                if (curr.getId() == partId) {
-                    index = i;
-                    break;
-                }
-            }
-            if (index == -1) {
+            if (store.removeParticipant(partId) == null) {
                 throw new RuntimeException("The deleted participant's ID (" + partId +
                         ") does not match with any ID's of the already existing participants");
             }
-            event.getParticipants().remove(index);
+            // the expenses the participant was split into came as changes earlier in the frame
             deletePartCallback.accept(event);
         });
     }
@@ -171,46 +159,29 @@ public class WebsocketImpl implements Websocket {
         this.resetAction(WebsocketActions.ADD_EXPENSE);
         this.resetAction(WebsocketActions.REMOVE_EXPENSE);
 
+        EventStore store = storeOf(event);
         pastMistakes.put(WebsocketActions.ADD_EXPENSE, (Object exp) -> {
             Expense expense = (Expense) exp;
-            linkExpenseParticipants(expense, event.getParticipants());
-            event.getExpenses().add(expense);
+            linkExpenseParticipants(expense, store);
+            store.addExpense(expense);
             addExpCallback.accept(event);
         });
         pastMistakes.put(WebsocketActions.UPDATE_EXPENSE, (Object exp) -> {
-            Expense expense = (Expense) exp;
-            int index = -1;
-            for (int i = 0; i < event.getExpenses().size(); i++) {
-                Expense curr = event.getExpenses().get(i);
-                if (curr.getId() == expense.getId()) {
-                    index = i;
-                    break;
-                }
-            }
-            if (index == -1) {
-                throw new RuntimeException("The updated expense's ID (" + expense.getId() +
+            ExpenseUpdate update = (ExpenseUpdate) exp;
+            Expense curr = store.getExpense(update.getId());
+            if (curr == null) {
+                throw new RuntimeException("The updated expense's ID (" + update.getId() +
                         ") does not match with any ID's of the already existing expenses");
             }
-            event.getExpenses().remove(index);
-            linkExpenseParticipants(expense, event.getParticipants());
-            event.getExpenses().add(index, expense);
+            update.applyTo(curr, store::getParticipant, store::getTag);
             updateExpCallback.accept(event);
         });
         pastMistakes.put(WebsocketActions.REMOVE_EXPENSE, (Object exp) -> {
             long expId = (long) exp;
-            int index = -1;
-            for (int i = 0; i < event.getExpenses().size(); i++) {
-                Expense curr = event.getExpenses().get(i);
-                if (curr.getId() == expId) {
-                    index = i;
-                    break;
-                }
-            }
-            if (index == -1) {
+            if (store.removeExpense(expId) == null) {
                 throw new RuntimeException("The deleted expense's ID (" + expId +
                         ") does not match with any ID's of the already existing expenses");
             }
-            event.getExpenses().remove(index);
             deleteExpCallback.accept(event);
         });
 
@@ -241,15 +212,37 @@ public class WebsocketImpl implements Websocket {
      * Makes the participants of an expense share the same instances as the participants of an event
      *
      * @param expense expense for which participants to link
-     * @param participants participant list from event
+     * @param store index of the event
+     */
+    private void linkExpenseParticipants(Expense expense, EventStore store) {
+        expense.setExpenseAuthor(Objects.requireNonNull(
+                store.getParticipant(expense.getExpenseAuthor().getId())));
+        expense.setExpenseParticipants(expense.getExpenseParticipants().stream()
+                .map(p -> store.getParticipant(p.getId())).filter(Objects::nonNull).toList());
+    }
+
+    /**
+     * The participant and expense listeners of the same event share one index
+     *
+     * @param event event the listeners are registered for
+     * @return index of the event
      */
-    private void linkExpenseParticipants(Expense expense, List<Participant> participants) {
-        expense.setExpenseAuthor(participants.stream()
-                .filter(p -> p.getId() == expense.getExpenseAuthor().getId())
-                .findFirst().orElseThrow());
-        List<Long> ids = expense.getExpenseParticipants().stream().map(Participant::getId).toList();
-        expense.setExpenseParticipants(participants.stream()
-                .filter(p -> ids.contains(p.getId())).toList());
+    private EventStore storeOf(Event event) {
+        if (eventStore == null || eventStore.getEvent() != event)
+            eventStore = new EventStore(event);
+        return eventStore;
+    }
+
+    /**
+     * @param from participant as sent by the server
+     * @param to participant of the event to update
+     */
+    private static void copyParticipant(Participant from, Participant to) {
+        to.setName(from.getName());
+        to.setEmailAddress(from.getEmailAddress());
+        to.setBeneficiary(from.getBeneficiary());
+        to.setAccountNumber(from.getAccountNumber());
+        to.setBic(from.getBic());
     }
 
     private class MyStompSessionHandler extends StompSessionHandlerAdapter {
@@ -258,10 +251,12 @@ public class WebsocketImpl implements Websocket {
                 "commons.Event", Event.class,
                 "commons.Participant", Participant.class,
                 "commons.Expense", Expense.class,
+                "commons.ExpenseUpdate", ExpenseUpdate.class,
                 "commons.Transaction", Transaction.class,
                 "java.lang.String", String.class,
                 "java.lang.Long", Long.class,
-                "commons.Tag", Tag.class));
+                "commons.Tag", Tag.class,
+                "commons.EventBatch", EventBatch.class));
 
         /**
          * Executes after successfully connecting to the server
@@ -292,18 +287,56 @@ public class WebsocketImpl implements Websocket {
             try {
                 WebsocketActions action = WebsocketActions
                         .valueOf(headers.get("action").getFirst());
+                boolean missed = missedFrames(headers);
                 // This is necessary to run the Javafx updates on the same
                 // thread as the app is run on, and not the WS thread
-                if(pastMistakes.containsKey(action))
-                    Platform.runLater(() -> pastMistakes.get(action).accept(payload));
-                functions.get(action)
-                        .forEach(consumer -> Platform.runLater(() -> consumer.accept(payload)));
+                if(action == WebsocketActions.BATCH) {
+                    // a batch carries the changes of many single messages,
+                    // they are handled in order in one update
+                    List<BatchOperation> operations = ((EventBatch) payload).getOperations();
+                    Platform.runLater(() -> operations.forEach(operation ->
+                            dispatch(operation.getAction(), operation.getPayload())));
+                } else {
+                    Platform.runLater(() -> dispatch(action, payload));
+                }
+                if (missed && action != WebsocketActions.DELETE_EVENT) {
+                    // the frame may not have applied to what the client has, load everything
+                    String resyncID = eventID;
+                    Platform.runLater(() -> dispatch(WebsocketActions.RESYNC, resyncID));
+                }
 
             } catch (IllegalArgumentException e) {
                 System.out.println("Server sent an unknown action");
             }
         }
 
+        /**
+         * Every server numbers its own frames, named by the origin header
+         *
+         * @param headers headers of the frame
+         * @return true iff the server sent frames between its last frame and this one
+         */
+        private boolean missedFrames(StompHeaders headers) {
+            String sequence = headers.getFirst("seq");
+            if (sequence == null) return false;
+            String origin = Objects.requireNonNullElse(headers.getFirst("origin"), "");
+            long current = Long.parseLong(sequence);
+            Long last = lastSequences.put(origin, current);
+            return last != null && current != last + 1;
+        }
+
+        /**
+         * Passes the payload to all listeners of the action
+         *
+         * @param action action of the change
+         * @param payload payload of the change
+         */
+        private void dispatch(WebsocketActions action, Object payload) {
+            if(pastMistakes.containsKey(action))
+                pastMistakes.get(action).accept(payload);
+            functions.get(action).forEach(consumer -> consumer.accept(payload));
+        }
+
         @Override
         public void handleException(@NonNull StompSession session, StompCommand command,
                                     @NonNull StompHeaders headers, @NonNull byte[] payload,
@@ -10,6 +10,8 @@ import java.net.ConnectException;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +43,16 @@ public class CurrencyConverter {
         this.languageConf = languageConf;
     }
 
+    /**
+     * An amount in some currency at some time
+     *
+     * @param amount amount in major units
+     * @param currency currency code of the amount
+     * @param time time of the amount, its day decides the rate
+     */
+    public record Amount(double amount, String currency, Instant time) {
+    }
+
     /**
      * @param from currency code to convert from
      * @param to currency to convert to
@@ -53,35 +65,98 @@ public class CurrencyConverter {
     public double convert(String from, String to, double amount, Instant time)
             throws CurrencyConversionException, ConnectException {
         try {
-            String date = DateTimeFormatter.ISO_DATE
-                    .format(time.atZone(ZoneOffset.UTC).toLocalDate());
-            Map<String, Double> rates = fileManager.get(date);
-            if(rates == null) {
-                rates = server.getExchangeRates(date); // fetch rates from server
-                if(rates.containsKey("status")) {
-                    Alert alert = new Alert(Alert.AlertType.ERROR,
-                            languageConf.get("Currency.IOError"));
-                    alert.setHeaderText(languageConf.get("unexpectedError"));
-                    java.awt.Toolkit.getDefaultToolkit().beep();
-                    alert.showAndWait();
-                    throw new CurrencyConversionException("Server error: " + rates.get("status"));
+            String date = toDate(time);
+            double rate = fileManager.getRate(date, from.toUpperCase(), to.toUpperCase());
+            if(!Double.isNaN(rate)) return amount * rate;
+
+            Map<String, Double> rates = fetchRates(date);
+            return amount * (rates.get(to.toUpperCase()) / rates.get(from.toUpperCase()));
+        } catch (ConnectException e) {
+            throw e;
+        } catch (IOException e) {
+            throw error("IO error");
+        }
+    }
+
+    /**
+     * Converts many amounts at once, the rates of each day are looked up once
+     * no matter how many amounts fall on that day
+     *
+     * @param amounts amounts to convert
+     * @param to currency to convert to
+     * @return the converted amounts in the order of the given ones,
+     * NaN for an amount whose currency has no rate
+     * @throws CurrencyConversionException the method will throw its own error pop-up
+     * @throws ConnectException if server is unavailable
+     */
+    public double[] convertAll(List<Amount> amounts, String to)
+            throws CurrencyConversionException, ConnectException {
+        double[] converted = new double[amounts.size()];
+        Map<String, List<Integer>> byDate = new HashMap<>();
+        for (int i = 0; i < amounts.size(); i++) {
+            byDate.computeIfAbsent(toDate(amounts.get(i).time()), d -> new ArrayList<>()).add(i);
+        }
+        String target = to.toUpperCase();
+        try {
+            for (Map.Entry<String, List<Integer>> day : byDate.entrySet()) {
+                Map<String, Double> rates = fileManager.get(day.getKey());
+                if(rates == null || !rates.containsKey(target)) rates = fetchRates(day.getKey());
+                Double toRate = rates.get(target);
+                for (int i : day.getValue()) {
+                    Amount amount = amounts.get(i);
+                    Double fromRate = rates.get(amount.currency().toUpperCase());
+                    converted[i] = toRate == null || fromRate == null
+                            ? Double.NaN : amount.amount() * (toRate / fromRate);
                 }
-                fileManager.add(rates, date); // cache the rates
             }
-            return amount * (rates.get(to.toUpperCase()) / rates.get(from.toUpperCase()));
         } catch (ConnectException e) {
             throw e;
         } catch (IOException e) {
-            Alert alert = new Alert(Alert.AlertType.ERROR,
-                    languageConf.get("Currency.IOError"));
-            alert.setHeaderText(languageConf.get("unexpectedError"));
-            java.awt.Toolkit.getDefaultToolkit().beep();
-            alert.showAndWait();
-            throw new CurrencyConversionException("IO error");
+            throw error("IO error");
         }
+        return converted;
+    }
+
+    /**
+     * @param time point in time
+     * @return its day in UTC, yyyy-mm-dd format
+     */
+    private static String toDate(Instant time) {
+        return DateTimeFormatter.ISO_DATE.format(time.atZone(ZoneOffset.UTC).toLocalDate());
     }
 
+    /**
+     * Fetches the rates of a day from the server and saves them
+     *
+     * @param date date of the rates, yyyy-mm-dd format
+     * @return the rates
+     * @throws IOException if the server cannot be reached or the rates cannot be saved
+     * @throws CurrencyConversionException if the server has no rates
+     */
+    private Map<String, Double> fetchRates(String date)
+            throws IOException, CurrencyConversionException {
+        Map<String, Double> rates = server.getExchangeRates(date); // fetch rates from server
+        if(rates.containsKey("status")) {
+            throw error("Server error: " + rates.get("status"));
+        }
+        fileManager.add(rates, date); // cache the rates
+        return rates;
+    }
 
+    /**
+     * Shows the error to the user
+     *
+     * @param message message of the exception
+     * @return the exception to throw
+     */
+    private CurrencyConversionException error(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR,
+                languageConf.get("Currency.IOError"));
+        alert.setHeaderText(languageConf.get("unexpectedError"));
+        java.awt.Toolkit.getDefaultToolkit().beep();
+        alert.showAndWait();
+        return new CurrencyConversionException(message);
+    }
 
     /**
      * @return get a set of
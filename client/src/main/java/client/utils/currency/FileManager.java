@@ -20,6 +20,19 @@ public interface FileManager {
      */
     Map<String, Double> get(String date) throws IOException;
 
+    /**
+     * @param date date of rates, yyyy-mm-dd format
+     * @param from currency code to convert from
+     * @param to currency code to convert to
+     * @return units of to per unit of from, NaN if the rates are not found
+     */
+    default double getRate(String date, String from, String to) throws IOException {
+        Map<String, Double> rates = get(date);
+        if(rates == null || !rates.containsKey(from) || !rates.containsKey(to))
+            return Double.NaN;
+        return rates.get(to) / rates.get(from);
+    }
+
     /**
      * @return list of available currencies from currencies.txt
      */
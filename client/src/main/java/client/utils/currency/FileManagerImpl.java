@@ -2,7 +2,6 @@ package client.utils.currency;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import javafx.scene.control.Alert;
 
 import java.io.File;
@@ -11,15 +10,21 @@ import java.io.IOException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 public class FileManagerImpl implements FileManager{
+    private static final String TABLE = "rates.bin";
+
     private final File rateDir;
     private final File currencies;
+    private final RateTable table;
 
     /**
-     * Constructs a file manager for exchange rates
+     * Constructs a file manager for exchange rates,
+     * all rates are kept in one memory-mapped table,
+     * rates saved one file per day by older versions are moved into it
      */
     public FileManagerImpl() {
         try {
@@ -33,6 +38,8 @@ public class FileManagerImpl implements FileManager{
             if(!currencies.exists() || !rateDir.exists()) {
                 throw new FileNotFoundException("Resource not found: client/rates");
             }
+            table = RateTable.open(new File(rateDir, TABLE).toPath(), getAvailableCurrencies());
+            table.importDayFiles(rateDir);
         } catch (Exception e) {
             Alert alert = new Alert(Alert.AlertType.ERROR,
                     e.getMessage() + ".\nIf the error persists, try reinstalling the app");
@@ -52,11 +59,7 @@ public class FileManagerImpl implements FileManager{
      */
     @Override
     public void add(Map<String, Double> rates, String date) throws IOException {
-        File file = new File(rateDir, date + ".txt");
-        if (!file.createNewFile()) return;
-
-        ObjectWriter writer = new ObjectMapper().writer().withDefaultPrettyPrinter();
-        writer.writeValue(file, rates);
+        table.put(LocalDate.parse(date), rates);
     }
 
     /**
@@ -64,12 +67,19 @@ public class FileManagerImpl implements FileManager{
      * @return rates, null if not found
      */
     @Override
-    public Map<String, Double> get(String date) throws IOException {
-        File file = new File(rateDir, date + ".txt");
-        if(!file.exists() || !file.isFile()) return null;
+    public Map<String, Double> get(String date) {
+        return table.get(LocalDate.parse(date));
+    }
 
-        ObjectReader reader = new ObjectMapper().reader().forType(Map.class);
-        return reader.readValue(file);
+    /**
+     * @param date date of rates, yyyy-mm-dd format
+     * @param from currency code to convert from
+     * @param to currency code to convert to
+     * @return units of to per unit of from, NaN if the rates are not found
+     */
+    @Override
+    public double getRate(String date, String from, String to) {
+        return table.getRate(LocalDate.parse(date), from, to);
     }
 
     /**
@@ -0,0 +1,287 @@
+package client.utils.currency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exchange rates of many days in one memory-mapped file.
+ * <p>
+ * The file is a header with the currency codes followed by a dense matrix,
+ * one row per day since the first day of the table and one column per currency.
+ * Each row starts with a marker that is set after the rates of the day are written,
+ * rates that are not known are 0.
+ * Looking up a rate reads two doubles at computed offsets, nothing is parsed.
+ * <p>
+ * The columns follow the currencies the table was created with,
+ * a table with other currencies is discarded and filled again.
+ */
+public class RateTable implements AutoCloseable {
+    private static final int MAGIC = 0x53525431;
+    private static final int CODE_BYTES = 4;
+    private static final int MIN_DAYS = 64;
+
+    private final FileChannel channel;
+    private final List<String> currencies;
+    private final Map<String, Integer> ordinals;
+    private final int headerSize;
+    private final int rowSize;
+    private MappedByteBuffer buffer;
+    private long firstDay;
+    private int days;
+
+    /**
+     * @param channel read and write channel of the file
+     * @param currencies currencies of the columns
+     */
+    private RateTable(FileChannel channel, List<String> currencies) {
+        this.channel = channel;
+        this.currencies = List.copyOf(currencies);
+        this.ordinals = new HashMap<>();
+        for (int i = 0; i < currencies.size(); i++) ordinals.put(currencies.get(i), i);
+        // magic, number of currencies and first day, padded so rows are aligned
+        int header = Integer.BYTES * 2 + Long.BYTES + currencies.size() * CODE_BYTES;
+        this.headerSize = (header + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+        this.rowSize = (currencies.size() + 1) * Double.BYTES;
+    }
+
+    /**
+     * Opens the table, creating it if the file does not exist
+     * or was created for other currencies
+     *
+     * @param file the table file
+     * @param currencies currencies of the columns
+     * @return the opened table
+     * @throws IOException if the file cannot be read or written
+     */
+    public static RateTable open(Path file, List<String> currencies) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        RateTable table = new RateTable(channel, currencies);
+        try {
+            table.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return table;
+    }
+
+    /**
+     * Maps an existing file, an empty or incompatible file is cleared
+     *
+     * @throws IOException if the file cannot be read or written
+     */
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size < headerSize || !hasHeader()) {
+            channel.truncate(0);
+            return;
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        firstDay = buffer.getLong(Integer.BYTES * 2);
+        days = (int) ((size - headerSize) / rowSize);
+    }
+
+    /**
+     * @return true iff the file starts with a header for the same currencies
+     * @throws IOException if the file cannot be read
+     */
+    private boolean hasHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != currencies.size())
+            return false;
+        for (int i = 0; i < currencies.size(); i++) {
+            if (!currencies.get(i).equals(readCode(header, i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param date day of the rates
+     * @param from currency code to convert from
+     * @param to currency code to convert to
+     * @return units of to per unit of from, NaN if the rates of the day are not known
+     */
+    public synchronized double getRate(LocalDate date, String from, String to) {
+        int row = row(date);
+        Integer fromColumn = ordinals.get(from);
+        Integer toColumn = ordinals.get(to);
+        if (row < 0 || fromColumn == null || toColumn == null) return Double.NaN;
+        double fromRate = buffer.getDouble(row + (fromColumn + 1) * Double.BYTES);
+        double toRate = buffer.getDouble(row + (toColumn + 1) * Double.BYTES);
+        if (fromRate == 0 || toRate == 0) return Double.NaN;
+        return toRate / fromRate;
+    }
+
+    /**
+     * @param date day of the rates
+     * @return units of each currency per USD, null if the rates of the day are not known
+     */
+    public synchronized Map<String, Double> get(LocalDate date) {
+        int row = row(date);
+        if (row < 0) return null;
+        Map<String, Double> rates = new HashMap<>();
+        for (int i = 0; i < currencies.size(); i++) {
+            double rate = buffer.getDouble(row + (i + 1) * Double.BYTES);
+            if (rate != 0) rates.put(currencies.get(i), rate);
+        }
+        return rates;
+    }
+
+    /**
+     * @param date day of the rates
+     * @return position of the row of the day, -1 if its rates are not known
+     */
+    private int row(LocalDate date) {
+        long offset = date.toEpochDay() - firstDay;
+        if (buffer == null || offset < 0 || offset >= days) return -1;
+        int row = headerSize + (int) offset * rowSize;
+        return buffer.getDouble(row) == 0 ? -1 : row;
+    }
+
+    /**
+     * Writes the rates of a day, currencies that are not columns of the table are left out
+     *
+     * @param date day of the rates
+     * @param rates units of each currency per USD
+     * @throws IOException if the file cannot be grown
+     */
+    public synchronized void put(LocalDate date, Map<String, Double> rates) throws IOException {
+        ensureRow(date.toEpochDay());
+        int row = headerSize + (int) (date.toEpochDay() - firstDay) * rowSize;
+        for (Map.Entry<String, Double> rate : rates.entrySet()) {
+            Integer column = ordinals.get(rate.getKey());
+            if (column != null && rate.getValue() != null)
+                buffer.putDouble(row + (column + 1) * Double.BYTES, rate.getValue());
+        }
+        // set last so a row is never seen half written
+        buffer.putDouble(row, 1);
+    }
+
+    /**
+     * Grows the file so it has a row for the day,
+     * rows are added at the end or, for days before the first day, moved back
+     *
+     * @param day epoch day that needs a row
+     * @throws IOException if the file cannot be grown
+     */
+    private void ensureRow(long day) throws IOException {
+        if (buffer == null) {
+            firstDay = day;
+            days = 0;
+            map(MIN_DAYS);
+            writeHeader();
+        } else if (day < firstDay) {
+            int shift = (int) Math.max(firstDay - day, MIN_DAYS);
+            byte[] rows = new byte[days * rowSize];
+            buffer.get(headerSize, rows);
+            int oldDays = days;
+            map(days + shift);
+            buffer.put(headerSize + shift * rowSize, rows);
+            buffer.put(headerSize, new byte[Math.min(shift, oldDays) * rowSize]);
+            firstDay -= shift;
+            buffer.putLong(Integer.BYTES * 2, firstDay);
+        } else if (day - firstDay >= days) {
+            map((int) Math.max(day - firstDay + 1, days * 2L));
+        }
+    }
+
+    /**
+     * @param newDays number of rows of the grown file
+     * @throws IOException if the file cannot be grown
+     */
+    private void map(int newDays) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                headerSize + (long) newDays * rowSize);
+        days = newDays;
+    }
+
+    /**
+     * Writes the header of a new table
+     */
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(Integer.BYTES, currencies.size());
+        buffer.putLong(Integer.BYTES * 2, firstDay);
+        for (int i = 0; i < currencies.size(); i++) {
+            byte[] code = currencies.get(i).getBytes(StandardCharsets.US_ASCII);
+            buffer.put(Integer.BYTES * 2 + Long.BYTES + i * CODE_BYTES, code, 0,
+                    Math.min(code.length, CODE_BYTES));
+        }
+    }
+
+    /**
+     * @param header header of a table
+     * @param index column of the currency
+     * @return the code of the currency
+     */
+    private static String readCode(ByteBuffer header, int index) {
+        byte[] code = new byte[CODE_BYTES];
+        header.get(Integer.BYTES * 2 + Long.BYTES + index * CODE_BYTES, code);
+        int length = 0;
+        while (length < CODE_BYTES && code[length] != 0) length++;
+        return new String(code, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Moves the rates of the older one-file-per-day format into the table.
+     * Files named yyyy-mm-dd.txt with a JSON map of rates are imported and then deleted.
+     *
+     * @param dir directory of the files
+     * @return number of days imported
+     * @throws IOException if a file cannot be read or deleted
+     */
+    public synchronized int importDayFiles(File dir) throws IOException {
+        File[] files = dir.listFiles((d, name) -> name.matches("\\d{4}-\\d{2}-\\d{2}\\.txt"));
+        if (files == null) return 0;
+        ObjectReader reader = new ObjectMapper().readerFor(Map.class);
+        List<File> imported = new ArrayList<>();
+        for (File file : files) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(file.getName().substring(0, 10));
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            Map<String, Object> rates = reader.readValue(file);
+            Map<String, Double> doubles = new HashMap<>();
+            rates.forEach((code, rate) -> {
+                if (rate instanceof Number number) doubles.put(code, number.doubleValue());
+            });
+            put(date, doubles);
+            imported.add(file);
+        }
+        if (buffer != null) buffer.force();
+        for (File file : imported) Files.delete(file.toPath());
+        return imported.size();
+    }
+
+    /**
+     * Writes everything to disk and closes the file
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (buffer != null) buffer.force();
+        channel.close();
+    }
+}
@@ -50,6 +50,15 @@ public class TestMainCtrl implements MainCtrlInterface {
         scenes.add("StartScreen");
     }
 
+    /**
+     * Replaces the event in every scene that holds it
+     * @param event the event as loaded from the server
+     */
+    @Override
+    public void reloadEvent(Event event) {
+        scenes.add("ReloadEvent");
+    }
+
     /**
      * Shows the change
      *
@@ -7,6 +7,7 @@ import client.utils.LanguageConf;
 import client.utils.UserConfig;
 import client.utils.currency.CurrencyConverter;
 import commons.Event;
+import commons.Money;
 import commons.Participant;
 import commons.Transaction;
 import commons.WebsocketActions;
@@ -140,7 +141,7 @@ class AddCustomTransactionCtrlTest {
         assertTrue(server.getCalls().contains("addTransaction"));
         Transaction saved = event.getTransactions().getFirst();
         double expected = converter.convert("EUR", "USD",  1, saved.getDate().toInstant());
-        assertEquals(expected, saved.getAmount());
+        assertEquals(Money.of(expected, "USD"), saved.getAmount());
     }
 
     @Test
@@ -250,7 +251,7 @@ class AddCustomTransactionCtrlTest {
         waitForFxEvents();
         assertTrue(server.getCalls().contains("addTransaction"));
         assertFalse(event.getTransactions().isEmpty());
-        assertEquals(1, event.getTransactions().getFirst().getAmount());
+        assertEquals(1, event.getTransactions().getFirst().getAmount().toDouble());
     }
 
     @Test
@@ -2,6 +2,7 @@ package client.scenes;
 
 import client.MyFXML;
 import client.components.EventListItemAdmin;
+import client.utils.AsyncServerUtils;
 import client.utils.LanguageConf;
 import client.utils.UserConfig;
 import commons.Event;
@@ -47,7 +48,9 @@ public class AdminOverviewCtrlTest {
         var adminOverviewLoader = new FXMLLoader(MyFXML.class.getClassLoader()
                 .getResource("client/scenes/AdminOverview.fxml"),
                 languageConf.getLanguageResources(), null,
-                (type) -> new AdminOverviewCtrl(server, mainCtrl, userConfig, languageConf),
+                (type) -> new AdminOverviewCtrl(server,
+                        new AsyncServerUtils(server, Runnable::run, Runnable::run),
+                        mainCtrl, userConfig, languageConf),
                 StandardCharsets.UTF_8);
         scene = new Scene(adminOverviewLoader.load());
         ctrl = adminOverviewLoader.getController();
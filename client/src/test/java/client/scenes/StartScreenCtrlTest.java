@@ -3,6 +3,7 @@ package client.scenes;
 
 import client.MyFXML;
 import client.TestMainCtrl;
+import client.utils.AsyncServerUtils;
 import client.utils.LanguageConf;
 import client.utils.UserConfig;
 import commons.Event;
@@ -54,7 +55,9 @@ public class StartScreenCtrlTest {
         var startScreenPageLoader = new FXMLLoader(MyFXML.class.getClassLoader()
                 .getResource("client/scenes/StartScreen.fxml"),
                 languageConf.getLanguageResources(), null,
-                (type) -> new StartScreenCtrl(server, mainCtrl, languageConf, userConfig),
+                (type) -> new StartScreenCtrl(server,
+                        new AsyncServerUtils(server, Runnable::run, Runnable::run),
+                        mainCtrl, languageConf, userConfig),
                 StandardCharsets.UTF_8);
         scene = new Scene(startScreenPageLoader.load());
         startScreenCtrl = startScreenPageLoader.getController();
@@ -0,0 +1,88 @@
+package client.utils;
+
+import commons.Event;
+import commons.EventSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.TestServerUtils;
+import utils.TestWebsocket;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncServerUtilsTest {
+    TestServerUtils server;
+    List<Runnable> uiTasks;
+    AsyncServerUtils async;
+
+    @BeforeEach
+    void setUp() {
+        server = new TestServerUtils(new TestWebsocket());
+        uiTasks = new ArrayList<>();
+        async = new AsyncServerUtils(server, Runnable::run, uiTasks::add);
+    }
+
+    /**
+     * Runs the tasks waiting for the UI thread
+     */
+    private void runUiTasks() {
+        List<Runnable> tasks = List.copyOf(uiTasks);
+        uiTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void completesOnUiExecutor() {
+        Event event = server.createEvent(new Event("Party"));
+        CompletableFuture<Event> future = async.getEvent(event.getId());
+        assertFalse(future.isDone());
+
+        runUiTasks();
+        assertEquals("Party", future.join().getTitle());
+    }
+
+    @Test
+    void getEventSummaries() {
+        Event first = server.createEvent(new Event("First"));
+        Event second = server.createEvent(new Event("Second"));
+        CompletableFuture<List<EventSummary>> future =
+                async.getEventSummaries(List.of(second.getId(), "ZZZZZ", first.getId()));
+        runUiTasks();
+
+        assertEquals(List.of("Second", "First"),
+                future.join().stream().map(EventSummary::getTitle).toList());
+        assertEquals(List.of("createEvent", "createEvent", "getEventSummaries"),
+                server.getCalls());
+    }
+
+    @Test
+    void getEventSummariesInChunks() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2 * EventSummary.MAX_PER_REQUEST + 50; i++) {
+            ids.add(server.createEvent(new Event("Event " + i)).getId());
+        }
+        CompletableFuture<List<EventSummary>> future = async.getEventSummaries(ids);
+        runUiTasks();
+
+        assertEquals(ids.size(), future.join().size());
+        assertEquals("Event 0", future.join().getFirst().getTitle());
+        assertEquals(3, server.getCalls().stream()
+                .filter("getEventSummaries"::equals).count());
+    }
+
+    @Test
+    void failureIsPassedOn() {
+        CompletableFuture<Event> future = async.supply(s -> {
+            throw new ConnectException();
+        });
+        runUiTasks();
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(ConnectException.class, e.getCause());
+    }
+}
@@ -0,0 +1,88 @@
+package client.utils;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventStoreTest {
+    private static final int EXPENSES = 50_000;
+
+    private Event event;
+    private EventStore store;
+
+    @BeforeEach
+    void setUp() {
+        List<Participant> participants = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            Participant participant = new Participant("p" + id);
+            participant.setId(id);
+            participants.add(participant);
+        }
+        List<Expense> expenses = new ArrayList<>();
+        for (long id = 1; id <= EXPENSES; id++) {
+            Expense expense = new Expense(participants.get((int) (id % 100)), "e" + id, 1, "EUR",
+                    List.of(participants.getFirst()), null);
+            expense.setId(id);
+            expenses.add(expense);
+        }
+        event = new Event("trip", participants, expenses);
+        Tag tag = new Tag("food", "#00FF00");
+        tag.setId(3);
+        event.getTags().add(tag);
+        store = new EventStore(event);
+    }
+
+    @Test
+    void lookupById() {
+        assertEquals("p42", store.getParticipant(42).getName());
+        assertEquals("e31415", store.getExpense(31415).getPurpose());
+        assertEquals("food", store.getTag(3).getName());
+        assertNull(store.getExpense(EXPENSES + 1));
+        assertNull(store.getParticipant(0));
+    }
+
+    @Test
+    void removeKeepsOrderAndIndex() {
+        assertEquals("e2", store.removeExpense(2).getPurpose());
+        assertNull(store.removeExpense(2));
+        assertEquals(EXPENSES - 1, event.getExpenses().size());
+        assertEquals(3, event.getExpenses().get(1).getId());
+        assertEquals("e50000", store.getExpense(EXPENSES).getPurpose());
+    }
+
+    @Test
+    void addIsFound() {
+        Participant added = new Participant("new");
+        added.setId(500);
+        store.addParticipant(added);
+        assertSame(added, store.getParticipant(500));
+        assertSame(added, event.getParticipants().getLast());
+    }
+
+    @Test
+    void listsChangedElsewhereAreIndexedAgain() {
+        Expense first = event.getExpenses().removeFirst();
+        event.getExpenses().add(first);
+        assertSame(first, store.getExpense(1));
+        assertEquals(2, store.getExpense(2).getId());
+    }
+
+    @Test
+    void manyUpdatesOnLargeEvent() {
+        // every expense is looked up and removed by id, a scan per change would take minutes
+        for (long id = EXPENSES; id > 0; id -= 2) {
+            store.getExpense(id).setPurpose("updated");
+            assertNotNull(store.removeExpense(id - 1));
+        }
+        assertEquals(EXPENSES / 2, event.getExpenses().size());
+        assertEquals("updated", store.getExpense(2).getPurpose());
+    }
+}
@@ -0,0 +1,50 @@
+package client.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntMapTest {
+
+    @Test
+    void putGetRemove() {
+        LongIntMap map = new LongIntMap(0);
+        map.put(-5, 1);
+        map.put(Long.MAX_VALUE, 2);
+        map.put(-5, 3);
+        assertEquals(2, map.size());
+        assertEquals(3, map.get(-5));
+        assertEquals(LongIntMap.MISSING, map.get(7));
+
+        map.remove(-5);
+        map.remove(7);
+        assertEquals(1, map.size());
+        assertEquals(LongIntMap.MISSING, map.get(-5));
+        assertEquals(2, map.get(Long.MAX_VALUE));
+    }
+
+    @Test
+    void sameAsHashMap() {
+        Random random = new Random(42);
+        LongIntMap map = new LongIntMap(16);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            // few distinct keys, so removals often shift colliding entries
+            long key = random.nextInt(2000) * 1024L;
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 2000 * 1024L; key += 1024)
+            assertEquals(expected.getOrDefault(key, LongIntMap.MISSING), map.get(key));
+    }
+}
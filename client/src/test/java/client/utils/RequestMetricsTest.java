@@ -0,0 +1,46 @@
+package client.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMetricsTest {
+
+    @Test
+    void endpointReplacesIds() {
+        assertEquals("/api/events/{}/expenses/{}",
+                RequestMetrics.endpoint("/api/events/ABCDE/expenses/12"));
+        assertEquals("/api/currency/{}", RequestMetrics.endpoint("/api/currency/2024-03-01"));
+        assertEquals("/admin/events/poll", RequestMetrics.endpoint("/admin/events/poll"));
+    }
+
+    @Test
+    void recordFillsBuckets() {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.record("GET /api/events/{}", 0);
+        metrics.record("GET /api/events/{}", 7);
+        metrics.record("GET /api/events/{}", 10);
+        metrics.record("GET /api/events/{}", 60_000);
+
+        Map<String, long[]> histograms = metrics.getHistograms();
+        long[] counts = histograms.get("GET /api/events/{}");
+        assertEquals(RequestMetrics.BOUNDS.length + 1, counts.length);
+        assertEquals(1, counts[0]);
+        assertEquals(2, counts[3]);
+        assertEquals(1, counts[RequestMetrics.BOUNDS.length]);
+    }
+
+    @Test
+    void percentile() {
+        RequestMetrics metrics = new RequestMetrics();
+        assertEquals(-1, metrics.getPercentile("GET /ping", 0.5));
+        for (int i = 0; i < 9; i++) metrics.record("GET /ping", 3);
+        metrics.record("GET /ping", 150);
+
+        assertEquals(5, metrics.getPercentile("GET /ping", 0.5));
+        assertEquals(5, metrics.getPercentile("GET /ping", 0.9));
+        assertEquals(200, metrics.getPercentile("GET /ping", 0.99));
+    }
+}
@@ -0,0 +1,77 @@
+package client.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.TestIO;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerUtilsImplTest {
+    HttpServer httpServer;
+    ExecutorService threads;
+    Set<Integer> clientPorts;
+    ServerUtilsImpl server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        threads = Executors.newFixedThreadPool(8);
+        clientPorts = ConcurrentHashMap.newKeySet();
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.setExecutor(threads);
+        httpServer.createContext("/api/events/summaries", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.start();
+        server = new ServerUtilsImpl(new UserConfig(new TestIO(
+                "serverURL=localhost:" + httpServer.getAddress().getPort()
+                + "\nmaxConnections=2")), new RequestMetrics());
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpServer.stop(0);
+        threads.shutdown();
+    }
+
+    @Test
+    void connectionIsReused() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(List.of(), server.getEventSummaries(List.of("ABCDE")));
+        }
+        assertEquals(1, clientPorts.size());
+        // the pool belongs to the client, other connections in the JVM are left alone
+        assertNull(System.getProperty("http.maxConnections"));
+    }
+
+    @Test
+    void poolLimitsConnections() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                calls.add(callers.submit(() -> server.getEventSummaries(List.of("ABCDE"))));
+            }
+            for (Future<?> call : calls) call.get();
+        } finally {
+            callers.shutdown();
+        }
+        assertTrue(clientPorts.size() <= 2, clientPorts.toString());
+    }
+}
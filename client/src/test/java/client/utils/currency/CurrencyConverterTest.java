@@ -12,6 +12,7 @@ import utils.TestWebsocket;
 import java.io.IOException;
 import java.net.ConnectException;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -75,4 +76,30 @@ class CurrencyConverterTest {
         converter.convert("EUR", "USD", 10, Instant.EPOCH);
         assertEquals(1, fileManager.getCache().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void convertAllLoadsEachDayOnce() throws CurrencyConverter.CurrencyConversionException, ConnectException {
+        Instant day = Instant.EPOCH;
+        Instant nextDay = day.plus(1, ChronoUnit.DAYS);
+        List<CurrencyConverter.Amount> amounts = List.of(
+                new CurrencyConverter.Amount(10, "EUR", day),
+                new CurrencyConverter.Amount(20, "GBP", nextDay),
+                new CurrencyConverter.Amount(30, "EUR", day.plus(1, ChronoUnit.HOURS)),
+                new CurrencyConverter.Amount(40, "XYZ", day));
+
+        double[] converted = converter.convertAll(amounts, "USD");
+
+        assertEquals(2, server.getCalls().stream().filter(c -> c.contains("getExchangeRates")).count());
+        assertEquals(2, fileManager.getCache().size());
+        assertEquals(converter.convert("EUR", "USD", 10, day), converted[0], 1e-9);
+        assertEquals(converter.convert("GBP", "USD", 20, nextDay), converted[1], 1e-9);
+        assertEquals(3 * converted[0], converted[2], 1e-9);
+        assertTrue(Double.isNaN(converted[3]));
+    }
+
+    @Test
+    void convertAllEmpty() throws CurrencyConverter.CurrencyConversionException, ConnectException {
+        assertEquals(0, converter.convertAll(List.of(), "USD").length);
+        assertFalse(server.getCalls().contains("getExchangeRates"));
+    }
+}
@@ -0,0 +1,102 @@
+package client.utils.currency;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateTableTest {
+    private static final List<String> CURRENCIES = List.of("EUR", "GBP", "USD", "CHF");
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    @TempDir
+    Path dir;
+
+    private RateTable open() throws IOException {
+        return RateTable.open(dir.resolve("rates.bin"), CURRENCIES);
+    }
+
+    @Test
+    void unknownDays() throws IOException {
+        try (RateTable table = open()) {
+            assertTrue(Double.isNaN(table.getRate(DAY, "EUR", "USD")));
+            assertNull(table.get(DAY));
+        }
+    }
+
+    @Test
+    void putAndGet() throws IOException {
+        try (RateTable table = open()) {
+            table.put(DAY, Map.of("EUR", 0.5, "USD", 1.0, "BTC", 0.00001));
+            assertEquals(2.0, table.getRate(DAY, "EUR", "USD"));
+            assertEquals(0.5, table.getRate(DAY, "USD", "EUR"));
+            assertEquals(Map.of("EUR", 0.5, "USD", 1.0), table.get(DAY));
+            // not part of the rates of the day or not a column
+            assertTrue(Double.isNaN(table.getRate(DAY, "GBP", "USD")));
+            assertTrue(Double.isNaN(table.getRate(DAY, "BTC", "USD")));
+            assertNull(table.get(DAY.plusDays(1)));
+        }
+    }
+
+    @Test
+    void growsInBothDirections() throws IOException {
+        try (RateTable table = open()) {
+            table.put(DAY, Map.of("EUR", 0.5, "USD", 1.0));
+            table.put(DAY.plusDays(1000), Map.of("EUR", 0.6, "USD", 1.0));
+            table.put(DAY.minusDays(3000), Map.of("EUR", 0.7, "USD", 1.0));
+            table.put(DAY.minusDays(1), Map.of("EUR", 0.8, "USD", 1.0));
+
+            assertEquals(0.5, table.get(DAY).get("EUR"));
+            assertEquals(0.6, table.get(DAY.plusDays(1000)).get("EUR"));
+            assertEquals(0.7, table.get(DAY.minusDays(3000)).get("EUR"));
+            assertEquals(0.8, table.get(DAY.minusDays(1)).get("EUR"));
+            assertNull(table.get(DAY.minusDays(2)));
+        }
+    }
+
+    @Test
+    void persistsAcrossOpens() throws IOException {
+        try (RateTable table = open()) {
+            table.put(DAY, Map.of("EUR", 0.5, "USD", 1.0));
+            table.put(DAY.minusDays(100), Map.of("EUR", 0.4, "USD", 1.0));
+        }
+        try (RateTable table = open()) {
+            assertEquals(2.0, table.getRate(DAY, "EUR", "USD"));
+            assertEquals(2.5, table.getRate(DAY.minusDays(100), "EUR", "USD"));
+        }
+    }
+
+    @Test
+    void otherCurrenciesDiscardTheTable() throws IOException {
+        try (RateTable table = open()) {
+            table.put(DAY, Map.of("EUR", 0.5, "USD", 1.0));
+        }
+        try (RateTable table = RateTable.open(dir.resolve("rates.bin"),
+                List.of("USD", "EUR"))) {
+            assertNull(table.get(DAY));
+        }
+    }
+
+    @Test
+    void importsDayFiles() throws IOException {
+        Files.writeString(dir.resolve("2024-03-10.txt"), """
+                {
+                  "EUR" : 0.5,
+                  "USD" : 1
+                }""");
+        Files.writeString(dir.resolve("currencies.txt"), "[\"EUR\"]");
+        try (RateTable table = open()) {
+            assertEquals(1, table.importDayFiles(dir.toFile()));
+            assertEquals(2.0, table.getRate(DAY, "EUR", "USD"));
+        }
+        assertFalse(Files.exists(dir.resolve("2024-03-10.txt")));
+        assertTrue(Files.exists(dir.resolve("currencies.txt")));
+    }
+}
@@ -12,7 +12,9 @@ public class TestServerUtils implements ServerUtils {
 
     private final List<Event> events;
     private int counter;
-    private Date lastChange;
+    private volatile long epoch;
+    private volatile long sequence;
+    private final List<String> deletedEvents = new ArrayList<>();
     private final List<String> calls;
     private final Set<Integer> concurrentStatuses;
     private final List<Integer> statuses;
@@ -22,13 +24,12 @@ public class TestServerUtils implements ServerUtils {
 
     /**
      * constructor
-     * sets the counter for setting ids to 1 and the date to current time
+     * sets the counter for setting ids to 1
      * @param websocket the websocket to use
      */
     public TestServerUtils(TestWebsocket websocket) {
         events = new ArrayList<>();
         counter = 1;
-        lastChange = new Date();
         calls = new ArrayList<>();
         statuses = new ArrayList<>();
         polled = false;
@@ -86,6 +87,18 @@ public class TestServerUtils implements ServerUtils {
         return event;
     }
 
+    /**
+     * @param ids the ids of the events
+     * @return summaries of the events that exist, in the order of the ids
+     */
+    @Override
+    public List<EventSummary> getEventSummaries(List<String> ids) {
+        calls.add("getEventSummaries");
+        statuses.add(200);
+        return ids.stream().flatMap(id -> events.stream().filter(e -> e.getId().equals(id)))
+                .map(EventSummary::of).toList();
+    }
+
     /**
      * @param event the new event to be created
      * @return the created entry in the db, null if error
@@ -101,7 +114,7 @@ public class TestServerUtils implements ServerUtils {
         clone.setId(Integer.toString(counter++));
         clone.setLastActivity(new Date());
         events.add(clone);
-        lastChange = new Date();
+        sequence++;
         statuses.add(200);
         return clone;
     }
@@ -117,8 +130,8 @@ public class TestServerUtils implements ServerUtils {
         calls.add("deleteEvent");
         for (int i = 0; i < events.size(); i++) {
             if(events.get(i).getId().equals(id)) {
-                events.remove(i);
-                lastChange = new Date();
+                deletedEvents.add(events.remove(i).getId());
+                sequence++;
                 statuses.add(204);
                 return 204;
             }
@@ -153,7 +166,7 @@ public class TestServerUtils implements ServerUtils {
             websocket.simulateAction(WebsocketActions.ADD_PARTICIPANT, clone);
         }
 
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -185,7 +198,7 @@ public class TestServerUtils implements ServerUtils {
         event.addParticipant(participant);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.UPDATE_PARTICIPANT, participant);
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -219,7 +232,7 @@ public class TestServerUtils implements ServerUtils {
         System.out.println(event);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.REMOVE_PARTICIPANT, old);
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -302,7 +315,7 @@ public class TestServerUtils implements ServerUtils {
         event.addExpense(clone);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.ADD_EXPENSE, clone);
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -340,7 +353,7 @@ public class TestServerUtils implements ServerUtils {
         event.getExpenses().add(clone);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.UPDATE_EXPENSE, clone);
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -368,7 +381,7 @@ public class TestServerUtils implements ServerUtils {
         event.getExpenses().remove(old);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.REMOVE_EXPENSE, old);
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -392,44 +405,72 @@ public class TestServerUtils implements ServerUtils {
     }
 
     /**
-     * Returns all events
+     * Records the call, the operations are not applied
+     *
+     * @param eventID id of the event
+     * @param batch operations in the order they are applied
+     * @return the batch
+     */
+    @Override
+    public EventBatch applyBatch(String eventID, EventBatch batch) {
+        calls.add("applyBatch");
+        statuses.add(200);
+        return batch;
+    }
+
+    /**
+     * Returns one page of summaries
      *
      * @param inputPassword the admin password
-     * @return all events
+     * @param page index of the page, starting at 0
+     * @param size number of events per page
+     * @param sort title, creationDate, lastActivity or participants
+     * @param descending true to sort in descending order
+     * @return the page
      */
     @Override
-    public List<Event> getEvents(String inputPassword) {
-        calls.add("getEvents");
+    public EventSummaryPage getEventSummaries(String inputPassword, int page, int size,
+                                              String sort, boolean descending) {
+        calls.add("getEventSummaries");
         if(!"password".equals(inputPassword)) {
             statuses.add(401);
             return null;
         }
-        List<Event> eventList = new ArrayList<>();
-        for(Event e : events) {
-            eventList.add(e.clone());
-        }
+        Comparator<EventSummary> order = switch (sort) {
+            case "title" -> Comparator.comparing(EventSummary::getTitle);
+            case "lastActivity" -> Comparator.comparing(EventSummary::getLastActivity);
+            case "participants" -> Comparator.comparingLong(EventSummary::getParticipantCount);
+            default -> Comparator.comparing(EventSummary::getCreationDate);
+        };
+        if(descending) order = order.reversed();
+        List<EventSummary> summaries = events.stream().map(EventSummary::of)
+                .sorted(order.thenComparing(EventSummary::getId)).toList();
+        int from = Math.min(page * size, summaries.size());
+        int to = Math.min(from + size, summaries.size());
         statuses.add(200);
-        return eventList;
+        return new EventSummaryPage(new ArrayList<>(summaries.subList(from, to)),
+                page, size, summaries.size(), epoch, sequence);
     }
 
     /**
      * @param inputPassword the admin password
      * @param timeOut time in ms until server sends a time-out signal
+     * @param epoch epoch the client has seen
+     * @param since sequence number the client has seen
      * @return 204 if there is a change in the database, 408 if time-outed
      */
     @Override
-    public int pollEvents(String inputPassword, Long timeOut) {
+    public int pollEvents(String inputPassword, Long timeOut, long epoch, long since) {
 //        calls.add("pollEvents"); this causes OutOfMemoryError
         polled = true;
         if(!"password".equals(inputPassword)) {
             concurrentStatuses.add(401);
             return 401;
         }
-        Date started = new Date();
-        long time = started.getTime();
+        long time = new Date().getTime();
         while(new Date().getTime() - time < timeOut) {
             try {
-                if(started.before(lastChange)) {
+                if(this.epoch != epoch || sequence != since) {
                     concurrentStatuses.add(204);
                     return 204;
                 }
@@ -442,6 +483,24 @@ public class TestServerUtils implements ServerUtils {
         return 408;
     }
 
+    /**
+     * Returns every event as changed, applying a change twice does nothing
+     *
+     * @param inputPassword the admin password
+     * @param epoch epoch the client has seen
+     * @param since sequence number the client has seen
+     * @return all events and the deleted ones, or a reset if the epoch is another one
+     */
+    @Override
+    public EventChanges getEventChanges(String inputPassword, long epoch, long since) {
+        if(!"password".equals(inputPassword)) return null;
+        long current = sequence;
+        if(this.epoch != epoch) return EventChanges.reset(this.epoch, current);
+        List<EventSummary> changed = events.stream().map(EventSummary::of).toList();
+        return new EventChanges(this.epoch, current, false, new ArrayList<>(changed),
+                new ArrayList<>(deletedEvents));
+    }
+
     /**
      * Sends an API call to add the event
      * The ids of expenses and participants gets reassigned so use the returned event!
@@ -458,7 +517,7 @@ public class TestServerUtils implements ServerUtils {
             return 401;
         }
         events.add(event.clone());
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -520,7 +579,7 @@ public class TestServerUtils implements ServerUtils {
         event.getTags().add(clone);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.ADD_TAG, clone);
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -557,7 +616,7 @@ public class TestServerUtils implements ServerUtils {
         event.getTags().add(clone);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.UPDATE_TAG, clone);
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -584,7 +643,7 @@ public class TestServerUtils implements ServerUtils {
         event.getTags().remove(old);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.REMOVE_TAG, old);
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
@@ -610,7 +669,7 @@ public class TestServerUtils implements ServerUtils {
         event.addTransaction(clone);
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.ADD_TRANSACTION, clone);
-        lastChange = new Date();
+        sequence++;
         statuses.add(200);
         return 200;
     }
@@ -636,7 +695,7 @@ public class TestServerUtils implements ServerUtils {
         }
         event.setLastActivity(new Date());
         websocket.simulateAction(WebsocketActions.REMOVE_TRANSACTION, transaction.getId());
-        lastChange = new Date();
+        sequence++;
         statuses.add(204);
         return 204;
     }
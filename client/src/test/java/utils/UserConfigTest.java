@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -80,4 +81,25 @@ class UserConfigTest {
         assertEquals(eventCodes2, userConfig.getRecentEventCodes());
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Assert that connection settings fall back to their defaults
+     */
+    @Test
+    void connectionDefaults() {
+        assertEquals(5000, userConfig.getConnectTimeout());
+        assertEquals(30000, userConfig.getReadTimeout());
+        assertEquals(10, userConfig.getMaxConnections());
+    }
+
+    /**
+     * Assert that the titles of recent events are stored
+     */
+    @Test
+    void recentEventTitles() {
+        assertTrue(userConfig.getRecentEventTitles().isEmpty());
+        userConfig.setRecentEventTitles(Map.of("ABCDE", "Trip"));
+        assertEquals(Map.of("ABCDE", "Trip"), userConfig.getRecentEventTitles());
+        assertTrue(IO.getContent().contains("recentEventTitles"));
+    }
+}
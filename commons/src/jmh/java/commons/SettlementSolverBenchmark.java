@@ -0,0 +1,120 @@
+package commons;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link SettlementSolver} with the recursive algorithm
+ * the debts page used before, which scans a boxed map for the maximum and minimum
+ * balance once per transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SettlementSolverBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int participants;
+
+    private long[] balances;
+    private List<Participant> people;
+    private Map<Participant, Double> boxedBalances;
+
+    /**
+     * Creates random balances in cents that sum up to zero
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        balances = new long[participants];
+        long sum = 0;
+        for (int i = 0; i < participants - 1; i++) {
+            balances[i] = random.nextInt(200_001) - 100_000;
+            sum += balances[i];
+        }
+        balances[participants - 1] = -sum;
+
+        people = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            Participant participant = new Participant("participant" + i);
+            participant.setId(i);
+            people.add(participant);
+        }
+        boxedBalances = new HashMap<>();
+        for (int i = 0; i < participants; i++) {
+            boxedBalances.put(people.get(i), balances[i] / 100.0);
+        }
+    }
+
+    /**
+     * @return transfers computed by the heap based solver
+     */
+    @Benchmark
+    public SettlementSolver.Transfers heapSolver() {
+        return SettlementSolver.solve(balances);
+    }
+
+    /**
+     * @param blackhole consumes the created transactions
+     */
+    @Benchmark
+    public void recursiveMapSolver(Blackhole blackhole) {
+        recursionCalculate(new HashMap<>(boxedBalances), blackhole);
+    }
+
+    /**
+     * Previous algorithm of OpenDebtsPageCtrl, positive balances are debtors
+     *
+     * @param debtMap balance per participant
+     * @param blackhole consumes the created transactions
+     */
+    private static void recursionCalculate(Map<Participant, Double> debtMap, Blackhole blackhole) {
+        Participant maxCredit = getMax(debtMap);
+        Participant maxDebit = getMin(debtMap);
+        if (debtMap.get(maxDebit) == 0 && debtMap.get(maxCredit) == 0)
+            return;
+        if((debtMap.get(maxDebit) == 0 || debtMap.get(maxCredit) == 0)
+                && Math.floor(debtMap.get(maxDebit)) == 0
+                || Math.floor(debtMap.get(maxCredit)) == 0)
+            return;
+
+        double min = Math.min(-debtMap.get(maxDebit), debtMap.get(maxCredit));
+        debtMap.put(maxCredit, debtMap.get(maxCredit) - min);
+        debtMap.put(maxDebit, debtMap.get(maxDebit) + min);
+        recursionCalculate(debtMap, blackhole);
+        blackhole.consume(new Transaction(maxCredit, maxDebit, min, "EUR"));
+    }
+
+    /**
+     * @param debtMap map to be searched
+     * @return the Participant key with the maximum value
+     */
+    private static Participant getMax(Map<Participant, Double> debtMap) {
+        Participant result = null;
+        for (Participant p : debtMap.keySet()) {
+            if (result == null) result = p;
+            else if (debtMap.get(p) > debtMap.get(result)) result = p;
+        }
+        return result;
+    }
+
+    /**
+     * @param debtMap map to be searched
+     * @return the Participant key with the minimum value
+     */
+    private static Participant getMin(Map<Participant, Double> debtMap) {
+        Participant result = null;
+        for (Participant p : debtMap.keySet()) {
+            if (result == null) result = p;
+            else if (debtMap.get(p) < debtMap.get(result)) result = p;
+        }
+        return result;
+    }
+}
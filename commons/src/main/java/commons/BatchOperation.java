@@ -0,0 +1,285 @@
+package commons;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Objects;
+
+/**
+ * One change in a batch of changes to an event.
+ * <p>
+ * The action tells which of the fields is used: the participant, expense, transaction or tag
+ * that is added or updated, the new title of the event,
+ * or the id of the participant, expense, transaction or tag that is removed.
+ * The server sends updated expenses as the changed fields only.
+ * Clients can only send changes to participants, expenses and transactions,
+ * the server also sends the other changes in batches.
+ */
+public class BatchOperation {
+    private WebsocketActions action;
+    private Participant participant;
+    private Expense expense;
+    private ExpenseUpdate expenseUpdate;
+    private Transaction transaction;
+    private Tag tag;
+    private String title;
+    private long id;
+
+    /**
+     * No arg constructor for Jackson
+     */
+    public BatchOperation() {
+    }
+
+    /**
+     * @param action kind of change
+     * @param participant added or updated participant
+     * @param expense added or updated expense
+     * @param transaction added transaction
+     * @param id id of the removed entity
+     */
+    private BatchOperation(WebsocketActions action, Participant participant, Expense expense,
+                           Transaction transaction, long id) {
+        this.action = action;
+        this.participant = participant;
+        this.expense = expense;
+        this.transaction = transaction;
+        this.id = id;
+    }
+
+    /**
+     * @param action kind of change
+     * @param tag added or updated tag
+     * @param title new title of the event
+     * @param id id of the removed entity
+     */
+    private BatchOperation(WebsocketActions action, Tag tag, String title, long id) {
+        this.action = action;
+        this.tag = tag;
+        this.title = title;
+        this.id = id;
+    }
+
+    /**
+     * @param participant participant to add, expenses and transactions later in the batch
+     *                    can refer to it by its id, which has to be 0 or negative
+     * @return the operation
+     */
+    public static BatchOperation addParticipant(Participant participant) {
+        return new BatchOperation(WebsocketActions.ADD_PARTICIPANT, participant, null, null, 0);
+    }
+
+    /**
+     * @param participant new version of an existing participant
+     * @return the operation
+     */
+    public static BatchOperation updateParticipant(Participant participant) {
+        return new BatchOperation(WebsocketActions.UPDATE_PARTICIPANT, participant, null, null, 0);
+    }
+
+    /**
+     * @param id id of the participant to remove
+     * @return the operation
+     */
+    public static BatchOperation removeParticipant(long id) {
+        return new BatchOperation(WebsocketActions.REMOVE_PARTICIPANT, null, null, id);
+    }
+
+    /**
+     * @param expense expense to add
+     * @return the operation
+     */
+    public static BatchOperation addExpense(Expense expense) {
+        return new BatchOperation(WebsocketActions.ADD_EXPENSE, null, expense, null, 0);
+    }
+
+    /**
+     * @param expense new version of an existing expense
+     * @return the operation
+     */
+    public static BatchOperation updateExpense(Expense expense) {
+        return new BatchOperation(WebsocketActions.UPDATE_EXPENSE, null, expense, null, 0);
+    }
+
+    /**
+     * @param changes changed fields of an existing expense, only sent by the server
+     * @return the operation
+     */
+    public static BatchOperation changeExpense(ExpenseUpdate changes) {
+        BatchOperation operation =
+                new BatchOperation(WebsocketActions.UPDATE_EXPENSE, null, null, null, 0);
+        operation.expenseUpdate = changes;
+        return operation;
+    }
+
+    /**
+     * @param id id of the expense to remove
+     * @return the operation
+     */
+    public static BatchOperation removeExpense(long id) {
+        return new BatchOperation(WebsocketActions.REMOVE_EXPENSE, null, null, null, id);
+    }
+
+    /**
+     * @param transaction transaction to add
+     * @return the operation
+     */
+    public static BatchOperation addTransaction(Transaction transaction) {
+        return new BatchOperation(WebsocketActions.ADD_TRANSACTION, null, null, transaction, 0);
+    }
+
+    /**
+     * @param id id of the transaction to remove
+     * @return the operation
+     */
+    public static BatchOperation removeTransaction(long id) {
+        return new BatchOperation(WebsocketActions.REMOVE_TRANSACTION, null, null, null, id);
+    }
+
+    /**
+     * @param tag tag to add
+     * @return the operation
+     */
+    public static BatchOperation addTag(Tag tag) {
+        return new BatchOperation(WebsocketActions.ADD_TAG, tag, null, 0);
+    }
+
+    /**
+     * @param tag new version of an existing tag
+     * @return the operation
+     */
+    public static BatchOperation updateTag(Tag tag) {
+        return new BatchOperation(WebsocketActions.UPDATE_TAG, tag, null, 0);
+    }
+
+    /**
+     * @param id id of the tag to remove
+     * @return the operation
+     */
+    public static BatchOperation removeTag(long id) {
+        return new BatchOperation(WebsocketActions.REMOVE_TAG, null, null, id);
+    }
+
+    /**
+     * @param title new title of the event
+     * @return the operation
+     */
+    public static BatchOperation changeTitle(String title) {
+        return new BatchOperation(WebsocketActions.TITLE_CHANGE, null, title, 0);
+    }
+
+    /**
+     * @return kind of change
+     */
+    public WebsocketActions getAction() {
+        return action;
+    }
+
+    /**
+     * @return added or updated participant
+     */
+    public Participant getParticipant() {
+        return participant;
+    }
+
+    /**
+     * @return added or updated expense
+     */
+    public Expense getExpense() {
+        return expense;
+    }
+
+    /**
+     * @return changed fields of the updated expense
+     */
+    public ExpenseUpdate getExpenseUpdate() {
+        return expenseUpdate;
+    }
+
+    /**
+     * @return added transaction
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * @return added or updated tag
+     */
+    public Tag getTag() {
+        return tag;
+    }
+
+    /**
+     * @return new title of the event
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return id of the removed entity
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return what the single change websocket message for the action carries:
+     * the participant, expense, transaction, tag or title, or the id for removals
+     */
+    @JsonIgnore
+    public Object getPayload() {
+        return switch (action) {
+            case ADD_PARTICIPANT, UPDATE_PARTICIPANT -> participant;
+            case ADD_EXPENSE -> expense;
+            case UPDATE_EXPENSE -> expenseUpdate != null ? expenseUpdate : expense;
+            case ADD_TRANSACTION -> transaction;
+            case ADD_TAG, UPDATE_TAG -> tag;
+            case TITLE_CHANGE -> title;
+            default -> id;
+        };
+    }
+
+    /**
+     * @return name of the class of the payload, the type header of the single change message
+     */
+    @JsonIgnore
+    public String getPayloadType() {
+        return switch (action) {
+            case ADD_PARTICIPANT, UPDATE_PARTICIPANT -> Participant.class.getTypeName();
+            case ADD_EXPENSE -> Expense.class.getTypeName();
+            case UPDATE_EXPENSE -> (expenseUpdate != null ? ExpenseUpdate.class : Expense.class)
+                    .getTypeName();
+            case ADD_TRANSACTION -> Transaction.class.getTypeName();
+            case ADD_TAG, UPDATE_TAG -> Tag.class.getTypeName();
+            case TITLE_CHANGE -> String.class.getTypeName();
+            default -> Long.class.getTypeName();
+        };
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchOperation that = (BatchOperation) o;
+        return id == that.id && action == that.action
+                && Objects.equals(participant, that.participant)
+                && Objects.equals(expense, that.expense)
+                && Objects.equals(expenseUpdate, that.expenseUpdate)
+                && Objects.equals(transaction, that.transaction)
+                && Objects.equals(tag, that.tag) && Objects.equals(title, that.title);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(action, participant, expense, expenseUpdate, transaction,
+                tag, title, id);
+    }
+}
@@ -1,15 +1,22 @@
 package commons;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Entity
-// Index the title for faster sorting by title for admin,
-@Table(indexes = {@Index(name = "idx_event_title", columnList = "title")
+// Index the title, creation date and last activity for faster sorting for admin,
+@Table(indexes = {@Index(name = "idx_event_title", columnList = "title"),
+    @Index(name = "idx_event_creation_date", columnList = "creationDate"),
+    @Index(name = "idx_event_last_activity", columnList = "lastActivity")
 })
+// deleted events are invisible until the purger removes their rows
+@SQLRestriction("deleted = false")
 public class Event implements Cloneable {
     @Id
     @Column(nullable = false, length = 5)
@@ -18,10 +25,10 @@ public class Event implements Cloneable {
     @Column(nullable = false)
     private String title;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "event_id", updatable = false, insertable = false)
     private List<Participant> participants;
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "event_id", updatable = false, insertable = false)
     private List<Expense> expenses;
     @Temporal(TemporalType.TIMESTAMP)
@@ -31,14 +38,26 @@ public class Event implements Cloneable {
     @Temporal(TemporalType.TIMESTAMP)
     @Column(nullable = false)
     private Date lastActivity;
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "event_id", updatable = false, insertable = false)
     private List<Transaction> transactions;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "event_id", updatable = false, insertable = false)
     private List<Tag> tags;
 
+    // only written by the queries that mark and purge deleted events
+    @JsonIgnore
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean deleted;
+
+    // set with deleted while the event is written to the archive, the purger skips these
+    @JsonIgnore
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean archiving;
+
     /**
      * No-Argument Constructor
      * Required by JPA
@@ -323,7 +342,7 @@ public class Event implements Cloneable {
                 e.setExpenseAuthor(clone.participants.stream()
                         .filter(p -> p.getId() == e.getExpenseAuthor().getId())
                         .findAny().orElseThrow());
-                Set<Long> ids = clone.participants.stream()
+                Set<Long> ids = e.getExpenseParticipants().stream()
                         .map(Participant::getId).collect(Collectors.toSet());
                 e.setExpenseParticipants(new ArrayList<>(clone.participants.stream()
                         .filter(p -> ids.contains(p.getId())).toList()));
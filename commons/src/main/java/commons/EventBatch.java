@@ -0,0 +1,52 @@
+package commons;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Changes to an event that are applied together, in order and all or none
+ */
+public class EventBatch {
+    private List<BatchOperation> operations;
+
+    /**
+     * No arg constructor for Jackson
+     */
+    public EventBatch() {
+        operations = new ArrayList<>();
+    }
+
+    /**
+     * @param operations changes in the order they are applied
+     */
+    public EventBatch(List<BatchOperation> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * @return changes in the order they are applied
+     */
+    public List<BatchOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Objects.equals(operations, ((EventBatch) o).operations);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(operations);
+    }
+}
@@ -0,0 +1,107 @@
+package commons;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Events created, updated or deleted after a sequence number of the admin change feed
+ */
+public class EventChanges {
+    private long epoch;
+    private long sequence;
+    private boolean reset;
+    private List<EventSummary> changed;
+    private List<String> deleted;
+
+    /**
+     * No arg constructor for Jackson
+     */
+    public EventChanges() {
+        changed = new ArrayList<>();
+        deleted = new ArrayList<>();
+    }
+
+    /**
+     * @param epoch epoch of the change feed the sequence number belongs to
+     * @param sequence sequence number of the last change included
+     * @param reset true if the changes are not known anymore and everything must be reloaded
+     * @param changed summaries of the created and updated events
+     * @param deleted ids of the deleted events
+     */
+    public EventChanges(long epoch, long sequence, boolean reset, List<EventSummary> changed,
+                        List<String> deleted) {
+        this.epoch = epoch;
+        this.sequence = sequence;
+        this.reset = reset;
+        this.changed = changed;
+        this.deleted = deleted;
+    }
+
+    /**
+     * @param epoch current epoch of the change feed
+     * @param sequence current sequence number
+     * @return changes telling the client to reload everything
+     */
+    public static EventChanges reset(long epoch, long sequence) {
+        return new EventChanges(epoch, sequence, true, new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * @return epoch of the change feed, a new one starts when the server restarts
+     * and the sequence numbers start over
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @return sequence number of the last change included, to ask for the next changes with
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return true if the changes are not known anymore and everything must be reloaded
+     */
+    public boolean isReset() {
+        return reset;
+    }
+
+    /**
+     * @return summaries of the created and updated events
+     */
+    public List<EventSummary> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return ids of the deleted events
+     */
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventChanges that = (EventChanges) o;
+        return epoch == that.epoch && sequence == that.sequence && reset == that.reset
+                && Objects.equals(changed, that.changed)
+                && Objects.equals(deleted, that.deleted);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(epoch, sequence, reset, changed, deleted);
+    }
+}
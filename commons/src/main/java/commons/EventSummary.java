@@ -0,0 +1,154 @@
+package commons;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Lightweight view of an event for listings, without any of its collections
+ * but with the number of participants and expenses and the total of the expenses
+ */
+public class EventSummary {
+    /**
+     * Maximum number of events whose summaries can be requested at once
+     */
+    public static final int MAX_PER_REQUEST = 100;
+
+    private String id;
+    private String title;
+    private Date creationDate;
+    private Date lastActivity;
+    private long participantCount;
+    private long expenseCount;
+    private Money total;
+
+    /**
+     * No arg constructor for Jackson
+     */
+    public EventSummary() {
+    }
+
+    /**
+     * @param id id of the event
+     * @param title title of the event
+     * @param creationDate date the event was created
+     * @param lastActivity date of the last change to the event
+     * @param participantCount number of participants
+     * @param expenseCount number of expenses
+     * @param total sum of all expenses in minor units of the base currency
+     */
+    public EventSummary(String id, String title, Date creationDate, Date lastActivity,
+                        long participantCount, long expenseCount, long total) {
+        this.id = id;
+        this.title = title;
+        this.creationDate = creationDate;
+        this.lastActivity = lastActivity;
+        this.participantCount = participantCount;
+        this.expenseCount = expenseCount;
+        this.total = new Money(total, Money.BASE_CURRENCY);
+    }
+
+    /**
+     * @param event event to summarize, all its collections are read
+     * @return summary of the event
+     */
+    public static EventSummary of(Event event) {
+        long total = 0;
+        for (Expense expense : event.getExpenses()) {
+            total += expense.getAmount().getMinorUnits();
+        }
+        return new EventSummary(event.getId(), event.getTitle(), event.getCreationDate(),
+                event.getLastActivity(), event.getParticipants().size(),
+                event.getExpenses().size(), total);
+    }
+
+    /**
+     * @return id of the event
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return title of the event
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return date the event was created
+     */
+    public Date getCreationDate() {
+        return creationDate;
+    }
+
+    /**
+     * @return date of the last change to the event
+     */
+    public Date getLastActivity() {
+        return lastActivity;
+    }
+
+    /**
+     * @return number of participants
+     */
+    public long getParticipantCount() {
+        return participantCount;
+    }
+
+    /**
+     * @return number of expenses
+     */
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    /**
+     * @return sum of all expenses
+     */
+    public Money getTotal() {
+        return total;
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventSummary that = (EventSummary) o;
+        return Objects.equals(id, that.id) && Objects.equals(title, that.title)
+                && Objects.equals(creationDate, that.creationDate)
+                && Objects.equals(lastActivity, that.lastActivity)
+                && participantCount == that.participantCount
+                && expenseCount == that.expenseCount
+                && Objects.equals(total, that.total);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, creationDate, lastActivity,
+                participantCount, expenseCount, total);
+    }
+
+    /**
+     * @return readable string of this object
+     */
+    @Override
+    public String toString() {
+        return "EventSummary{" +
+                "id='" + id + '\'' +
+                ", title='" + title + '\'' +
+                ", creationDate=" + creationDate +
+                ", lastActivity=" + lastActivity +
+                ", participantCount=" + participantCount +
+                ", expenseCount=" + expenseCount +
+                ", total=" + total +
+                '}';
+    }
+}
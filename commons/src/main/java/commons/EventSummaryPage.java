@@ -0,0 +1,114 @@
+package commons;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of event summaries together with the total number of events
+ */
+public class EventSummaryPage {
+    private List<EventSummary> summaries;
+    private int page;
+    private int size;
+    private long totalElements;
+    private long epoch;
+    private long sequence;
+
+    /**
+     * No arg constructor for Jackson
+     */
+    public EventSummaryPage() {
+        summaries = new ArrayList<>();
+    }
+
+    /**
+     * @param summaries summaries on this page
+     * @param page index of the page, starting at 0
+     * @param size requested number of summaries per page
+     * @param totalElements number of events on all pages
+     * @param epoch epoch of the admin change feed the sequence number belongs to
+     * @param sequence sequence number of the admin change feed the page is at least as new as
+     */
+    public EventSummaryPage(List<EventSummary> summaries, int page, int size,
+                            long totalElements, long epoch, long sequence) {
+        this.summaries = summaries;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.epoch = epoch;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return summaries on this page
+     */
+    public List<EventSummary> getSummaries() {
+        return summaries;
+    }
+
+    /**
+     * @return index of the page, starting at 0
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * @return requested number of summaries per page
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return number of events on all pages
+     */
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * @return epoch of the admin change feed, a new one starts when the server restarts
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @return sequence number of the admin change feed the page is at least as new as,
+     * changes after it can be applied to the page
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return true iff there are events after this page
+     */
+    public boolean hasNext() {
+        return (long) (page + 1) * size < totalElements;
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventSummaryPage that = (EventSummaryPage) o;
+        return page == that.page && size == that.size && totalElements == that.totalElements
+                && epoch == that.epoch && sequence == that.sequence
+                && Objects.equals(summaries, that.summaries);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(summaries, page, size, totalElements, epoch, sequence);
+    }
+}
@@ -4,6 +4,13 @@ import java.io.Serializable;
 import java.util.Objects;
 
 public class EventWeakKey implements Serializable {
+    /**
+     * Number of item ids taken from the sequence of an entity in one round trip.
+     * Databases created before these sequences were declared already count in steps of 50,
+     * Hibernate refuses to start if this does not match.
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
     private String eventID;
     private long id;
 
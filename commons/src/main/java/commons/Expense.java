@@ -10,21 +10,24 @@ import java.util.Objects;
 
 @Entity
 @IdClass(EventWeakKey.class)
+@Table(indexes = @Index(name = "idx_expense_author",
+        columnList = "expense_author_event_id, expense_author_id"))
 public class Expense implements Cloneable {
     /*
     Properties:
     Int expenseID so that one can reuse this type of expense
     String participant for the person that paid the expense
     String purpose for the purpose of the existent expense
-    Double amount for the amount paid by the participant
-    String currency for the currency that was used then
+    Money amount for the amount paid by the participant, in the base currency
+    String currency for the currency the expense was entered in
     Date date for the exact date when the expense was paid
     Boolean splitMethod, 0 - equally among all participant, 1- only a part of them
     List<String> participants for all the people that are splitting the expense
     String type for the type of the current created expense
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", allocationSize = EventWeakKey.ALLOCATION_SIZE)
     private long id;
     @Id
     @Column(name = "event_id", length = 5, nullable = false)
@@ -33,13 +36,19 @@ public class Expense implements Cloneable {
     private Participant expenseAuthor;
     @Column(nullable = false)
     private String purpose;
-    @Column(nullable = false)
-    private double amount;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "amount_minor",
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL"))
+    @AttributeOverride(name = "currency", column = @Column(name = "amount_currency",
+            length = 3, columnDefinition = "VARCHAR(3) DEFAULT 'USD' NOT NULL"))
+    private Money amount;
     @Column(length = 3, nullable = false)
     private String currency;
     @Temporal(TemporalType.TIMESTAMP)
     private Date date;
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(indexes = @Index(name = "idx_expense_participant",
+            columnList = "expense_participants_event_id, expense_participants_id"))
     private List<Participant> expenseParticipants;
     @ManyToOne
     @JoinColumns(value = {
@@ -55,13 +64,28 @@ public class Expense implements Cloneable {
      * constructor for Expense class
      * @param expenseAuthor of expense
      * @param purpose of expense
-     * @param amount of money
-     * @param currency currency, 3 letters
+     * @param amount of money in the base currency
+     * @param currency currency the expense was entered in, 3 letters
      * @param expenseParticipants participants that split the expense
      * @param type type of expense
      */
     public Expense(Participant expenseAuthor, String purpose, double amount,
                    String currency, List<Participant> expenseParticipants, Tag type) {
+        this(expenseAuthor, purpose, Money.of(amount, Money.BASE_CURRENCY),
+                currency, expenseParticipants, type);
+    }
+
+    /**
+     * constructor for Expense class
+     * @param expenseAuthor of expense
+     * @param purpose of expense
+     * @param amount of money
+     * @param currency currency the expense was entered in, 3 letters
+     * @param expenseParticipants participants that split the expense
+     * @param type type of expense
+     */
+    public Expense(Participant expenseAuthor, String purpose, Money amount,
+                   String currency, List<Participant> expenseParticipants, Tag type) {
         this.expenseAuthor = expenseAuthor;
         this.purpose = purpose;
         this.amount = amount;
@@ -121,13 +145,13 @@ public class Expense implements Cloneable {
      * getter for amount
      * @return the amount
      */
-    public double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
     /**
      * getter for currency
-     * @return the currency
+     * @return the currency the expense was entered in
      */
     public String getCurrency() {
         return currency;
@@ -183,15 +207,15 @@ public class Expense implements Cloneable {
 
     /**
      * setter for amount
-     * @param amount cost of the expense in specified currency
+     * @param amount cost of the expense
      */
-    public void setAmount(double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
     /**
      * setter for currency
-     * @param currency currency of the cost
+     * @param currency currency the expense was entered in
      */
     public void setCurrency(String currency) {
         this.currency = currency;
@@ -232,7 +256,7 @@ public class Expense implements Cloneable {
         if (o == null || getClass() != o.getClass()) return false;
         Expense expense = (Expense) o;
         return id == expense.id
-                && Double.compare(amount, expense.amount) == 0
+                && Objects.equals(amount, expense.amount)
                 && Objects.equals(eventID, expense.eventID)
                 && Objects.equals(expenseAuthor, expense.expenseAuthor)
                 && Objects.equals(purpose, expense.purpose)
@@ -0,0 +1,222 @@
+package commons;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongFunction;
+
+/**
+ * Compact websocket message for an updated expense.
+ * <p>
+ * Participants and the tag are referred to by their ids, so the message does not repeat
+ * the participants of the event, and only the fields that changed are set.
+ * A field that is null did not change, a tag id of 0 means the tag was removed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpenseUpdate {
+    private long id;
+    private Long authorId;
+    private List<Long> participantIds;
+    private String purpose;
+    private Money amount;
+    private String currency;
+    private Date date;
+    private Long typeId;
+
+    /**
+     * No arg constructor for Jackson
+     */
+    public ExpenseUpdate() {
+    }
+
+    /**
+     * @param id id of the updated expense
+     */
+    private ExpenseUpdate(long id) {
+        this.id = id;
+    }
+
+    /**
+     * @param expense expense to send in full
+     * @return update setting all fields of the expense
+     */
+    public static ExpenseUpdate of(Expense expense) {
+        ExpenseUpdate update = new ExpenseUpdate(expense.getId());
+        update.authorId = expense.getExpenseAuthor() == null
+                ? null : expense.getExpenseAuthor().getId();
+        update.participantIds = idsOf(expense.getExpenseParticipants());
+        update.purpose = expense.getPurpose();
+        update.amount = expense.getAmount();
+        update.currency = expense.getCurrency();
+        update.date = expense.getDate();
+        update.typeId = typeIdOf(expense);
+        return update;
+    }
+
+    /**
+     * @param id id of the expense
+     * @param participantIds ids of the participants the expense is split between now
+     * @return update setting only the participants
+     */
+    public static ExpenseUpdate ofParticipants(long id, List<Long> participantIds) {
+        ExpenseUpdate update = new ExpenseUpdate(id);
+        update.participantIds = participantIds;
+        return update;
+    }
+
+    /**
+     * @param before the expense before the update
+     * @param after the expense after the update
+     * @return update setting the fields that differ
+     */
+    public static ExpenseUpdate between(Expense before, Expense after) {
+        return of(after).since(of(before));
+    }
+
+    /**
+     * @param before full update of the expense before this one
+     * @return update setting only the fields of this update that differ from the earlier one
+     */
+    public ExpenseUpdate since(ExpenseUpdate before) {
+        ExpenseUpdate update = new ExpenseUpdate(id);
+        update.authorId = changed(before.authorId, authorId);
+        update.participantIds = changed(before.participantIds, participantIds);
+        update.purpose = changed(before.purpose, purpose);
+        update.amount = changed(before.amount, amount);
+        update.currency = changed(before.currency, currency);
+        update.date = changed(before.date, date);
+        update.typeId = changed(before.typeId, typeId);
+        return update;
+    }
+
+    /**
+     * @param before old value
+     * @param after new value
+     * @param <T> type of the value
+     * @return the new value if it differs, null otherwise
+     */
+    private static <T> T changed(T before, T after) {
+        return Objects.equals(before, after) ? null : after;
+    }
+
+    /**
+     * @param participants participants, can be null
+     * @return their ids in order
+     */
+    private static List<Long> idsOf(List<Participant> participants) {
+        if (participants == null) return List.of();
+        return participants.stream().map(Participant::getId).toList();
+    }
+
+    /**
+     * @param expense expense
+     * @return id of its tag, 0 if it has none
+     */
+    private static long typeIdOf(Expense expense) {
+        return expense.getType() == null ? 0 : expense.getType().getId();
+    }
+
+    /**
+     * Sets the changed fields on the expense, looking participants and the tag up by id
+     *
+     * @param expense the expense as the client knows it
+     * @param participants looks a participant of the event up by id
+     * @param tags looks a tag of the event up by id
+     * @return the updated expense
+     */
+    public Expense applyTo(Expense expense, LongFunction<Participant> participants,
+                           LongFunction<Tag> tags) {
+        if (authorId != null) expense.setExpenseAuthor(participants.apply(authorId));
+        if (participantIds != null)
+            expense.setExpenseParticipants(participantIds.stream()
+                    .map(participants::apply).toList());
+        if (purpose != null) expense.setPurpose(purpose);
+        if (amount != null) expense.setAmount(amount);
+        if (currency != null) expense.setCurrency(currency);
+        if (date != null) expense.setDate(date);
+        if (typeId != null) expense.setType(tags.apply(typeId));
+        return expense;
+    }
+
+    /**
+     * @return id of the updated expense
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return id of the new author, null if unchanged
+     */
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    /**
+     * @return ids of the new participants, null if unchanged
+     */
+    public List<Long> getParticipantIds() {
+        return participantIds;
+    }
+
+    /**
+     * @return new purpose, null if unchanged
+     */
+    public String getPurpose() {
+        return purpose;
+    }
+
+    /**
+     * @return new amount, null if unchanged
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
+    /**
+     * @return new currency, null if unchanged
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return new date, null if unchanged
+     */
+    public Date getDate() {
+        return date;
+    }
+
+    /**
+     * @return id of the new tag, 0 if it was removed, null if unchanged
+     */
+    public Long getTypeId() {
+        return typeId;
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ExpenseUpdate that = (ExpenseUpdate) o;
+        return id == that.id && Objects.equals(authorId, that.authorId)
+                && Objects.equals(participantIds, that.participantIds)
+                && Objects.equals(purpose, that.purpose) && Objects.equals(amount, that.amount)
+                && Objects.equals(currency, that.currency) && Objects.equals(date, that.date)
+                && Objects.equals(typeId, that.typeId);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, authorId, participantIds, purpose, amount, currency, date, typeId);
+    }
+}
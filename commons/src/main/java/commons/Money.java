@@ -0,0 +1,181 @@
+package commons;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Exact amount of money stored as a whole number of minor units (for example cents)
+ * together with the ISO 4217 code of its currency.
+ * <p>
+ * The number of minor units per major unit follows the default fraction digits
+ * of the currency, 2 for unknown codes.
+ * Instances are immutable, arithmetic only happens on the primitive minor units.
+ */
+@Embeddable
+public final class Money {
+    /**
+     * Currency that expense and transaction amounts are stored in
+     */
+    public static final String BASE_CURRENCY = "USD";
+
+    @Column(nullable = false)
+    private long minorUnits;
+    @Column(length = 3, nullable = false)
+    private String currency;
+
+    /**
+     * Constructor for JPA
+     */
+    protected Money() {
+    }
+
+    /**
+     * @param minorUnits amount in minor units of the currency
+     * @param currency ISO 4217 currency code
+     */
+    @JsonCreator
+    public Money(@JsonProperty("minorUnits") long minorUnits,
+                 @JsonProperty("currency") String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency);
+    }
+
+    /**
+     * @param amount amount in major units, rounded half up to the nearest minor unit
+     * @param currency ISO 4217 currency code
+     * @return the money
+     */
+    public static Money of(double amount, String currency) {
+        return new Money(Math.round(amount * unitsPerMajor(currency)), currency);
+    }
+
+    /**
+     * Reads amounts serialized before they were stored in minor units
+     *
+     * @param amount amount in major units of the base currency
+     * @return the money
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    static Money ofBase(double amount) {
+        return of(amount, BASE_CURRENCY);
+    }
+
+    /**
+     * @param currency ISO 4217 currency code
+     * @return number of minor units in one major unit of the currency
+     */
+    public static long unitsPerMajor(String currency) {
+        int digits = 2;
+        try {
+            int fractionDigits = Currency.getInstance(currency.toUpperCase())
+                    .getDefaultFractionDigits();
+            if (fractionDigits >= 0) digits = fractionDigits;
+        } catch (IllegalArgumentException ignored) {
+        }
+        long units = 1;
+        for (int i = 0; i < digits; i++) units *= 10;
+        return units;
+    }
+
+    /**
+     * @return amount in minor units
+     */
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * @return ISO 4217 currency code
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return amount in major units, only meant for displaying and converting
+     */
+    public double toDouble() {
+        return (double) minorUnits / unitsPerMajor(currency);
+    }
+
+    /**
+     * @param other money in the same currency
+     * @return sum of both amounts
+     */
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * @param other money in the same currency
+     * @return this amount minus the other amount
+     */
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * Splits the amount into equal shares without losing minor units,
+     * the first shares get one extra minor unit until the remainder is used up
+     *
+     * @param parts number of shares
+     * @return shares in minor units that sum up to exactly this amount
+     */
+    public long[] split(int parts) {
+        if (parts <= 0) throw new IllegalArgumentException("Cannot split into " + parts + " parts");
+        long share = minorUnits / parts;
+        long remainder = minorUnits % parts;
+        long[] shares = new long[parts];
+        for (int i = 0; i < parts; i++) {
+            shares[i] = share;
+        }
+        long step = Long.signum(remainder);
+        for (int i = 0; i < Math.abs(remainder); i++) {
+            shares[i] += step;
+        }
+        return shares;
+    }
+
+    /**
+     * @param other money to compare the currency with
+     */
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency))
+            throw new IllegalArgumentException(currency + " and " + other.currency + " differ");
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Money money = (Money) o;
+        return minorUnits == money.minorUnits && Objects.equals(currency, money.currency);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(minorUnits, currency);
+    }
+
+    /**
+     * @return amount in minor units followed by the currency
+     */
+    @Override
+    public String toString() {
+        return minorUnits + " " + currency;
+    }
+}
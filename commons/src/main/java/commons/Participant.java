@@ -24,7 +24,8 @@ import java.util.Objects;
 public class Participant implements Cloneable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participant_seq")
+    @SequenceGenerator(name = "participant_seq", allocationSize = EventWeakKey.ALLOCATION_SIZE)
     private long id;
     @Id
     @Column(name = "event_id", length = 5, nullable = false)
@@ -0,0 +1,156 @@
+package commons;
+
+/**
+ * Computes a small set of transfers that settles all debts of a group.
+ * <p>
+ * Balances are given in integer minor currency units (for example cents) and are indexed
+ * by participant ordinal, a positive balance means the participant is owed money.
+ * The biggest creditor is repeatedly matched with the biggest debtor,
+ * which settles at least one of them per transfer so at most n - 1 transfers are made.
+ * Runs iteratively in O(n log n) using two binary heaps of participant ordinals.
+ */
+public final class SettlementSolver {
+
+    private SettlementSolver() {
+    }
+
+    /**
+     * @param balances net balance per participant ordinal in minor units, must sum up to zero.
+     *                 The array is not modified.
+     * @return transfers settling all balances
+     * @throws IllegalArgumentException if the balances do not sum up to zero
+     */
+    public static Transfers solve(long[] balances) {
+        int n = balances.length;
+        long[] remaining = new long[n];
+        int[] creditors = new int[n];
+        int[] debtors = new int[n];
+        int creditorCount = 0;
+        int debtorCount = 0;
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            long balance = balances[i];
+            sum += balance;
+            remaining[i] = Math.abs(balance);
+            if (balance > 0) creditors[creditorCount++] = i;
+            else if (balance < 0) debtors[debtorCount++] = i;
+        }
+        if (sum != 0) throw new IllegalArgumentException("Balances sum up to " + sum);
+        heapify(creditors, creditorCount, remaining);
+        heapify(debtors, debtorCount, remaining);
+
+        // every transfer settles at least one participant and the last one settles two
+        Transfers transfers = new Transfers(Math.max(0, creditorCount + debtorCount - 1));
+        while (creditorCount > 0 && debtorCount > 0) {
+            int creditor = creditors[0];
+            int debtor = debtors[0];
+            long amount = Math.min(remaining[creditor], remaining[debtor]);
+            transfers.add(debtor, creditor, amount);
+            remaining[creditor] -= amount;
+            remaining[debtor] -= amount;
+            if (remaining[creditor] == 0) creditors[0] = creditors[--creditorCount];
+            siftDown(creditors, creditorCount, remaining, 0);
+            if (remaining[debtor] == 0) debtors[0] = debtors[--debtorCount];
+            siftDown(debtors, debtorCount, remaining, 0);
+        }
+        return transfers;
+    }
+
+    /**
+     * Builds a max heap of ordinals ordered by their remaining amount
+     *
+     * @param heap ordinals
+     * @param size number of ordinals in the heap
+     * @param remaining remaining amount per ordinal
+     */
+    private static void heapify(int[] heap, int size, long[] remaining) {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, size, remaining, i);
+        }
+    }
+
+    /**
+     * @param heap ordinals
+     * @param size number of ordinals in the heap
+     * @param remaining remaining amount per ordinal
+     * @param index position of the ordinal to move down
+     */
+    private static void siftDown(int[] heap, int size, long[] remaining, int index) {
+        if (index >= size) return;
+        int value = heap[index];
+        long key = remaining[value];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && remaining[heap[right]] > remaining[heap[child]]) child = right;
+            if (key >= remaining[heap[child]]) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    /**
+     * Transfers stored in parallel primitive arrays,
+     * transfer i moves amount(i) from giver(i) to receiver(i)
+     */
+    public static final class Transfers {
+        private final int[] givers;
+        private final int[] receivers;
+        private final long[] amounts;
+        private int size;
+
+        /**
+         * @param capacity maximum number of transfers
+         */
+        private Transfers(int capacity) {
+            givers = new int[capacity];
+            receivers = new int[capacity];
+            amounts = new long[capacity];
+        }
+
+        /**
+         * @param giver ordinal of the paying participant
+         * @param receiver ordinal of the receiving participant
+         * @param amount amount in minor units
+         */
+        private void add(int giver, int receiver, long amount) {
+            givers[size] = giver;
+            receivers[size] = receiver;
+            amounts[size] = amount;
+            size++;
+        }
+
+        /**
+         * @return number of transfers
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param i transfer index
+         * @return ordinal of the participant that pays
+         */
+        public int giver(int i) {
+            return givers[i];
+        }
+
+        /**
+         * @param i transfer index
+         * @return ordinal of the participant that receives
+         */
+        public int receiver(int i) {
+            return receivers[i];
+        }
+
+        /**
+         * @param i transfer index
+         * @return amount in minor units
+         */
+        public long amount(int i) {
+            return amounts[i];
+        }
+    }
+}
@@ -13,7 +13,8 @@ import java.util.Objects;
 public class Tag implements Cloneable{
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", allocationSize = EventWeakKey.ALLOCATION_SIZE)
     private long id;
     @Id
     @Column(name = "event_id", length = 5, nullable = false)
@@ -8,9 +8,14 @@ import java.util.Objects;
 
 @Entity
 @IdClass(EventWeakKey.class)
+@Table(indexes = {
+    @Index(name = "idx_transaction_giver", columnList = "giver_event_id, giver_id"),
+    @Index(name = "idx_transaction_receiver", columnList = "receiver_event_id, receiver_id")
+})
 public class Transaction implements Cloneable, Comparable<Transaction> {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", allocationSize = EventWeakKey.ALLOCATION_SIZE)
     private long id;
     @Id
     @Column(name = "event_id", length = 5, nullable = false)
@@ -19,7 +24,12 @@ public class Transaction implements Cloneable, Comparable<Transaction> {
     private Participant giver;
     @ManyToOne
     private Participant receiver;
-    private double amount;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "amount_minor",
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL"))
+    @AttributeOverride(name = "currency", column = @Column(name = "amount_currency",
+            length = 3, columnDefinition = "VARCHAR(3) DEFAULT 'USD' NOT NULL"))
+    private Money amount;
     private String currency;
     @Temporal(TemporalType.TIMESTAMP)
     private Date date;
@@ -34,10 +44,20 @@ public class Transaction implements Cloneable, Comparable<Transaction> {
     /**
      * @param giver participant that paid
      * @param receiver participant that received
-     * @param amount amount paid
+     * @param amount amount paid in the base currency
      * @param currency selected currency
      */
     public Transaction(Participant giver, Participant receiver, double amount, String currency) {
+        this(giver, receiver, Money.of(amount, Money.BASE_CURRENCY), currency);
+    }
+
+    /**
+     * @param giver participant that paid
+     * @param receiver participant that received
+     * @param amount amount paid
+     * @param currency selected currency
+     */
+    public Transaction(Participant giver, Participant receiver, Money amount, String currency) {
         this();
         this.giver = giver;
         this.receiver = receiver;
@@ -48,12 +68,24 @@ public class Transaction implements Cloneable, Comparable<Transaction> {
     /**
      * @param giver participant that paid
      * @param receiver participant that received
-     * @param amount amount paid
+     * @param amount amount paid in the base currency
      * @param currency selected currency
      * @param date date for pre-made transactions
      */
     public Transaction(Participant giver, Participant receiver,
                        double amount, String currency, Date date) {
+        this(giver, receiver, Money.of(amount, Money.BASE_CURRENCY), currency, date);
+    }
+
+    /**
+     * @param giver participant that paid
+     * @param receiver participant that received
+     * @param amount amount paid
+     * @param currency selected currency
+     * @param date date for pre-made transactions
+     */
+    public Transaction(Participant giver, Participant receiver,
+                       Money amount, String currency, Date date) {
         this.giver = giver;
         this.receiver = receiver;
         this.amount = amount;
@@ -125,9 +157,9 @@ public class Transaction implements Cloneable, Comparable<Transaction> {
     }
 
     /**
-     * @return amount in default currency
+     * @return amount, in the base currency for transactions entered by users
      */
-    public double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
@@ -147,7 +179,7 @@ public class Transaction implements Cloneable, Comparable<Transaction> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Transaction that = (Transaction) o;
-        return id == that.id && Double.compare(amount, that.amount) == 0
+        return id == that.id && Objects.equals(amount, that.amount)
                 && Objects.equals(eventID, that.eventID)
                 && Objects.equals(giver, that.giver)
                 && Objects.equals(receiver, that.receiver)
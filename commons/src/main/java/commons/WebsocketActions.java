@@ -13,5 +13,8 @@ public enum WebsocketActions {
         UPDATE_TAG,
         REMOVE_TAG,
         ADD_TRANSACTION,
-        REMOVE_TRANSACTION
+        REMOVE_TRANSACTION,
+        BATCH,
+        // raised by the client when it missed frames and has to load the event again
+        RESYNC
 }
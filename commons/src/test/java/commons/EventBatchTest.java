@@ -0,0 +1,46 @@
+package commons;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBatchTest {
+
+    @Test
+    void jsonKeepsReferencesToNewParticipants() throws Exception {
+        Participant carol = new Participant("carol");
+        carol.setId(-1);
+        Expense expense = new Expense(carol, "dinner", 30, "EUR",
+                new ArrayList<>(List.of(carol)), null);
+        EventBatch batch = new EventBatch(List.of(BatchOperation.addParticipant(carol),
+                BatchOperation.addExpense(expense), BatchOperation.removeTransaction(7)));
+
+        ObjectMapper mapper = new ObjectMapper();
+        EventBatch read = mapper.readValue(mapper.writeValueAsString(batch), EventBatch.class);
+
+        List<BatchOperation> operations = read.getOperations();
+        assertEquals(3, operations.size());
+        assertEquals(-1, operations.get(1).getExpense().getExpenseAuthor().getId());
+        assertEquals(WebsocketActions.REMOVE_TRANSACTION, operations.get(2).getAction());
+        assertEquals(7L, operations.get(2).getPayload());
+    }
+
+    @Test
+    void payload() {
+        Participant carol = new Participant("carol");
+        assertSame(carol, BatchOperation.addParticipant(carol).getPayload());
+        assertEquals(3L, BatchOperation.removeExpense(3).getPayload());
+        assertEquals("trip", BatchOperation.changeTitle("trip").getPayload());
+        assertEquals(String.class.getTypeName(),
+                BatchOperation.changeTitle("trip").getPayloadType());
+        assertEquals(Long.class.getTypeName(), BatchOperation.removeTag(4).getPayloadType());
+        ExpenseUpdate changes = new ExpenseUpdate();
+        assertSame(changes, BatchOperation.changeExpense(changes).getPayload());
+        assertEquals(ExpenseUpdate.class.getTypeName(),
+                BatchOperation.changeExpense(changes).getPayloadType());
+    }
+}
@@ -291,4 +291,19 @@ public class EventTest {
         assertSame(clone.getParticipants().getFirst(), clone.getTransactions().getFirst().getGiver());
         assertNotSame(event.getParticipants().getFirst(), clone.getTransactions().getFirst().getGiver());
     }
+
+    @Test
+    void cloneKeepsExpenseParticipants() {
+        Participant p1 = new Participant("Tom");
+        p1.setId(1);
+        Participant p2 = new Participant("Bob");
+        p2.setId(2);
+        Event event = new Event("title", List.of(p1, p2), null);
+        event.addExpense(new Expense(p1, "drinks", 10, "EUR", List.of(p1), null));
+        Event clone = event.clone();
+
+        assertEquals(1, clone.getExpenses().getFirst().getExpenseParticipants().size());
+        assertSame(clone.getParticipants().getFirst(),
+                clone.getExpenses().getFirst().getExpenseParticipants().getFirst());
+    }
 }
@@ -73,7 +73,8 @@ public class ExpenseTest {
 
     @Test
     void testGetAmount() {
-        assertEquals(20.5, e3.getAmount());
+        assertEquals(20.5, e3.getAmount().toDouble());
+        assertEquals(2050, e3.getAmount().getMinorUnits());
     }
 
     @Test
@@ -111,8 +112,8 @@ public class ExpenseTest {
 
     @Test
     void testSetAmount() {
-        e3.setAmount(27.3);
-        assertEquals(27.3, e3.getAmount());
+        e3.setAmount(Money.of(27.3, "USD"));
+        assertEquals(27.3, e3.getAmount().toDouble());
     }
 
     @Test
@@ -133,7 +134,7 @@ public class ExpenseTest {
     void revertChanges() {
         e1.setExpenseAuthor(p1);
         e1.setPurpose("Groceries");
-        e3.setAmount(20.5);
+        e3.setAmount(Money.of(20.5, "USD"));
         e3.setCurrency("USD");
         e2.setType(t1);
     }
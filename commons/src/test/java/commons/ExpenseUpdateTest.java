@@ -0,0 +1,95 @@
+package commons;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseUpdateTest {
+    private Map<Long, Participant> participants;
+    private Map<Long, Tag> tags;
+    private Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        participants = new HashMap<>();
+        for (long id = 1; id <= 50; id++) {
+            Participant participant = new Participant("participant " + id,
+                    "p" + id + "@mail.com", "participant " + id, "NL00BANK" + id, "BANKNL2A");
+            participant.setId(id);
+            participants.put(id, participant);
+        }
+        Tag food = new Tag("food", "#00FF00");
+        food.setId(4);
+        tags = Map.of(4L, food);
+        expense = new Expense(participants.get(1L), "dinner", 30, "EUR",
+                new ArrayList<>(participants.values()), food);
+        expense.setId(9);
+    }
+
+    @Test
+    void onlyChangedFields() {
+        Expense after = expense.clone();
+        after.setPurpose("lunch");
+        after.setType(null);
+
+        ExpenseUpdate changes = ExpenseUpdate.between(expense, after);
+        assertEquals(9, changes.getId());
+        assertEquals("lunch", changes.getPurpose());
+        assertEquals(0L, changes.getTypeId());
+        assertNull(changes.getAuthorId());
+        assertNull(changes.getParticipantIds());
+        assertNull(changes.getAmount());
+    }
+
+    @Test
+    void applyLinksParticipantsById() {
+        Expense after = expense.clone();
+        after.setExpenseAuthor(participants.get(2L));
+        after.setExpenseParticipants(List.of(participants.get(2L), participants.get(3L)));
+
+        Expense known = expense.clone();
+        ExpenseUpdate.between(expense, after).applyTo(known, participants::get, tags::get);
+        assertSame(participants.get(2L), known.getExpenseAuthor());
+        assertSame(participants.get(3L), known.getExpenseParticipants().get(1));
+        assertEquals("dinner", known.getPurpose());
+        assertSame(tags.get(4L), known.getType());
+    }
+
+    @Test
+    void onlyParticipants() {
+        Expense known = expense.clone();
+        ExpenseUpdate.ofParticipants(9, List.of(3L))
+                .applyTo(known, participants::get, tags::get);
+        assertEquals(List.of(participants.get(3L)), known.getExpenseParticipants());
+        assertEquals(participants.get(1L), known.getExpenseAuthor());
+        assertEquals("dinner", known.getPurpose());
+    }
+
+    @Test
+    void jsonRoundTrip() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ExpenseUpdate full = ExpenseUpdate.of(expense);
+        assertEquals(full, mapper.readValue(mapper.writeValueAsString(full), ExpenseUpdate.class));
+    }
+
+    @Test
+    void smallerThanTheExpense() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Expense after = expense.clone();
+        after.setAmount(Money.of(35, "EUR"));
+
+        int expenseBytes = mapper.writeValueAsBytes(after).length;
+        int fullBytes = mapper.writeValueAsBytes(ExpenseUpdate.of(after)).length;
+        int changedBytes = mapper.writeValueAsBytes(ExpenseUpdate.between(expense, after)).length;
+        // 50 participants: the expense embeds each of them, the update only lists their ids
+        assertTrue(fullBytes * 10 < expenseBytes, fullBytes + " vs " + expenseBytes);
+        assertTrue(changedBytes < 100, changedBytes + " bytes");
+    }
+}
@@ -0,0 +1,69 @@
+package commons;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void ofRoundsToMinorUnits() {
+        assertEquals(2730, Money.of(27.3, "USD").getMinorUnits());
+        assertEquals(1, Money.of(0.005, "EUR").getMinorUnits());
+        assertEquals(1234, Money.of(1234, "JPY").getMinorUnits());
+    }
+
+    @Test
+    void unitsPerMajor() {
+        assertEquals(100, Money.unitsPerMajor("EUR"));
+        assertEquals(100, Money.unitsPerMajor("eur"));
+        assertEquals(1, Money.unitsPerMajor("JPY"));
+        assertEquals(100, Money.unitsPerMajor("NONE"));
+    }
+
+    @Test
+    void toDouble() {
+        assertEquals(20.5, new Money(2050, "USD").toDouble());
+    }
+
+    @Test
+    void plusMinus() {
+        Money a = new Money(150, "EUR");
+        Money b = new Money(25, "EUR");
+        assertEquals(new Money(175, "EUR"), a.plus(b));
+        assertEquals(new Money(125, "EUR"), a.minus(b));
+        assertThrows(IllegalArgumentException.class, () -> a.plus(new Money(1, "USD")));
+    }
+
+    @Test
+    void splitDistributesRemainder() {
+        assertArrayEquals(new long[]{334, 333, 333}, new Money(1000, "EUR").split(3));
+        assertArrayEquals(new long[]{-334, -333, -333}, new Money(-1000, "EUR").split(3));
+        assertArrayEquals(new long[]{0, 0}, new Money(0, "EUR").split(2));
+        assertThrows(IllegalArgumentException.class, () -> new Money(1, "EUR").split(0));
+    }
+
+    @Test
+    void splitSumsUp() {
+        for (int parts = 1; parts < 20; parts++) {
+            long sum = 0;
+            for (long share : new Money(9999, "EUR").split(parts)) sum += share;
+            assertEquals(9999, sum);
+        }
+    }
+
+    @Test
+    void json() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Money money = new Money(2050, "USD");
+        String json = mapper.writeValueAsString(money);
+        assertEquals("{\"minorUnits\":2050,\"currency\":\"USD\"}", json);
+        assertEquals(money, mapper.readValue(json, Money.class));
+    }
+
+    @Test
+    void jsonLegacyAmount() throws Exception {
+        assertEquals(new Money(2050, "USD"), new ObjectMapper().readValue("20.5", Money.class));
+    }
+}
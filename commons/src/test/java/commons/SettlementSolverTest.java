@@ -0,0 +1,79 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementSolverTest {
+
+    /**
+     * Applies the transfers to the balances and checks that everyone is settled
+     */
+    private static void assertSettles(long[] balances, SettlementSolver.Transfers transfers) {
+        long[] remaining = balances.clone();
+        for (int i = 0; i < transfers.size(); i++) {
+            assertTrue(transfers.amount(i) > 0);
+            remaining[transfers.giver(i)] += transfers.amount(i);
+            remaining[transfers.receiver(i)] -= transfers.amount(i);
+        }
+        for (long balance : remaining) {
+            assertEquals(0, balance);
+        }
+    }
+
+    @Test
+    void empty() {
+        assertEquals(0, SettlementSolver.solve(new long[0]).size());
+        assertEquals(0, SettlementSolver.solve(new long[]{0, 0}).size());
+    }
+
+    @Test
+    void singleDebt() {
+        var transfers = SettlementSolver.solve(new long[]{-500, 500});
+        assertEquals(1, transfers.size());
+        assertEquals(0, transfers.giver(0));
+        assertEquals(1, transfers.receiver(0));
+        assertEquals(500, transfers.amount(0));
+    }
+
+    @Test
+    void biggestFirst() {
+        long[] balances = {2000, -700, -1300};
+        var transfers = SettlementSolver.solve(balances);
+        assertEquals(2, transfers.size());
+        assertEquals(2, transfers.giver(0));
+        assertEquals(1300, transfers.amount(0));
+        assertSettles(balances, transfers);
+    }
+
+    @Test
+    void inputNotModified() {
+        long[] balances = {300, -100, -200};
+        SettlementSolver.solve(balances);
+        assertArrayEquals(new long[]{300, -100, -200}, balances);
+    }
+
+    @Test
+    void unbalanced() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SettlementSolver.solve(new long[]{100, -99}));
+    }
+
+    @Test
+    void largeGroup() {
+        Random random = new Random(42);
+        int n = 10_000;
+        long[] balances = new long[n];
+        long sum = 0;
+        for (int i = 0; i < n - 1; i++) {
+            balances[i] = random.nextInt(200_001) - 100_000;
+            sum += balances[i];
+        }
+        balances[n - 1] = -sum;
+        var transfers = SettlementSolver.solve(balances);
+        assertTrue(transfers.size() <= n - 1);
+        assertSettles(balances, transfers);
+    }
+}
@@ -62,7 +62,7 @@ class TransactionTest {
 
     @Test
     void getAmount() {
-        assertEquals(50, t.getAmount());
+        assertEquals(new Money(5000, "USD"), t.getAmount());
     }
 
     @Test
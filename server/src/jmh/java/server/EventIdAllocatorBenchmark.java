@@ -0,0 +1,123 @@
+package server;
+
+import org.openjdk.jmh.annotations.*;
+import server.database.IdBlock;
+import server.database.IdBlockRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Creates event ids from many threads at once, comparing the {@link EventIdAllocator}
+ * with the random codes the event controller used before,
+ * which asked the database whether each code was taken.
+ * Database round trips are simulated by parking the thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class EventIdAllocatorBenchmark {
+
+    @Param({"16", "1024"})
+    private int blockSize;
+
+    @Param({"0", "200"})
+    private int roundTripMicros;
+
+    private EventIdAllocator allocator;
+    private Set<String> stored;
+
+    /**
+     * Creates a fresh allocator and an empty event table for every iteration,
+     * so neither runs out of codes
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        allocator = new EventIdAllocator(new SlowBlocks(), Set::of, blockSize,
+                new SplittableRandom(42));
+        stored = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * @return an id, a database round trip only every block size ids
+     */
+    @Benchmark
+    public String allocator() {
+        return allocator.next();
+    }
+
+    /**
+     * Previous generation of EventController, one round trip per attempt.
+     * Two threads can both find a code free and create it twice,
+     * so the store here only counts what the check would have seen.
+     *
+     * @return an id that was not taken when it was checked
+     */
+    @Benchmark
+    public String randomWithProbe() {
+        String id;
+        do {
+            id = EventIdAllocator.encode(ThreadLocalRandom.current()
+                    .nextLong(EventIdAllocator.CODES));
+            roundTrip();
+        } while (stored.contains(id));
+        stored.add(id);
+        return id;
+    }
+
+    /**
+     * Waits as long as a query to the database would take
+     */
+    private void roundTrip() {
+        if (roundTripMicros > 0) LockSupport.parkNanos(roundTripMicros * 1000L);
+    }
+
+    /**
+     * Block reservations in memory, taking one database round trip each
+     */
+    private final class SlowBlocks implements IdBlockRepository {
+        private final Map<String, IdBlock> blocks = new HashMap<>();
+
+        /**
+         * @param name name of the allocator
+         * @return its stored state
+         */
+        @Override
+        public synchronized Optional<IdBlock> findById(String name) {
+            return Optional.ofNullable(blocks.get(name));
+        }
+
+        /**
+         * @param block state of a new allocator
+         * @return the saved state
+         */
+        @Override
+        public synchronized IdBlock save(IdBlock block) {
+            blocks.put(block.getName(), block);
+            return block;
+        }
+
+        /**
+         * @param name name of the allocator
+         * @param size number of counter values to reserve
+         * @return number of allocators updated
+         */
+        @Override
+        public synchronized int advance(String name, long size) {
+            roundTrip();
+            IdBlock block = blocks.get(name);
+            if (block == null) return 0;
+            blocks.put(name, new IdBlock(name, block.getHighWater() + size,
+                    block.getPermutationKey()));
+            return 1;
+        }
+    }
+}
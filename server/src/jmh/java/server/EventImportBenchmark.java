@@ -0,0 +1,127 @@
+package server;
+
+import commons.Event;
+import commons.Expense;
+import commons.Money;
+import commons.Participant;
+import commons.Tag;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import server.database.EventRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports an event with 100k expenses with {@link EventRepository#saveWithNewIds},
+ * with and without JDBC batching.
+ * The in-memory database is reached over a local TCP connection,
+ * so every statement or batch costs a round trip as it would with a database server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventImportBenchmark {
+    private static final String ID = "BENCH";
+    private static final int PARTICIPANTS = 50;
+    private static final int EXPENSES = 100_000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private Server database;
+    private ConfigurableApplicationContext context;
+    private EventRepository repo;
+    private Event event;
+
+    /**
+     * Only the repositories and the database, without the web server
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = { "commons", "server" })
+    @EnableJpaRepositories(basePackageClasses = EventRepository.class)
+    static class Database {
+    }
+
+    /**
+     * Starts a fresh database, a batch size of 1 turns batching off
+     *
+     * @throws SQLException if the database server cannot be started
+     */
+    @Setup(Level.Trial)
+    public void start() throws SQLException {
+        database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:import";
+        context = new SpringApplicationBuilder(Database.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + url,
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize)
+                .run();
+        repo = context.getBean(EventRepository.class);
+    }
+
+    /**
+     * Builds the event as it is read from an export, every item with its old id
+     */
+    @Setup(Level.Invocation)
+    public void read() {
+        event = new Event("import");
+        event.setId(ID);
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            Participant participant = new Participant("p" + i);
+            participant.setEventID(ID);
+            participant.setId(i + 1);
+            event.getParticipants().add(participant);
+        }
+        Tag tag = new Tag("food", "#00FF00");
+        tag.setEventID(ID);
+        tag.setId(1);
+        event.getTags().add(tag);
+        List<Participant> participants = event.getParticipants();
+        for (int i = 0; i < EXPENSES; i++) {
+            Expense expense = new Expense(participants.get(i % PARTICIPANTS), "e" + i,
+                    new Money(100 + i, "EUR"), "EUR",
+                    new ArrayList<>(participants.subList(0, 1 + i % 3)), tag);
+            expense.setEventID(ID);
+            expense.setId(i + 1);
+            event.getExpenses().add(expense);
+        }
+    }
+
+    /**
+     * @return the imported event
+     */
+    @Benchmark
+    public Event saveWithNewIds() {
+        return repo.saveWithNewIds(event);
+    }
+
+    /**
+     * Removes the imported event so the next import starts from an empty database
+     */
+    @TearDown(Level.Invocation)
+    public void delete() {
+        repo.markDeleted(ID);
+        repo.purge(List.of(ID));
+    }
+
+    /**
+     * Stops the database
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        database.stop();
+    }
+}
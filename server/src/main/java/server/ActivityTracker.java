@@ -0,0 +1,103 @@
+package server;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import server.database.EventRepository;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers the last activity of events in memory and writes them in batches,
+ * so a change to an expense, participant or tag does not save the whole event.
+ * <p>
+ * Touching an event that is already waiting to be written only moves its time forward,
+ * each flush writes every waiting event once with a single column update.
+ * Until then the database holds an older last activity,
+ * readers that need it exact have to call {@link #flush()} first.
+ * Written events are dropped from the {@link EventCache} so it does not keep serving the old time.
+ */
+public class ActivityTracker {
+    private final EventRepository repo;
+    private final EventCache cache;
+    private final Map<String, Date> pending;
+    private final AtomicLong touches;
+    private final AtomicLong coalesced;
+    private final AtomicLong flushes;
+    private final AtomicLong writes;
+
+    /**
+     * @param repo event repository the activity is written to
+     * @param cache cache of loaded events, written events are dropped from it
+     */
+    public ActivityTracker(EventRepository repo, EventCache cache) {
+        this.repo = repo;
+        this.cache = cache;
+        this.pending = new ConcurrentHashMap<>();
+        this.touches = new AtomicLong();
+        this.coalesced = new AtomicLong();
+        this.flushes = new AtomicLong();
+        this.writes = new AtomicLong();
+    }
+
+    /**
+     * Records activity on the event now, it is written by the next flush
+     *
+     * @param eventID id of the changed event
+     */
+    public void touch(String eventID) {
+        touch(eventID, new Date());
+    }
+
+    /**
+     * @param eventID id of the changed event
+     * @param time time of the activity
+     */
+    public void touch(String eventID, Date time) {
+        touches.incrementAndGet();
+        pending.merge(eventID, time, (old, now) -> {
+            coalesced.incrementAndGet();
+            return now.after(old) ? now : old;
+        });
+    }
+
+    /**
+     * Writes the activity of all waiting events in one transaction.
+     * If writing fails the activity is kept and written by the next flush.
+     * Runs on a fixed delay set by splitty.activity.flush-interval in milliseconds.
+     *
+     * @return number of events written
+     */
+    @Scheduled(fixedDelayString = "${splitty.activity.flush-interval:1000}")
+    public int flush() {
+        Map<String, Date> batch = new HashMap<>();
+        for (String eventID : pending.keySet()) {
+            Date time = pending.remove(eventID);
+            if (time != null) batch.put(eventID, time);
+        }
+        if (batch.isEmpty()) return 0;
+        try {
+            repo.updateLastActivities(batch);
+        } catch (RuntimeException e) {
+            batch.forEach((eventID, time) ->
+                    pending.merge(eventID, time, (old, now) -> now.after(old) ? now : old));
+            throw e;
+        }
+        batch.keySet().forEach(cache::invalidate);
+        flushes.incrementAndGet();
+        writes.addAndGet(batch.size());
+        return batch.size();
+    }
+
+    /**
+     * @return number of touches, touches merged into one already waiting,
+     * flushes that wrote anything, events written and events waiting
+     */
+    public Map<String, Long> getStatistics() {
+        return Map.of("touches", touches.get(), "coalesced", coalesced.get(),
+                "flushes", flushes.get(), "writes", writes.get(),
+                "pending", (long) pending.size());
+    }
+}
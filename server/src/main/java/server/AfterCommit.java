@@ -0,0 +1,49 @@
+package server;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers changes to in-memory state until the transaction that changed the database ends.
+ * <p>
+ * Caches dropped before the commit can be filled again from the old rows by another request,
+ * and the copy stays stale. Without a transaction the changes are made right away.
+ */
+public final class AfterCommit {
+
+    /**
+     * Only static methods
+     */
+    private AfterCommit() {
+    }
+
+    /**
+     * @param task runs once the current transaction commits, right away if there is none
+     */
+    public static void run(Runnable task) {
+        run(task, () -> { });
+    }
+
+    /**
+     * @param task runs once the current transaction commits, right away if there is none
+     * @param rolledBack runs instead if the transaction is rolled back,
+     *                   including when the commit itself fails
+     */
+    public static void run(Runnable task, Runnable rolledBack) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) rolledBack.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,294 @@
+package server;
+
+import commons.Event;
+import commons.Expense;
+import commons.Money;
+import commons.Participant;
+import commons.Transaction;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the net balance of every participant per event and currency,
+ * in minor units of the currency so sums and splits are exact.
+ * A positive balance means the participant is owed money, a negative one that they owe money.
+ * <p>
+ * The balances of an event are computed from the full event once,
+ * after that every added, updated or removed expense and transaction
+ * only touches the participants involved in it.
+ * Changes that are too big to patch (like removing a participant) call {@link #invalidate(String)}.
+ */
+public class BalanceLedger {
+    private final Map<String, EventBalances> ledgers;
+    // only holds the events whose balances are being computed
+    private final Map<String, Computation> computing;
+
+    /**
+     * Creates an empty ledger, balances are computed on first request
+     */
+    public BalanceLedger() {
+        this.ledgers = new ConcurrentHashMap<>();
+        this.computing = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the balances of the event, computing them from the loaded event if needed.
+     *
+     * @param eventID event id
+     * @param loader function loading the event
+     * @return map from currency to map from participant id to balance in minor units,
+     * empty if the event does not exist
+     */
+    public Optional<Map<String, Map<Long, Long>>> getBalances(
+            String eventID, Function<String, Optional<Event>> loader) {
+        EventBalances balances = ledgers.get(eventID);
+        if (balances != null) return Optional.of(balances.snapshot());
+
+        Computation computation = computing.compute(eventID,
+                (id, running) -> running == null ? new Computation() : running.join());
+        long startGeneration = computation.generation;
+        try {
+            Optional<Event> event = loader.apply(eventID);
+            if (event.isEmpty()) return Optional.empty();
+            EventBalances computed = new EventBalances(event.get());
+            computing.compute(eventID, (id, running) -> {
+                // the event changed while computing, the result is returned but not kept
+                if (running.generation == startGeneration) ledgers.putIfAbsent(eventID, computed);
+                return running;
+            });
+            return Optional.of(computed.snapshot());
+        } finally {
+            computing.compute(eventID, (id, running) -> running.leave());
+        }
+    }
+
+    /**
+     * Adds the expense to the balances or replaces the previous version of it
+     *
+     * @param expense saved expense
+     */
+    public void putExpense(Expense expense) {
+        EventBalances balances = changed(expense.getEventID());
+        if (balances != null) balances.put(expenseKey(expense.getId()), Entry.of(expense));
+    }
+
+    /**
+     * @param eventID event id
+     * @param id id of the removed expense
+     */
+    public void removeExpense(String eventID, long id) {
+        EventBalances balances = changed(eventID);
+        if (balances != null) balances.remove(expenseKey(id));
+    }
+
+    /**
+     * Adds the transaction to the balances or replaces the previous version of it
+     *
+     * @param transaction saved transaction
+     */
+    public void putTransaction(Transaction transaction) {
+        EventBalances balances = changed(transaction.getEventID());
+        if (balances != null)
+            balances.put(transactionKey(transaction.getId()), Entry.of(transaction));
+    }
+
+    /**
+     * @param eventID event id
+     * @param id id of the removed transaction
+     */
+    public void removeTransaction(String eventID, long id) {
+        EventBalances balances = changed(eventID);
+        if (balances != null) balances.remove(transactionKey(id));
+    }
+
+    /**
+     * Drops the balances of the event, they get recomputed on the next request
+     *
+     * @param eventID event id
+     */
+    public void invalidate(String eventID) {
+        computing.computeIfPresent(eventID, (id, running) -> running.change());
+        ledgers.remove(eventID);
+    }
+
+    /**
+     * @param eventID event id
+     * @return true iff the balances of the event are kept in memory
+     */
+    public boolean isLoaded(String eventID) {
+        return ledgers.containsKey(eventID);
+    }
+
+    /**
+     * Registers a change so concurrent computations of the event are not kept
+     *
+     * @param eventID id of the changed event
+     * @return balances of the event or null if they are not loaded
+     */
+    private EventBalances changed(String eventID) {
+        computing.computeIfPresent(eventID, (id, running) -> running.change());
+        return ledgers.get(eventID);
+    }
+
+    /**
+     * Expenses and transactions have their own id sequences,
+     * so they are kept apart by the sign of the key
+     *
+     * @param id expense id
+     * @return key of the expense entry
+     */
+    private static long expenseKey(long id) {
+        return id;
+    }
+
+    /**
+     * @param id transaction id
+     * @return key of the transaction entry
+     */
+    private static long transactionKey(long id) {
+        return -id - 1;
+    }
+
+    /**
+     * Computations of the balances of one event that are running,
+     * only changed inside the compute functions of the map holding it
+     */
+    private static final class Computation {
+        private int running = 1;
+        // read before loading the event, any change after that outdates the result
+        private volatile long generation;
+
+        /**
+         * @return this computation, with one more computation running
+         */
+        private Computation join() {
+            running++;
+            return this;
+        }
+
+        /**
+         * @return this computation, or null to remove it when the last one finished
+         */
+        private Computation leave() {
+            return --running == 0 ? null : this;
+        }
+
+        /**
+         * @return this computation, with the results of the running computations outdated
+         */
+        private Computation change() {
+            generation++;
+            return this;
+        }
+    }
+
+    /**
+     * Change in balance caused by a single expense or transaction
+     *
+     * @param currency currency of the amounts
+     * @param participants ids of the affected participants
+     * @param deltas change in balance of each participant in minor units
+     */
+    private record Entry(String currency, long[] participants, long[] deltas) {
+
+        /**
+         * The author gets the full amount back, every participant pays an equal share,
+         * the minor units that do not split evenly go to the first participants
+         *
+         * @param expense expense
+         * @return entry of the expense
+         */
+        static Entry of(Expense expense) {
+            List<Participant> split = expense.getExpenseParticipants();
+            Money amount = expense.getAmount();
+            long[] ids = new long[split.size() + 1];
+            long[] deltas = new long[split.size() + 1];
+            ids[0] = expense.getExpenseAuthor().getId();
+            if (!split.isEmpty()) {
+                deltas[0] = amount.getMinorUnits();
+                long[] shares = amount.split(split.size());
+                for (int i = 0; i < split.size(); i++) {
+                    ids[i + 1] = split.get(i).getId();
+                    deltas[i + 1] = -shares[i];
+                }
+            }
+            return new Entry(amount.getCurrency(), ids, deltas);
+        }
+
+        /**
+         * The giver pays off part of their debt to the receiver
+         *
+         * @param transaction transaction
+         * @return entry of the transaction
+         */
+        static Entry of(Transaction transaction) {
+            Money amount = transaction.getAmount();
+            return new Entry(amount.getCurrency(),
+                    new long[]{transaction.getGiver().getId(), transaction.getReceiver().getId()},
+                    new long[]{amount.getMinorUnits(), -amount.getMinorUnits()});
+        }
+    }
+
+    /**
+     * Balances of a single event
+     */
+    private static final class EventBalances {
+        private final Map<Long, Entry> entries;
+        private final Map<String, Map<Long, Long>> balances;
+
+        /**
+         * @param event event to compute the balances of
+         */
+        private EventBalances(Event event) {
+            entries = new HashMap<>();
+            balances = new HashMap<>();
+            for (Expense expense : event.getExpenses()) {
+                put(expenseKey(expense.getId()), Entry.of(expense));
+            }
+            for (Transaction transaction : event.getTransactions()) {
+                put(transactionKey(transaction.getId()), Entry.of(transaction));
+            }
+        }
+
+        /**
+         * @param key entry key
+         * @param entry new entry, replaces the old one with the same key
+         */
+        private synchronized void put(long key, Entry entry) {
+            remove(key);
+            entries.put(key, entry);
+            apply(entry, 1);
+        }
+
+        /**
+         * @param key entry key
+         */
+        private synchronized void remove(long key) {
+            Entry old = entries.remove(key);
+            if (old != null) apply(old, -1);
+        }
+
+        /**
+         * @param entry entry to apply
+         * @param sign 1 to add the entry, -1 to undo it
+         */
+        private void apply(Entry entry, int sign) {
+            Map<Long, Long> currency =
+                    balances.computeIfAbsent(entry.currency(), c -> new HashMap<>());
+            for (int i = 0; i < entry.participants().length; i++) {
+                currency.merge(entry.participants()[i], sign * entry.deltas()[i], Long::sum);
+            }
+        }
+
+        /**
+         * @return deep copy of the balances
+         */
+        private synchronized Map<String, Map<Long, Long>> snapshot() {
+            Map<String, Map<Long, Long>> copy = new HashMap<>();
+            balances.forEach((currency, map) -> copy.put(currency, new HashMap<>(map)));
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package server;
+
+/**
+ * Settings of the STOMP broker that broadcasts the changes of events to the clients
+ *
+ * @param mode simple for the in-memory broker of this server,
+ *             relay to forward to an external broker shared by several servers
+ * @param relayHost host of the external broker
+ * @param relayPort STOMP port of the external broker
+ * @param relayLogin login of this server at the external broker
+ * @param relayPasscode passcode of this server at the external broker
+ * @param inboundThreads threads handling the frames sent by clients
+ * @param outboundThreads threads writing the frames sent to clients
+ * @param sendBufferSize bytes buffered for a slow client before it is disconnected
+ * @param sendTimeLimit milliseconds a send to a client may take before it is disconnected
+ * @param messageSizeLimit maximum size in bytes of a frame sent by a client
+ */
+public record BrokerSettings(String mode, String relayHost, int relayPort,
+                             String relayLogin, String relayPasscode,
+                             int inboundThreads, int outboundThreads,
+                             int sendBufferSize, int sendTimeLimit, int messageSizeLimit) {
+
+    /**
+     * @throws IllegalArgumentException if the mode is unknown
+     */
+    public BrokerSettings {
+        if (!"simple".equals(mode) && !"relay".equals(mode))
+            throw new IllegalArgumentException("Unknown broker mode " + mode);
+    }
+
+    /**
+     * @return true iff broadcasts are forwarded to an external broker
+     */
+    public boolean isRelay() {
+        return "relay".equals(mode);
+    }
+}
@@ -15,13 +15,29 @@
  */
 package server;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.Random;
+import java.util.Set;
 import java.util.random.RandomGenerator;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import server.api.AdminController;
+import server.database.DailyRatesRepository;
+import server.database.EventRepository;
+import server.database.IdBlockRepository;
 
 @Configuration
+@EnableScheduling
 public class Config {
 
     /**
@@ -31,4 +47,175 @@ public class Config {
     public RandomGenerator getRandomGenerator() {
         return new Random();
     }
-}
\ No newline at end of file
+
+    /**
+     * @param size maximum number of events kept in memory
+     * @return the cache of loaded events shared by all controllers
+     */
+    @Bean
+    public EventCache getEventCache(@Value("${splitty.cache.events.size:256}") int size) {
+        return new EventCache(size);
+    }
+
+    /**
+     * @return the participant balances of all events
+     */
+    @Bean
+    public BalanceLedger getBalanceLedger() {
+        return new BalanceLedger();
+    }
+
+    /**
+     * Whatever is still waiting is written when the server shuts down
+     *
+     * @param repo event repository
+     * @param cache cache of loaded events
+     * @return the tracker buffering the last activity of events
+     */
+    @Bean(destroyMethod = "flush")
+    public ActivityTracker getActivityTracker(EventRepository repo, EventCache cache) {
+        return new ActivityTracker(repo, cache);
+    }
+
+    /**
+     * @param repo event repository
+     * @param batchSize maximum number of deleted events purged in one transaction
+     * @return the purger removing the rows of deleted events in the background
+     */
+    @Bean
+    public EventPurger getEventPurger(EventRepository repo,
+                                      @Value("${splitty.purge.batch-size:20}") int batchSize) {
+        return new EventPurger(repo, batchSize);
+    }
+
+    /**
+     * @param directory directory of the archive segments
+     * @param mapper maps events to and from JSON
+     * @return the on-disk archive of inactive events
+     * @throws IOException if the existing archive cannot be read
+     */
+    @Bean
+    public EventArchive getEventArchive(
+            @Value("${splitty.archive.directory:./event-archive}") String directory,
+            ObjectMapper mapper) throws IOException {
+        return new EventArchive(Path.of(directory), mapper);
+    }
+
+    /**
+     * @param repo event repository
+     * @param archive on-disk archive of inactive events
+     * @param cache cache of loaded events
+     * @param ledger participant balances of events
+     * @param activity buffered last activity of events
+     * @param adminController admin feed of changed events
+     * @param inactiveDays days without activity after which an event is archived
+     * @param batchSize maximum number of events in one archive segment
+     * @return the archiver moving inactive events out of the database and back,
+     * it settles the events a previous run left marked before it is used
+     */
+    @Bean(initMethod = "recover")
+    public EventArchiver getEventArchiver(EventRepository repo, EventArchive archive,
+                                          EventCache cache, BalanceLedger ledger,
+                                          ActivityTracker activity,
+                                          AdminController adminController,
+                                          @Value("${splitty.archive.inactive-days:90}")
+                                          long inactiveDays,
+                                          @Value("${splitty.archive.batch-size:100}")
+                                          int batchSize) {
+        return new EventArchiver(repo, archive, cache, ledger, activity, adminController,
+                Duration.ofDays(inactiveDays), batchSize, Clock.systemUTC());
+    }
+
+    /**
+     * @param blocks repository of the reserved id blocks
+     * @param repo event repository
+     * @param archive on-disk archive of inactive events
+     * @param blockSize number of ids a server reserves at a time
+     * @return the allocator of the ids of new events
+     */
+    @Bean
+    public EventIdAllocator getEventIdAllocator(IdBlockRepository blocks, EventRepository repo,
+                                                EventArchive archive,
+                                                @Value("${splitty.ids.block-size:64}")
+                                                int blockSize) {
+        return new EventIdAllocator(blocks, () -> {
+            Set<String> ids = new HashSet<>(repo.findAllIdsIncludingDeleted());
+            ids.addAll(archive.getIds());
+            return ids;
+        }, blockSize, new SecureRandom());
+    }
+
+    /**
+     * @param url base url of the historical rates
+     * @param appId app id of the openexchangerates account
+     * @return the provider of rates the store does not know yet
+     */
+    @Bean
+    public RateProvider getRateProvider(
+            @Value("${splitty.rates.url:https://openexchangerates.org/api/historical/}") String url,
+            @Value("${splitty.rates.app-id:4368d26633d149e0b992c5bcdce76270}") String appId) {
+        return new OpenExchangeRatesProvider(url, appId);
+    }
+
+    /**
+     * @param provider provider of rates not known yet
+     * @param repo database of the rates of past days
+     * @param todayTtl minutes the rates of today are used before fetching them again
+     * @param size maximum number of days kept in memory
+     * @return the exchange rates by day
+     */
+    @Bean
+    public RateStore getRateStore(RateProvider provider, DailyRatesRepository repo,
+                                  @Value("${splitty.rates.today-ttl:60}") long todayTtl,
+                                  @Value("${splitty.rates.cache.size:1024}") int size) {
+        return new RateStore(provider, repo, Clock.systemUTC(),
+                Duration.ofMinutes(todayTtl), size);
+    }
+
+    /**
+     * @param mode simple or relay
+     * @param relayHost host of the external broker
+     * @param relayPort STOMP port of the external broker
+     * @param relayLogin login at the external broker
+     * @param relayPasscode passcode at the external broker
+     * @param inboundThreads threads handling the frames sent by clients
+     * @param outboundThreads threads writing the frames sent to clients
+     * @param sendBufferSize bytes buffered for a slow client
+     * @param sendTimeLimit milliseconds a send to a client may take
+     * @param messageSizeLimit maximum size in bytes of a frame sent by a client
+     * @return the settings of the websocket broker
+     */
+    @Bean
+    public BrokerSettings getBrokerSettings(
+            @Value("${splitty.websocket.broker:simple}") String mode,
+            @Value("${splitty.websocket.relay.host:localhost}") String relayHost,
+            @Value("${splitty.websocket.relay.port:61613}") int relayPort,
+            @Value("${splitty.websocket.relay.login:guest}") String relayLogin,
+            @Value("${splitty.websocket.relay.passcode:guest}") String relayPasscode,
+            @Value("${splitty.websocket.inbound-threads:4}") int inboundThreads,
+            @Value("${splitty.websocket.outbound-threads:8}") int outboundThreads,
+            @Value("${splitty.websocket.send-buffer-size:1048576}") int sendBufferSize,
+            @Value("${splitty.websocket.send-time-limit:10000}") int sendTimeLimit,
+            @Value("${splitty.websocket.message-size-limit:65536}") int messageSizeLimit) {
+        return new BrokerSettings(mode, relayHost, relayPort, relayLogin, relayPasscode,
+                inboundThreads, outboundThreads, sendBufferSize, sendTimeLimit, messageSizeLimit);
+    }
+
+    /**
+     * Whatever is still waiting is sent when the server shuts down
+     *
+     * @param simp websocket object used to send updates to everyone
+     * @param window milliseconds changes to an event are collected into one frame
+     * @param threads number of publisher threads
+     * @param maxPending changes waiting before request threads send them themselves
+     * @return the publisher of the changes to event subscribers
+     */
+    @Bean(destroyMethod = "close")
+    public EventPublisher getEventPublisher(
+            SimpMessagingTemplate simp,
+            @Value("${splitty.websocket.publish-window:50}") long window,
+            @Value("${splitty.websocket.publisher-threads:2}") int threads,
+            @Value("${splitty.websocket.max-pending:10000}") int maxPending) {
+        return new EventPublisher(simp, Duration.ofMillis(window), threads, maxPending);
+    }
+}
@@ -0,0 +1,236 @@
+package server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressed on-disk storage of events that are not in the database anymore.
+ * <p>
+ * Every batch of archived events is one segment: gzipped JSON lines of the full events
+ * and a plain list of their ids next to it. Each event is its own JSON document because
+ * participants are written once per document and referred to by id after that.
+ * Only the id lists are read at startup, a segment itself is read when one of its events
+ * is needed again.
+ * Segments are never rewritten, taking an event out only shortens the id list
+ * and the segment is deleted once its list is empty.
+ */
+public class EventArchive {
+    private static final String EVENTS = ".json.gz";
+    private static final String IDS = ".ids";
+
+    private final Path directory;
+    private final ObjectMapper mapper;
+    private final Map<String, Path> segments;
+    // ids left in every segment, changed only while holding the lock of the archive
+    private final Map<Path, Set<String>> contents;
+    private long nextSegment;
+
+    /**
+     * @param directory directory of the segments, created when the first segment is written
+     * @param mapper maps events to and from JSON
+     * @throws IOException if the ids of existing segments cannot be read
+     */
+    public EventArchive(Path directory, ObjectMapper mapper) throws IOException {
+        this.directory = directory;
+        this.mapper = mapper;
+        this.segments = new ConcurrentHashMap<>();
+        this.contents = new ConcurrentHashMap<>();
+        if (Files.isDirectory(directory)) load();
+    }
+
+    /**
+     * Reads the id lists of the segments in the directory
+     *
+     * @throws IOException if a list cannot be read
+     */
+    private void load() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + IDS)) {
+            for (Path ids : files) {
+                String name = ids.getFileName().toString();
+                String segment = name.substring(0, name.length() - IDS.length());
+                nextSegment = Math.max(nextSegment, Long.parseLong(segment) + 1);
+                Path events = directory.resolve(segment + EVENTS);
+                Set<String> left = new LinkedHashSet<>();
+                for (String id : Files.readAllLines(ids)) {
+                    if (!id.isEmpty()) left.add(id);
+                }
+                add(events, left);
+            }
+        }
+    }
+
+    /**
+     * Writes the events as a new segment.
+     * The id list is moved in place last, so a segment is only known once it is complete,
+     * and both files are forced to disk before this returns so the rows can be removed.
+     *
+     * @param events full events to archive
+     * @return the segment file
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized Path write(List<Event> events) throws IOException {
+        Files.createDirectories(directory);
+        String segment = String.format("%012d", nextSegment++);
+        Path file = directory.resolve(segment + EVENTS);
+        Path temp = directory.resolve(segment + EVENTS + ".tmp");
+        try (Writer out = new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8)) {
+            for (Event event : events) {
+                out.write(mapper.writeValueAsString(event));
+                out.write('\n');
+            }
+        }
+        force(temp);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+        List<String> ids = events.stream().map(Event::getId).toList();
+        writeIds(directory.resolve(segment + IDS), ids);
+        add(file, new LinkedHashSet<>(ids));
+        return file;
+    }
+
+    /**
+     * @param file segment file
+     * @param ids ids of the events left in the segment
+     */
+    private void add(Path file, Set<String> ids) {
+        if (ids.isEmpty()) return;
+        contents.put(file, ids);
+        for (String id : ids) segments.put(id, file);
+    }
+
+    /**
+     * @param id event id
+     * @return the archived event, empty if it is not archived
+     * @throws IOException if its segment cannot be read
+     */
+    public Optional<Event> read(String id) throws IOException {
+        Path file = segments.get(id);
+        if (file == null) return Optional.empty();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                Event event = mapper.readValue(line, Event.class);
+                if (event.getId().equals(id)) return Optional.of(event);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Takes the event out of the archive, for example after it was restored
+     *
+     * @param id event id
+     * @throws IOException if the id list of its segment cannot be written
+     */
+    public synchronized void remove(String id) throws IOException {
+        Path file = segments.remove(id);
+        if (file == null) return;
+        Set<String> left = contents.get(file);
+        left.remove(id);
+        String name = file.getFileName().toString();
+        Path ids = directory.resolve(name.substring(0, name.length() - EVENTS.length()) + IDS);
+        if (left.isEmpty()) {
+            contents.remove(file);
+            Files.deleteIfExists(ids);
+            Files.deleteIfExists(file);
+        } else {
+            writeIds(ids, List.copyOf(left));
+        }
+    }
+
+    /**
+     * @param file id list of a segment
+     * @param ids ids of the events in the segment
+     * @throws IOException if the list cannot be written
+     */
+    private void writeIds(Path file, List<String> ids) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, ids);
+        force(temp);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory();
+    }
+
+    /**
+     * @param file file whose content has to survive a crash
+     * @throws IOException if it cannot be written to disk
+     */
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes the entries of the directory to disk, so a file moved into it survives a crash
+     *
+     * @throws IOException if the entries cannot be written
+     */
+    private void forceDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // some platforms cannot open a directory, a move is durable there already
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @param id event id
+     * @return true iff the event is archived
+     */
+    public boolean contains(String id) {
+        return segments.containsKey(id);
+    }
+
+    /**
+     * @return ids of the archived events
+     */
+    public Set<String> getIds() {
+        return Set.copyOf(segments.keySet());
+    }
+
+    /**
+     * @return number of archived events, number of segments and their compressed size in bytes
+     */
+    public Map<String, Long> getStatistics() {
+        List<Path> files = List.copyOf(contents.keySet());
+        long bytes = 0;
+        for (Path file : files) {
+            try {
+                bytes += Files.size(file);
+            } catch (IOException e) {
+                // removed meanwhile
+            }
+        }
+        return Map.of("archived", (long) segments.size(), "segments", (long) files.size(),
+                "archiveBytes", bytes);
+    }
+}
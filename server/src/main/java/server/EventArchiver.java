@@ -0,0 +1,252 @@
+package server;
+
+import commons.Event;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import server.api.AdminController;
+import server.database.EventRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves events without activity for a while out of the database into the {@link EventArchive},
+ * and back in when one of them is opened again.
+ * <p>
+ * Every run archives the least recently active events in batches.
+ * An event is marked as being archived before it is read, only if it is still inactive,
+ * so a change made after it was read can no longer reach it and the {@link EventPurger}
+ * leaves its rows alone; each batch of marked events becomes one segment,
+ * forced to disk before their rows are removed in bulk.
+ * Events still marked at startup are finished if their segment was written
+ * and brought back otherwise.
+ * A restored event gets new ids for its participants, expenses and tags,
+ * clients load the whole event when they open it so they never see the old ones.
+ */
+public class EventArchiver {
+    private final EventRepository repo;
+    private final EventArchive archive;
+    private final EventCache cache;
+    private final BalanceLedger ledger;
+    private final ActivityTracker activity;
+    private final AdminController adminController;
+    private final Duration inactivity;
+    private final int batchSize;
+    private final Clock clock;
+    private final AtomicLong archived;
+    private final AtomicLong restored;
+    private final AtomicLong restoreNanos;
+    private final AtomicLong maxRestoreNanos;
+    private final AtomicLong failures;
+    private final Map<String, Restore> restoring;
+
+    /**
+     * @param repo event repository
+     * @param archive storage of the archived events
+     * @param cache cache of loaded events, archived events are dropped from it
+     * @param ledger participant balances of events, archived events are dropped from it
+     * @param activity buffered activity, written before inactive events are selected
+     * @param adminController admin feed, notified of every archived and restored event
+     * @param inactivity time without activity after which an event is archived
+     * @param batchSize maximum number of events in one segment
+     * @param clock clock deciding which events are inactive
+     */
+    public EventArchiver(EventRepository repo, EventArchive archive, EventCache cache,
+                         BalanceLedger ledger, ActivityTracker activity,
+                         AdminController adminController, Duration inactivity, int batchSize,
+                         Clock clock) {
+        if (batchSize < 1) throw new IllegalArgumentException("batch size " + batchSize);
+        this.repo = repo;
+        this.archive = archive;
+        this.cache = cache;
+        this.ledger = ledger;
+        this.activity = activity;
+        this.adminController = adminController;
+        this.inactivity = inactivity;
+        this.batchSize = batchSize;
+        this.clock = clock;
+        this.archived = new AtomicLong();
+        this.restored = new AtomicLong();
+        this.restoreNanos = new AtomicLong();
+        this.maxRestoreNanos = new AtomicLong();
+        this.failures = new AtomicLong();
+        this.restoring = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Archives inactive events until none is left or a segment cannot be written.
+     * Runs on a fixed delay set by splitty.archive.interval in milliseconds.
+     *
+     * @return number of events archived
+     */
+    @Scheduled(fixedDelayString = "${splitty.archive.interval:3600000}")
+    public int archive() {
+        Date before = Date.from(clock.instant().minus(inactivity));
+        try {
+            activity.flush();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            return 0;
+        }
+        int done = 0;
+        List<String> ids;
+        do {
+            ids = repo.findInactiveIds(before, PageRequest.of(0, batchSize));
+            // events active since they were selected are skipped, the next run finds the rest
+            List<String> marked = ids.stream().filter(id -> repo.markInactive(id, before) > 0)
+                    .toList();
+            if (marked.isEmpty()) break;
+            List<Event> events = marked.stream().map(repo::findFullIncludingDeletedById)
+                    .flatMap(Optional::stream).toList();
+            try {
+                archive.write(events);
+            } catch (IOException e) {
+                failures.incrementAndGet();
+                repo.unmarkArchiving(marked);
+                break;
+            }
+            List<String> written = events.stream().map(Event::getId).toList();
+            for (String id : written) {
+                cache.invalidate(id);
+                ledger.invalidate(id);
+                adminController.update(id);
+            }
+            repo.purgeArchived(written);
+            archived.addAndGet(written.size());
+            done += written.size();
+        } while (ids.size() == batchSize);
+        return done;
+    }
+
+    /**
+     * Settles the events a run left marked as being archived when the server stopped:
+     * the rows of the events in a written segment are removed, the others are unmarked.
+     *
+     * @return number of events whose rows were removed
+     */
+    public int recover() {
+        List<String> marked = repo.findArchivingIds();
+        if (marked.isEmpty()) return 0;
+        List<String> written = marked.stream().filter(archive::contains).toList();
+        List<String> unwritten = marked.stream().filter(id -> !archive.contains(id)).toList();
+        if (!unwritten.isEmpty()) repo.unmarkArchiving(unwritten);
+        if (!written.isEmpty()) repo.purgeArchived(written);
+        for (String id : marked) {
+            cache.invalidate(id);
+            ledger.invalidate(id);
+            adminController.update(id);
+        }
+        return written.size();
+    }
+
+    /**
+     * Puts an archived event back into the database.
+     * Restoring counts as activity, so the event is not archived again right away.
+     * Requests for the same event wait for one restore, other events are restored meanwhile.
+     *
+     * @param id event id
+     * @return the event loaded from the database, empty if it is neither archived nor stored
+     */
+    public Optional<Event> restore(String id) {
+        Restore restore = restoring.compute(id,
+                (key, running) -> running == null ? new Restore() : running.join());
+        try {
+            synchronized (restore) {
+                return restoreAlone(id);
+            }
+        } finally {
+            restoring.compute(id, (key, running) -> running.leave());
+        }
+    }
+
+    /**
+     * @param id event id, no other thread restores it meanwhile
+     * @return the event loaded from the database, empty if it is neither archived nor stored
+     */
+    private Optional<Event> restoreAlone(String id) {
+        // another request may have restored it while this one waited
+        if (!archive.contains(id)) return repo.findFullById(id);
+        long start = System.nanoTime();
+        try {
+            Optional<Event> event = archive.read(id);
+            if (event.isEmpty()) return Optional.empty();
+            event.get().setLastActivity(Date.from(clock.instant()));
+            repo.saveWithNewIds(event.get());
+            archive.remove(id);
+            adminController.update(id);
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            throw new UncheckedIOException(e);
+        }
+        long took = System.nanoTime() - start;
+        restored.incrementAndGet();
+        restoreNanos.addAndGet(took);
+        maxRestoreNanos.accumulateAndGet(took, Math::max);
+        return repo.findFullById(id);
+    }
+
+    /**
+     * Loads the event from the database, restoring it first if it is archived.
+     * Every request that opens an event loads it this way.
+     *
+     * @param id event id
+     * @return the full event, empty if it is neither stored nor archived
+     */
+    public Optional<Event> load(String id) {
+        return repo.findFullById(id).or(() -> restore(id));
+    }
+
+    /**
+     * @param id event id
+     * @return true iff the event is archived, its id is taken
+     */
+    public boolean isArchived(String id) {
+        return archive.contains(id);
+    }
+
+    /**
+     * @return counters of archived and restored events, the average and maximum time
+     * of a restore in microseconds, the number of events in the database and
+     * the events, segments and compressed bytes in the archive
+     */
+    public Map<String, Long> getStatistics() {
+        long count = restored.get();
+        Map<String, Long> stored = archive.getStatistics();
+        return Map.of("archivedTotal", archived.get(), "restored", count,
+                "restoreAverageMicros", count == 0 ? 0 : restoreNanos.get() / count / 1000,
+                "restoreMaxMicros", maxRestoreNanos.get() / 1000, "failures", failures.get(),
+                "hotEvents", repo.count(), "archived", stored.get("archived"),
+                "segments", stored.get("segments"), "archiveBytes", stored.get("archiveBytes"));
+    }
+
+    /**
+     * Requests restoring one event, only changed inside the compute functions of the map
+     * holding it. The first request restores the event, the others wait on it
+     */
+    private static final class Restore {
+        private int waiting = 1;
+
+        /**
+         * @return this restore, with one more request waiting for it
+         */
+        private Restore join() {
+            waiting++;
+            return this;
+        }
+
+        /**
+         * @return this restore, or null to remove it when the last request finished
+         */
+        private Restore leave() {
+            return --waiting == 0 ? null : this;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package server;
+
+import commons.Event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of fully loaded event aggregates, keyed by event id.
+ * <p>
+ * Every write to an event (or anything inside it) must call {@link #invalidate(String)}
+ * so the next read goes back to the database.
+ * Cached events are shared between requests and must not be modified by callers.
+ */
+public class EventCache {
+    private final int maxSize;
+    private final LinkedHashMap<String, Event> events;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxSize maximum number of events kept in memory
+     */
+    public EventCache(int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Cache size must be positive");
+        this.maxSize = maxSize;
+        // access order = true makes iteration order least recently used first
+        this.events = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Event> eldest) {
+                if (size() <= EventCache.this.maxSize) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached event or loads it with the given loader on a miss.
+     * Loading happens outside the lock, a loaded event is only cached
+     * if no invalidation happened in the meantime so stale data is never stored.
+     *
+     * @param id event id
+     * @param loader function loading the event from the database
+     * @return the event, empty if the loader did not find it
+     */
+    public Optional<Event> get(String id, Function<String, Optional<Event>> loader) {
+        long startGeneration;
+        synchronized (this) {
+            Event cached = events.get(id);
+            if (cached != null) {
+                hits++;
+                return Optional.of(cached);
+            }
+            misses++;
+            startGeneration = generation;
+        }
+        Optional<Event> loaded = loader.apply(id);
+        loaded.ifPresent(event -> {
+            synchronized (this) {
+                if (generation == startGeneration) events.put(id, event);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Removes the event from the cache, has to be called after every change to the event
+     *
+     * @param id event id
+     */
+    public synchronized void invalidate(String id) {
+        generation++;
+        events.remove(id);
+    }
+
+    /**
+     * Removes all events from the cache
+     */
+    public synchronized void clear() {
+        generation++;
+        events.clear();
+    }
+
+    /**
+     * @return number of events currently cached
+     */
+    public synchronized int size() {
+        return events.size();
+    }
+
+    /**
+     * @return number of reads served from memory
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of reads that had to go to the database
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of events dropped because the cache was full
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return hit, miss, eviction and size counters
+     */
+    public synchronized Map<String, Long> getStatistics() {
+        return Map.of("hits", hits, "misses", misses,
+                "evictions", evictions, "size", (long) events.size());
+    }
+}
@@ -0,0 +1,87 @@
+package server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Numbers every change to an event with a monotonically increasing sequence number
+ * and remembers the last change of each event,
+ * so clients can ask which events changed since the sequence number they have seen.
+ * <p>
+ * At most {@code capacity} events are remembered, the ones changed longest ago are forgotten first.
+ * The sequence numbers restart when the server restarts, so every log has a random epoch
+ * and a sequence number is only known together with the epoch it was handed out in.
+ */
+public class EventChangeLog {
+    private final int capacity;
+    private final long epoch;
+    private final Map<String, Long> lastChanges;
+    private final TreeMap<Long, String> changes;
+    private long sequence;
+    private long forgotten;
+
+    /**
+     * @param capacity maximum number of events remembered
+     */
+    public EventChangeLog(int capacity) {
+        this(capacity, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param capacity maximum number of events remembered
+     * @param epoch epoch of the sequence numbers
+     */
+    public EventChangeLog(int capacity, long epoch) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        this.epoch = epoch;
+        this.lastChanges = new HashMap<>();
+        this.changes = new TreeMap<>();
+    }
+
+    /**
+     * @param eventID id of the created, updated or deleted event
+     * @return sequence number of the change
+     */
+    public synchronized long record(String eventID) {
+        sequence++;
+        Long previous = lastChanges.put(eventID, sequence);
+        if (previous != null) changes.remove(previous);
+        changes.put(sequence, eventID);
+        if (changes.size() > capacity) {
+            Map.Entry<Long, String> oldest = changes.pollFirstEntry();
+            lastChanges.remove(oldest.getValue());
+            forgotten = oldest.getKey();
+        }
+        return sequence;
+    }
+
+    /**
+     * @return sequence number of the last change, 0 if nothing changed yet
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return epoch of the sequence numbers, it differs after a restart
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @param epoch epoch the client has seen
+     * @param since sequence number the client has seen
+     * @return ids of the events changed after it,
+     * empty if those changes are not known anymore or the number is from before a restart
+     */
+    public synchronized Optional<Set<String>> changedSince(long epoch, long since) {
+        if (epoch != this.epoch || since < forgotten || since > sequence) return Optional.empty();
+        return Optional.of(Set.copyOf(changes.tailMap(since, false).values()));
+    }
+}
@@ -0,0 +1,176 @@
+package server;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import server.database.IdBlock;
+import server.database.IdBlockRepository;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hands out unique invite codes of five uppercase letters without asking the database
+ * whether a code is taken.
+ * <p>
+ * Codes are a keyed permutation of a counter: a Feistel network over 24 bits,
+ * walked until the result falls within the 26^5 codes, so distinct counter values
+ * always give distinct codes that do not reveal the counter.
+ * Counter values are reserved from the database in blocks, each server draws from its own
+ * block with a single atomic increment and only goes to the database when the block is used up.
+ * <p>
+ * Events created before the allocator got random codes, these are read once
+ * when the first block is reserved and skipped,
+ * as are the codes of events imported with their own id later.
+ */
+public class EventIdAllocator {
+    static final String NAME = "event";
+    static final int LENGTH = 5;
+    static final long CODES = 26L * 26 * 26 * 26 * 26;
+
+    private static final int HALF_BITS = 12;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 8;
+
+    private final IdBlockRepository blocks;
+    private final Supplier<Set<String>> existing;
+    private final int blockSize;
+    private final RandomGenerator keys;
+    private volatile Block current;
+    private volatile Set<String> taken;
+
+    /**
+     * Counter values of a reserved block
+     *
+     * @param next next value to hand out
+     * @param limit first value after the block
+     * @param key key of the permutation
+     */
+    private record Block(AtomicLong next, long limit, long key) {
+    }
+
+    /**
+     * @param blocks repository of the reserved blocks
+     * @param existing ids of the events that exist already
+     * @param blockSize number of counter values reserved at a time
+     * @param keys source of the permutation key if none is stored yet
+     */
+    public EventIdAllocator(IdBlockRepository blocks, Supplier<Set<String>> existing,
+                            int blockSize, RandomGenerator keys) {
+        if (blockSize < 1) throw new IllegalArgumentException("block size " + blockSize);
+        this.blocks = blocks;
+        this.existing = existing;
+        this.blockSize = blockSize;
+        this.keys = keys;
+    }
+
+    /**
+     * @return a code no event has had
+     * @throws IllegalStateException if all codes have been handed out
+     */
+    public String next() {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long value = block.next().getAndIncrement();
+                if (value < block.limit()) {
+                    String id = encode(permute(value, block.key()));
+                    if (!taken.contains(id)) return id;
+                    continue;
+                }
+            }
+            reserve(block);
+        }
+    }
+
+    /**
+     * Keeps the code of an event that was created without the allocator,
+     * for example an imported one, from being handed out
+     *
+     * @param id id of the stored event
+     */
+    public synchronized void exclude(String id) {
+        // before the first reservation the stored ids are read with this one among them
+        if (taken != null) taken.add(id);
+    }
+
+    /**
+     * Reserves a new block unless another thread already replaced the used up one
+     *
+     * @param used the block that was used up, null before the first reservation
+     */
+    private synchronized void reserve(Block used) {
+        if (current != used) return;
+        if (taken == null) {
+            Set<String> ids = ConcurrentHashMap.newKeySet();
+            ids.addAll(existing.get());
+            taken = ids;
+        }
+        IdBlock reserved;
+        try {
+            reserved = blocks.reserve(NAME, blockSize, keys.nextLong());
+        } catch (DataIntegrityViolationException e) {
+            // another server created the allocator at the same time, its key is used
+            reserved = blocks.reserve(NAME, blockSize, keys.nextLong());
+        }
+        long start = reserved.getHighWater() - blockSize;
+        if (start >= CODES) throw new IllegalStateException("All event ids are taken");
+        current = new Block(new AtomicLong(start), Math.min(reserved.getHighWater(), CODES),
+                reserved.getPermutationKey());
+    }
+
+    /**
+     * @param value counter value below {@link #CODES}
+     * @param key key of the permutation
+     * @return the code number of the value, below {@link #CODES}
+     */
+    static long permute(long value, long key) {
+        long code = value;
+        // the network permutes all 24 bit numbers, walking it again until the number is
+        // small enough keeps it a permutation of the smaller range
+        do {
+            code = feistel(code, key);
+        } while (code >= CODES);
+        return code;
+    }
+
+    /**
+     * @param value 24 bit number
+     * @param key key of the permutation
+     * @return the permuted 24 bit number
+     */
+    private static long feistel(long value, long key) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long mixed = left ^ (mix(right ^ key ^ (round * 0x9E3779B97F4A7C15L)) & HALF_MASK);
+            left = right;
+            right = mixed;
+        }
+        return left << HALF_BITS | right;
+    }
+
+    /**
+     * @param z value to mix
+     * @return the value with every bit depending on every input bit
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param code code number below {@link #CODES}
+     * @return the code as uppercase letters
+     */
+    static String encode(long code) {
+        char[] letters = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            letters[i] = (char) ('A' + code % 26);
+            code /= 26;
+        }
+        return new String(letters);
+    }
+}
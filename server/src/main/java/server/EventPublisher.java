@@ -0,0 +1,248 @@
+package server;
+
+import commons.BatchOperation;
+import commons.EventBatch;
+import commons.WebsocketActions;
+import org.hibernate.Hibernate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcasts the changes of events to their websocket subscribers off the request thread.
+ * <p>
+ * Changes are queued after the transaction that made them commits.
+ * Changes to the same event within the window are sent as one frame:
+ * a single change as its own message, several changes as one batch message.
+ * If more changes are waiting than allowed, for example because sending to slow
+ * subscribers keeps the publisher threads busy, the request thread sends them itself,
+ * its own event first and then the events waiting longest until half the limit is left.
+ * Every frame of an event carries the next number of the event in its seq header,
+ * so clients notice when they missed a frame and load the event again.
+ * The numbers are counted per publisher, which is named in the origin header,
+ * so the frames of several servers sharing a broker relay are checked separately.
+ * Only the numbers of the most recently sent events are kept, an event that was forgotten
+ * starts at 1 again and its clients load it once more.
+ */
+public class EventPublisher implements AutoCloseable {
+    private static final int STRIPES = 64;
+    private static final int MAX_SEQUENCES = 65536;
+
+    private final SimpMessagingTemplate simp;
+    private final Duration window;
+    private final int maxPending;
+    private final ScheduledExecutorService scheduler;
+    private final String origin;
+    private final Map<String, List<BatchOperation>> pending;
+    // frames of one event are sent under the same lock so they keep their order
+    private final Object[] sendLocks;
+    // written under the send lock of the event, least recently sent first
+    private final Map<String, Long> sequences;
+    private int pendingCount;
+
+    /**
+     * @param simp websocket object used to send updates to everyone
+     * @param window time changes to an event are collected before they are sent,
+     *               zero sends every change right away on the calling thread
+     * @param threads number of publisher threads
+     * @param maxPending maximum number of changes waiting to be sent
+     */
+    public EventPublisher(SimpMessagingTemplate simp, Duration window,
+                          int threads, int maxPending) {
+        this(simp, window, threads, maxPending, MAX_SEQUENCES);
+    }
+
+    /**
+     * @param simp websocket object used to send updates to everyone
+     * @param window time changes to an event are collected before they are sent
+     * @param threads number of publisher threads
+     * @param maxPending maximum number of changes waiting to be sent
+     * @param maxSequences number of events whose frame numbers are kept
+     */
+    EventPublisher(SimpMessagingTemplate simp, Duration window, int threads, int maxPending,
+                   int maxSequences) {
+        this.simp = simp;
+        this.window = window;
+        this.maxPending = maxPending;
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "event-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.origin = UUID.randomUUID().toString();
+        this.pending = new LinkedHashMap<>();
+        this.sequences = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxSequences;
+            }
+        });
+        this.sendLocks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) sendLocks[i] = new Object();
+    }
+
+    /**
+     * @param eventID id of the changed event
+     * @param operation the change
+     */
+    public void publish(String eventID, BatchOperation operation) {
+        publishAll(eventID, List.of(operation));
+    }
+
+    /**
+     * @param eventID id of the changed event
+     * @param operations the changes in the order they were made
+     */
+    public void publishAll(String eventID, List<BatchOperation> operations) {
+        for (BatchOperation operation : operations) {
+            // the payload is serialized on another thread, after the session is closed
+            if (operation.getExpense() != null)
+                Hibernate.initialize(operation.getExpense().getExpenseParticipants());
+        }
+        AfterCommit.run(() -> enqueue(eventID, operations));
+    }
+
+    /**
+     * Drops the changes still waiting for the event and tells the subscribers it was deleted
+     *
+     * @param eventID id of the deleted event
+     */
+    public void publishDeletion(String eventID) {
+        AfterCommit.run(() -> {
+            synchronized (lockFor(eventID)) {
+                synchronized (this) {
+                    List<BatchOperation> dropped = pending.remove(eventID);
+                    if (dropped != null) pendingCount -= dropped.size();
+                }
+                simp.convertAndSend("/event/" + eventID, "delete",
+                        headers(eventID, WebsocketActions.DELETE_EVENT,
+                                String.class.getTypeName()));
+                sequences.remove(eventID);
+            }
+        });
+    }
+
+    /**
+     * @param eventID id of the changed event
+     * @param operations the changes
+     */
+    private void enqueue(String eventID, List<BatchOperation> operations) {
+        if (window.isZero()) {
+            synchronized (lockFor(eventID)) {
+                send(eventID, operations);
+            }
+            return;
+        }
+        boolean first;
+        boolean full;
+        synchronized (this) {
+            List<BatchOperation> waiting =
+                    pending.computeIfAbsent(eventID, id -> new ArrayList<>());
+            first = waiting.isEmpty();
+            waiting.addAll(operations);
+            pendingCount += operations.size();
+            full = pendingCount > maxPending;
+        }
+        if (full) {
+            flush(eventID);
+            drain();
+        } else if (first) scheduler.schedule(() -> flush(eventID),
+                window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the changes waiting for the event in one frame
+     *
+     * @param eventID id of the event
+     */
+    public void flush(String eventID) {
+        synchronized (lockFor(eventID)) {
+            List<BatchOperation> operations;
+            synchronized (this) {
+                operations = pending.remove(eventID);
+                if (operations == null) return;
+                pendingCount -= operations.size();
+            }
+            send(eventID, operations);
+        }
+    }
+
+    /**
+     * Sends the events waiting longest until at most half of the allowed changes are waiting
+     */
+    private void drain() {
+        while (true) {
+            String oldest;
+            synchronized (this) {
+                if (pendingCount <= maxPending / 2 || pending.isEmpty()) return;
+                oldest = pending.keySet().iterator().next();
+            }
+            flush(oldest);
+        }
+    }
+
+    /**
+     * @param eventID id of the event
+     * @param operations changes to send
+     */
+    private void send(String eventID, List<BatchOperation> operations) {
+        if (operations.size() == 1) {
+            BatchOperation operation = operations.getFirst();
+            simp.convertAndSend("/event/" + eventID, operation.getPayload(),
+                    headers(eventID, operation.getAction(), operation.getPayloadType()));
+        } else {
+            simp.convertAndSend("/event/" + eventID, new EventBatch(operations),
+                    headers(eventID, WebsocketActions.BATCH, EventBatch.class.getTypeName()));
+        }
+    }
+
+    /**
+     * Called under the send lock of the event, so the numbers are in the order of the frames
+     *
+     * @param eventID id of the event
+     * @param action action of the frame
+     * @param type name of the class of the payload
+     * @return headers of the next frame of the event
+     */
+    private Map<String, Object> headers(String eventID, WebsocketActions action, String type) {
+        long sequence = sequences.merge(eventID, 1L, Long::sum);
+        return Map.of("action", action, "type", type, "seq", sequence, "origin", origin);
+    }
+
+    /**
+     * @param eventID id of the event
+     * @return the lock frames of the event are sent under
+     */
+    private Object lockFor(String eventID) {
+        return sendLocks[Math.floorMod(eventID.hashCode(), STRIPES)];
+    }
+
+    /**
+     * @return number of changes waiting to be sent
+     */
+    public synchronized int getPending() {
+        return pendingCount;
+    }
+
+    /**
+     * Sends everything that is still waiting and stops the publisher threads
+     */
+    @Override
+    public void close() {
+        List<String> eventIDs;
+        synchronized (this) {
+            eventIDs = new ArrayList<>(pending.keySet());
+        }
+        eventIDs.forEach(this::flush);
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,70 @@
+package server;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import server.database.EventRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes the rows of deleted events in the background.
+ * <p>
+ * Deleting an event only marks it, which hides it from every query.
+ * The purger then deletes the participants, expenses, transactions and tags
+ * of a bounded number of events at a time with bulk statements,
+ * each batch in its own transaction so no single transaction grows with the backlog.
+ * An event whose purge fails stays marked and is tried again by the next run.
+ */
+public class EventPurger {
+    private final EventRepository repo;
+    private final int batchSize;
+    private final AtomicLong events;
+    private final AtomicLong rows;
+    private final AtomicLong failures;
+
+    /**
+     * @param repo event repository
+     * @param batchSize maximum number of events purged in one transaction
+     */
+    public EventPurger(EventRepository repo, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batch size " + batchSize);
+        this.repo = repo;
+        this.batchSize = batchSize;
+        this.events = new AtomicLong();
+        this.rows = new AtomicLong();
+        this.failures = new AtomicLong();
+    }
+
+    /**
+     * Purges batches until no deleted event is left or a batch fails.
+     * Runs on a fixed delay set by splitty.purge.interval in milliseconds.
+     *
+     * @return number of events purged
+     */
+    @Scheduled(fixedDelayString = "${splitty.purge.interval:10000}")
+    public int purge() {
+        int purged = 0;
+        List<String> ids;
+        do {
+            ids = repo.findDeletedIds(batchSize);
+            if (ids.isEmpty()) break;
+            try {
+                rows.addAndGet(repo.purge(ids));
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                break;
+            }
+            events.addAndGet(ids.size());
+            purged += ids.size();
+        } while (ids.size() == batchSize);
+        return purged;
+    }
+
+    /**
+     * @return number of events purged, rows deleted and failed batches
+     */
+    public Map<String, Long> getStatistics() {
+        return Map.of("events", events.get(), "rows", rows.get(), "failures", failures.get());
+    }
+}
@@ -0,0 +1,81 @@
+package server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Fetches historical rates from openexchangerates.org,
+ * one http client and object mapper are shared by all requests
+ */
+public class OpenExchangeRatesProvider implements RateProvider, AutoCloseable {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final String url;
+    private final String appId;
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param url base url of the historical rates, the date and .json are appended
+     * @param appId app id of the account
+     */
+    public OpenExchangeRatesProvider(String url, String appId) {
+        this.url = url;
+        this.appId = appId;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+        this.mapper = new ObjectMapper();
+    }
+
+    /**
+     * Bitcoin is left out
+     *
+     * @param date day of the rates, not in the future
+     * @return units of each currency per USD
+     * @throws IOException if the request fails or the response is not 200
+     */
+    @Override
+    public Map<String, Double> fetch(LocalDate date) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url + date + ".json?app_id=" + appId))
+                .timeout(TIMEOUT).GET().build();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching rates", e);
+        }
+        if (response.statusCode() != 200)
+            throw new IOException("Rates of " + date + " responded " + response.statusCode());
+
+        JsonNode rates = mapper.readTree(response.body()).path("rates");
+        Map<String, Double> result = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = rates.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            if (entry.getKey().equals("BTC")) continue;
+            result.put(entry.getKey(), entry.getValue().asDouble());
+        }
+        if (result.isEmpty()) throw new IOException("Rates of " + date + " are empty");
+        return result;
+    }
+
+    /**
+     * Closes the http client
+     */
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+}
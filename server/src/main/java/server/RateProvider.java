@@ -0,0 +1,17 @@
+package server;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Source of exchange rates, called by {@link RateStore} when it does not know the rates of a day
+ */
+public interface RateProvider {
+    /**
+     * @param date day of the rates, not in the future
+     * @return units of each currency per USD
+     * @throws IOException if the rates could not be fetched
+     */
+    Map<String, Double> fetch(LocalDate date) throws IOException;
+}
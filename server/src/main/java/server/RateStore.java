@@ -0,0 +1,185 @@
+package server;
+
+import server.database.DailyRates;
+import server.database.DailyRatesRepository;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exchange rates by day, read from memory, then from the database
+ * and only then from the {@link RateProvider}.
+ * <p>
+ * Rates of past days never change, they are stored in the database and kept in memory.
+ * Rates of today still change, they are only kept in memory for a short time.
+ * Concurrent requests for a day that is not known yet wait for a single fetch.
+ */
+public class RateStore {
+    private final RateProvider provider;
+    private final DailyRatesRepository repo;
+    private final Clock clock;
+    private final Duration todayTtl;
+    private final int maxSize;
+    private final LinkedHashMap<LocalDate, Entry> memory;
+    private final Map<LocalDate, CompletableFuture<Map<String, Double>>> fetching;
+    private final AtomicLong hits;
+    private final AtomicLong storeHits;
+    private final AtomicLong fetches;
+    private final AtomicLong collapsed;
+    private final AtomicLong failures;
+
+    /**
+     * @param rates units of each currency per USD
+     * @param fetched when the rates were fetched
+     */
+    private record Entry(Map<String, Double> rates, Instant fetched) {
+    }
+
+    /**
+     * @param provider source of rates not known yet
+     * @param repo database of the rates of past days
+     * @param clock clock deciding which day is today, in UTC like the provider
+     * @param todayTtl how long the rates of today are used before fetching them again
+     * @param maxSize maximum number of days kept in memory
+     */
+    public RateStore(RateProvider provider, DailyRatesRepository repo, Clock clock,
+                     Duration todayTtl, int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Cache size must be positive");
+        this.provider = provider;
+        this.repo = repo;
+        this.clock = clock;
+        this.todayTtl = todayTtl;
+        this.maxSize = maxSize;
+        // access order = true makes iteration order least recently used first
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, Entry> eldest) {
+                return size() > RateStore.this.maxSize;
+            }
+        };
+        this.fetching = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.storeHits = new AtomicLong();
+        this.fetches = new AtomicLong();
+        this.collapsed = new AtomicLong();
+        this.failures = new AtomicLong();
+    }
+
+    /**
+     * @param date day of the rates
+     * @return unmodifiable map of units of each currency per USD
+     * @throws IOException if the rates are not known and could not be fetched
+     * @throws IllegalArgumentException if the day is in the future
+     */
+    public Map<String, Double> getRates(LocalDate date) throws IOException {
+        LocalDate today = LocalDate.now(clock);
+        if (date.isAfter(today)) throw new IllegalArgumentException("No rates for " + date);
+        Map<String, Double> cached = fromMemory(date, today);
+        if (cached != null) return cached;
+
+        CompletableFuture<Map<String, Double>> own = new CompletableFuture<>();
+        CompletableFuture<Map<String, Double>> running = fetching.putIfAbsent(date, own);
+        if (running != null) {
+            collapsed.incrementAndGet();
+            return await(running);
+        }
+        try {
+            // another request may have finished loading the day in the meantime
+            cached = fromMemory(date, today);
+            Map<String, Double> rates = cached != null ? cached : load(date, today);
+            own.complete(rates);
+            return rates;
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            fetching.remove(date, own);
+        }
+    }
+
+    /**
+     * @param date day of the rates
+     * @param today current day
+     * @return the rates kept in memory, null if there are none or they are outdated
+     */
+    private synchronized Map<String, Double> fromMemory(LocalDate date, LocalDate today) {
+        Entry entry = memory.get(date);
+        if (entry == null) return null;
+        if (date.equals(today)
+                && entry.fetched().plus(todayTtl).isBefore(clock.instant())) return null;
+        hits.incrementAndGet();
+        return entry.rates();
+    }
+
+    /**
+     * @param date day of the rates
+     * @param today current day
+     * @return the rates from the database or else the provider
+     * @throws IOException if the provider fails
+     */
+    private Map<String, Double> load(LocalDate date, LocalDate today) throws IOException {
+        boolean past = date.isBefore(today);
+        if (past) {
+            Optional<DailyRates> stored = repo.findById(date);
+            if (stored.isPresent()) {
+                storeHits.incrementAndGet();
+                return remember(date, stored.get().getRates());
+            }
+        }
+        fetches.incrementAndGet();
+        Map<String, Double> rates = remember(date, provider.fetch(date));
+        if (past) repo.save(new DailyRates(date, rates));
+        return rates;
+    }
+
+    /**
+     * @param date day of the rates
+     * @param rates units of each currency per USD
+     * @return unmodifiable copy of the rates
+     */
+    private synchronized Map<String, Double> remember(LocalDate date, Map<String, Double> rates) {
+        Map<String, Double> copy = Map.copyOf(rates);
+        memory.put(date, new Entry(copy, clock.instant()));
+        return copy;
+    }
+
+    /**
+     * @param running fetch started by another request
+     * @return its rates
+     * @throws IOException if it failed
+     */
+    private static Map<String, Double> await(CompletableFuture<Map<String, Double>> running)
+            throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for rates", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * @return memory hits, database hits, fetches from the provider,
+     * requests that waited for a fetch of another request, failures and days in memory
+     */
+    public synchronized Map<String, Long> getStatistics() {
+        return Map.of("hits", hits.get(), "storeHits", storeHits.get(),
+                "fetches", fetches.get(), "collapsed", collapsed.get(),
+                "failures", failures.get(), "size", (long) memory.size());
+    }
+}
@@ -1,13 +1,27 @@
 package server;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    static final String DESTINATION_PREFIX = "/event";
+
+    private final BrokerSettings settings;
+
+    /**
+     * @param settings broker mode, thread pools and limits
+     */
+    public WebSocketConfig(BrokerSettings settings) {
+        this.settings = settings;
+    }
+
     /**
      * Configures endpoint for establishing the initial websocket connection
      *
@@ -18,15 +32,66 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws").setAllowedOrigins("*");
     }
 
-//    /**
-//     * Configures path for sending messages to clients /event
-//     * and destination path from clients /app
-//     *
-//     * @param config
-//     */
-//    @Override
-//    public void configureMessageBroker(MessageBrokerRegistry config) {
-//        config.enableSimpleBroker("/event");
-//        config.setApplicationDestinationPrefixes("/app");
-//    }
+    /**
+     * Configures path for sending messages to clients /event
+     * and destination path from clients /app.
+     * <p>
+     * The simple broker keeps the subscriptions of this server in memory.
+     * The relay forwards them to an external STOMP broker, so a broadcast sent by one server
+     * reaches the clients connected to any of them.
+     * Only the broadcasts are shared: the {@link EventCache}, the {@link BalanceLedger} and
+     * the admin change feed stay in memory of each server and only see the changes made
+     * through it, so every event has to be written through a single server,
+     * for example by routing requests on the event id.
+     *
+     * @param config
+     */
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry config) {
+        if (settings.isRelay()) {
+            config.enableStompBrokerRelay(DESTINATION_PREFIX)
+                    .setRelayHost(settings.relayHost())
+                    .setRelayPort(settings.relayPort())
+                    .setClientLogin(settings.relayLogin())
+                    .setClientPasscode(settings.relayPasscode())
+                    .setSystemLogin(settings.relayLogin())
+                    .setSystemPasscode(settings.relayPasscode());
+        } else {
+            // clients never subscribe with selectors, skip evaluating them for every subscriber
+            config.enableSimpleBroker(DESTINATION_PREFIX).setSelectorHeaderName(null);
+        }
+        config.setApplicationDestinationPrefixes("/app");
+    }
+
+    /**
+     * @param registration channel of the frames sent by clients
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(settings.inboundThreads())
+                .maxPoolSize(settings.inboundThreads());
+    }
+
+    /**
+     * @param registration channel of the frames sent to clients
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(settings.outboundThreads())
+                .maxPoolSize(settings.outboundThreads());
+    }
+
+    /**
+     * Disconnects clients that do not keep up instead of buffering without limit
+     *
+     * @param registration websocket transport settings
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(settings.sendBufferSize())
+                .setSendTimeLimit(settings.sendTimeLimit())
+                .setMessageSizeLimit(settings.messageSizeLimit());
+    }
 }
@@ -1,38 +1,68 @@
 package server.api;
 
 import commons.Event;
+import commons.EventChanges;
+import commons.EventSummary;
+import commons.EventSummaryPage;
 import commons.Expense;
 import commons.Participant;
-import commons.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.async.DeferredResult;
+import server.ActivityTracker;
 import server.AdminService;
+import server.EventArchive;
+import server.EventChangeLog;
+import server.EventCache;
+import server.EventIdAllocator;
 import server.database.EventRepository;
 
 import java.util.*;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @RestController
 public class AdminController {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_CHANGES = 10_000;
 
     private final EventRepository repo;
     private final AdminService admS;
-    private Date lastChange;
+    private final EventCache cache;
+    private final ActivityTracker activity;
+    private final EventArchive archive;
+    private final EventIdAllocator ids;
+    private final Set<DeferredResult<ResponseEntity<String>>> waiters;
+    private final EventChangeLog changeLog;
 
     /**
      * Constructor with repository injection
      * @param repo Event repository
      * @param admS admin service
+     * @param cache cache of loaded events
+     * @param activity last activity of events, written before summaries are read
+     * @param archive archived events, their ids cannot be imported
+     * @param ids allocator of new event ids, imported ids are excluded from it
      */
     @Autowired
-    public AdminController(EventRepository repo, AdminService admS) {
+    public AdminController(EventRepository repo, AdminService admS, EventCache cache,
+                           ActivityTracker activity, EventArchive archive,
+                           EventIdAllocator ids) {
         this.repo = repo;
         this.admS = admS;
-        lastChange = new Date();
+        this.cache = cache;
+        this.activity = activity;
+        this.archive = archive;
+        this.ids = ids;
+        this.waiters = ConcurrentHashMap.newKeySet();
+        this.changeLog = new EventChangeLog(MAX_CHANGES);
     }
 
     /**
@@ -64,7 +94,7 @@ public class AdminController {
      * Returns 400 bad request if a participant in an expense
      * is missing from the participant list<p>
      * Returns 401 unauthorized if password is incorrect<p>
-     * Returns 409 conflict if an event with the same id already exists<p>
+     * Returns 409 conflict if an event with the same id already exists or is archived<p>
      * Returns 500 server error if something terrible happens<p>
      */
     @PostMapping("/admin/events")
@@ -76,39 +106,15 @@ public class AdminController {
             HttpStatus status = checkEventValidity(event);
             if(!status.is2xxSuccessful()) return ResponseEntity.status(status).build();
 
-            List<Expense> expenses = event.getExpenses();
-            List<Participant> participants = event.getParticipants();
-            List<Tag> tags = event.getTags();
-            event.setExpenses(new ArrayList<>());
-            Event saved = repo.save(event);
-            List<Participant> savedParticipants = saved.getParticipants();
-            Map<Long, Long> map = new HashMap<>();
-            for(int i = 0; i < participants.size(); i++) {
-                map.put(participants.get(i).getId(), savedParticipants.get(i).getId());
-                map.put(savedParticipants.get(i).getId(), savedParticipants.get(i).getId());
-            }
-            Map<Long, Long> tagMap = new HashMap<>();
-            for (int i = 0; i < tags.size(); i++) {
-                tagMap.put(tags.get(i).getId(), saved.getTags().get(i).getId());
-                tagMap.put(saved.getTags().get(i).getId(), saved.getTags().get(i).getId());
-            }
-            for(Expense expense : expenses) {
-                expense.getExpenseAuthor().setId(map.get(expense.getExpenseAuthor().getId()));
-                Tag tag = expense.getType();
-                if(tag != null) {
-                    tag.setId(tagMap.get(tag.getId()));
-                }
-                for(Participant expenseParticipant : expense.getExpenseParticipants()) {
-                    expenseParticipant.setId(map.get(expenseParticipant.getId()));
-                }
-            }
-            saved.getExpenses().addAll(expenses);
-            saved = repo.save(saved);
-            update();
+            // the insert fails if an event with the id was created since it was checked
+            Event saved = repo.saveWithNewIds(event);
+            ids.exclude(saved.getId());
+            cache.invalidate(saved.getId());
+            update(saved.getId());
             return ResponseEntity.ok(saved);
 
         } catch (Exception e) {
-            repo.deleteById(event.getId());
+            // the insert was rolled back, an event that has the id now is not touched
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -116,10 +122,10 @@ public class AdminController {
     /**
      * @param event event to check
      * @return 200 if event is valid, 400 if not
-     * and 406 if there already exists an event with the same id
+     * and 409 if there already exists or is archived an event with the same id
      */
     private HttpStatus checkEventValidity(Event event) {
-        if(repo.existsById(event.getId()))
+        if(repo.countIncludingDeleted(event.getId()) > 0 || archive.contains(event.getId()))
             return HttpStatus.CONFLICT;
         Set<Long> participantIds = event.getParticipants().stream()
                 .map(Participant::getId).collect(Collectors.toSet());
@@ -135,60 +141,171 @@ public class AdminController {
     }
 
     /**
-     * Sends an API call to server for events
-     * @return all events
+     * Lists the events one page at a time as summaries, the events themselves are not loaded.
+     * Sorting by title, creation date and last activity uses their indexes,
+     * events with the same sort key are ordered by id so that pages do not overlap.
+     *
      * @param inputPassword the password to verify
+     * @param page index of the page, starting at 0
+     * @param size number of events per page, at most {@value #MAX_PAGE_SIZE}
+     * @param sort one of title, creationDate, lastActivity and participants
+     * @param direction asc or desc
+     * @return 200 with the page,
+     * 400 if a parameter is invalid
+     * or 401 if the password is incorrect
      */
     @GetMapping ("/admin/events")
-    public ResponseEntity<List<Event>> getAll(@RequestHeader("Authorization")
-                                                  String inputPassword) {
-        boolean isValid = admS.verifyPassword(inputPassword);
-        if (isValid) {
-            return ResponseEntity.ok(repo.findAll());
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
-        }
+    public ResponseEntity<EventSummaryPage> getAll(
+            @RequestHeader("Authorization") String inputPassword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "creationDate") String sort,
+            @RequestParam(defaultValue = "desc") String direction) {
+        if(!admS.verifyPassword(inputPassword))
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        Optional<Sort.Direction> dir = Sort.Direction.fromOptionalString(direction);
+        Sort order = toSort(sort, dir.orElse(Sort.Direction.DESC));
+        if(page < 0 || size < 1 || size > MAX_PAGE_SIZE || dir.isEmpty() || order == null)
+            return ResponseEntity.badRequest().build();
+        // read before querying so that changes made during the query are sent again
+        long sequence = changeLog.getSequence();
+        activity.flush();
+        Page<EventSummary> summaries = repo.findSummaries(PageRequest.of(page, size, order));
+        return ResponseEntity.ok(new EventSummaryPage(summaries.getContent(),
+                page, size, summaries.getTotalElements(), changeLog.getEpoch(), sequence));
+    }
+
+    /**
+     * @param sort name of the sort key
+     * @param direction direction of the sort key
+     * @return order of the summaries or null if the key is not allowed
+     */
+    private static Sort toSort(String sort, Sort.Direction direction) {
+        Sort order = switch (sort) {
+            case "title", "creationDate", "lastActivity" -> Sort.by(direction, sort);
+            case "participants" -> JpaSort.unsafe(direction, "size(e.participants)");
+            default -> null;
+        };
+        return order == null ? null : order.and(Sort.by("id"));
+    }
+
+    /**
+     * Change feed of the admin overview, returns the events changed after a sequence number
+     * of an earlier page or change response.
+     * If the changes are not known anymore, for example because the server restarted
+     * and the epoch is a different one, the response asks the client to reload everything.
+     *
+     * @param inputPassword admin password
+     * @param epoch epoch of the change feed the client has seen
+     * @param since sequence number the client has seen
+     * @return 200 with the summaries of created and updated events and the ids of deleted ones,
+     * or 401 if the password is incorrect
+     */
+    @GetMapping("/admin/events/changes")
+    public ResponseEntity<EventChanges> getChanges(
+            @RequestHeader("Authorization") String inputPassword,
+            @RequestParam("epoch") long epoch,
+            @RequestParam("since") long since) {
+        if(!admS.verifyPassword(inputPassword))
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        long sequence = changeLog.getSequence();
+        Optional<Set<String>> ids = changeLog.changedSince(epoch, since);
+        if(ids.isEmpty())
+            return ResponseEntity.ok(EventChanges.reset(changeLog.getEpoch(), sequence));
+        activity.flush();
+        List<EventSummary> changed = ids.get().isEmpty()
+                ? new ArrayList<>() : repo.findSummariesByIds(ids.get());
+        Set<String> existing = changed.stream().map(EventSummary::getId)
+                .collect(Collectors.toSet());
+        List<String> deleted = ids.get().stream().filter(id -> !existing.contains(id)).toList();
+        return ResponseEntity.ok(new EventChanges(changeLog.getEpoch(), sequence, false, changed,
+                deleted));
+    }
+
+    /**
+     * @param inputPassword admin password
+     * @return hit, miss and eviction counters of the event cache
+     * or 401 if the password is incorrect
+     */
+    @GetMapping("/admin/cache")
+    public ResponseEntity<Map<String, Long>> getCacheStatistics(
+            @RequestHeader("Authorization") String inputPassword) {
+        if(!admS.verifyPassword(inputPassword))
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        return ResponseEntity.ok(cache.getStatistics());
     }
 
     /**
+     * @param inputPassword admin password
+     * @return counters of the last activity tracker,
+     * coalesced counts the changes that did not need a write of their own,
+     * or 401 if the password is incorrect
+     */
+    @GetMapping("/admin/activity")
+    public ResponseEntity<Map<String, Long>> getActivityStatistics(
+            @RequestHeader("Authorization") String inputPassword) {
+        if(!admS.verifyPassword(inputPassword))
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        return ResponseEntity.ok(activity.getStatistics());
+    }
+
+    /**
+     * Registers the request as a waiter which gets completed by the next call to
+     * {@link #update(String)}, no thread is held while waiting
+     *
      * @param inputPassword admin password
      * @param timeOut millisecond after which send a time-out response
+     * @param epoch epoch of the change feed the client has seen,
+     *              if the server restarted since the request completes immediately
+     * @param since sequence number the client has seen, if something changed after it
+     *              the request completes immediately so no change between two polls is missed
      * @return 204 if there is a change, 408 if time-outed
      */
     @GetMapping("/admin/events/poll")
     public DeferredResult<ResponseEntity<String>>
         longPoll(@RequestHeader("Authorization") String inputPassword,
-                 @RequestHeader("TimeOut") Long timeOut) {
+                 @RequestHeader("TimeOut") Long timeOut,
+                 @RequestParam(name = "epoch", required = false) Long epoch,
+                 @RequestParam(name = "since", required = false) Long since) {
         DeferredResult<ResponseEntity<String>> output = new DeferredResult<>(timeOut,
                 ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT).build());
         if(!admS.verifyPassword(inputPassword)) {
             output.setResult(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
             return output;
         }
-
         output.onError((Throwable t) ->
                 output.setErrorResult(ResponseEntity.internalServerError().build()));
-        Date startTime = new Date();
-        ForkJoinPool.commonPool().submit(() -> {
-            try {
-                while(startTime.after(lastChange)) {
-                    if(output.isSetOrExpired()) {
-                        return;
-                    }
-                    Thread.sleep(200);
-                }
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+        output.onCompletion(() -> waiters.remove(output));
+        // registered before checking, so a change recorded meanwhile either completes
+        // the waiter or is seen by the check below
+        waiters.add(output);
+        boolean restarted = epoch != null && epoch != changeLog.getEpoch();
+        if(restarted || since != null && since != changeLog.getSequence()) {
+            waiters.remove(output);
             output.setResult(ResponseEntity.noContent().build());
-        });
+        }
         return output;
     }
 
     /**
-     * Register new event update
+     * @return number of admin clients currently waiting for a change
      */
-    public void update() {
-        lastChange = new Date();
+    public int getWaiterCount() {
+        return waiters.size();
+    }
+
+    /**
+     * Register new event update and notify all waiting admin clients
+     *
+     * @param eventID id of the created, updated or deleted event
+     */
+    public void update(String eventID) {
+        changeLog.record(eventID);
+        Iterator<DeferredResult<ResponseEntity<String>>> itr = waiters.iterator();
+        while (itr.hasNext()) {
+            DeferredResult<ResponseEntity<String>> waiter = itr.next();
+            itr.remove();
+            waiter.setResult(ResponseEntity.noContent().build());
+        }
     }
 }
@@ -0,0 +1,40 @@
+package server.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import server.AdminService;
+import server.EventArchiver;
+
+import java.util.Map;
+
+@RestController
+public class ArchiveController {
+    private final EventArchiver archiver;
+    private final AdminService admS;
+
+    /**
+     * @param archiver archiver of inactive events
+     * @param admS admin service
+     */
+    public ArchiveController(EventArchiver archiver, AdminService admS) {
+        this.archiver = archiver;
+        this.admS = admS;
+    }
+
+    /**
+     * @param inputPassword admin password
+     * @return the number of events in the database and in the archive,
+     * the size of the archive and how long restoring an event takes,
+     * or 401 if the password is incorrect
+     */
+    @GetMapping("/admin/archive")
+    public ResponseEntity<Map<String, Long>> getStatistics(
+            @RequestHeader("Authorization") String inputPassword) {
+        if(!admS.verifyPassword(inputPassword))
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        return ResponseEntity.ok(archiver.getStatistics());
+    }
+}
@@ -0,0 +1,319 @@
+package server.api;
+
+import commons.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.annotation.*;
+import server.ActivityTracker;
+import server.AfterCommit;
+import server.BalanceLedger;
+import server.EventCache;
+import server.EventPublisher;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+import server.database.ParticipantRepository;
+import server.database.TransactionRepository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/events/{eventID}/batch")
+public class BatchController {
+    /**
+     * Maximum number of operations in one batch
+     */
+    public static final int MAX_OPERATIONS = 1000;
+
+    private final EventRepository eventRepo;
+    private final ParticipantRepository participantRepo;
+    private final ExpenseRepository expenseRepo;
+    private final TransactionRepository transactionRepo;
+    private final EventPublisher publisher;
+    private final AdminController adminController;
+    private final EventCache cache;
+    private final BalanceLedger ledger;
+    private final ActivityTracker activity;
+
+    /**
+     * @param eventRepo event repository
+     * @param participantRepo participant repository
+     * @param expenseRepo expense repository
+     * @param transactionRepo transaction repository
+     * @param publisher publisher of the changes to event subscribers
+     * @param adminController admin controller for sending updates
+     * @param cache cache of loaded events
+     * @param ledger participant balances of events
+     * @param activity last activity of events
+     */
+    public BatchController(EventRepository eventRepo, ParticipantRepository participantRepo,
+                           ExpenseRepository expenseRepo, TransactionRepository transactionRepo,
+                           EventPublisher publisher, AdminController adminController,
+                           EventCache cache, BalanceLedger ledger,
+                           ActivityTracker activity) {
+        this.eventRepo = eventRepo;
+        this.participantRepo = participantRepo;
+        this.expenseRepo = expenseRepo;
+        this.transactionRepo = transactionRepo;
+        this.publisher = publisher;
+        this.adminController = adminController;
+        this.cache = cache;
+        this.ledger = ledger;
+        this.activity = activity;
+    }
+
+    /**
+     * Applies the operations in order in one transaction,
+     * the last activity of the event is updated once
+     * and subscribers get a single websocket message with all applied operations.<p>
+     * Participants added in the batch get ids that are 0 or negative,
+     * expenses and transactions later in the batch refer to them by those ids.
+     * All ids are reassigned on save, the response contains the saved entities.
+     *
+     * @param eventID id of the event
+     * @param batch operations to apply
+     * @return 200 with the applied operations,
+     * 400 if any operation is invalid, in which case nothing is applied,
+     * 404 if the event does not exist
+     */
+    @PostMapping({"", "/"})
+    @Transactional
+    public ResponseEntity<EventBatch> apply(@PathVariable String eventID,
+                                            @RequestBody EventBatch batch) {
+        try {
+            Optional<Event> found = eventRepo.findById(eventID);
+            if(found.isEmpty()) return ResponseEntity.notFound().build();
+            Event event = found.get();
+            if(batch == null || batch.getOperations() == null
+                    || batch.getOperations().isEmpty()
+                    || batch.getOperations().size() > MAX_OPERATIONS
+                    || !new Validator(event).isValid(batch.getOperations()))
+                return ResponseEntity.badRequest().build();
+
+            Map<Long, Participant> participants = new HashMap<>();
+            for(Participant p : event.getParticipants()) participants.put(p.getId(), p);
+            List<BatchOperation> applied = new ArrayList<>();
+            List<BatchOperation> published = new ArrayList<>();
+            for(BatchOperation operation : batch.getOperations()) {
+                ExpenseUpdate before = previousExpense(event, operation);
+                BatchOperation result = applyOperation(event, operation, participants);
+                applied.add(result);
+                published.add(before == null ? result : BatchOperation.changeExpense(
+                        ExpenseUpdate.of(result.getExpense()).since(before)));
+            }
+            activity.touch(eventID);
+            AfterCommit.run(() -> {
+                applied.forEach(operation -> updateLedger(eventID, operation));
+                cache.invalidate(eventID);
+                adminController.update(eventID);
+            }, () -> {
+                ledger.invalidate(eventID);
+                cache.invalidate(eventID);
+            });
+            EventBatch result = new EventBatch(applied);
+            publisher.publishAll(eventID, published);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            // without a transaction some operations may be saved already
+            ledger.invalidate(eventID);
+            cache.invalidate(eventID);
+            if(TransactionSynchronizationManager.isActualTransactionActive())
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Subscribers are only sent the fields of an updated expense that changed
+     *
+     * @param event event the operation is applied to
+     * @param operation valid operation
+     * @return the expense before an update, null for other operations
+     */
+    private static ExpenseUpdate previousExpense(Event event, BatchOperation operation) {
+        if(operation.getAction() != WebsocketActions.UPDATE_EXPENSE) return null;
+        long id = operation.getExpense().getId();
+        return event.getExpenses().stream().filter(e -> e.getId() == id)
+                .findFirst().map(ExpenseUpdate::of).orElse(null);
+    }
+
+    /**
+     * Removed expenses and transactions are also taken out of the loaded event,
+     * otherwise saving the event would save them again
+     *
+     * @param event event the operation is applied to
+     * @param operation valid operation
+     * @param participants participants of the event by id, including the ones added in the batch
+     * @return the operation with the saved entity
+     */
+    private BatchOperation applyOperation(Event event, BatchOperation operation,
+                                          Map<Long, Participant> participants) {
+        String eventID = event.getId();
+        return switch (operation.getAction()) {
+            case ADD_PARTICIPANT -> {
+                // later operations may share the instance and still refer to it by reference
+                long reference = operation.getParticipant().getId();
+                Participant participant = operation.getParticipant().clone();
+                participant.setId(0);
+                participant.setEventID(eventID);
+                Participant saved = participantRepo.save(participant);
+                participants.put(reference, saved);
+                yield BatchOperation.addParticipant(saved);
+            }
+            case UPDATE_PARTICIPANT -> {
+                Participant participant = operation.getParticipant();
+                participant.setEventID(eventID);
+                Participant saved = participantRepo.save(participant);
+                participants.put(saved.getId(), saved);
+                yield BatchOperation.updateParticipant(saved);
+            }
+            case ADD_EXPENSE, UPDATE_EXPENSE -> applyExpense(eventID, operation, participants);
+            case REMOVE_EXPENSE -> {
+                event.getExpenses().removeIf(e -> e.getId() == operation.getId());
+                expenseRepo.deleteById(new EventWeakKey(eventID, operation.getId()));
+                yield operation;
+            }
+            case ADD_TRANSACTION -> {
+                Transaction transaction = operation.getTransaction();
+                transaction.setId(0);
+                transaction.setEventID(eventID);
+                transaction.setGiver(participants.get(transaction.getGiver().getId()));
+                transaction.setReceiver(participants.get(transaction.getReceiver().getId()));
+                yield BatchOperation.addTransaction(transactionRepo.save(transaction));
+            }
+            case REMOVE_TRANSACTION -> {
+                event.getTransactions().removeIf(t -> t.getId() == operation.getId());
+                transactionRepo.deleteById(new EventWeakKey(eventID, operation.getId()));
+                yield operation;
+            }
+            default -> throw new IllegalArgumentException("Unsupported " + operation.getAction());
+        };
+    }
+
+    /**
+     * @param eventID id of the event
+     * @param operation valid operation adding or updating an expense
+     * @param participants participants of the event by id, including the ones added in the batch
+     * @return the operation with the saved expense
+     */
+    private BatchOperation applyExpense(String eventID, BatchOperation operation,
+                                        Map<Long, Participant> participants) {
+        Expense expense = operation.getExpense();
+        boolean add = operation.getAction() == WebsocketActions.ADD_EXPENSE;
+        if(add) expense.setId(0);
+        expense.setEventID(eventID);
+        expense.setExpenseAuthor(participants.get(expense.getExpenseAuthor().getId()));
+        expense.setExpenseParticipants(expense.getExpenseParticipants().stream()
+                .map(p -> participants.get(p.getId())).collect(Collectors.toList()));
+        Expense saved = expenseRepo.save(expense);
+        return add ? BatchOperation.addExpense(saved) : BatchOperation.updateExpense(saved);
+    }
+
+    /**
+     * @param eventID id of the event
+     * @param operation applied operation
+     */
+    private void updateLedger(String eventID, BatchOperation operation) {
+        switch (operation.getAction()) {
+            case ADD_EXPENSE, UPDATE_EXPENSE -> ledger.putExpense(operation.getExpense());
+            case REMOVE_EXPENSE -> ledger.removeExpense(eventID, operation.getId());
+            case ADD_TRANSACTION -> ledger.putTransaction(operation.getTransaction());
+            case REMOVE_TRANSACTION -> ledger.removeTransaction(eventID, operation.getId());
+            default -> { }
+        }
+    }
+
+    /**
+     * Checks all operations before anything is saved,
+     * following the ids that earlier operations of the batch add and remove
+     */
+    private static final class Validator {
+        private final Set<Long> existingParticipants;
+        private final Set<Long> participants;
+        private final Set<Long> expenses;
+        private final Set<Long> transactions;
+
+        /**
+         * @param event event the operations are applied to
+         */
+        private Validator(Event event) {
+            existingParticipants = event.getParticipants().stream()
+                    .map(Participant::getId).collect(Collectors.toSet());
+            participants = new HashSet<>(existingParticipants);
+            expenses = event.getExpenses().stream()
+                    .map(Expense::getId).collect(Collectors.toSet());
+            transactions = event.getTransactions().stream()
+                    .map(Transaction::getId).collect(Collectors.toSet());
+        }
+
+        /**
+         * @param operations operations in the order they are applied
+         * @return true iff all operations can be applied
+         */
+        private boolean isValid(List<BatchOperation> operations) {
+            for(BatchOperation operation : operations) {
+                if(operation == null || operation.getAction() == null || !isValid(operation))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * @param operation operation to check
+         * @return true iff the operation can be applied after the previous ones
+         */
+        private boolean isValid(BatchOperation operation) {
+            Participant participant = operation.getParticipant();
+            return switch (operation.getAction()) {
+                case ADD_PARTICIPANT -> isValid(participant) && participant.getId() <= 0
+                        && participants.add(participant.getId());
+                case UPDATE_PARTICIPANT -> isValid(participant)
+                        && existingParticipants.contains(participant.getId());
+                case ADD_EXPENSE -> isValid(operation.getExpense());
+                case UPDATE_EXPENSE -> isValid(operation.getExpense())
+                        && expenses.contains(operation.getExpense().getId());
+                case REMOVE_EXPENSE -> expenses.remove(operation.getId());
+                case ADD_TRANSACTION -> isValid(operation.getTransaction());
+                case REMOVE_TRANSACTION -> transactions.remove(operation.getId());
+                default -> false;
+            };
+        }
+
+        /**
+         * @param participant participant to check
+         * @return true iff the participant has a name
+         */
+        private boolean isValid(Participant participant) {
+            return participant != null && participant.getName() != null
+                    && !participant.getName().isEmpty();
+        }
+
+        /**
+         * @param expense expense to check
+         * @return true iff all required fields are set and all its participants are known
+         */
+        private boolean isValid(Expense expense) {
+            return expense != null && expense.getAmount() != null
+                    && expense.getPurpose() != null && !expense.getPurpose().isEmpty()
+                    && expense.getCurrency() != null && !expense.getCurrency().isEmpty()
+                    && expense.getExpenseAuthor() != null
+                    && participants.contains(expense.getExpenseAuthor().getId())
+                    && expense.getExpenseParticipants() != null
+                    && expense.getExpenseParticipants().stream()
+                        .allMatch(p -> p != null && participants.contains(p.getId()));
+        }
+
+        /**
+         * @param transaction transaction to check
+         * @return true iff the amount is set and giver and receiver are known
+         */
+        private boolean isValid(Transaction transaction) {
+            return transaction != null && transaction.getAmount() != null
+                    && transaction.getGiver() != null && transaction.getReceiver() != null
+                    && participants.contains(transaction.getGiver().getId())
+                    && participants.contains(transaction.getReceiver().getId());
+        }
+    }
+}
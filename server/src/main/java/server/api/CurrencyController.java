@@ -1,53 +1,63 @@
 package server.api;
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import server.AdminService;
+import server.RateStore;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.util.HashMap;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 
 @RestController
 public class CurrencyController {
+    private final RateStore rates;
+    private final AdminService admS;
 
     /**
+     * @param rates exchange rates by day
+     * @param admS admin service
+     */
+    public CurrencyController(RateStore rates, AdminService admS) {
+        this.rates = rates;
+        this.admS = admS;
+    }
+
+    /**
+     * Rates of past days are served from memory or the database after the first request
+     *
      * @param date date of format yyyy-mm-dd
-     * @return string representation of exchange rates
+     * @return 200 with the units of each currency per USD,
+     * 400 if the date is invalid or in the future,
+     * 500 if the rates could not be fetched
      */
-    @SuppressWarnings("unchecked")
     @GetMapping("api/currency/{date}")
     public ResponseEntity<Map<String, Double>> get(@PathVariable String date){
-        try (HttpClient httpClient = HttpClient.newHttpClient()) {
-            String url = "https://openexchangerates.org/api/historical/";
-            String end = ".json?app_id=4368d26633d149e0b992c5bcdce76270";
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url + date + end)).GET().build();
-
-            HttpResponse<String> response =
-                    httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if(response.statusCode() != 200){
-                return ResponseEntity.status(response.statusCode()).build();
-            }
-            ObjectReader reader = new ObjectMapper().reader().forType(Map.class);
-            Map<String, Object> map = reader.readValue(response.body());
-
-            Map<String, Object> rates = (Map<String, Object>) map.get("rates");
-            Map<String, Double> fixedRates = new HashMap<>();
-            for(Map.Entry<String, Object> entry : rates.entrySet()){
-                if(entry.getKey().equals("BTC")) continue;
-                fixedRates.put(entry.getKey(), Double.valueOf(String.valueOf(entry.getValue())));
-            }
-            return ResponseEntity.ok(fixedRates);
-        } catch (Exception e) {
+        try {
+            return ResponseEntity.ok(rates.getRates(LocalDate.parse(date)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    /**
+     * @param inputPassword admin password
+     * @return hit, fetch and failure counters of the rate store
+     * or 401 if the password is incorrect
+     */
+    @GetMapping("/admin/rates")
+    public ResponseEntity<Map<String, Long>> getStatistics(
+            @RequestHeader("Authorization") String inputPassword) {
+        if(!admS.verifyPassword(inputPassword))
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        return ResponseEntity.ok(rates.getStatistics());
+    }
 }
@@ -1,72 +1,103 @@
 package server.api;
 
+import commons.BatchOperation;
 import commons.Event;
+import commons.EventSummary;
 import commons.Tag;
-import commons.WebsocketActions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import server.BalanceLedger;
+import server.EventArchiver;
+import server.EventCache;
+import server.EventIdAllocator;
+import server.EventPublisher;
 import server.database.EventRepository;
 
 import java.util.*;
-import java.util.random.RandomGenerator;
 
 @RestController
 @RequestMapping("/api/events")
 public class EventController {
+    static final int MAX_SUMMARIES = EventSummary.MAX_PER_REQUEST;
+
     private final EventRepository repo;
-    private final RandomGenerator random;
-    private final SimpMessagingTemplate simp;
+    private final EventIdAllocator ids;
+    private final EventPublisher publisher;
     private final AdminController adminController;
+    private final EventCache cache;
+    private final BalanceLedger ledger;
+    private final EventArchiver archiver;
 
     /**
-     * Constructor with repository and random number generator injections
+     * Constructor with repository and id allocator injections
      *
      * @param repo Event repository
-     * @param random A random number generator
-     * @param simp websocket object used to send updates to everyone
+     * @param ids allocator of the ids of new events
+     * @param publisher publisher of the changes to event subscribers
      * @param adminController admin controller for sending updates
+     * @param cache cache of loaded events
+     * @param ledger participant balances of events
+     * @param archiver archive of inactive events, restored when they are opened
      */
     @Autowired
-    public EventController(EventRepository repo, RandomGenerator random,
-                           SimpMessagingTemplate simp, AdminController adminController) {
+    public EventController(EventRepository repo, EventIdAllocator ids,
+                           EventPublisher publisher, AdminController adminController,
+                           EventCache cache, BalanceLedger ledger, EventArchiver archiver) {
         this.repo = repo;
-        this.random = random;
-        this.simp = simp;
+        this.ids = ids;
+        this.publisher = publisher;
         this.adminController = adminController;
-    }
-
-    /**
-     * Generates an event ID by generating a stream of random integers
-     * and converting them into a string
-     *
-     * @return a random string of 5 uppercase characters
-     */
-    private String generateId() {
-        return random.ints(97, 123)
-                .limit(5)
-                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
-                .toString().toUpperCase();
+        this.cache = cache;
+        this.ledger = ledger;
+        this.archiver = archiver;
     }
 
     /**
      * Path:
      * /api/events/{id}
      *
+     * An archived event is restored first, this takes longer than loading a stored one
+     *
      * @param id invite code of event to search
      * @return the found event entity or 404 'not found' response otherwise
      */
     @GetMapping( "/{id}")
     public ResponseEntity<Event> getById(@PathVariable String id) {
         try {
-            Optional<Event> event = repo.findById(id);
+            Optional<Event> event = cache.get(id, archiver::load);
             return event.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Path:
+     * /api/events/summaries?ids={id},{id}
+     * <p>
+     * Reads the summaries in one query without loading any collection of the events
+     *
+     * @param ids invite codes of the events, at most {@value #MAX_SUMMARIES}
+     * @return summaries of the events that exist in the order of the ids,
+     * 400 'bad request' if there are too many ids or 500 if something went wrong
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<List<EventSummary>> getSummaries(@RequestParam List<String> ids) {
+        if (ids.size() > MAX_SUMMARIES) return ResponseEntity.badRequest().build();
+        // an empty IN list is not valid SQL
+        if (ids.isEmpty()) return ResponseEntity.ok(List.of());
+        try {
+            Map<String, EventSummary> found = new HashMap<>();
+            for (EventSummary summary : repo.findSummariesByIds(new HashSet<>(ids)))
+                found.put(summary.getId(), summary);
+            return ResponseEntity.ok(ids.stream().distinct().map(found::get)
+                    .filter(Objects::nonNull).toList());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Generates an ID for the event, adds it to the database and sends it back to the client
      *
@@ -79,10 +110,7 @@ public class EventController {
             if (event == null || event.getTitle() == null || event.getTitle().isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
-            String id;
-            do {
-                id = generateId();
-            } while (repo.existsById(id));
+            String id = ids.next();
             event.setId(id);
             Tag t1 = new Tag("food", "#00FF00");
             Tag t2 = new Tag("entrance fees", "#0000FF");
@@ -94,16 +122,17 @@ public class EventController {
                 t.setEventID(eventID);
             }
             event.setLastActivity(new Date());
-            Event saved = repo.save(event);
-            adminController.update();
-            return ResponseEntity.ok(saved);
+            repo.insert(event);
+            adminController.update(eventID);
+            return ResponseEntity.ok(event);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
     /**
-     * Deletes an event
+     * Deletes an event. It is only marked deleted here,
+     * its rows are removed in the background by the {@link server.EventPurger}.
      *
      * @param id of event to delete
      * @return status 204 if deleted successfully or 404 if the event does not exist
@@ -111,12 +140,11 @@ public class EventController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Event> deleteById(@PathVariable String id) {
         try {
-            if(repo.existsById(id)) {
-                repo.deleteById(id);
-                adminController.update();
-                simp.convertAndSend("/event/" + id, "delete",
-                        Map.of("action", WebsocketActions.DELETE_EVENT,
-                                "type", String.class.getTypeName()));
+            if(repo.markDeleted(id) > 0) {
+                cache.invalidate(id);
+                ledger.invalidate(id);
+                adminController.update(id);
+                publisher.publishDeletion(id);
                 return ResponseEntity.noContent().build();
             }
             return ResponseEntity.notFound().build();
@@ -144,10 +172,9 @@ public class EventController {
                 event.setTitle(title);
                 event.setLastActivity(new Date());
                 repo.save(event);
-                adminController.update();
-                simp.convertAndSend("/event/" + id, title,
-                        Map.of("action", WebsocketActions.TITLE_CHANGE,
-                                "type", String.class.getTypeName()));
+                cache.invalidate(id);
+                adminController.update(id);
+                publisher.publish(id, BatchOperation.changeTitle(title));
                 return ResponseEntity.noContent().build();
             }
             return ResponseEntity.notFound().build();
@@ -179,10 +206,10 @@ public class EventController {
                 return ResponseEntity.notFound().build();
             event.setLastActivity(new Date());
             repo.save(event);
-            adminController.update();
-            simp.convertAndSend("/event/" + id, event.getTitle(),
-                    Map.of("action", WebsocketActions.TITLE_CHANGE,
-                                "type", String.class.getTypeName()));
+            cache.invalidate(id);
+            ledger.invalidate(id);
+            adminController.update(id);
+            publisher.publish(id, BatchOperation.changeTitle(event.getTitle()));
             return ResponseEntity.noContent().build();
 
         } catch (Exception e) {
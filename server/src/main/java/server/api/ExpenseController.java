@@ -1,17 +1,19 @@
 package server.api;
 
-import commons.Event;
+import commons.BatchOperation;
 import commons.EventWeakKey;
 import commons.Expense;
-import commons.WebsocketActions;
+import commons.ExpenseUpdate;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import server.ActivityTracker;
+import server.BalanceLedger;
+import server.EventCache;
+import server.EventPublisher;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
 
-import java.util.Date;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -19,23 +21,51 @@ import java.util.Optional;
 public class ExpenseController {
     private final ExpenseRepository repoExpense;
     private final EventRepository eventRepo;
-    private final SimpMessagingTemplate simp;
+    private final EventPublisher publisher;
     private final AdminController adminController;
+    private final EventCache cache;
+    private final BalanceLedger ledger;
+    private final ActivityTracker activity;
 
     /**
      * constructor for expense controller
      *
      * @param repoExpense repo of the Expenses
      * @param eventRepo repo of events
-     * @param simp websocket object to send messages to event subscribers
+     * @param publisher publisher of the changes to event subscribers
      * @param adminController admin controller for sending updates
+     * @param cache cache of loaded events
+     * @param ledger participant balances of events
+     * @param activity last activity of events
      */
     public ExpenseController(ExpenseRepository repoExpense, EventRepository eventRepo,
-                             SimpMessagingTemplate simp, AdminController adminController) {
+                             EventPublisher publisher, AdminController adminController,
+                             EventCache cache, BalanceLedger ledger,
+                             ActivityTracker activity) {
         this.repoExpense = repoExpense;
         this.eventRepo = eventRepo;
-        this.simp = simp;
+        this.publisher = publisher;
         this.adminController = adminController;
+        this.cache = cache;
+        this.ledger = ledger;
+        this.activity = activity;
+    }
+
+    /**
+     * retrieves the expenses of an event without loading the rest of it
+     *
+     * @param eventID ID of the event
+     * @return ResponseEntity which contains the expenses, or 404 Not Found otherwise
+     */
+    @GetMapping({"", "/"})
+    public ResponseEntity<List<Expense>> getAll(@PathVariable String eventID) {
+        try {
+            return eventRepo.findWithExpensesById(eventID)
+                    .map(event -> ResponseEntity.ok(event.getExpenses()))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
     }
 
     /**
@@ -76,10 +106,9 @@ public class ExpenseController {
 
             expense.setEventID(eventID);
             Expense saved = repoExpense.save(expense);
+            ledger.putExpense(saved);
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, saved,
-                    Map.of("action", WebsocketActions.ADD_EXPENSE,
-                            "type", Expense.class.getTypeName()));
+            publisher.publish(eventID, BatchOperation.addExpense(saved));
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -104,10 +133,9 @@ public class ExpenseController {
                 return ResponseEntity.notFound().build();
             }
             repoExpense.delete(optionalExpense.get());
+            ledger.removeExpense(eventID, id);
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, id,
-                    Map.of("action", WebsocketActions.REMOVE_EXPENSE,
-                            "type", Long.class.getTypeName()));
+            publisher.publish(eventID, BatchOperation.removeExpense(id));
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -133,14 +161,16 @@ public class ExpenseController {
                     || !updatedExpense.getEventID().equals(eventID))
                 return ResponseEntity.badRequest().build();
 
-            if(!repoExpense.existsById(new EventWeakKey(eventID, id)))
+            Optional<Expense> previous = repoExpense.findById(new EventWeakKey(eventID, id));
+            if(previous.isEmpty())
                 return ResponseEntity.notFound().build();
+            // compared before saving, saving may copy the update onto the loaded expense
+            ExpenseUpdate changes = ExpenseUpdate.between(previous.get(), updatedExpense);
 
             repoExpense.save(updatedExpense);
+            ledger.putExpense(updatedExpense);
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, updatedExpense,
-                    Map.of("action", WebsocketActions.UPDATE_EXPENSE,
-                            "type", Expense.class.getTypeName()));
+            publisher.publish(eventID, BatchOperation.changeExpense(changes));
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -148,16 +178,15 @@ public class ExpenseController {
     }
 
     /**
-     * Updates the last activity date of the specified event
-     * and updates the date for long poll in admin controller
+     * Records activity on the specified event, the date is written in the background,
+     * and notifies the admin controller of the change
      *
      * @param eventID event id
      */
     private void update(String eventID) {
-        Event event = eventRepo.getReferenceById(eventID);
-        event.setLastActivity(new Date());
-        eventRepo.save(event);
-        adminController.update();
+        activity.touch(eventID);
+        cache.invalidate(eventID);
+        adminController.update(eventID);
     }
 
     /**
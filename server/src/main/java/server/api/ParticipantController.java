@@ -2,13 +2,24 @@ package server.api;
 
 import commons.*;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.*;
+import server.ActivityTracker;
+import server.AfterCommit;
+import server.BalanceLedger;
+import server.EventCache;
+import server.EventPublisher;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
 import server.database.ParticipantRepository;
+import server.database.Split;
+import server.database.TransactionRepository;
 
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -17,29 +28,64 @@ import java.util.Optional;
 public class ParticipantController {
     private final ParticipantRepository repo;
     private final EventRepository eventRepo;
-    private final SimpMessagingTemplate simp;
+    private final EventPublisher publisher;
     private final AdminController adminController;
     private final ExpenseRepository expenseRepo;
+    private final TransactionRepository transactionRepo;
+    private final EventCache cache;
+    private final BalanceLedger ledger;
+    private final ActivityTracker activity;
 
     /**
      * Constructor with repository and random number generator injections
      *
      * @param repo            Participant repository
      * @param eventRepo       Event repository
-     * @param simp            websocket object used to send updates to everyone
+     * @param publisher       publisher of the changes to event subscribers
      * @param adminController admin controller for sending updates
      * @param expenseRepo     the expense repo
+     * @param transactionRepo the transaction repo
+     * @param cache           cache of loaded events
+     * @param ledger          participant balances of events
+     * @param activity        last activity of events
      */
     public ParticipantController(ParticipantRepository repo,
                                  EventRepository eventRepo,
-                                 SimpMessagingTemplate simp,
+                                 EventPublisher publisher,
                                  AdminController adminController,
-                                 ExpenseRepository expenseRepo) {
+                                 ExpenseRepository expenseRepo,
+                                 TransactionRepository transactionRepo,
+                                 EventCache cache,
+                                 BalanceLedger ledger,
+                                 ActivityTracker activity) {
         this.repo = repo;
         this.eventRepo = eventRepo;
-        this.simp = simp;
+        this.publisher = publisher;
         this.adminController = adminController;
         this.expenseRepo = expenseRepo;
+        this.transactionRepo = transactionRepo;
+        this.cache = cache;
+        this.ledger = ledger;
+        this.activity = activity;
+    }
+
+    /**
+     * Path:
+     * /api/events/{eventID}/participants
+     *
+     * @param eventID invite code of event to search
+     * @return the participants of the event, without loading the rest of it,
+     * or else a 404 'not found' response
+     */
+    @GetMapping({"", "/"})
+    public ResponseEntity<List<Participant>> getAll(@PathVariable String eventID) {
+        try {
+            return eventRepo.findWithParticipantsById(eventID)
+                    .map(event -> ResponseEntity.ok(event.getParticipants()))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
     }
 
     /**
@@ -85,9 +131,7 @@ public class ParticipantController {
             participant.setEventID(eventID);
             Participant saved = repo.save(participant);
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, saved,
-                    Map.of("action", WebsocketActions.ADD_PARTICIPANT,
-                            "type", Participant.class.getTypeName()));
+            publisher.publish(eventID, BatchOperation.addParticipant(saved));
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -122,12 +166,7 @@ public class ParticipantController {
             repo.save(participant);
 
             update(eventID);
-            simp.convertAndSend(
-                    "/event/" + eventID,
-                    participant,
-                    Map.of("action", WebsocketActions.UPDATE_PARTICIPANT,
-                            "type", Participant.class.getTypeName())
-            );
+            publisher.publish(eventID, BatchOperation.updateParticipant(participant));
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -135,7 +174,11 @@ public class ParticipantController {
     }
 
     /**
-     * removes a participant
+     * removes a participant, the expenses it paid and the transactions it is part of.
+     * <p>
+     * Every table is changed by one statement keyed by the event and the participant,
+     * nothing of the event is loaded. Subscribers get all removals in one frame,
+     * together with the participants left in the expenses the participant was split into.
      *
      * @param partID  id of participant to remove
      * @param eventID id of the Event in which the participant is located at
@@ -144,70 +187,69 @@ public class ParticipantController {
      * 401 if participant is not part of the accessed event
      */
     @DeleteMapping("/{partID}")
+    @Transactional
     public ResponseEntity<Event> deleteById(
         @PathVariable long partID,
         @PathVariable String eventID
     ) {
         try {
-            Optional<Participant> optionalParticipant =
-                    repo.findById(new EventWeakKey(eventID, partID));
-            if (optionalParticipant.isEmpty()) return ResponseEntity.notFound().build();
-
-            Participant participant = optionalParticipant.get();
-            Event event = eventRepo.getReferenceById(eventID);
-
-            var itr1 = event.getExpenses().iterator();
-            while (itr1.hasNext()) {
-                Expense e = itr1.next();
-                if (e.getExpenseAuthor().getId() == partID) {
-                    itr1.remove();
-                    simp.convertAndSend("/event/" + eventID, e.getId(),
-                            Map.of("action", WebsocketActions.REMOVE_EXPENSE,
-                                    "type", Long.class.getTypeName())
-                    );
-                    continue;
-                }
-                if(e.getExpenseParticipants().remove(participant))
-                    simp.convertAndSend("/event/" + eventID, e,
-                            Map.of("action", WebsocketActions.UPDATE_EXPENSE,
-                                    "type", Expense.class.getTypeName())
-                    );
-            }
-
-            var itr2 = event.getTransactions().iterator();
-            while(itr2.hasNext()) {
-                Transaction t = itr2.next();
-                if(t.getReceiver().getId() == partID || t.getGiver().getId() == partID) {
-                    itr2.remove();
-                    simp.convertAndSend("/event/" + eventID, t.getId(),
-                            Map.of("action", WebsocketActions.REMOVE_TRANSACTION,
-                                    "type", Long.class.getTypeName()));
-                }
-            }
+            if (!repo.existsById(new EventWeakKey(eventID, partID)))
+                return ResponseEntity.notFound().build();
 
-            event.getParticipants().remove(participant);
-            eventRepo.save(event);
+            List<BatchOperation> removed = new ArrayList<>();
+            for (long id : expenseRepo.findIdsByAuthor(eventID, partID))
+                removed.add(BatchOperation.removeExpense(id));
+            for (long id : transactionRepo.findIdsByParticipant(eventID, partID))
+                removed.add(BatchOperation.removeTransaction(id));
+            removed.addAll(remainingSplits(eventID, partID));
+            expenseRepo.deleteSplitsOf(eventID, partID);
+            expenseRepo.deleteByAuthor(eventID, partID);
+            transactionRepo.deleteByParticipant(eventID, partID);
+            repo.deleteFromEvent(eventID, partID);
+            removed.add(BatchOperation.removeParticipant(partID));
+
+            AfterCommit.run(() -> ledger.invalidate(eventID));
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, partID,
-                    Map.of("action", WebsocketActions.REMOVE_PARTICIPANT,
-                            "type", Long.class.getTypeName())
-            );
+            publisher.publishAll(eventID, removed);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
+            if (TransactionSynchronizationManager.isActualTransactionActive())
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.internalServerError().build();
         }
     }
 
     /**
-     * Updates the last activity date of the specified event
-     * and updates the date for long poll in admin controller
+     * Expenses the participant is split into but did not pay stay,
+     * subscribers get who each of them is split between without the participant
+     *
+     * @param eventID id of the event
+     * @param partID id of the participant that is removed
+     * @return a change of the participants of each of these expenses
+     */
+    private List<BatchOperation> remainingSplits(String eventID, long partID) {
+        Map<Long, List<Long>> remaining = new LinkedHashMap<>();
+        for (Split split : expenseRepo.findSplitsSharedWith(eventID, partID)) {
+            List<Long> ids = remaining.computeIfAbsent(split.expenseId(), id -> new ArrayList<>());
+            if (split.participantId() != partID) ids.add(split.participantId());
+        }
+        List<BatchOperation> changes = new ArrayList<>();
+        remaining.forEach((id, ids) -> changes.add(
+                BatchOperation.changeExpense(ExpenseUpdate.ofParticipants(id, ids))));
+        return changes;
+    }
+
+    /**
+     * Records activity on the specified event, the date is written in the background,
+     * and notifies the admin controller of the change once the transaction commits
      *
      * @param eventID event id
      */
     private void update(String eventID) {
-        Event event = eventRepo.getReferenceById(eventID);
-        event.setLastActivity(new Date());
-        eventRepo.save(event);
-        adminController.update();
+        activity.touch(eventID);
+        AfterCommit.run(() -> {
+            cache.invalidate(eventID);
+            adminController.update(eventID);
+        });
     }
 }
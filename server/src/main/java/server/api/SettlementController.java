@@ -0,0 +1,123 @@
+package server.api;
+
+import commons.Event;
+import commons.Money;
+import commons.Participant;
+import commons.SettlementSolver;
+import commons.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import server.BalanceLedger;
+import server.EventArchiver;
+import server.EventCache;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/events/{eventID}")
+public class SettlementController {
+    private final EventCache cache;
+    private final BalanceLedger ledger;
+    private final EventArchiver archiver;
+
+    /**
+     * @param cache cache of loaded events
+     * @param ledger participant balances of events
+     * @param archiver loads events, restoring archived ones
+     */
+    @Autowired
+    public SettlementController(EventCache cache, BalanceLedger ledger, EventArchiver archiver) {
+        this.cache = cache;
+        this.ledger = ledger;
+        this.archiver = archiver;
+    }
+
+    /**
+     * Path:
+     * /api/events/{eventID}/balances
+     *
+     * @param eventID event id
+     * @return map from currency to map from participant id to net balance in minor units,
+     * positive if the participant is owed money, or 404 if the event does not exist
+     */
+    @GetMapping("/balances")
+    public ResponseEntity<Map<String, Map<Long, Long>>> getBalances(
+            @PathVariable String eventID) {
+        try {
+            return ledger.getBalances(eventID, this::load).map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Path:
+     * /api/events/{eventID}/settlement
+     *
+     * @param eventID event id
+     * @return the transactions that settle all debts of the event, per currency at most
+     * one less than the number of participants, or 404 if the event does not exist
+     */
+    @GetMapping("/settlement")
+    public ResponseEntity<List<Transaction>> getSettlement(@PathVariable String eventID) {
+        try {
+            Optional<Event> event = load(eventID);
+            if (event.isEmpty()) return ResponseEntity.notFound().build();
+            Optional<Map<String, Map<Long, Long>>> balances =
+                    ledger.getBalances(eventID, this::load);
+            if (balances.isEmpty()) return ResponseEntity.notFound().build();
+
+            Map<Long, Participant> participants = event.get().getParticipants().stream()
+                    .collect(Collectors.toMap(Participant::getId, Function.identity()));
+            List<Transaction> result = new ArrayList<>();
+            for (Map.Entry<String, Map<Long, Long>> entry : balances.get().entrySet()) {
+                result.addAll(settle(entry.getValue(), participants, entry.getKey()));
+            }
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * @param eventID event id
+     * @return the event from the cache or database, restored if it was archived
+     */
+    private Optional<Event> load(String eventID) {
+        return cache.get(eventID, archiver::load);
+    }
+
+    /**
+     * Settles the balances with the {@link SettlementSolver}
+     *
+     * @param balances net balance per participant id in minor units
+     * @param participants participants of the event by id
+     * @param currency currency of the balances
+     * @return transactions settling all balances
+     */
+    static List<Transaction> settle(Map<Long, Long> balances,
+                                    Map<Long, Participant> participants, String currency) {
+        long[] ids = new long[balances.size()];
+        long[] amounts = new long[balances.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : balances.entrySet()) {
+            ids[i] = entry.getKey();
+            amounts[i++] = entry.getValue();
+        }
+        SettlementSolver.Transfers transfers = SettlementSolver.solve(amounts);
+        List<Transaction> result = new ArrayList<>(transfers.size());
+        for (int t = 0; t < transfers.size(); t++) {
+            result.add(new Transaction(participants.get(ids[transfers.giver(t)]),
+                    participants.get(ids[transfers.receiver(t)]),
+                    new Money(transfers.amount(t), currency), currency));
+        }
+        return result;
+    }
+}
@@ -3,12 +3,12 @@ package server.api;
 import commons.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import server.ActivityTracker;
+import server.EventCache;
+import server.EventPublisher;
 import server.database.EventRepository;
 import server.database.TagRepository;
-import java.util.Date;
-import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -16,22 +16,29 @@ import java.util.Optional;
 public class TagController {
     private final EventRepository eventRepo;
     private final TagRepository tagRepo;
-    private final SimpMessagingTemplate simp;
+    private final EventPublisher publisher;
     private final AdminController adminController;
+    private final EventCache cache;
+    private final ActivityTracker activity;
 
     /**
      * @param eventRepo Event repository
      * @param tagRepo tag repository interface
-     * @param simp websocket object used to send updates to everyone
+     * @param publisher publisher of the changes to event subscribers
      * @param adminController admin controller for sending updates
+     * @param cache cache of loaded events
+     * @param activity last activity of events
      */
     @Autowired
     public TagController(EventRepository eventRepo, TagRepository tagRepo,
-                                 SimpMessagingTemplate simp, AdminController adminController) {
+                                 EventPublisher publisher, AdminController adminController,
+                                 EventCache cache, ActivityTracker activity) {
         this.eventRepo = eventRepo;
         this.tagRepo = tagRepo;
-        this.simp = simp;
+        this.publisher = publisher;
         this.adminController = adminController;
+        this.cache = cache;
+        this.activity = activity;
     }
 
     /**
@@ -54,9 +61,7 @@ public class TagController {
             tag.setEventID(eventID);
             Tag saved = tagRepo.save(tag);
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, saved,
-                    Map.of("action", WebsocketActions.ADD_TAG,
-                            "type", Tag.class.getTypeName()));
+            publisher.publish(eventID, BatchOperation.addTag(saved));
             return ResponseEntity.ok(saved);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -84,9 +89,7 @@ public class TagController {
 
             tagRepo.save(updatedTag);
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, updatedTag,
-                    Map.of("action", WebsocketActions.UPDATE_TAG,
-                            "type", Tag.class.getTypeName()));
+            publisher.publish(eventID, BatchOperation.updateTag(updatedTag));
             return ResponseEntity.noContent().build();
 
         } catch (Exception e) {
@@ -109,9 +112,8 @@ public class TagController {
                 return ResponseEntity.notFound().build();
             }
             tagRepo.delete(optionalTag.get());
-            simp.convertAndSend("/event/" + eventID, id,
-                    Map.of("action", WebsocketActions.REMOVE_TAG,
-                            "type", Long.class.getTypeName()));
+            cache.invalidate(eventID);
+            publisher.publish(eventID, BatchOperation.removeTag(id));
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -119,16 +121,15 @@ public class TagController {
     }
 
     /**
-     * Updates the last activity date of the specified event
-     * and updates the date for long poll in admin controller
+     * Records activity on the specified event, the date is written in the background,
+     * and notifies the admin controller of the change
      *
      * @param eventID event id
      */
     private void update(String eventID) {
-        Event event = eventRepo.getReferenceById(eventID);
-        event.setLastActivity(new Date());
-        eventRepo.save(event);
-        adminController.update();
+        activity.touch(eventID);
+        cache.invalidate(eventID);
+        adminController.update(eventID);
     }
 
 }
@@ -3,13 +3,14 @@ package server.api;
 import commons.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import server.ActivityTracker;
+import server.BalanceLedger;
+import server.EventCache;
+import server.EventPublisher;
 import server.database.EventRepository;
 import server.database.TransactionRepository;
 
-import java.util.Date;
-import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -17,22 +18,33 @@ import java.util.Optional;
 public class TransactionController {
     private final EventRepository eventRepo;
     private final TransactionRepository transactionRepo;
-    private final SimpMessagingTemplate simp;
+    private final EventPublisher publisher;
     private final AdminController adminController;
+    private final EventCache cache;
+    private final BalanceLedger ledger;
+    private final ActivityTracker activity;
 
     /**
      * @param eventRepo Event repository
      * @param transactionRepo transaction repository interface
-     * @param simp websocket object used to send updates to everyone
+     * @param publisher publisher of the changes to event subscribers
      * @param adminController admin controller for sending updates
+     * @param cache cache of loaded events
+     * @param ledger participant balances of events
+     * @param activity last activity of events
      */
     @Autowired
     public TransactionController(EventRepository eventRepo, TransactionRepository transactionRepo,
-                                 SimpMessagingTemplate simp, AdminController adminController) {
+                                 EventPublisher publisher, AdminController adminController,
+                                 EventCache cache, BalanceLedger ledger,
+                                 ActivityTracker activity) {
         this.eventRepo = eventRepo;
         this.transactionRepo = transactionRepo;
-        this.simp = simp;
+        this.publisher = publisher;
         this.adminController = adminController;
+        this.cache = cache;
+        this.ledger = ledger;
+        this.activity = activity;
     }
 
     /**
@@ -53,10 +65,9 @@ public class TransactionController {
             }
             transaction.setEventID(eventID);
             Transaction saved = transactionRepo.save(transaction);
+            ledger.putTransaction(saved);
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, saved,
-                    Map.of("action", WebsocketActions.ADD_TRANSACTION,
-                            "type", Transaction.class.getTypeName()));
+            publisher.publish(eventID, BatchOperation.addTransaction(saved));
             return ResponseEntity.ok(saved);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -77,10 +88,9 @@ public class TransactionController {
                 return ResponseEntity.notFound().build();
             }
             transactionRepo.deleteById(key);
+            ledger.removeTransaction(eventID, id);
             update(eventID);
-            simp.convertAndSend("/event/" + eventID, id,
-                    Map.of("action", WebsocketActions.REMOVE_TRANSACTION,
-                            "type", Long.class.getTypeName()));
+            publisher.publish(eventID, BatchOperation.removeTransaction(id));
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -88,15 +98,14 @@ public class TransactionController {
     }
 
     /**
-     * Updates the last activity date of the specified event
-     * and updates the date for long poll in admin controller
+     * Records activity on the specified event, the date is written in the background,
+     * and notifies the admin controller of the change
      *
      * @param eventID event id
      */
     private void update(String eventID) {
-        Event event = eventRepo.getReferenceById(eventID);
-        event.setLastActivity(new Date());
-        eventRepo.save(event);
-        adminController.update();
+        activity.touch(eventID);
+        cache.invalidate(eventID);
+        adminController.update(eventID);
     }
 }
@@ -0,0 +1,47 @@
+package server.database;
+
+import commons.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves amounts of databases created before amounts were stored in minor units.
+ * <p>
+ * The schema update adds the new columns, this copies the old floating point
+ * amounts (always in the base currency) into them and drops the old column.
+ * Runs before the server accepts requests and does nothing on up-to-date databases.
+ */
+@Component
+public class AmountMigration {
+    private static final String[] TABLES = {"EXPENSE", "TRANSACTION"};
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * @param jdbc jdbc template
+     * @param entityManagerFactory only injected so the schema is updated before migrating
+     */
+    @Autowired
+    public AmountMigration(JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Migrates every table that still has the old amount column
+     */
+    @PostConstruct
+    public void migrate() {
+        for (String table : TABLES) {
+            Integer columns = jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS"
+                    + " WHERE TABLE_NAME = ? AND COLUMN_NAME = 'AMOUNT'", Integer.class, table);
+            if (columns == null || columns == 0) continue;
+            jdbc.update("UPDATE " + table + " SET AMOUNT_MINOR = ROUND(AMOUNT * ?),"
+                    + " AMOUNT_CURRENCY = ?", Money.unitsPerMajor(Money.BASE_CURRENCY),
+                    Money.BASE_CURRENCY);
+            jdbc.execute("ALTER TABLE " + table + " DROP COLUMN AMOUNT");
+        }
+    }
+}
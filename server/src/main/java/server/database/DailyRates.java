@@ -0,0 +1,75 @@
+package server.database;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Exchange rates of one day relative to USD, stored once the day is over
+ * because historical rates never change
+ */
+@Entity
+public class DailyRates {
+    @Id
+    @Column(name = "rate_date")
+    private LocalDate date;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "DAILY_RATE", joinColumns = @JoinColumn(name = "rate_date"))
+    @MapKeyColumn(name = "currency", length = 3)
+    @Column(name = "rate", nullable = false)
+    private Map<String, Double> rates;
+
+    /**
+     * No arg constructor for JPA
+     */
+    protected DailyRates() {
+        rates = new HashMap<>();
+    }
+
+    /**
+     * @param date day of the rates
+     * @param rates units of each currency per USD
+     */
+    public DailyRates(LocalDate date, Map<String, Double> rates) {
+        this.date = date;
+        this.rates = new HashMap<>(rates);
+    }
+
+    /**
+     * @return day of the rates
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * @return units of each currency per USD
+     */
+    public Map<String, Double> getRates() {
+        return rates;
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DailyRates that = (DailyRates) o;
+        return Objects.equals(date, that.date) && Objects.equals(rates, that.rates);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, rates);
+    }
+}
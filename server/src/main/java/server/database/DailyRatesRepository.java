@@ -0,0 +1,23 @@
+package server.database;
+
+import org.springframework.data.repository.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Only reads by day and saves, rates are never changed or deleted
+ */
+public interface DailyRatesRepository extends Repository<DailyRates, LocalDate> {
+    /**
+     * @param date day of the rates
+     * @return the stored rates of the day
+     */
+    Optional<DailyRates> findById(LocalDate date);
+
+    /**
+     * @param rates rates of a day
+     * @return the saved rates
+     */
+    DailyRates save(DailyRates rates);
+}
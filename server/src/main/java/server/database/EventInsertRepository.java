@@ -0,0 +1,22 @@
+package server.database;
+
+import commons.Event;
+
+/**
+ * Inserts events that are known to be new.
+ * <p>
+ * Saving an entity whose key is already set merges it, which first selects it by that key.
+ * Every participant, expense, transaction and tag of an event has its event id set,
+ * so saving a new event this way costs one select per item before any insert.
+ */
+public interface EventInsertRepository {
+    /**
+     * Inserts the event and, cascading, all its items in the current transaction,
+     * or in a new one if there is none.
+     * Items need an id of 0 so they get new ids from their sequences.
+     * If an event with the same id exists the insert fails instead of overwriting it.
+     *
+     * @param event new event
+     */
+    void insert(Event event);
+}
@@ -0,0 +1,28 @@
+package server.database;
+
+import commons.Event;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Picked up by Spring Data as the implementation of {@link EventInsertRepository}
+ */
+public class EventInsertRepositoryImpl implements EventInsertRepository {
+    private final EntityManager entityManager;
+
+    /**
+     * @param entityManager shared entity manager, bound to the current transaction
+     */
+    public EventInsertRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param event new event
+     */
+    @Override
+    @Transactional
+    public void insert(Event event) {
+        entityManager.persist(event);
+    }
+}
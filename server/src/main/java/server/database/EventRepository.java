@@ -1,7 +1,362 @@
 package server.database;
 
 import commons.Event;
+import commons.EventSummary;
+import commons.Expense;
+import commons.Participant;
+import commons.Tag;
+import commons.Transaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface EventRepository extends JpaRepository<Event, String> {
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The collections of an event are loaded lazily,
+ * so every endpoint picks the query that loads exactly the parts it needs.
+ */
+public interface EventRepository extends JpaRepository<Event, String>, EventInsertRepository {
+    /**
+     * Selects the summaries of events, counts and totals are computed by subqueries
+     */
+    String SUMMARY = "SELECT new commons.EventSummary(e.id, e.title, e.creationDate,"
+            + " e.lastActivity,"
+            + " (SELECT COUNT(p) FROM Participant p WHERE p.eventID = e.id),"
+            + " (SELECT COUNT(x) FROM Expense x WHERE x.eventID = e.id),"
+            + " (SELECT COALESCE(SUM(x.amount.minorUnits), 0) FROM Expense x"
+            + " WHERE x.eventID = e.id))"
+            + " FROM Event e";
+
+    /**
+     * @param id event id
+     * @return the event with its participants loaded
+     */
+    @EntityGraph(attributePaths = "participants")
+    Optional<Event> findWithParticipantsById(String id);
+
+    /**
+     * The participants of each expense are loaded in batches when first accessed
+     *
+     * @param id event id
+     * @return the event with its expenses loaded
+     */
+    @EntityGraph(attributePaths = "expenses")
+    Optional<Event> findWithExpensesById(String id);
+
+    /**
+     * Counts and totals are computed by the database for the events on the page only
+     *
+     * @param pageable page, size and order of the summaries
+     * @return one page of summaries, read without loading any collection
+     */
+    @Query(value = SUMMARY, countQuery = "SELECT COUNT(e) FROM Event e")
+    Page<EventSummary> findSummaries(Pageable pageable);
+
+    /**
+     * @param ids ids of the events
+     * @return summaries of the events that exist
+     */
+    @Query(SUMMARY + " WHERE e.id IN :ids")
+    List<EventSummary> findSummariesByIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Writes only the last activity column, the event is not loaded.
+     * An activity older than the stored one is ignored.
+     *
+     * @param id event id
+     * @param time time of the last activity
+     * @return number of events updated
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.lastActivity = :time WHERE e.id = :id"
+            + " AND (e.lastActivity IS NULL OR e.lastActivity < :time)")
+    int updateLastActivity(@Param("id") String id, @Param("time") Date time);
+
+    /**
+     * @param activity time of the last activity by event id
+     */
+    @Transactional
+    default void updateLastActivities(Map<String, Date> activity) {
+        activity.forEach(this::updateLastActivity);
+    }
+
+    /**
+     * Hides the event from every other query right away,
+     * its rows are removed later by {@link #purge(Collection)}
+     *
+     * @param id event id
+     * @return number of events marked, 0 if there is none or it was deleted already
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET e.deleted = true WHERE e.id = :id AND e.deleted = false")
+    int markDeleted(@Param("id") String id);
+
+    /**
+     * Hides the event like {@link #markDeleted(String)} and marks it as being archived,
+     * unless it was active again since it was selected for archiving.
+     * The purger skips it until {@link #purgeArchived(Collection)} or
+     * {@link #unmarkArchiving(Collection)} settles it.
+     *
+     * @param id event id
+     * @param before the event is only marked if it has no activity since this time
+     * @return number of events marked, 0 if it is active, deleted or gone
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET e.deleted = true, e.archiving = true WHERE e.id = :id"
+            + " AND e.deleted = false AND e.lastActivity < :before")
+    int markInactive(@Param("id") String id, @Param("before") Date before);
+
+    /**
+     * Brings back events marked for archiving that were not purged yet
+     *
+     * @param ids event ids
+     * @return number of events unmarked
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE event SET deleted = FALSE, archiving = FALSE"
+            + " WHERE archiving = TRUE AND id IN :ids", nativeQuery = true)
+    int unmarkArchiving(@Param("ids") Collection<String> ids);
+
+    /**
+     * @return ids of events marked for archiving that were neither purged nor unmarked
+     */
+    @Query(value = "SELECT id FROM event WHERE archiving = TRUE", nativeQuery = true)
+    List<String> findArchivingIds();
+
+    /**
+     * Unlike {@link #findById(Object)} this also finds deleted events that were not purged
+     *
+     * @param id event id
+     * @return the event, its collections are loaded lazily
+     */
+    @Query(value = "SELECT * FROM event WHERE id = :id", nativeQuery = true)
+    Optional<Event> findIncludingDeletedById(@Param("id") String id);
+
+    /**
+     * Unlike {@link #existsById(Object)} this also counts deleted events that were not purged,
+     * their ids cannot be used again yet
+     *
+     * @param id event id
+     * @return number of events with the id
+     */
+    @Query(value = "SELECT COUNT(*) FROM event WHERE id = :id", nativeQuery = true)
+    long countIncludingDeleted(@Param("id") String id);
+
+    /**
+     * @return ids of all events, also the deleted ones that were not purged
+     */
+    @Query(value = "SELECT id FROM event", nativeQuery = true)
+    List<String> findAllIdsIncludingDeleted();
+
+    /**
+     * @param limit maximum number of ids
+     * @return ids of deleted events that still have rows
+     */
+    @Query(value = "SELECT id FROM event WHERE deleted = TRUE AND archiving = FALSE LIMIT :limit",
+            nativeQuery = true)
+    List<String> findDeletedIds(@Param("limit") int limit);
+
+    /**
+     * The participants of the expenses are removed from the join table as well
+     *
+     * @param ids event ids
+     * @return number of expenses deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Expense x WHERE x.eventID IN :ids")
+    int deleteExpensesOf(@Param("ids") Collection<String> ids);
+
+    /**
+     * @param ids event ids
+     * @return number of transactions deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.eventID IN :ids")
+    int deleteTransactionsOf(@Param("ids") Collection<String> ids);
+
+    /**
+     * @param ids event ids
+     * @return number of participants deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Participant p WHERE p.eventID IN :ids")
+    int deleteParticipantsOf(@Param("ids") Collection<String> ids);
+
+    /**
+     * @param ids event ids
+     * @return number of tags deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Tag t WHERE t.eventID IN :ids")
+    int deleteTagsOf(@Param("ids") Collection<String> ids);
+
+    /**
+     * @param ids event ids
+     * @return number of deleted events removed, events that are not deleted
+     * or are being archived are kept
+     */
+    @Modifying
+    @Query(value = "DELETE FROM event WHERE deleted = TRUE AND archiving = FALSE AND id IN :ids",
+            nativeQuery = true)
+    int deleteMarked(@Param("ids") Collection<String> ids);
+
+    /**
+     * @param ids event ids
+     * @return number of archived events removed, events not marked for archiving are kept
+     */
+    @Modifying
+    @Query(value = "DELETE FROM event WHERE archiving = TRUE AND id IN :ids", nativeQuery = true)
+    int deleteArchived(@Param("ids") Collection<String> ids);
+
+    /**
+     * Removes the rows of deleted events with one statement per table,
+     * children first so no foreign key is violated
+     *
+     * @param ids ids of deleted events
+     * @return number of rows deleted
+     */
+    @Transactional
+    default int purge(Collection<String> ids) {
+        return deleteExpensesOf(ids) + deleteTransactionsOf(ids) + deleteParticipantsOf(ids)
+                + deleteTagsOf(ids) + deleteMarked(ids);
+    }
+
+    /**
+     * Removes the rows of events whose archive segment was written, like {@link #purge(Collection)}
+     *
+     * @param ids ids of events marked for archiving
+     * @return number of rows deleted
+     */
+    @Transactional
+    default int purgeArchived(Collection<String> ids) {
+        return deleteExpensesOf(ids) + deleteTransactionsOf(ids) + deleteParticipantsOf(ids)
+                + deleteTagsOf(ids) + deleteArchived(ids);
+    }
+
+    /**
+     * @param before events without activity since this time are inactive
+     * @param page number of ids, the least recently active first
+     * @return ids of inactive events
+     */
+    @Query("SELECT e.id FROM Event e WHERE e.lastActivity < :before ORDER BY e.lastActivity")
+    List<String> findInactiveIds(@Param("before") Date before, Pageable page);
+
+    /**
+     * Saves a complete event that is not in the database, for example an imported one.
+     * Manually reassigns participant instances in expenses and transactions to the ones
+     * in the participant list because the repository treats them as separate entities
+     * otherwise.<p>
+     * The ids of participants, expenses, transactions and tags get reassigned!
+     * Everything is inserted without selecting it first,
+     * so the inserts of each table are sent in JDBC batches.
+     *
+     * @param event event to save, every participant of an expense or transaction
+     *              is in its participants
+     * @return the saved event
+     */
+    @Transactional
+    default Event saveWithNewIds(Event event) {
+        Map<Long, Participant> participants = new HashMap<>();
+        event.getParticipants().forEach(p -> participants.put(p.getId(), p));
+        Map<Long, Tag> tags = new HashMap<>();
+        event.getTags().forEach(t -> tags.put(t.getId(), t));
+        for (Expense expense : event.getExpenses()) {
+            expense.setExpenseAuthor(participants.get(expense.getExpenseAuthor().getId()));
+            expense.setExpenseParticipants(expense.getExpenseParticipants().stream()
+                    .map(p -> participants.get(p.getId()))
+                    .collect(Collectors.toCollection(ArrayList::new)));
+            if (expense.getType() != null) {
+                expense.setType(tags.get(expense.getType().getId()));
+            }
+        }
+        for (Transaction transaction : event.getTransactions()) {
+            transaction.setGiver(participants.get(transaction.getGiver().getId()));
+            transaction.setReceiver(participants.get(transaction.getReceiver().getId()));
+        }
+        clearIds(event);
+        insert(event);
+        return event;
+    }
+
+    /**
+     * Sets the ids of all items of the event to 0, so they are taken from their sequences,
+     * after the references between them are resolved by their old ids
+     *
+     * @param event new event
+     */
+    private static void clearIds(Event event) {
+        for (Participant participant : event.getParticipants()) {
+            participant.setId(0);
+            participant.setEventID(event.getId());
+        }
+        for (Tag tag : event.getTags()) {
+            tag.setId(0);
+            tag.setEventID(event.getId());
+        }
+        for (Expense expense : event.getExpenses()) {
+            expense.setId(0);
+            expense.setEventID(event.getId());
+        }
+        for (Transaction transaction : event.getTransactions()) {
+            transaction.setId(0);
+            transaction.setEventID(event.getId());
+        }
+    }
+
+    /**
+     * Loads the complete event so it can be used outside the persistence context,
+     * for example when it is cached.
+     * Every collection costs one query, the participants of the expenses are batched.
+     *
+     * @param id event id
+     * @return the event with all its collections loaded
+     */
+    @Transactional(readOnly = true)
+    default Optional<Event> findFullById(String id) {
+        Optional<Event> found = findWithParticipantsById(id);
+        found.ifPresent(EventRepository::loadCollections);
+        return found;
+    }
+
+    /**
+     * Loads the complete event like {@link #findFullById(String)},
+     * also if it is deleted but not purged yet
+     *
+     * @param id event id
+     * @return the event with all its collections loaded
+     */
+    @Transactional(readOnly = true)
+    default Optional<Event> findFullIncludingDeletedById(String id) {
+        Optional<Event> found = findIncludingDeletedById(id);
+        found.ifPresent(EventRepository::loadCollections);
+        return found;
+    }
+
+    /**
+     * @param event event in the persistence context, its collections are loaded
+     */
+    private static void loadCollections(Event event) {
+        event.getParticipants().size();
+        for (Expense expense : event.getExpenses()) {
+            expense.getExpenseParticipants().size();
+        }
+        event.getTransactions().size();
+        event.getTags().size();
+    }
 }
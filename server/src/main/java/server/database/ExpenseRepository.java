@@ -3,7 +3,69 @@ package server.database;
 import commons.EventWeakKey;
 import commons.Expense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface ExpenseRepository extends JpaRepository<Expense, EventWeakKey> {
-    // Custom methods for expense repository can be added here if needed
+    /**
+     * @param eventID event id
+     * @param participantID id of the author
+     * @return ids of the expenses the participant paid
+     */
+    @Query("SELECT x.id FROM Expense x WHERE x.eventID = :eventID"
+            + " AND x.expenseAuthor.eventID = :eventID AND x.expenseAuthor.id = :participantID")
+    List<Long> findIdsByAuthor(@Param("eventID") String eventID,
+                               @Param("participantID") long participantID);
+
+    /**
+     * Lists who the expenses the participant is split into but did not pay are split between,
+     * these expenses stay when the participant is removed
+     *
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return all splits of these expenses, ordered by expense
+     */
+    @Query("SELECT new server.database.Split(x.id, p.id) FROM Expense x"
+            + " JOIN x.expenseParticipants p WHERE x.eventID = :eventID"
+            + " AND x.expenseAuthor.id <> :participantID"
+            + " AND x.id IN (SELECT y.id FROM Expense y JOIN y.expenseParticipants q"
+            + " WHERE y.eventID = :eventID AND q.id = :participantID)"
+            + " ORDER BY x.id")
+    List<Split> findSplitsSharedWith(@Param("eventID") String eventID,
+                                     @Param("participantID") long participantID);
+
+    /**
+     * Takes the participant out of every expense it shares in,
+     * and empties the expenses it paid so they can be deleted
+     *
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return number of rows deleted from the join table
+     */
+    @Modifying
+    @Query(value = "DELETE FROM expense_expense_participants WHERE expense_event_id = :eventID"
+            + " AND ((expense_participants_event_id = :eventID"
+            + " AND expense_participants_id = :participantID)"
+            + " OR expense_id IN (SELECT id FROM expense WHERE event_id = :eventID"
+            + " AND expense_author_event_id = :eventID"
+            + " AND expense_author_id = :participantID))", nativeQuery = true)
+    int deleteSplitsOf(@Param("eventID") String eventID,
+                       @Param("participantID") long participantID);
+
+    /**
+     * Call {@link #deleteSplitsOf(String, long)} first, the participants of the expenses
+     * are not removed
+     *
+     * @param eventID event id
+     * @param participantID id of the author
+     * @return number of expenses deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Expense x WHERE x.eventID = :eventID"
+            + " AND x.expenseAuthor.eventID = :eventID AND x.expenseAuthor.id = :participantID")
+    int deleteByAuthor(@Param("eventID") String eventID,
+                       @Param("participantID") long participantID);
 }
@@ -0,0 +1,83 @@
+package server.database;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.util.Objects;
+
+/**
+ * Persisted state of an id allocator: the secret key of its permutation
+ * and the counter value up to which blocks have been handed out to servers
+ */
+@Entity
+public class IdBlock {
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private long highWater;
+
+    @Column(nullable = false)
+    private long permutationKey;
+
+    /**
+     * No arg constructor for JPA
+     */
+    protected IdBlock() {
+    }
+
+    /**
+     * @param name name of the allocator
+     * @param highWater counter value after the last reserved block
+     * @param permutationKey secret key of the permutation of the allocator
+     */
+    public IdBlock(String name, long highWater, long permutationKey) {
+        this.name = name;
+        this.highWater = highWater;
+        this.permutationKey = permutationKey;
+    }
+
+    /**
+     * @return name of the allocator
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return counter value after the last reserved block
+     */
+    public long getHighWater() {
+        return highWater;
+    }
+
+    /**
+     * @return secret key of the permutation of the allocator
+     */
+    public long getPermutationKey() {
+        return permutationKey;
+    }
+
+    /**
+     * @param o object to compare against
+     * @return true iff equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdBlock idBlock = (IdBlock) o;
+        return highWater == idBlock.highWater && permutationKey == idBlock.permutationKey
+                && Objects.equals(name, idBlock.name);
+    }
+
+    /**
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, highWater, permutationKey);
+    }
+}
@@ -0,0 +1,51 @@
+package server.database;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Hands out disjoint blocks of allocator counter values to servers.
+ * The row of an allocator is locked by the update until the reservation commits,
+ * so concurrent reservations, also from other servers, never get the same block.
+ */
+public interface IdBlockRepository extends Repository<IdBlock, String> {
+    /**
+     * @param name name of the allocator
+     * @return its stored state
+     */
+    Optional<IdBlock> findById(String name);
+
+    /**
+     * @param block state of a new allocator
+     * @return the saved state
+     */
+    IdBlock save(IdBlock block);
+
+    /**
+     * @param name name of the allocator
+     * @param size number of counter values to reserve
+     * @return number of allocators updated, 0 if it has no row yet
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdBlock b SET b.highWater = b.highWater + :size WHERE b.name = :name")
+    int advance(@Param("name") String name, @Param("size") long size);
+
+    /**
+     * Reserves the next block, the first reservation creates the allocator with the key
+     *
+     * @param name name of the allocator
+     * @param size number of counter values to reserve
+     * @param newKey permutation key used if the allocator does not exist yet
+     * @return the state after the reservation, the block ends at its high water
+     */
+    @Transactional
+    default IdBlock reserve(String name, long size, long newKey) {
+        if (advance(name, size) > 0) return findById(name).orElseThrow();
+        return save(new IdBlock(name, size, newKey));
+    }
+}
@@ -3,7 +3,21 @@ package server.database;
 import commons.EventWeakKey;
 import commons.Participant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ParticipantRepository extends JpaRepository<Participant, EventWeakKey> {
-    // Custom methods for participant repository can be added here if needed
+    /**
+     * Deletes the participant without loading it or its event,
+     * its expenses and transactions have to be deleted first
+     *
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return number of participants deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Participant p WHERE p.eventID = :eventID AND p.id = :participantID")
+    int deleteFromEvent(@Param("eventID") String eventID,
+                        @Param("participantID") long participantID);
 }
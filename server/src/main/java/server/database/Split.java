@@ -0,0 +1,10 @@
+package server.database;
+
+/**
+ * Row of the join table between expenses and the participants they are split between
+ *
+ * @param expenseId id of the expense
+ * @param participantId id of a participant of the expense
+ */
+public record Split(long expenseId, long participantId) {
+}
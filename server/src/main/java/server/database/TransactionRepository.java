@@ -3,6 +3,36 @@ package server.database;
 import commons.EventWeakKey;
 import commons.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, EventWeakKey> {
+    /**
+     * Selects the transactions the participant gave or received
+     */
+    String INVOLVING = " FROM Transaction t WHERE t.eventID = :eventID"
+            + " AND ((t.giver.eventID = :eventID AND t.giver.id = :participantID)"
+            + " OR (t.receiver.eventID = :eventID AND t.receiver.id = :participantID))";
+
+    /**
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return ids of the transactions the participant gave or received
+     */
+    @Query("SELECT t.id" + INVOLVING)
+    List<Long> findIdsByParticipant(@Param("eventID") String eventID,
+                                    @Param("participantID") long participantID);
+
+    /**
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return number of transactions deleted
+     */
+    @Modifying
+    @Query("DELETE" + INVOLVING)
+    int deleteByParticipant(@Param("eventID") String eventID,
+                            @Param("participantID") long participantID);
 }
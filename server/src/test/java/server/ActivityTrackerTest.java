@@ -0,0 +1,93 @@
+package server;
+
+import commons.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.api.TestEventRepository;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityTrackerTest {
+    private TestEventRepository repo;
+    private EventCache cache;
+    private ActivityTracker activity;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        repo = new TestEventRepository();
+        cache = new EventCache(16);
+        activity = new ActivityTracker(repo, cache);
+        event = new Event("title");
+        event.setId("E0");
+        event.setLastActivity(new Date(0));
+        repo.save(event);
+        event = repo.findById("E0").get();
+        repo.getCalledMethods().clear();
+    }
+
+    @Test
+    void writesOnFlushOnly() {
+        activity.touch("E0", new Date(10));
+        assertEquals(new Date(0), event.getLastActivity());
+        assertEquals(1, activity.flush());
+        assertEquals(new Date(10), event.getLastActivity());
+        assertFalse(repo.getCalledMethods().contains("save"));
+    }
+
+    @Test
+    void flushDropsWrittenEventsFromCache() {
+        cache.get("E0", repo::findFullById);
+        activity.touch("E0", new Date(10));
+        activity.flush();
+
+        assertEquals(0, cache.size());
+        Event loaded = cache.get("E0", repo::findFullById).orElseThrow();
+        assertEquals(new Date(10), loaded.getLastActivity());
+    }
+
+    @Test
+    void coalescesTouches() {
+        activity.touch("E0", new Date(10));
+        activity.touch("E0", new Date(30));
+        activity.touch("E0", new Date(20));
+        activity.flush();
+
+        assertEquals(new Date(30), event.getLastActivity());
+        assertEquals(1, Collections.frequency(repo.getCalledMethods(), "updateLastActivity"));
+        assertEquals(3, activity.getStatistics().get("touches"));
+        assertEquals(2, activity.getStatistics().get("coalesced"));
+        assertEquals(1, activity.getStatistics().get("writes"));
+    }
+
+    @Test
+    void flushWithoutActivity() {
+        assertEquals(0, activity.flush());
+        assertEquals(0, activity.getStatistics().get("flushes"));
+        assertTrue(repo.getCalledMethods().isEmpty());
+    }
+
+    @Test
+    void olderActivityIsIgnored() {
+        event.setLastActivity(new Date(50));
+        activity.touch("E0", new Date(10));
+        activity.flush();
+        assertEquals(new Date(50), event.getLastActivity());
+    }
+
+    @Test
+    void keptWhenWritingFails() {
+        ActivityTracker failing = new ActivityTracker(new TestEventRepository() {
+            @Override
+            public int updateLastActivity(String id, Date time) {
+                throw new IllegalStateException("database down");
+            }
+        }, cache);
+        failing.touch("E0", new Date(10));
+        assertThrows(IllegalStateException.class, failing::flush);
+        assertEquals(1, failing.getStatistics().get("pending"));
+    }
+}
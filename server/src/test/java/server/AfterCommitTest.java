@@ -0,0 +1,56 @@
+package server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AfterCommitTest {
+    private final List<String> ran = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    /**
+     * Ends the transaction the way the transaction manager does
+     *
+     * @param status status of the completed transaction
+     */
+    private void complete(int status) {
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) s.afterCommit();
+            s.afterCompletion(status);
+        }
+    }
+
+    @Test
+    void runsRightAwayWithoutTransaction() {
+        AfterCommit.run(() -> ran.add("task"), () -> ran.add("rolledBack"));
+        assertEquals(List.of("task"), ran);
+    }
+
+    @Test
+    void runsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        AfterCommit.run(() -> ran.add("task"), () -> ran.add("rolledBack"));
+        assertTrue(ran.isEmpty());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(List.of("task"), ran);
+    }
+
+    @Test
+    void runsOtherTaskAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        AfterCommit.run(() -> ran.add("task"), () -> ran.add("rolledBack"));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(List.of("rolledBack"), ran);
+    }
+}
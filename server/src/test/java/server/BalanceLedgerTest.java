@@ -0,0 +1,63 @@
+package server;
+
+import commons.Event;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceLedgerTest {
+    private final BalanceLedger ledger = new BalanceLedger();
+
+    private static Optional<Event> event(String id) {
+        Event event = new Event("title");
+        event.setId(id);
+        return Optional.of(event);
+    }
+
+    @Test
+    void computedBalancesAreKept() {
+        assertTrue(ledger.getBalances("ABCDE", BalanceLedgerTest::event).isPresent());
+        assertTrue(ledger.isLoaded("ABCDE"));
+        assertTrue(ledger.getBalances("NONE", id -> Optional.empty()).isEmpty());
+        assertFalse(ledger.isLoaded("NONE"));
+    }
+
+    @Test
+    void changeToOtherEventKeepsComputation() {
+        assertTrue(ledger.getBalances("ABCDE", id -> {
+            ledger.invalidate("FGHIJ");
+            ledger.removeExpense("FGHIJ", 1);
+            return event(id);
+        }).isPresent());
+        assertTrue(ledger.isLoaded("ABCDE"));
+    }
+
+    @Test
+    void changeToSameEventDiscardsComputation() {
+        assertTrue(ledger.getBalances("ABCDE", id -> {
+            ledger.removeExpense(id, 1);
+            return event(id);
+        }).isPresent());
+        assertFalse(ledger.isLoaded("ABCDE"));
+
+        // the next computation starts after the change and is kept
+        ledger.getBalances("ABCDE", BalanceLedgerTest::event);
+        assertTrue(ledger.isLoaded("ABCDE"));
+    }
+
+    @Test
+    void nestedComputationOfSameEventSeesChange() {
+        ledger.getBalances("ABCDE", id -> {
+            ledger.getBalances(id, other -> {
+                ledger.invalidate(other);
+                return event(other);
+            });
+            return event(id);
+        });
+        assertFalse(ledger.isLoaded("ABCDE"));
+        ledger.getBalances("ABCDE", BalanceLedgerTest::event);
+        assertTrue(ledger.isLoaded("ABCDE"));
+    }
+}
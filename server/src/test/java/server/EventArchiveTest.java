@@ -0,0 +1,99 @@
+package server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventArchiveTest {
+    @TempDir
+    Path directory;
+    private ObjectMapper mapper;
+    private EventArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mapper = new ObjectMapper();
+        archive = new EventArchive(directory.resolve("archive"), mapper);
+    }
+
+    private static Event event(String id) {
+        Event event = new Event("title " + id);
+        event.setId(id);
+        for (int i = 0; i < 20; i++) {
+            Participant participant = new Participant("participant " + i);
+            participant.setId(i);
+            participant.setEventID(id);
+            event.getParticipants().add(participant);
+        }
+        return event;
+    }
+
+    @Test
+    void readsBackArchivedEvents() throws IOException {
+        Path segment = archive.write(List.of(event("AAAAA"), event("BBBBB")));
+        assertTrue(archive.contains("AAAAA"));
+        Event read = archive.read("BBBBB").orElseThrow();
+        assertEquals("title BBBBB", read.getTitle());
+        assertEquals(event("BBBBB").getParticipants(), read.getParticipants());
+        assertTrue(archive.read("CCCCC").isEmpty());
+
+        long json = mapper.writeValueAsBytes(List.of(event("AAAAA"), event("BBBBB"))).length;
+        assertTrue(Files.size(segment) * 4 < json, Files.size(segment) + " vs " + json);
+    }
+
+    @Test
+    void reopenedArchiveKnowsItsSegments() throws IOException {
+        Path first = archive.write(List.of(event("AAAAA")));
+        EventArchive reopened = new EventArchive(directory.resolve("archive"), mapper);
+        assertTrue(reopened.contains("AAAAA"));
+        assertNotEquals(first, reopened.write(List.of(event("BBBBB"))));
+        assertEquals(2, reopened.getStatistics().get("segments"));
+    }
+
+    @Test
+    void segmentIsDeletedWithItsLastEvent() throws IOException {
+        Path segment = archive.write(List.of(event("AAAAA"), event("BBBBB")));
+        archive.remove("AAAAA");
+        assertFalse(archive.contains("AAAAA"));
+        assertTrue(new EventArchive(directory.resolve("archive"), mapper).contains("BBBBB"));
+        assertFalse(new EventArchive(directory.resolve("archive"), mapper).contains("AAAAA"));
+
+        archive.remove("BBBBB");
+        assertFalse(Files.exists(segment));
+        assertEquals(0, archive.getStatistics().get("archived"));
+    }
+
+    @Test
+    void removeLeavesOtherSegmentsAlone() throws IOException {
+        Path first = archive.write(List.of(event("AAAAA"), event("BBBBB")));
+        Path second = archive.write(List.of(event("CCCCC")));
+        archive.remove("BBBBB");
+        archive.remove("CCCCC");
+        assertFalse(Files.exists(second));
+        assertEquals(1, archive.getStatistics().get("segments"));
+        assertEquals(1, archive.getStatistics().get("archived"));
+
+        EventArchive reopened = new EventArchive(directory.resolve("archive"), mapper);
+        assertEquals(Set.of("AAAAA"), reopened.getIds());
+        reopened.remove("AAAAA");
+        assertFalse(Files.exists(first));
+        assertEquals(0, reopened.getStatistics().get("segments"));
+    }
+
+    @Test
+    void nothingIsWrittenUntilNeeded() throws IOException {
+        assertFalse(archive.contains("AAAAA"));
+        assertFalse(Files.exists(directory.resolve("archive")));
+    }
+}
@@ -0,0 +1,206 @@
+package server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Event;
+import commons.EventChanges;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import server.api.AdminController;
+import server.api.TestEventRepository;
+import server.api.TestIdBlockRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventArchiverTest {
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    @TempDir
+    Path directory;
+    private TestEventRepository repo;
+    private EventCache cache;
+    private ActivityTracker activity;
+    private AdminService adminService;
+    private AdminController adminController;
+    private EventArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        adminService = new AdminService(new Random());
+        store(new TestEventRepository());
+    }
+
+    private void store(TestEventRepository events) {
+        repo = events;
+        cache = new EventCache(16);
+        activity = new ActivityTracker(repo, cache);
+        for (int i = 0; i < 5; i++) {
+            Event event = new Event("title");
+            event.setId("E" + i);
+            // E0 is the least recently active, E4 is active today
+            event.setLastActivity(Date.from(NOW.minus(Duration.ofDays(100 - 20L * i))));
+            Participant participant = new Participant("p" + i);
+            participant.setEventID(event.getId());
+            event.getParticipants().add(participant);
+            repo.save(event);
+        }
+    }
+
+    private EventArchiver archiver(int batchSize) throws IOException {
+        archive = new EventArchive(directory, new ObjectMapper());
+        adminController = new AdminController(repo, adminService, cache, activity, archive,
+                new EventIdAllocator(new TestIdBlockRepository(), Set::of, 16, new Random()));
+        return new EventArchiver(repo, archive, cache, new BalanceLedger(), activity,
+                adminController, Duration.ofDays(50), batchSize, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void archivesInactiveEventsInSegments() throws IOException {
+        EventArchiver archiver = archiver(2);
+        cache.get("E0", repo::findFullById);
+
+        // E0, E1 and E2 have been inactive for more than 50 days
+        assertEquals(3, archiver.archive());
+        assertFalse(repo.existsById("E0"));
+        assertTrue(repo.existsById("E3"));
+        assertTrue(archiver.isArchived("E2"));
+        assertFalse(archiver.isArchived("E3"));
+        assertEquals(0, cache.size());
+        assertTrue(repo.findDeletedIds(10).isEmpty());
+        assertEquals(2, archiver.getStatistics().get("segments"));
+        assertEquals(2, archiver.getStatistics().get("hotEvents"));
+        assertEquals(0, archiver.archive());
+    }
+
+    @Test
+    void adminFeedIsNotifiedOfArchivedAndRestoredEvents() throws IOException {
+        EventArchiver archiver = archiver(10);
+        String password = adminService.getAdminPassword();
+        archiver.archive();
+
+        long epoch = adminController.getAll(password, 0, 10, "title", "asc").getBody().getEpoch();
+        EventChanges archived = adminController.getChanges(password, epoch, 0).getBody();
+        assertNotNull(archived);
+        assertEquals(List.of("E0", "E1", "E2"), archived.getDeleted().stream().sorted().toList());
+
+        archiver.restore("E1");
+        EventChanges restored = adminController.getChanges(password, epoch, archived.getSequence())
+                .getBody();
+        assertNotNull(restored);
+        assertEquals("E1", restored.getChanged().getFirst().getId());
+        assertTrue(restored.getDeleted().isEmpty());
+    }
+
+    @Test
+    void bufferedActivityKeepsEventInDatabase() throws IOException {
+        EventArchiver archiver = archiver(10);
+        activity.touch("E0", Date.from(NOW));
+
+        assertEquals(2, archiver.archive());
+        assertTrue(repo.existsById("E0"));
+        assertFalse(archiver.isArchived("E0"));
+        assertEquals(Date.from(NOW), repo.findById("E0").orElseThrow().getLastActivity());
+    }
+
+    @Test
+    void restoredEventIsActiveAgain() throws IOException {
+        EventArchiver archiver = archiver(10);
+        archiver.archive();
+
+        Event restored = archiver.restore("E1").orElseThrow();
+        assertEquals("p1", restored.getParticipants().getFirst().getName());
+        assertEquals(Date.from(NOW), restored.getLastActivity());
+        assertFalse(archiver.isArchived("E1"));
+        assertTrue(repo.existsById("E1"));
+        assertEquals(1, archiver.getStatistics().get("restored"));
+        assertEquals(0, archiver.archive());
+
+        // a second restore finds it in the database
+        assertEquals(restored, archiver.restore("E1").orElseThrow());
+        assertTrue(archiver.restore("NONE").isEmpty());
+        assertEquals(1, archiver.getStatistics().get("restored"));
+    }
+
+    @Test
+    void restoreOnlyWaitsForTheSameEvent() throws Exception {
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        store(new TestEventRepository() {
+            @Override
+            public void insert(Event event) {
+                if (event.getId().equals("E0")) {
+                    inserting.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                super.insert(event);
+            }
+        });
+        EventArchiver archiver = archiver(10);
+        archiver.archive();
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<Event>> first = threads.submit(() -> archiver.restore("E0"));
+            inserting.await();
+            Future<Optional<Event>> second = threads.submit(() -> archiver.restore("E0"));
+            // another event is restored while E0 is
+            assertTrue(archiver.restore("E1").isPresent());
+            assertTrue(archiver.isArchived("E0"));
+
+            release.countDown();
+            assertEquals("E0", first.get().orElseThrow().getId());
+            assertEquals("E0", second.get().orElseThrow().getId());
+        } finally {
+            threads.shutdown();
+        }
+        assertEquals(2, archiver.getStatistics().get("restored"));
+    }
+
+    @Test
+    void purgerSkipsEventsBeingArchived() throws IOException {
+        archiver(10);
+        assertEquals(1, repo.markInactive("E0", Date.from(NOW)));
+
+        assertEquals(0, new EventPurger(repo, 10).purge());
+        assertFalse(repo.existsById("E0"));
+        assertEquals(List.of("E0"), repo.findArchivingIds());
+    }
+
+    @Test
+    void recoverFinishesWrittenAndUnmarksUnwrittenEvents() throws IOException {
+        EventArchiver archiver = archiver(10);
+        // the server stopped after E1 was written and before E0 was
+        assertEquals(1, repo.markInactive("E0", Date.from(NOW)));
+        assertEquals(1, repo.markInactive("E1", Date.from(NOW)));
+        archive.write(List.of(repo.findFullIncludingDeletedById("E1").orElseThrow()));
+
+        assertEquals(1, archiver.recover());
+        assertTrue(repo.existsById("E0"));
+        assertFalse(archiver.isArchived("E0"));
+        assertEquals(0, repo.countIncludingDeleted("E1"));
+        assertTrue(archiver.isArchived("E1"));
+        assertTrue(repo.findArchivingIds().isEmpty());
+        assertEquals(0, archiver.recover());
+    }
+}
@@ -0,0 +1,89 @@
+package server;
+
+import commons.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCacheTest {
+    private EventCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EventCache(2);
+        loads = new AtomicInteger();
+    }
+
+    private Optional<Event> load(String id) {
+        loads.incrementAndGet();
+        if (id.equals("NONE")) return Optional.empty();
+        Event event = new Event("title");
+        event.setId(id);
+        return Optional.of(event);
+    }
+
+    @Test
+    void secondReadIsHit() {
+        Event first = cache.get("AAAAA", this::load).orElseThrow();
+        Event second = cache.get("AAAAA", this::load).orElseThrow();
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void missingEventIsNotCached() {
+        assertTrue(cache.get("NONE", this::load).isEmpty());
+        assertTrue(cache.get("NONE", this::load).isEmpty());
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        cache.get("AAAAA", this::load);
+        cache.invalidate("AAAAA");
+        cache.get("AAAAA", this::load);
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        cache.get("AAAAA", this::load);
+        cache.get("BBBBB", this::load);
+        cache.get("AAAAA", this::load);
+        cache.get("CCCCC", this::load);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        cache.get("AAAAA", this::load);
+        assertEquals(3, loads.get());
+        cache.get("BBBBB", this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotOverwritten() {
+        cache.get("AAAAA", id -> {
+            cache.invalidate(id);
+            return load(id);
+        });
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void statistics() {
+        cache.get("AAAAA", this::load);
+        cache.get("AAAAA", this::load);
+        assertEquals(1L, cache.getStatistics().get("hits"));
+        assertEquals(1L, cache.getStatistics().get("misses"));
+        assertEquals(0L, cache.getStatistics().get("evictions"));
+        assertEquals(1L, cache.getStatistics().get("size"));
+    }
+}
@@ -0,0 +1,64 @@
+package server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventChangeLogTest {
+    private EventChangeLog log;
+
+    @BeforeEach
+    void setUp() {
+        log = new EventChangeLog(2, 7);
+    }
+
+    @Test
+    void sequenceIncreases() {
+        assertEquals(0, log.getSequence());
+        assertEquals(1, log.record("A"));
+        assertEquals(2, log.record("A"));
+        assertEquals(2, log.getSequence());
+    }
+
+    @Test
+    void changedSince() {
+        log.record("A");
+        log.record("B");
+        log.record("A");
+        assertEquals(Optional.of(Set.of("A", "B")), log.changedSince(7, 0));
+        assertEquals(Optional.of(Set.of("A")), log.changedSince(7, 2));
+        assertEquals(Optional.of(Set.of()), log.changedSince(7, 3));
+    }
+
+    @Test
+    void forgottenChangesNeedReload() {
+        log.record("A");
+        log.record("B");
+        log.record("C");
+        assertTrue(log.changedSince(7, 0).isEmpty());
+        assertEquals(Optional.of(Set.of("B", "C")), log.changedSince(7, 1));
+    }
+
+    @Test
+    void sequenceFromBeforeRestart() {
+        log.record("A");
+        assertTrue(log.changedSince(7, 5).isEmpty());
+    }
+
+    @Test
+    void sequenceFromOtherEpoch() {
+        log.record("A");
+        assertEquals(7, log.getEpoch());
+        assertTrue(log.changedSince(8, 1).isEmpty());
+        assertTrue(log.changedSince(8, 0).isEmpty());
+    }
+
+    @Test
+    void invalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new EventChangeLog(0));
+    }
+}
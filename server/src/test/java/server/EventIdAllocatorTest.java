@@ -0,0 +1,125 @@
+package server;
+
+import org.junit.jupiter.api.Test;
+import server.api.TestIdBlockRepository;
+import server.database.IdBlock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventIdAllocatorTest {
+
+    @Test
+    void permutationIsOneToOne() {
+        Set<Long> codes = new HashSet<>();
+        for (long value = 0; value < 200_000; value++) {
+            long code = EventIdAllocator.permute(value, 42);
+            assertTrue(code >= 0 && code < EventIdAllocator.CODES);
+            assertTrue(codes.add(code), "duplicate for " + value);
+        }
+    }
+
+    @Test
+    void keyChangesTheOrder() {
+        assertNotEquals(EventIdAllocator.permute(0, 1), EventIdAllocator.permute(0, 2));
+        // consecutive counter values do not give consecutive codes
+        long first = EventIdAllocator.permute(0, 1);
+        long second = EventIdAllocator.permute(1, 1);
+        assertTrue(Math.abs(first - second) > 1);
+    }
+
+    @Test
+    void encodesFiveLetters() {
+        assertEquals("AAAAA", EventIdAllocator.encode(0));
+        assertEquals("AAAAZ", EventIdAllocator.encode(25));
+        assertEquals("AAABA", EventIdAllocator.encode(26));
+        assertEquals("ZZZZZ", EventIdAllocator.encode(EventIdAllocator.CODES - 1));
+    }
+
+    @Test
+    void reservesBlocks() {
+        TestIdBlockRepository blocks = new TestIdBlockRepository();
+        EventIdAllocator ids = new EventIdAllocator(blocks, Set::of, 10, new Random(1));
+        Set<String> handedOut = new HashSet<>();
+        for (int i = 0; i < 25; i++) assertTrue(handedOut.add(ids.next()));
+        assertEquals(3, blocks.getCalledMethods().stream().filter("reserve"::equals).count());
+        assertEquals(30, blocks.findById(EventIdAllocator.NAME).orElseThrow().getHighWater());
+    }
+
+    @Test
+    void restartContinuesAfterTheReservedBlocks() {
+        TestIdBlockRepository blocks = new TestIdBlockRepository();
+        Set<String> handedOut = new HashSet<>();
+        for (int restart = 0; restart < 3; restart++) {
+            EventIdAllocator ids = new EventIdAllocator(blocks, Set::of, 10,
+                    new Random(restart));
+            for (int i = 0; i < 5; i++) assertTrue(handedOut.add(ids.next()));
+        }
+    }
+
+    @Test
+    void skipsExistingIds() {
+        TestIdBlockRepository blocks = new TestIdBlockRepository();
+        String first = new EventIdAllocator(blocks, Set::of, 10, new Random(1)).next();
+        TestIdBlockRepository fresh = new TestIdBlockRepository();
+        EventIdAllocator ids = new EventIdAllocator(fresh, () -> Set.of(first), 10,
+                new Random(1));
+        assertNotEquals(first, ids.next());
+    }
+
+    @Test
+    void skipsExcludedIds() {
+        EventIdAllocator original = new EventIdAllocator(new TestIdBlockRepository(), Set::of, 10,
+                new Random(1));
+        original.next();
+        String imported = original.next();
+        EventIdAllocator ids = new EventIdAllocator(new TestIdBlockRepository(), Set::of, 10,
+                new Random(1));
+        ids.next();
+        ids.exclude(imported);
+        assertNotEquals(imported, ids.next());
+    }
+
+    @Test
+    void serversNeverCollide() throws Exception {
+        TestIdBlockRepository blocks = new TestIdBlockRepository();
+        List<EventIdAllocator> servers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            servers.add(new EventIdAllocator(blocks, Set::of, 7, new Random(i)));
+        }
+        Set<String> handedOut = ConcurrentHashMap.newKeySet();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                EventIdAllocator ids = servers.get(t % servers.size());
+                done.add(threads.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) assertTrue(handedOut.add(ids.next()));
+                }));
+            }
+            for (Future<?> future : done) future.get();
+        } finally {
+            threads.shutdown();
+        }
+        assertEquals(16_000, handedOut.size());
+    }
+
+    @Test
+    void runsOutAtTheEndOfTheCodes() {
+        TestIdBlockRepository blocks = new TestIdBlockRepository();
+        blocks.save(new IdBlock(EventIdAllocator.NAME, EventIdAllocator.CODES - 2, 5));
+        EventIdAllocator ids = new EventIdAllocator(blocks, Set::of, 10, new Random(1));
+        ids.next();
+        ids.next();
+        assertThrows(IllegalStateException.class, ids::next);
+    }
+}
@@ -0,0 +1,178 @@
+package server;
+
+import commons.BatchOperation;
+import commons.EventBatch;
+import commons.Tag;
+import commons.WebsocketActions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import server.api.TestSimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPublisherTest {
+    private TestSimpMessagingTemplate template;
+    private EventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        template = new TestSimpMessagingTemplate((message, timeout) -> false);
+        // long enough that nothing is sent unless the test flushes
+        publisher = new EventPublisher(template, Duration.ofHours(1), 1, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+    }
+
+    @Test
+    void singleChangeIsItsOwnMessage() {
+        Tag tag = new Tag("food", "#00FF00");
+        publisher.publish("ABCDE", BatchOperation.addTag(tag));
+        assertTrue(template.getAllPayloads().isEmpty());
+
+        publisher.flush("ABCDE");
+        assertEquals("/event/ABCDE", template.getDestination());
+        assertEquals(tag, template.getPayload());
+        assertEquals(WebsocketActions.ADD_TAG, template.getHeaders().get("action"));
+        assertEquals(Tag.class.getTypeName(), template.getHeaders().get("type"));
+    }
+
+    @Test
+    void changesWithinWindowAreOneFrame() {
+        publisher.publish("ABCDE", BatchOperation.removeExpense(1));
+        publisher.publish("ABCDE", BatchOperation.removeParticipant(2));
+        publisher.publish("FGHIJ", BatchOperation.changeTitle("trip"));
+        assertEquals(3, publisher.getPending());
+
+        publisher.flush("ABCDE");
+        assertEquals(1, template.getAllPayloads().size());
+        assertEquals(WebsocketActions.BATCH, template.getHeaders().get("action"));
+        EventBatch batch = (EventBatch) template.getPayload();
+        assertEquals(List.of(BatchOperation.removeExpense(1), BatchOperation.removeParticipant(2)),
+                batch.getOperations());
+        assertEquals(1, publisher.getPending());
+    }
+
+    @Test
+    void tooManyPendingAreSentByCaller() {
+        for (int i = 0; i < 4; i++) publisher.publish("ABCDE", BatchOperation.removeTag(i));
+        assertEquals(1, template.getAllPayloads().size());
+        assertEquals(4, ((EventBatch) template.getPayload()).getOperations().size());
+        assertEquals(0, publisher.getPending());
+    }
+
+    @Test
+    void tooManyPendingDrainsOldestEvents() {
+        EventPublisher small = new EventPublisher(template, Duration.ofHours(1), 1, 4);
+        for (String id : List.of("A", "B", "C", "D", "E"))
+            small.publish(id, BatchOperation.removeTag(1));
+
+        // E went over the limit, then the oldest are sent until half the limit is left
+        assertEquals(List.of("/event/E", "/event/A", "/event/B"), template.getAllDestinations());
+        assertEquals(2, small.getPending());
+        small.close();
+    }
+
+    @Test
+    void forgottenEventIsNumberedAgain() {
+        EventPublisher forgetful = new EventPublisher(template, Duration.ZERO, 1, 3, 2);
+        forgetful.publish("A", BatchOperation.removeTag(1));
+        forgetful.publish("A", BatchOperation.removeTag(2));
+        assertEquals(2L, template.getHeaders().get("seq"));
+        forgetful.publish("B", BatchOperation.removeTag(3));
+        forgetful.publish("A", BatchOperation.removeTag(4));
+        assertEquals(3L, template.getHeaders().get("seq"));
+
+        // B was sent less recently than A, so C makes it forget B
+        forgetful.publish("C", BatchOperation.removeTag(5));
+        forgetful.publish("B", BatchOperation.removeTag(6));
+        assertEquals(1L, template.getHeaders().get("seq"));
+        forgetful.close();
+    }
+
+    @Test
+    void deletionDropsPendingChanges() {
+        publisher.publish("ABCDE", BatchOperation.removeTag(1));
+        publisher.publishDeletion("ABCDE");
+        publisher.flush("ABCDE");
+
+        assertEquals(List.of("delete"), template.getAllPayloads());
+        assertEquals(WebsocketActions.DELETE_EVENT, template.getHeaders().get("action"));
+    }
+
+    @Test
+    void waitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publish("ABCDE", BatchOperation.removeTag(1));
+            publisher.flush("ABCDE");
+            assertTrue(template.getAllPayloads().isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        publisher.flush("ABCDE");
+        assertEquals(1L, template.getPayload());
+    }
+
+    @Test
+    void windowSendsInBackground() throws InterruptedException {
+        EventPublisher fast = new EventPublisher(template, Duration.ofMillis(200), 1, 100);
+        fast.publish("ABCDE", BatchOperation.removeTag(1));
+        fast.publish("ABCDE", BatchOperation.removeTag(2));
+        for (int i = 0; i < 200 && template.getAllPayloads().isEmpty(); i++) Thread.sleep(10);
+        fast.close();
+
+        assertEquals(1, template.getAllPayloads().size());
+        assertEquals(WebsocketActions.BATCH, template.getHeaders().get("action"));
+    }
+
+    @Test
+    void framesAreNumberedPerEvent() {
+        publisher.publish("ABCDE", BatchOperation.removeTag(1));
+        publisher.flush("ABCDE");
+        publisher.publish("FGHIJ", BatchOperation.removeTag(2));
+        publisher.flush("FGHIJ");
+        assertEquals(1L, template.getHeaders().get("seq"));
+
+        publisher.publish("ABCDE", BatchOperation.removeTag(3));
+        publisher.flush("ABCDE");
+        assertEquals(2L, template.getHeaders().get("seq"));
+
+        publisher.publishDeletion("ABCDE");
+        assertEquals(3L, template.getHeaders().get("seq"));
+    }
+
+    @Test
+    void framesNameTheirPublisher() {
+        EventPublisher other = new EventPublisher(template, Duration.ofHours(1), 1, 3);
+        publisher.publish("ABCDE", BatchOperation.removeTag(1));
+        publisher.flush("ABCDE");
+        Object origin = template.getHeaders().get("origin");
+        assertNotNull(origin);
+
+        // another server numbers the frames of the same event on its own
+        other.publish("ABCDE", BatchOperation.removeTag(2));
+        other.flush("ABCDE");
+        other.close();
+        assertEquals(1L, template.getHeaders().get("seq"));
+        assertNotEquals(origin, template.getHeaders().get("origin"));
+    }
+
+    @Test
+    void closeSendsPending() {
+        publisher.publish("ABCDE", BatchOperation.removeTag(1));
+        publisher.close();
+        assertEquals(1L, template.getPayload());
+    }
+}
@@ -0,0 +1,70 @@
+package server;
+
+import commons.Event;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.api.TestEventRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPurgerTest {
+    private TestEventRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        repo = new TestEventRepository();
+        for (int i = 0; i < 5; i++) {
+            Event event = new Event("title");
+            event.setId("E" + i);
+            event.getParticipants().add(new Participant("p"));
+            repo.save(event);
+        }
+    }
+
+    @Test
+    void purgesDeletedEventsInBatches() {
+        for (int i = 0; i < 3; i++) repo.markDeleted("E" + i);
+        repo.getCalledMethods().clear();
+
+        EventPurger purger = new EventPurger(repo, 2);
+        assertEquals(3, purger.purge());
+        // a full batch, then the rest
+        assertEquals(2, repo.getCalledMethods().stream().filter("deleteMarked"::equals).count());
+        assertEquals(0, repo.countIncludingDeleted("E0"));
+        assertTrue(repo.existsById("E3"));
+        assertEquals(3, purger.getStatistics().get("events"));
+        // a participant and the event for each
+        assertEquals(6, purger.getStatistics().get("rows"));
+        assertEquals(0, purger.purge());
+    }
+
+    @Test
+    void failedBatchIsKept() {
+        repo.markDeleted("E0");
+        EventPurger purger = new EventPurger(new TestEventRepository() {
+            @Override
+            public List<String> findDeletedIds(int limit) {
+                return repo.findDeletedIds(limit);
+            }
+
+            @Override
+            public int deleteTagsOf(Collection<String> ids) {
+                throw new IllegalStateException("database down");
+            }
+        }, 10);
+        assertEquals(0, purger.purge());
+        assertEquals(1, purger.getStatistics().get("failures"));
+        assertEquals(1, repo.countIncludingDeleted("E0"));
+
+        assertEquals(1, new EventPurger(repo, 10).purge());
+    }
+
+    @Test
+    void batchSizeIsPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new EventPurger(repo, 0));
+    }
+}
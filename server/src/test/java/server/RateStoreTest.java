@@ -0,0 +1,154 @@
+package server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.api.TestDailyRatesRepository;
+import server.api.TestRateProvider;
+import server.database.DailyRates;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateStoreTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+    private static final LocalDate PAST = LocalDate.of(2024, 3, 1);
+
+    private TestRateProvider provider;
+    private TestDailyRatesRepository repo;
+    private Instant now;
+    private RateStore store;
+
+    @BeforeEach
+    void setUp() {
+        provider = new TestRateProvider();
+        repo = new TestDailyRatesRepository();
+        now = Instant.parse("2024-03-10T12:00:00Z");
+        store = new RateStore(provider, repo, clock(), Duration.ofHours(1), 2);
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    void pastDaysAreFetchedOnceAndStored() throws IOException {
+        Map<String, Double> rates = store.getRates(PAST);
+        assertEquals(rates, store.getRates(PAST));
+        assertEquals(1, provider.getCalls());
+        assertEquals(new DailyRates(PAST, rates), repo.getRates().get(PAST));
+    }
+
+    @Test
+    void storedDaysAreNotFetched() throws IOException {
+        repo.save(new DailyRates(PAST, Map.of("EUR", 0.5)));
+        assertEquals(Map.of("EUR", 0.5), store.getRates(PAST));
+        assertEquals(0, provider.getCalls());
+        assertEquals(1, store.getStatistics().get("storeHits"));
+    }
+
+    @Test
+    void todayIsNotStoredAndExpires() throws IOException {
+        store.getRates(TODAY);
+        store.getRates(TODAY);
+        assertEquals(1, provider.getCalls());
+        assertTrue(repo.getRates().isEmpty());
+
+        now = now.plus(Duration.ofMinutes(61));
+        store.getRates(TODAY);
+        assertEquals(2, provider.getCalls());
+    }
+
+    @Test
+    void futureDays() {
+        assertThrows(IllegalArgumentException.class, () -> store.getRates(TODAY.plusDays(1)));
+    }
+
+    @Test
+    void leastRecentlyUsedDaysLeaveMemory() throws IOException {
+        store.getRates(PAST);
+        store.getRates(PAST.plusDays(1));
+        store.getRates(PAST.plusDays(2));
+        assertEquals(2, store.getStatistics().get("size"));
+        // still in the database
+        store.getRates(PAST);
+        assertEquals(3, provider.getCalls());
+        assertEquals(1, store.getStatistics().get("storeHits"));
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        provider.setFailing(true);
+        assertThrows(IOException.class, () -> store.getRates(PAST));
+        provider.setFailing(false);
+        assertDoesNotThrow(() -> store.getRates(PAST));
+        assertEquals(1, store.getStatistics().get("failures"));
+    }
+
+    @Test
+    void concurrentMissesFetchOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        RateStore slow = new RateStore(date -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return Map.of("EUR", 0.9);
+        }, repo, clock(), Duration.ofHours(1), 16);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<String, Double>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> slow.getRates(PAST)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> slow.getRates(PAST)));
+            }
+            // let the waiting requests arrive before the fetch completes
+            while (slow.getStatistics().get("collapsed") < threads - 1) Thread.sleep(5);
+            release.countDown();
+            for (Future<Map<String, Double>> result : results) {
+                assertEquals(Map.of("EUR", 0.9), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+}
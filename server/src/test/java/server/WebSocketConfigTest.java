@@ -0,0 +1,238 @@
+package server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketConfigTest {
+    private static final int SUBSCRIBERS = 5000;
+
+    private ExecutorSubscribableChannel inbound;
+    private Map<String, AtomicInteger> received;
+    private SimpleBrokerMessageHandler broker;
+
+    /**
+     * Registry giving access to the broker handlers it creates
+     */
+    private static class TestRegistry extends MessageBrokerRegistry {
+        TestRegistry(SubscribableChannel inbound, MessageChannel outbound) {
+            super(inbound, outbound);
+        }
+
+        SimpleBrokerMessageHandler simpleBroker(SubscribableChannel brokerChannel) {
+            return getSimpleBroker(brokerChannel);
+        }
+
+        StompBrokerRelayMessageHandler relay(SubscribableChannel brokerChannel) {
+            return getStompBrokerRelay(brokerChannel);
+        }
+    }
+
+    /**
+     * External STOMP broker that accepts every connection and keeps the frames it receives
+     */
+    private static class TestBroker implements AutoCloseable {
+        private final ServerSocket server;
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+
+        TestBroker() throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(this::serve, "test-broker");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void serve() {
+            try (Socket socket = server.accept()) {
+                InputStream in = socket.getInputStream();
+                OutputStream out = socket.getOutputStream();
+                StringBuilder frame = new StringBuilder();
+                for (int b = in.read(); b != -1; b = in.read()) {
+                    if (b != 0) {
+                        frame.append((char) b);
+                        continue;
+                    }
+                    String received = frame.toString().stripLeading();
+                    frame.setLength(0);
+                    frames.add(received);
+                    if (received.startsWith("CONNECT")) {
+                        out.write("CONNECTED\nversion:1.2\nheart-beat:0,0\n\n\0"
+                                .getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // closed by the test
+            }
+        }
+
+        String next() throws InterruptedException {
+            return frames.poll(10, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+
+    private static BrokerSettings settings(String mode) {
+        return settings(mode, "broker.local", 61613);
+    }
+
+    private static BrokerSettings settings(String mode, String host, int port) {
+        return new BrokerSettings(mode, host, port, "splitty", "secret",
+                4, 8, 1 << 20, 10000, 1 << 16);
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String session,
+                                           String destination) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(type);
+        headers.setSessionId(session);
+        headers.setSubscriptionId("sub-" + session);
+        headers.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+    /**
+     * Connects a client session and subscribes it to the destination
+     *
+     * @param session id of the client session
+     * @param destination destination to subscribe to
+     */
+    private void subscribe(String session, String destination) {
+        broker.handleMessage(message(SimpMessageType.CONNECT, session, null));
+        broker.handleMessage(message(SimpMessageType.SUBSCRIBE, session, destination));
+    }
+
+    @BeforeEach
+    void setUp() {
+        inbound = new ExecutorSubscribableChannel();
+        received = new ConcurrentHashMap<>();
+        MessageChannel outbound = (message, timeout) -> {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders())
+                    != SimpMessageType.MESSAGE) return true;
+            String session = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+            received.computeIfAbsent(session, s -> new AtomicInteger()).incrementAndGet();
+            return true;
+        };
+        TestRegistry registry = new TestRegistry(inbound, outbound);
+        new WebSocketConfig(settings("simple")).configureMessageBroker(registry);
+        broker = registry.simpleBroker(new ExecutorSubscribableChannel());
+        broker.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.stop();
+    }
+
+    @Test
+    void simpleBrokerOnlyHandlesEvents() {
+        assertEquals(List.of("/event"), List.copyOf(broker.getDestinationPrefixes()));
+    }
+
+    @Test
+    void relayForwardsToExternalBroker() {
+        TestRegistry registry = new TestRegistry(inbound, (message, timeout) -> true);
+        new WebSocketConfig(settings("relay")).configureMessageBroker(registry);
+        StompBrokerRelayMessageHandler relay = registry.relay(new ExecutorSubscribableChannel());
+        assertNotNull(relay);
+        assertNull(registry.simpleBroker(new ExecutorSubscribableChannel()));
+        assertEquals("broker.local", relay.getRelayHost());
+        assertEquals(61613, relay.getRelayPort());
+        assertEquals("splitty", relay.getSystemLogin());
+    }
+
+    @Test
+    void relaySendsBroadcastsToExternalBroker() throws Exception {
+        try (TestBroker external = new TestBroker()) {
+            TestRegistry registry = new TestRegistry(inbound, (message, timeout) -> true);
+            new WebSocketConfig(settings("relay", "127.0.0.1", external.server.getLocalPort()))
+                    .configureMessageBroker(registry);
+            StompBrokerRelayMessageHandler relay =
+                    registry.relay(new ExecutorSubscribableChannel());
+            relay.start();
+            try {
+                String connect = external.next();
+                assertNotNull(connect, "the relay did not connect");
+                assertTrue(connect.startsWith("CONNECT"), connect);
+                assertTrue(connect.contains("login:splitty"), connect);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (!relay.isBrokerAvailable() && System.nanoTime() < deadline)
+                    Thread.sleep(10);
+                assertTrue(relay.isBrokerAvailable());
+
+                relay.handleMessage(message(SimpMessageType.MESSAGE, null, "/event/ABCDE"));
+                String send = external.next();
+                assertNotNull(send, "the broadcast was not relayed");
+                assertTrue(send.startsWith("SEND"), send);
+                assertTrue(send.contains("destination:/event/ABCDE"), send);
+            } finally {
+                relay.stop();
+            }
+        }
+    }
+
+    @Test
+    void unknownModeIsRefused() {
+        assertThrows(IllegalArgumentException.class, () -> settings("kafka"));
+    }
+
+    @Test
+    void broadcastReachesThousandsOfSubscribers() {
+        for (int i = 0; i < SUBSCRIBERS; i++)
+            subscribe("s" + i, "/event/ABCDE");
+        for (int i = 0; i < 100; i++)
+            subscribe("o" + i, "/event/FGHIJ");
+
+        int broadcasts = 20;
+        for (int i = 0; i < broadcasts; i++)
+            broker.handleMessage(message(SimpMessageType.MESSAGE, null, "/event/ABCDE"));
+
+        assertEquals(SUBSCRIBERS, received.size());
+        assertTrue(received.values().stream().allMatch(count -> count.get() == broadcasts));
+        assertFalse(received.containsKey("o0"));
+    }
+
+    @Test
+    void unsubscribedSessionsReceiveNothing() {
+        for (int i = 0; i < SUBSCRIBERS; i++)
+            subscribe("s" + i, "/event/ABCDE");
+        for (int i = 0; i < SUBSCRIBERS; i += 2)
+            broker.handleMessage(message(SimpMessageType.DISCONNECT, "s" + i, null));
+
+        broker.handleMessage(message(SimpMessageType.MESSAGE, null, "/event/ABCDE"));
+
+        assertEquals(SUBSCRIBERS / 2, received.size());
+        assertFalse(received.containsKey("s0"));
+        assertTrue(received.containsKey("s1"));
+    }
+}
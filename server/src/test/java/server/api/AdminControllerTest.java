@@ -1,38 +1,63 @@
 package server.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.Event;
+import commons.EventChanges;
+import commons.EventSummary;
+import commons.EventSummaryPage;
 import commons.Expense;
 import commons.Participant;
 import commons.Tag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import server.ActivityTracker;
 import server.AdminService;
+import server.EventArchive;
+import server.EventCache;
+import server.EventIdAllocator;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SuppressWarnings("deprecation")
 public class AdminControllerTest {
+    @TempDir
+    Path archiveDir;
 
     private AdminController adminController;
 
     private AdminService adminService;
 
+    private TestEventRepository eventRepo;
+
+    private ActivityTracker activity;
+
+    private EventArchive archive;
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws IOException {
         TestRandom random = new TestRandom();
         adminService = new AdminService(random);
         TestParticipantRepository partRepo = new TestParticipantRepository();
         TestExpenseRepository expRepo = new TestExpenseRepository();
-        TestEventRepository eventRepo = new TestEventRepository(partRepo, expRepo);
+        eventRepo = new TestEventRepository(partRepo, expRepo);
         partRepo.setEventRepo(eventRepo);
         expRepo.setEventRepo(eventRepo);
-        adminController = new AdminController(eventRepo, adminService);
+        EventCache cache = new EventCache(16);
+        activity = new ActivityTracker(eventRepo, cache);
+        archive = new EventArchive(archiveDir, new ObjectMapper());
+        adminController = new AdminController(eventRepo, adminService, cache, activity, archive,
+                new EventIdAllocator(new TestIdBlockRepository(), Set::of, 16, random));
     }
 
     @Test
@@ -78,6 +103,19 @@ public class AdminControllerTest {
         assertEquals(1, saved.getExpenses().size());
     }
 
+    @Test
+    public void testImportArchivedEvent() throws IOException {
+        Event archived = new Event("archived");
+        archived.setId("ABCDE");
+        archive.write(List.of(archived));
+        Event event = new Event("title");
+        event.setId("ABCDE");
+
+        ResponseEntity<Event> response = adminController.addEvent(adminService.getAdminPassword(), event);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertFalse(eventRepo.existsById("ABCDE"));
+    }
+
     @Test
     public void testImportEventWithTags() {
         Participant participant1 = new Participant("1");
@@ -103,4 +141,196 @@ public class AdminControllerTest {
         assertEquals(1, saved.getTags().size());
         assertEquals(saved.getTags().getFirst(), saved.getExpenses().getFirst().getType());
     }
+
+    private void saveEvents(String... titles) {
+        for (int i = 0; i < titles.length; i++) {
+            Event event = new Event(titles[i]);
+            event.setId("E" + i);
+            eventRepo.save(event);
+        }
+    }
+
+    @Test
+    public void testGetAllPaged() {
+        saveEvents("c", "a", "d", "b", "e");
+        String password = adminService.getAdminPassword();
+
+        ResponseEntity<EventSummaryPage> first =
+                adminController.getAll(password, 0, 2, "title", "asc");
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(List.of("a", "b"), first.getBody().getSummaries().stream()
+                .map(EventSummary::getTitle).toList());
+        assertEquals(5, first.getBody().getTotalElements());
+        assertTrue(first.getBody().hasNext());
+
+        ResponseEntity<EventSummaryPage> last =
+                adminController.getAll(password, 2, 2, "title", "asc");
+        assertEquals(List.of("e"), last.getBody().getSummaries().stream()
+                .map(EventSummary::getTitle).toList());
+        assertFalse(last.getBody().hasNext());
+
+        ResponseEntity<EventSummaryPage> desc =
+                adminController.getAll(password, 0, 1, "title", "DESC");
+        assertEquals("e", desc.getBody().getSummaries().getFirst().getTitle());
+    }
+
+    @Test
+    public void testGetAllInvalidParameters() {
+        String password = adminService.getAdminPassword();
+        assertEquals(HttpStatus.BAD_REQUEST,
+                adminController.getAll(password, 0, 10, "expenses", "asc").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                adminController.getAll(password, 0, 10, "title", "up").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                adminController.getAll(password, -1, 10, "title", "asc").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                adminController.getAll(password, 0, 501, "title", "asc").getStatusCode());
+        assertFalse(eventRepo.getCalledMethods().contains("findSummaries"));
+    }
+
+    @Test
+    public void testGetAllUnauthorized() {
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                adminController.getAll("wrong", 0, 10, "title", "asc").getStatusCode());
+    }
+
+    @Test
+    public void testChanges() {
+        String password = adminService.getAdminPassword();
+        saveEvents("a", "b", "c");
+        EventSummaryPage page = adminController.getAll(password, 0, 10, "title", "asc").getBody();
+        long epoch = page.getEpoch();
+        long start = page.getSequence();
+
+        eventRepo.findById("E1").get().setTitle("changed");
+        adminController.update("E1");
+        eventRepo.getEvents().removeIf(e -> e.getId().equals("E2"));
+        adminController.update("E2");
+
+        EventChanges changes = adminController.getChanges(password, epoch, start).getBody();
+        assertFalse(changes.isReset());
+        assertEquals(start + 2, changes.getSequence());
+        assertEquals(List.of("changed"), changes.getChanged().stream()
+                .map(EventSummary::getTitle).toList());
+        assertEquals(List.of("E2"), changes.getDeleted());
+
+        EventChanges none =
+                adminController.getChanges(password, epoch, changes.getSequence()).getBody();
+        assertTrue(none.getChanged().isEmpty());
+        assertTrue(none.getDeleted().isEmpty());
+        assertEquals(changes.getSequence(), none.getSequence());
+    }
+
+    @Test
+    public void testChangesIncludeBufferedActivity() {
+        String password = adminService.getAdminPassword();
+        saveEvents("a");
+        EventSummaryPage page = adminController.getAll(password, 0, 10, "title", "asc").getBody();
+        long epoch = page.getEpoch();
+        long start = page.getSequence();
+
+        Date time = new Date();
+        activity.touch("E0", time);
+        adminController.update("E0");
+
+        EventChanges changes = adminController.getChanges(password, epoch, start).getBody();
+        assertEquals(time, changes.getChanged().getFirst().getLastActivity());
+        assertEquals(0, activity.getStatistics().get("pending"));
+    }
+
+    @Test
+    public void testActivityStatistics() {
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                adminController.getActivityStatistics("wrong").getStatusCode());
+        activity.touch("E0");
+        assertEquals(1, adminController.getActivityStatistics(adminService.getAdminPassword())
+                .getBody().get("touches"));
+    }
+
+    @Test
+    public void testChangesFromBeforeRestart() {
+        String password = adminService.getAdminPassword();
+        long epoch = adminController.getAll(password, 0, 10, "title", "asc").getBody().getEpoch();
+        EventChanges changes = adminController.getChanges(password, epoch, 42).getBody();
+        assertTrue(changes.isReset());
+        assertEquals(0, changes.getSequence());
+        assertEquals(epoch, changes.getEpoch());
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                adminController.getChanges("wrong", epoch, 0).getStatusCode());
+    }
+
+    @Test
+    public void testChangesFromOtherEpoch() {
+        String password = adminService.getAdminPassword();
+        long epoch = adminController.getAll(password, 0, 10, "title", "asc").getBody().getEpoch();
+        adminController.update("ABCDE");
+
+        // the restarted server reached the sequence number the client has seen
+        EventChanges changes = adminController.getChanges(password, epoch + 1, 1).getBody();
+        assertTrue(changes.isReset());
+        assertEquals(epoch, changes.getEpoch());
+        var poll = adminController.longPoll(password, 1000L, epoch + 1, 1L);
+        assertEquals(HttpStatus.NO_CONTENT,
+                ((ResponseEntity<?>) poll.getResult()).getStatusCode());
+    }
+
+    @Test
+    public void testPollMissedChange() {
+        String password = adminService.getAdminPassword();
+        adminController.update("ABCDE");
+        var missed = adminController.longPoll(password, 1000L, null, 0L);
+        assertEquals(HttpStatus.NO_CONTENT,
+                ((ResponseEntity<?>) missed.getResult()).getStatusCode());
+        assertEquals(0, adminController.getWaiterCount());
+        var upToDate = adminController.longPoll(password, 1000L, null, 1L);
+        assertFalse(upToDate.hasResult());
+        assertEquals(1, adminController.getWaiterCount());
+    }
+
+    @Test
+    public void testPollRacingUpdateIsCompleted() throws InterruptedException {
+        String password = adminService.getAdminPassword();
+        for (long seen = 0; seen < 200; seen++) {
+            Thread updater = new Thread(() -> adminController.update("ABCDE"));
+            updater.start();
+            var poll = adminController.longPoll(password, 60_000L, null, seen);
+            updater.join();
+            // whether the change came before or after registering, the poll was answered
+            assertTrue(poll.hasResult(), "missed change " + (seen + 1));
+        }
+        assertEquals(0, adminController.getWaiterCount());
+    }
+
+    @Test
+    public void testPollUnauthorized() {
+        var result = adminController.longPoll("wrong", 1000L, null, null);
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                ((ResponseEntity<?>) result.getResult()).getStatusCode());
+        assertEquals(0, adminController.getWaiterCount());
+    }
+
+    @Test
+    public void testPollCompletedByUpdate() {
+        var result = adminController.longPoll(adminService.getAdminPassword(), 1000L, null, null);
+        assertFalse(result.hasResult());
+        assertEquals(1, adminController.getWaiterCount());
+        adminController.update("ABCDE");
+        assertEquals(HttpStatus.NO_CONTENT,
+                ((ResponseEntity<?>) result.getResult()).getStatusCode());
+        assertEquals(0, adminController.getWaiterCount());
+    }
+
+    @Test
+    public void testManyPollers() {
+        List<DeferredResult<ResponseEntity<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            results.add(adminController.longPoll(adminService.getAdminPassword(), 60_000L, null,
+                    null));
+        }
+        assertEquals(10_000, adminController.getWaiterCount());
+        adminController.update("ABCDE");
+        // every waiter is completed on the calling thread, none needs a thread of its own
+        assertTrue(results.stream().allMatch(DeferredResult::hasResult));
+        assertEquals(0, adminController.getWaiterCount());
+    }
 }
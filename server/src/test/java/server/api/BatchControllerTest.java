@@ -0,0 +1,162 @@
+package server.api;
+
+import commons.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import server.ActivityTracker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchControllerTest {
+    private BatchController batchController;
+    private TestEventRepository eventRepo;
+    private TestParticipantRepository participantRepo;
+    private TestExpenseRepository expenseRepo;
+    private TestTransactionRepository transactionRepo;
+    private TestSimpMessagingTemplate template;
+    private ActivityTracker activity;
+    private Event event;
+    private Participant alice;
+    private Participant bob;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        expenseRepo = new TestExpenseRepository();
+        participantRepo = new TestParticipantRepository();
+        eventRepo = new TestEventRepository(participantRepo, expenseRepo);
+        participantRepo.setEventRepo(eventRepo);
+        expenseRepo.setEventRepo(eventRepo);
+        transactionRepo = new TestTransactionRepository(eventRepo);
+        eventRepo.setTransactionRepo(transactionRepo);
+        TestControllers controllers = new TestControllers(eventRepo);
+        template = controllers.getTemplate();
+        activity = controllers.getActivity();
+        ParticipantController participantController =
+                controllers.participants(participantRepo, expenseRepo, transactionRepo);
+        batchController = controllers.batches(participantRepo, expenseRepo, transactionRepo);
+
+        event = controllers.getEventController().add(new Event("title")).getBody();
+        participantController.add(new Participant("alice"), event.getId());
+        alice = (Participant) template.getPayload();
+        participantController.add(new Participant("bob"), event.getId());
+        bob = (Participant) template.getPayload();
+        template.getAllPayloads().clear();
+    }
+
+    private ResponseEntity<EventBatch> apply(BatchOperation... operations) {
+        return batchController.apply(event.getId(),
+                new EventBatch(new ArrayList<>(List.of(operations))));
+    }
+
+    private static Participant newParticipant(String name, long reference) {
+        Participant participant = new Participant(name);
+        participant.setId(reference);
+        return participant;
+    }
+
+    @Test
+    public void addsWithReferencesToNewParticipants() {
+        Participant carol = newParticipant("carol", -1);
+        Expense expense = new Expense(carol, "dinner", 30, "EUR",
+                new ArrayList<>(List.of(carol, alice)), null);
+        Transaction transaction = new Transaction(bob, carol, 5, "EUR");
+
+        ResponseEntity<EventBatch> response = apply(BatchOperation.addParticipant(carol),
+                BatchOperation.addExpense(expense), BatchOperation.addTransaction(transaction));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<BatchOperation> applied = response.getBody().getOperations();
+        Participant saved = applied.getFirst().getParticipant();
+        assertNotEquals(-1, saved.getId());
+        assertEquals(saved.getId(), applied.get(1).getExpense().getExpenseAuthor().getId());
+        assertEquals(saved.getId(), applied.get(2).getTransaction().getReceiver().getId());
+        assertEquals(3, participantRepo.getParticipants().size());
+        assertEquals(1, expenseRepo.getExpenses().size());
+        assertEquals(1, transactionRepo.getTransactions().size());
+    }
+
+    @Test
+    public void oneWebsocketMessage() {
+        Expense expense = new Expense(alice, "dinner", 30, "EUR",
+                new ArrayList<>(List.of(alice, bob)), null);
+        activity.flush();
+        long touches = activity.getStatistics().get("touches");
+        apply(BatchOperation.addExpense(expense), BatchOperation.updateParticipant(alice));
+
+        assertEquals(1, template.getAllPayloads().size());
+        assertEquals(WebsocketActions.BATCH, template.getHeaders().get("action"));
+        assertEquals(2, ((EventBatch) template.getPayload()).getOperations().size());
+        // the last activity is touched once
+        assertEquals(touches + 1, activity.getStatistics().get("touches"));
+    }
+
+    @Test
+    public void removes() {
+        Expense expense = new Expense(alice, "dinner", 30, "EUR",
+                new ArrayList<>(List.of(alice, bob)), null);
+        Transaction transaction = new Transaction(alice, bob, 5, "EUR");
+        List<BatchOperation> added = apply(BatchOperation.addExpense(expense),
+                BatchOperation.addTransaction(transaction)).getBody().getOperations();
+
+        ResponseEntity<EventBatch> response = apply(
+                BatchOperation.removeExpense(added.getFirst().getExpense().getId()),
+                BatchOperation.removeTransaction(added.get(1).getTransaction().getId()));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(expenseRepo.getExpenses().isEmpty());
+        assertTrue(transactionRepo.getTransactions().isEmpty());
+    }
+
+    @Test
+    public void invalidBatchAppliesNothing() {
+        Participant carol = newParticipant("carol", -1);
+        Participant unknown = newParticipant("dave", -2);
+        Transaction transaction = new Transaction(alice, unknown, 5, "EUR");
+
+        ResponseEntity<EventBatch> response = apply(BatchOperation.addParticipant(carol),
+                BatchOperation.addTransaction(transaction));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(2, participantRepo.getParticipants().size());
+        assertTrue(template.getAllPayloads().isEmpty());
+    }
+
+    @Test
+    public void invalidOperations() {
+        assertEquals(HttpStatus.BAD_REQUEST, apply().getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                apply(BatchOperation.removeExpense(42)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, apply(BatchOperation.addParticipant(
+                newParticipant("existing id", bob.getId()))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, apply(
+                BatchOperation.addParticipant(newParticipant("carol", -1)),
+                BatchOperation.addParticipant(newParticipant("dave", -1))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, apply(
+                BatchOperation.updateParticipant(newParticipant("", alice.getId())))
+                .getStatusCode());
+    }
+
+    @Test
+    public void tooManyOperations() {
+        List<BatchOperation> operations = new ArrayList<>(Collections.nCopies(
+                BatchController.MAX_OPERATIONS + 1,
+                BatchOperation.updateParticipant(alice)));
+        assertEquals(HttpStatus.BAD_REQUEST,
+                batchController.apply(event.getId(), new EventBatch(operations))
+                        .getStatusCode());
+    }
+
+    @Test
+    public void unknownEvent() {
+        assertEquals(HttpStatus.NOT_FOUND, batchController.apply("NONE",
+                new EventBatch(List.of(BatchOperation.updateParticipant(alice))))
+                .getStatusCode());
+    }
+}
@@ -1,40 +1,48 @@
 package server.api;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import server.AdminService;
+import server.RateStore;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.util.Date;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class CurrencyControllerTest {
+    private CurrencyController currencyController;
+    private TestRateProvider provider;
+    private AdminService adminService;
+
+    @BeforeEach
+    void setUp() {
+        provider = new TestRateProvider();
+        adminService = new AdminService(new TestRandom());
+        Clock clock = Clock.fixed(Instant.parse("2024-03-10T12:00:00Z"), ZoneOffset.UTC);
+        currencyController = new CurrencyController(new RateStore(provider,
+                new TestDailyRatesRepository(), clock, Duration.ofHours(1), 16), adminService);
+    }
 
     @Test
     void get() {
-        CurrencyController currencyController = new CurrencyController();
-        Date date = new Date();
-        String dateString = DateTimeFormatter.ISO_DATE
-                .format(date.toInstant().atZone(ZoneOffset.UTC).toLocalDate());
-        ResponseEntity<Map<String, Double>> response = currencyController.get(dateString);
+        ResponseEntity<Map<String, Double>> response = currencyController.get("2024-03-10");
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         Map<String, Double> rates = response.getBody();
         assertNotNull(rates);
-        System.out.println(rates.keySet());
+        assertEquals(1.0, rates.get("USD"));
     }
 
     @Test
     void testDoubles() {
-        CurrencyController currencyController = new CurrencyController();
-        Date date = new Date();
-        String dateString = DateTimeFormatter.ISO_DATE
-                .format(date.toInstant().atZone(ZoneOffset.UTC).toLocalDate());
-        ResponseEntity<Map<String, Double>> response = currencyController.get(dateString);
+        ResponseEntity<Map<String, Double>> response = currencyController.get("2024-03-01");
         Map<String, Double> rates = response.getBody();
         assert rates != null;
         for(Map.Entry<String, Double> entry : rates.entrySet()) {
@@ -42,4 +50,36 @@ class CurrencyControllerTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void cached() {
+        currencyController.get("2024-03-01");
+        currencyController.get("2024-03-01");
+        assertEquals(1, provider.getCalls());
+    }
+
+    @Test
+    void invalidDates() {
+        assertEquals(HttpStatus.BAD_REQUEST, currencyController.get("yesterday").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, currencyController.get("2024-03-11").getStatusCode());
+        assertEquals(0, provider.getCalls());
+    }
+
+    @Test
+    void providerFails() {
+        provider.setFailing(true);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                currencyController.get("2024-03-01").getStatusCode());
+    }
+
+    @Test
+    void statistics() {
+        currencyController.get("2024-03-01");
+        currencyController.get("2024-03-01");
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                currencyController.getStatistics("wrong").getStatusCode());
+        Map<String, Long> statistics =
+                currencyController.getStatistics(adminService.getAdminPassword()).getBody();
+        assertEquals(1, statistics.get("hits"));
+        assertEquals(1, statistics.get("fetches"));
+    }
+}
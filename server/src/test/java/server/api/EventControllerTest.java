@@ -1,41 +1,53 @@
 package server.api;
 
 import commons.Event;
+import commons.EventSummary;
 import commons.Participant;
 import commons.WebsocketActions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import server.AdminService;
+import org.junit.jupiter.api.io.TempDir;
+import server.EventArchiver;
+import server.EventCache;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.http.HttpStatus.*;
 
 class EventControllerTest {
+    @TempDir
+    Path archiveDir;
     private TestEventRepository repo;
     private EventController sut;
 
     private TestSimpMessagingTemplate template;
+    private EventCache cache;
+    private EventArchiver archiver;
 
     @BeforeEach
-    void setUp() {
-        TestRandom random = new TestRandom();
+    void setUp() throws IOException {
         repo = new TestEventRepository();
-        template = new TestSimpMessagingTemplate((message, timeout) -> false);
-        AdminController adminController = new AdminController(repo, new AdminService(random));
-        sut = new EventController(repo, random, template, adminController);
+        TestControllers controllers = new TestControllers(repo, archiveDir);
+        template = controllers.getTemplate();
+        cache = controllers.getCache();
+        archiver = controllers.getArchiver();
+        sut = controllers.getEventController();
     }
     @Test
     public void databaseIsUsed() {
         sut.add(new Event("title"));
-        assertTrue(repo.getCalledMethods().contains("save"));
+        assertTrue(repo.getCalledMethods().contains("insert"));
     }
     @Test
     void noGetById() {
         var actual = sut.getById("a");
-        assertTrue(repo.getCalledMethods().contains("findById"));
+        assertTrue(repo.getCalledMethods().contains("findWithParticipantsById"));
         assertEquals(NOT_FOUND, actual.getStatusCode());
     }
 
@@ -48,20 +60,84 @@ class EventControllerTest {
         assertEquals(p, Objects.requireNonNull(actual.getBody()).getParticipants().getFirst());
     }
 
+    @Test
+    void archivedEventIsRestoredOnGet() {
+        Event event = new Event("old");
+        String id = "ABCDE";
+        event.setId(id);
+        event.setLastActivity(new Date(0));
+        repo.save(event);
+        assertEquals(1, archiver.archive());
+        assertFalse(repo.existsById(id));
+
+        var actual = sut.getById(id);
+        assertEquals(OK, actual.getStatusCode());
+        assertEquals("old", Objects.requireNonNull(actual.getBody()).getTitle());
+        assertTrue(repo.existsById(id));
+        assertFalse(archiver.isArchived(id));
+    }
+
     @Test
     void getById() {
         Event e = new Event("test");
         var saved = sut.add(e);
         var actual = sut.getById(Objects.requireNonNull(saved.getBody()).getId());
-        assertTrue(repo.getCalledMethods().contains("findById"));
+        assertTrue(repo.getCalledMethods().contains("findWithParticipantsById"));
         assertEquals(OK, actual.getStatusCode());
         assertEquals(e.getTitle(), Objects.requireNonNull(actual.getBody()).getTitle());
     }
 
+    @Test
+    void getSummaries() {
+        String first = Objects.requireNonNull(sut.add(new Event("first")).getBody()).getId();
+        String second = Objects.requireNonNull(sut.add(new Event("second")).getBody()).getId();
+        var actual = sut.getSummaries(List.of(second, "NOPE", first, second));
+        assertEquals(OK, actual.getStatusCode());
+        List<EventSummary> summaries = Objects.requireNonNull(actual.getBody());
+        assertEquals(List.of("second", "first"),
+                summaries.stream().map(EventSummary::getTitle).toList());
+        assertTrue(repo.getCalledMethods().contains("findSummariesByIds"));
+        assertFalse(repo.getCalledMethods().contains("findWithParticipantsById"));
+    }
+
+    @Test
+    void getNoSummaries() {
+        var actual = sut.getSummaries(List.of());
+        assertEquals(OK, actual.getStatusCode());
+        assertEquals(List.of(), actual.getBody());
+        assertFalse(repo.getCalledMethods().contains("findSummariesByIds"));
+    }
+
+    @Test
+    void getTooManySummaries() {
+        List<String> ids = Collections.nCopies(EventController.MAX_SUMMARIES + 1, "ABCDE");
+        assertEquals(BAD_REQUEST, sut.getSummaries(ids).getStatusCode());
+    }
+
+    @Test
+    void getByIdIsCached() {
+        var saved = sut.add(new Event("test"));
+        String id = Objects.requireNonNull(saved.getBody()).getId();
+        sut.getById(id);
+        sut.getById(id);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void changeTitleInvalidatesCache() {
+        var saved = sut.add(new Event("title"));
+        String id = Objects.requireNonNull(saved.getBody()).getId();
+        sut.getById(id);
+        sut.changeTitleById(id, "new title");
+        assertEquals("new title", Objects.requireNonNull(sut.getById(id).getBody()).getTitle());
+        assertEquals(2, cache.getMisses());
+    }
+
     @Test
     void add() {
         var actual = sut.add(new Event("title"));
-        assertTrue(repo.getCalledMethods().contains("save"));
+        assertTrue(repo.getCalledMethods().contains("insert"));
         assertEquals(OK, actual.getStatusCode());
         assertNotNull(actual.getBody()); // check that body is not null
     }
@@ -87,16 +163,20 @@ class EventControllerTest {
     @Test
     void deleteNothing() {
         var actual = sut.deleteById("a");
-        assertTrue(repo.getCalledMethods().contains("existsById"));
+        assertTrue(repo.getCalledMethods().contains("markDeleted"));
         assertEquals(NOT_FOUND, actual.getStatusCode());
     }
 
     @Test
     void delete() {
         var added = sut.add(new Event("title"));
-        var actual = sut.deleteById(Objects.requireNonNull(added.getBody()).getId());
-        assertTrue(repo.getCalledMethods().contains("deleteById"));
+        String id = Objects.requireNonNull(added.getBody()).getId();
+        var actual = sut.deleteById(id);
+        assertTrue(repo.getCalledMethods().contains("markDeleted"));
+        assertFalse(repo.getCalledMethods().contains("deleteById"));
         assertEquals(NO_CONTENT, actual.getStatusCode());
+        assertEquals(NOT_FOUND, sut.getById(id).getStatusCode());
+        assertEquals(NOT_FOUND, sut.deleteById(id).getStatusCode());
     }
 
     @Test
@@ -146,9 +226,11 @@ class EventControllerTest {
     }
 
     @Test
-    void randomId() {
-        var added = sut.add(new Event("title"));
-        assertEquals("ZABCD", Objects.requireNonNull(added.getBody()).getId());
+    void allocatedId() {
+        String first = Objects.requireNonNull(sut.add(new Event("title")).getBody()).getId();
+        String second = Objects.requireNonNull(sut.add(new Event("title")).getBody()).getId();
+        assertTrue(first.matches("[A-Z]{5}"));
+        assertNotEquals(first, second);
     }
 
     @Test
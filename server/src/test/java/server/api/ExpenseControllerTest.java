@@ -3,8 +3,8 @@ package server.api;
 import commons.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import server.AdminService;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -12,7 +12,6 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.http.HttpStatus.*;
 
-
 public class ExpenseControllerTest {
     private TestEventRepository eventRepo;
     private EventController eventContr;
@@ -26,16 +25,15 @@ public class ExpenseControllerTest {
     private TestSimpMessagingTemplate template;
 
     @BeforeEach
-    void setup() {
-        TestRandom random = new TestRandom();
+    void setup() throws IOException {
         expPart = new ArrayList<>();
         repoExpense = new TestExpenseRepository();
         eventRepo = new TestEventRepository(repoExpense);
         repoExpense.setEventRepo(eventRepo);
-        template = new TestSimpMessagingTemplate((message, timeout) -> false);
-        AdminController adminController = new AdminController(eventRepo, new AdminService(random));
-        expenseContr = new ExpenseController(repoExpense, eventRepo, template, adminController);
-        eventContr = new EventController(eventRepo, random, template, adminController);
+        TestControllers controllers = new TestControllers(eventRepo);
+        template = controllers.getTemplate();
+        expenseContr = controllers.expenses(repoExpense);
+        eventContr = controllers.getEventController();
 
         // Creating sample participants
         p1 = new Participant("Mihai");
@@ -161,7 +159,12 @@ public class ExpenseControllerTest {
 
         assertEquals(NO_CONTENT, actual.getStatusCode());
         assertEquals(WebsocketActions.UPDATE_EXPENSE, template.getHeaders().get("action"));
-        assertEquals(updExp, template.getPayload());
+        // only the amount changed, the rest of the expense is not sent again
+        ExpenseUpdate changes = (ExpenseUpdate) template.getPayload();
+        assertEquals(expenseID, changes.getId());
+        assertEquals(updExp.getAmount(), changes.getAmount());
+        assertNull(changes.getPurpose());
+        assertNull(changes.getParticipantIds());
     }
 
     @Test
@@ -1,20 +1,25 @@
 package server.api;
 
+import commons.BatchOperation;
 import commons.Event;
+import commons.EventBatch;
 import commons.EventWeakKey;
+import commons.Expense;
+import commons.ExpenseUpdate;
 import commons.Participant;
 import commons.WebsocketActions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import server.AdminService;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.http.HttpStatus.*;
 
 public class ParticipantControllerTest {
-
     private TestEventRepository eventRepo;
     private Event event;
     private TestParticipantRepository partRepo;
@@ -22,21 +27,20 @@ public class ParticipantControllerTest {
     private TestSimpMessagingTemplate template;
     private TestExpenseRepository expenseRepo;
     @BeforeEach
-    public void setup(){
+    public void setup() throws IOException{
         event = new Event("title");
 
         partRepo = new TestParticipantRepository();
         eventRepo = new TestEventRepository(partRepo);
         expenseRepo = new TestExpenseRepository();
         partRepo.setEventRepo(eventRepo);
+        expenseRepo.setEventRepo(eventRepo);
 
-
-        TestRandom random = new TestRandom();
-        template = new TestSimpMessagingTemplate((message, timeout) -> false);
-        AdminController adminController = new AdminController(eventRepo, new AdminService(random));
-        EventController eventContr = new EventController(eventRepo, random, template, adminController);
-        event = eventContr.add(event).getBody();
-        partContr = new ParticipantController(partRepo, eventRepo, template, adminController, expenseRepo);
+        TestControllers controllers = new TestControllers(eventRepo);
+        template = controllers.getTemplate();
+        event = controllers.getEventController().add(event).getBody();
+        partContr = controllers.participants(partRepo, expenseRepo,
+                new TestTransactionRepository(eventRepo));
     }
 
     @Test
@@ -225,7 +229,7 @@ public class ParticipantControllerTest {
         partContr.add(participant, "id1");
         editedParticipant.setId(((Participant) template.getPayload()).getId());
         editedParticipant.setEventID("id2");
-        var saved = partContr.add(participant, "ZABCD");
+        var saved = partContr.add(participant, event.getId());
         var editByID404 = partContr.editParticipantById("id2", editedParticipant.getId(), editedParticipant);
         assertEquals(NO_CONTENT, saved.getStatusCode());
         assertEquals(NOT_FOUND, editByID404.getStatusCode());
@@ -241,7 +245,7 @@ public class ParticipantControllerTest {
         event1.addParticipant(participant);
         eventRepo.save(event1);
         eventRepo.save(event2);
-        var saved = partContr.add(participant, "ZABCD");
+        var saved = partContr.add(participant, event.getId());
         var editByID404 = partContr.deleteById( 2, "id2");
         assertEquals(NO_CONTENT, saved.getStatusCode());
         assertEquals(NOT_FOUND, editByID404.getStatusCode());
@@ -257,6 +261,27 @@ public class ParticipantControllerTest {
         assertEquals(WebsocketActions.REMOVE_PARTICIPANT, template.getHeaders().get("action"));
     }
 
+    @Test
+    void removeSplitParticipantWebsocket() {
+        List<Participant> added = new ArrayList<>();
+        for (String name : List.of("a", "b", "c")) {
+            partContr.add(new Participant(name), event.getId());
+            added.add((Participant) template.getPayload());
+        }
+        Expense expense = new Expense(added.get(0), "dinner", 30, "EUR",
+                new ArrayList<>(List.of(added.get(1), added.get(2))), null);
+        expense.setEventID(event.getId());
+        expense = expenseRepo.save(expense);
+
+        partContr.deleteById(added.get(1).getId(), event.getId());
+        assertEquals(WebsocketActions.BATCH, template.getHeaders().get("action"));
+        // the expense stays, split between the others only
+        assertEquals(List.of(BatchOperation.changeExpense(ExpenseUpdate.ofParticipants(
+                        expense.getId(), List.of(added.get(2).getId()))),
+                        BatchOperation.removeParticipant(added.get(1).getId())),
+                ((EventBatch) template.getPayload()).getOperations());
+    }
+
     @Test
     void activityUpdateAfterAddingParticipant() {
         Date before = event.getLastActivity();
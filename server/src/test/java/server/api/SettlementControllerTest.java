@@ -0,0 +1,181 @@
+package server.api;
+
+import commons.Event;
+import commons.Expense;
+import commons.Money;
+import commons.Participant;
+import commons.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.ActivityTracker;
+import server.BalanceLedger;
+import server.EventArchiver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+
+public class SettlementControllerTest {
+    private SettlementController sut;
+    private ExpenseController expenseController;
+    private TransactionController transactionController;
+    private BalanceLedger ledger;
+    private EventArchiver archiver;
+    private ActivityTracker activity;
+    private TestEventRepository eventRepo;
+    private TestSimpMessagingTemplate template;
+    private Event event;
+    private Participant a, b, c;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        TestExpenseRepository expenseRepo = new TestExpenseRepository();
+        TestParticipantRepository participantRepo = new TestParticipantRepository();
+        eventRepo = new TestEventRepository(participantRepo, expenseRepo);
+        participantRepo.setEventRepo(eventRepo);
+        expenseRepo.setEventRepo(eventRepo);
+        TestTransactionRepository transactionRepo = new TestTransactionRepository(eventRepo);
+        eventRepo.setTransactionRepo(transactionRepo);
+        TestControllers controllers = new TestControllers(eventRepo);
+        template = controllers.getTemplate();
+        ledger = controllers.getLedger();
+        ParticipantController participantController =
+                controllers.participants(participantRepo, expenseRepo, transactionRepo);
+        expenseController = controllers.expenses(expenseRepo);
+        transactionController = controllers.transactions(transactionRepo);
+        archiver = controllers.getArchiver();
+        activity = controllers.getActivity();
+        sut = controllers.settlements();
+
+        event = controllers.getEventController().add(new Event("title")).getBody();
+        assert event != null;
+        participantController.add(new Participant("a"), event.getId());
+        a = (Participant) template.getPayload();
+        participantController.add(new Participant("b"), event.getId());
+        b = (Participant) template.getPayload();
+        participantController.add(new Participant("c"), event.getId());
+        c = (Participant) template.getPayload();
+    }
+
+    private Expense addExpense(Participant author, double amount, Participant... split) {
+        Expense expense = new Expense(author, "test", amount, "EUR",
+                new ArrayList<>(List.of(split)), null);
+        expenseController.addExpense(expense, event.getId());
+        return (Expense) template.getPayload();
+    }
+
+    private Map<Long, Long> balances() {
+        var response = sut.getBalances(event.getId());
+        assertEquals(OK, response.getStatusCode());
+        return response.getBody().getOrDefault("USD", Map.of());
+    }
+
+    @Test
+    public void notFound() {
+        assertEquals(NOT_FOUND, sut.getBalances("nope").getStatusCode());
+        assertEquals(NOT_FOUND, sut.getSettlement("nope").getStatusCode());
+    }
+
+    @Test
+    public void balancesOfExpense() {
+        addExpense(a, 30, a, b, c);
+        Map<Long, Long> balances = balances();
+        assertEquals(2000L, balances.get(a.getId()));
+        assertEquals(-1000L, balances.get(b.getId()));
+        assertEquals(-1000L, balances.get(c.getId()));
+    }
+
+    @Test
+    public void archivedEventIsRestored() {
+        addExpense(a, 30, a, b, c);
+        activity.flush();
+        Event stored = eventRepo.findById(event.getId()).orElseThrow();
+        stored.setLastActivity(new Date(0));
+        // the fake repository does not number the default tags like the database does
+        for (int i = 0; i < stored.getTags().size(); i++) stored.getTags().get(i).setId(i + 1);
+        assertEquals(1, archiver.archive());
+        assertTrue(archiver.isArchived(event.getId()));
+
+        // the restored participants have new ids
+        assertEquals(List.of(-1000L, -1000L, 2000L),
+                balances().values().stream().sorted().toList());
+        assertFalse(archiver.isArchived(event.getId()));
+        assertEquals(OK, sut.getSettlement(event.getId()).getStatusCode());
+    }
+
+    @Test
+    public void unevenSplitIsExact() {
+        addExpense(a, 10, a, b, c);
+        Map<Long, Long> balances = balances();
+        assertEquals(666L, balances.get(a.getId()));
+        assertEquals(-333L, balances.get(b.getId()));
+        assertEquals(-333L, balances.get(c.getId()));
+    }
+
+    @Test
+    public void incrementalExpenseChanges() {
+        balances();
+        assertTrue(ledger.isLoaded(event.getId()));
+        Expense expense = addExpense(a, 30, a, b, c);
+        assertEquals(2000L, balances().get(a.getId()));
+
+        expense.setAmount(Money.of(60, "USD"));
+        expenseController.updateExpense(expense.getId(), expense, event.getId());
+        assertEquals(4000L, balances().get(a.getId()));
+        assertEquals(-2000L, balances().get(b.getId()));
+
+        expenseController.deleteById(expense.getId(), event.getId());
+        assertEquals(0L, balances().get(a.getId()));
+        assertTrue(ledger.isLoaded(event.getId()));
+    }
+
+    @Test
+    public void incrementalTransactions() {
+        addExpense(a, 30, a, b, c);
+        balances();
+        Transaction transaction = transactionController.add(event.getId(),
+                new Transaction(b, a, 10, "EUR")).getBody();
+        assertNotNull(transaction);
+        assertEquals(1000L, balances().get(a.getId()));
+        assertEquals(0L, balances().get(b.getId()));
+
+        transactionController.deleteById(event.getId(), transaction.getId());
+        assertEquals(2000L, balances().get(a.getId()));
+        assertEquals(-1000L, balances().get(b.getId()));
+    }
+
+    @Test
+    public void settlement() {
+        addExpense(a, 30, a, b, c);
+        addExpense(b, 6, b, c);
+        var response = sut.getSettlement(event.getId());
+        assertEquals(OK, response.getStatusCode());
+        List<Transaction> settlement = response.getBody();
+        assertNotNull(settlement);
+        assertEquals(2, settlement.size());
+        for (Transaction t : settlement) {
+            assertEquals(a, t.getReceiver());
+            assertEquals("USD", t.getCurrency());
+        }
+        long fromB = settlement.stream().filter(t -> t.getGiver().equals(b))
+                .mapToLong(t -> t.getAmount().getMinorUnits()).sum();
+        long fromC = settlement.stream().filter(t -> t.getGiver().equals(c))
+                .mapToLong(t -> t.getAmount().getMinorUnits()).sum();
+        assertEquals(700, fromB);
+        assertEquals(1300, fromC);
+    }
+
+    @Test
+    public void settledEventHasNoTransactions() {
+        addExpense(a, 30, a, b, c);
+        transactionController.add(event.getId(), new Transaction(b, a, 10, "EUR"));
+        transactionController.add(event.getId(), new Transaction(c, a, 10, "EUR"));
+        assertTrue(sut.getSettlement(event.getId()).getBody().isEmpty());
+    }
+}
@@ -5,8 +5,8 @@ import commons.EventWeakKey;
 import commons.Tag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import server.AdminService;
 
+import java.io.IOException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,11 +18,10 @@ public class TagControllerTest {
     private TestTagRepository tagRepo;
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws IOException {
         TestEventRepository eventRepo = new TestEventRepository();
         TestTagRepository tagRepo = new TestTagRepository(eventRepo);
-        controller = new TagController(eventRepo, tagRepo, new TestSimpMessagingTemplate((message, timeout) -> false), new AdminController(eventRepo, new AdminService(new TestRandom()))
-                );
+        controller = new TestControllers(eventRepo).tags(tagRepo);
         this.tagRepo=tagRepo;
         Event event = new Event();
         event.setId("eventId");
@@ -0,0 +1,173 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import server.ActivityTracker;
+import server.AdminService;
+import server.BalanceLedger;
+import server.EventArchive;
+import server.EventArchiver;
+import server.EventCache;
+import server.EventIdAllocator;
+import server.EventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Wires an {@link EventController} and the controllers next to it to the fake repositories,
+ * sharing one publisher, cache, ledger and activity tracker like the server does.
+ * Websocket messages are sent right away and end up in {@link #getTemplate()}.
+ */
+public class TestControllers {
+    private final TestEventRepository eventRepo;
+    private final TestSimpMessagingTemplate template;
+    private final EventPublisher publisher;
+    private final EventCache cache;
+    private final BalanceLedger ledger;
+    private final ActivityTracker activity;
+    private final EventArchive archive;
+    private final AdminController adminController;
+    private final EventArchiver archiver;
+    private final EventController eventController;
+
+    /**
+     * Events are archived to a directory in the temporary directory,
+     * it is only created if a test archives an event
+     *
+     * @param eventRepo event repository
+     * @throws IOException never, the directory does not exist yet
+     */
+    public TestControllers(TestEventRepository eventRepo) throws IOException {
+        this(eventRepo, Path.of(System.getProperty("java.io.tmpdir"),
+                "splitty-archive-" + UUID.randomUUID()));
+    }
+
+    /**
+     * @param eventRepo event repository
+     * @param archiveDir directory of archived events
+     * @throws IOException if the archived events in the directory cannot be read
+     */
+    public TestControllers(TestEventRepository eventRepo, Path archiveDir) throws IOException {
+        TestRandom random = new TestRandom();
+        this.eventRepo = eventRepo;
+        this.template = new TestSimpMessagingTemplate((message, timeout) -> false);
+        this.publisher = new EventPublisher(template, Duration.ZERO, 1, 1);
+        this.cache = new EventCache(16);
+        this.ledger = new BalanceLedger();
+        this.activity = new ActivityTracker(eventRepo, cache);
+        this.archive = new EventArchive(archiveDir, new ObjectMapper());
+        EventIdAllocator ids =
+                new EventIdAllocator(new TestIdBlockRepository(), Set::of, 16, random);
+        this.adminController = new AdminController(eventRepo, new AdminService(random), cache,
+                activity, archive, ids);
+        this.archiver = new EventArchiver(eventRepo, archive, cache, ledger, activity,
+                adminController, Duration.ofDays(90), 100, Clock.systemUTC());
+        this.eventController = new EventController(eventRepo, ids, publisher, adminController,
+                cache, ledger, archiver);
+    }
+
+    /**
+     * @param participantRepo participant repository
+     * @param expenseRepo expense repository
+     * @param transactionRepo transaction repository
+     * @return a participant controller sharing the state of the event controller
+     */
+    public ParticipantController participants(TestParticipantRepository participantRepo,
+                                              TestExpenseRepository expenseRepo,
+                                              TestTransactionRepository transactionRepo) {
+        return new ParticipantController(participantRepo, eventRepo, publisher, adminController,
+                expenseRepo, transactionRepo, cache, ledger, activity);
+    }
+
+    /**
+     * @param expenseRepo expense repository
+     * @return an expense controller sharing the state of the event controller
+     */
+    public ExpenseController expenses(TestExpenseRepository expenseRepo) {
+        return new ExpenseController(expenseRepo, eventRepo, publisher, adminController, cache,
+                ledger, activity);
+    }
+
+    /**
+     * @param transactionRepo transaction repository
+     * @return a transaction controller sharing the state of the event controller
+     */
+    public TransactionController transactions(TestTransactionRepository transactionRepo) {
+        return new TransactionController(eventRepo, transactionRepo, publisher, adminController,
+                cache, ledger, activity);
+    }
+
+    /**
+     * @param participantRepo participant repository
+     * @param expenseRepo expense repository
+     * @param transactionRepo transaction repository
+     * @return a batch controller sharing the state of the event controller
+     */
+    public BatchController batches(TestParticipantRepository participantRepo,
+                                   TestExpenseRepository expenseRepo,
+                                   TestTransactionRepository transactionRepo) {
+        return new BatchController(eventRepo, participantRepo, expenseRepo, transactionRepo,
+                publisher, adminController, cache, ledger, activity);
+    }
+
+    /**
+     * @return a settlement controller sharing the state of the event controller
+     */
+    public SettlementController settlements() {
+        return new SettlementController(cache, ledger, archiver);
+    }
+
+    /**
+     * @param tagRepo tag repository
+     * @return a tag controller sharing the state of the event controller
+     */
+    public TagController tags(TestTagRepository tagRepo) {
+        return new TagController(eventRepo, tagRepo, publisher, adminController, cache, activity);
+    }
+
+    /**
+     * @return template the websocket messages are sent to
+     */
+    public TestSimpMessagingTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return cache of loaded events
+     */
+    public EventCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return balances of the events
+     */
+    public BalanceLedger getLedger() {
+        return ledger;
+    }
+
+    /**
+     * @return last activity of the events
+     */
+    public ActivityTracker getActivity() {
+        return activity;
+    }
+
+    /**
+     * @return archiver of inactive events
+     */
+    public EventArchiver getArchiver() {
+        return archiver;
+    }
+
+    /**
+     * @return the event controller
+     */
+    public EventController getEventController() {
+        return eventController;
+    }
+}
@@ -0,0 +1,51 @@
+package server.api;
+
+import server.database.DailyRates;
+import server.database.DailyRatesRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class TestDailyRatesRepository implements DailyRatesRepository {
+    private final Map<LocalDate, DailyRates> rates = new HashMap<>();
+    private final List<String> calledMethods = new ArrayList<>();
+
+    /**
+     * @param date day of the rates
+     * @return the stored rates of the day
+     */
+    @Override
+    public synchronized Optional<DailyRates> findById(LocalDate date) {
+        calledMethods.add("findById");
+        return Optional.ofNullable(rates.get(date));
+    }
+
+    /**
+     * @param dailyRates rates of a day
+     * @return the saved rates
+     */
+    @Override
+    public synchronized DailyRates save(DailyRates dailyRates) {
+        calledMethods.add("save");
+        rates.put(dailyRates.getDate(), dailyRates);
+        return dailyRates;
+    }
+
+    /**
+     * @return stored rates by day
+     */
+    public Map<LocalDate, DailyRates> getRates() {
+        return rates;
+    }
+
+    /**
+     * @return names of the called methods
+     */
+    public List<String> getCalledMethods() {
+        return calledMethods;
+    }
+}
@@ -16,26 +16,35 @@
 package server.api;
 
 import commons.Event;
+import commons.EventSummary;
 import commons.Expense;
 import commons.Participant;
 import commons.Transaction;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 import server.database.EventRepository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 @SuppressWarnings("NullableProblems")
 public class TestEventRepository implements EventRepository {
 
     private final List<Event> events = new ArrayList<>();
     private final List<String> calledMethods = new ArrayList<>();
+    private final List<Event> deleted = new ArrayList<>();
+    private final List<Event> archiving = new ArrayList<>();
 
     private TestParticipantRepository partRepo;
     private TestExpenseRepository expenseRepo;
@@ -304,6 +313,20 @@ public class TestEventRepository implements EventRepository {
         return (S) clone.clone();
     }
 
+    /**
+     * Saves the event, the fake has no selects to skip.
+     * Like a database insert it fails if an event with the id exists, even a deleted one.
+     *
+     * @param event new event
+     */
+    @Override
+    public void insert(Event event) {
+        call("insert");
+        if (countIncludingDeleted(event.getId()) > 0)
+            throw new DataIntegrityViolationException("Duplicate event id " + event.getId());
+        save(event);
+    }
+
     /**
      * @param id id
      * @return Event
@@ -314,6 +337,79 @@ public class TestEventRepository implements EventRepository {
         return events.stream().filter(e -> e.getId().equals(id)).findAny();
     }
 
+    /**
+     * @param id id
+     * @return Event
+     */
+    @Override
+    public Optional<Event> findWithParticipantsById(String id) {
+        call("findWithParticipantsById");
+        return events.stream().filter(e -> e.getId().equals(id)).findAny();
+    }
+
+    /**
+     * @param id id
+     * @return Event
+     */
+    @Override
+    public Optional<Event> findWithExpensesById(String id) {
+        call("findWithExpensesById");
+        return events.stream().filter(e -> e.getId().equals(id)).findAny();
+    }
+
+    /**
+     * @param pageable page, size and order
+     * @return one page of summaries
+     */
+    @Override
+    public Page<EventSummary> findSummaries(Pageable pageable) {
+        call("findSummaries");
+        Comparator<EventSummary> order = null;
+        for (Sort.Order o : pageable.getSort()) {
+            Comparator<EventSummary> next = switch (o.getProperty()) {
+                case "title" -> Comparator.comparing(EventSummary::getTitle);
+                case "creationDate" -> Comparator.comparing(EventSummary::getCreationDate);
+                case "lastActivity" -> Comparator.comparing(EventSummary::getLastActivity);
+                case "size(e.participants)" ->
+                        Comparator.comparingLong(EventSummary::getParticipantCount);
+                default -> Comparator.comparing(EventSummary::getId);
+            };
+            if (o.isDescending()) next = next.reversed();
+            order = order == null ? next : order.thenComparing(next);
+        }
+        List<EventSummary> all = new ArrayList<>(events.stream().map(EventSummary::of).toList());
+        if (order != null) all.sort(order);
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    /**
+     * @param ids ids of the events
+     * @return summaries of the events that exist
+     */
+    @Override
+    public List<EventSummary> findSummariesByIds(Collection<String> ids) {
+        call("findSummariesByIds");
+        return events.stream().filter(e -> ids.contains(e.getId()))
+                .map(EventSummary::of).toList();
+    }
+
+    /**
+     * @param id event id
+     * @param time time of the last activity
+     * @return number of events updated
+     */
+    @Override
+    public int updateLastActivity(String id, Date time) {
+        call("updateLastActivity");
+        Optional<Event> found = find(id);
+        if (found.isEmpty() || found.get().getLastActivity() != null
+                && !found.get().getLastActivity().before(time)) return 0;
+        found.get().setLastActivity(time);
+        return 1;
+    }
+
     /**
      * @param id to search
      * @return true if present
@@ -435,4 +531,187 @@ public class TestEventRepository implements EventRepository {
         // TODO Auto-generated method stub
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * @param before events without activity since this time are inactive
+     * @param page number of ids
+     * @return ids of inactive events, the least recently active first
+     */
+    @Override
+    public List<String> findInactiveIds(Date before, Pageable page) {
+        call("findInactiveIds");
+        return events.stream().filter(e -> e.getLastActivity().before(before))
+                .sorted(Comparator.comparing(Event::getLastActivity))
+                .limit(page.getPageSize()).map(Event::getId).toList();
+    }
+
+    /**
+     * The event moves out of the stored events until it is purged
+     *
+     * @param id event id
+     * @return number of events marked
+     */
+    @Override
+    public int markDeleted(String id) {
+        call("markDeleted");
+        Optional<Event> found = find(id);
+        if (found.isEmpty()) return 0;
+        events.remove(found.get());
+        deleted.add(found.get());
+        return 1;
+    }
+
+    /**
+     * @param id event id
+     * @param before the event is only marked if it has no activity since this time
+     * @return number of events marked
+     */
+    @Override
+    public int markInactive(String id, Date before) {
+        call("markInactive");
+        Optional<Event> found = find(id);
+        if (found.isEmpty() || !found.get().getLastActivity().before(before)) return 0;
+        events.remove(found.get());
+        deleted.add(found.get());
+        archiving.add(found.get());
+        return 1;
+    }
+
+    /**
+     * @param ids event ids
+     * @return number of events marked for archiving moved back to the stored events
+     */
+    @Override
+    public int unmarkArchiving(Collection<String> ids) {
+        call("unmarkArchiving");
+        List<Event> unmarked = archiving.stream().filter(e -> ids.contains(e.getId())).toList();
+        archiving.removeAll(unmarked);
+        deleted.removeAll(unmarked);
+        events.addAll(unmarked);
+        return unmarked.size();
+    }
+
+    /**
+     * @return ids of the events marked for archiving
+     */
+    @Override
+    public List<String> findArchivingIds() {
+        call("findArchivingIds");
+        return archiving.stream().map(Event::getId).toList();
+    }
+
+    /**
+     * @param id event id
+     * @return the stored or deleted event with the id
+     */
+    @Override
+    public Optional<Event> findIncludingDeletedById(String id) {
+        call("findIncludingDeletedById");
+        return Stream.concat(events.stream(), deleted.stream())
+                .filter(e -> e.getId().equals(id)).findAny();
+    }
+
+    /**
+     * @param id event id
+     * @return number of stored and deleted events with the id
+     */
+    @Override
+    public long countIncludingDeleted(String id) {
+        call("countIncludingDeleted");
+        return Stream.concat(events.stream(), deleted.stream())
+                .filter(e -> e.getId().equals(id)).count();
+    }
+
+    /**
+     * @return ids of stored and deleted events
+     */
+    @Override
+    public List<String> findAllIdsIncludingDeleted() {
+        call("findAllIdsIncludingDeleted");
+        return Stream.concat(events.stream(), deleted.stream()).map(Event::getId).toList();
+    }
+
+    /**
+     * @param limit maximum number of ids
+     * @return ids of deleted events
+     */
+    @Override
+    public List<String> findDeletedIds(int limit) {
+        call("findDeletedIds");
+        return deleted.stream().filter(e -> !archiving.contains(e)).map(Event::getId)
+                .limit(limit).toList();
+    }
+
+    /**
+     * @param ids event ids
+     * @return number of expenses of the deleted events
+     */
+    @Override
+    public int deleteExpensesOf(Collection<String> ids) {
+        call("deleteExpensesOf");
+        return deletedOf(ids).mapToInt(e -> e.getExpenses().size()).sum();
+    }
+
+    /**
+     * @param ids event ids
+     * @return number of transactions of the deleted events
+     */
+    @Override
+    public int deleteTransactionsOf(Collection<String> ids) {
+        call("deleteTransactionsOf");
+        return deletedOf(ids).mapToInt(e -> e.getTransactions().size()).sum();
+    }
+
+    /**
+     * @param ids event ids
+     * @return number of participants of the deleted events
+     */
+    @Override
+    public int deleteParticipantsOf(Collection<String> ids) {
+        call("deleteParticipantsOf");
+        return deletedOf(ids).mapToInt(e -> e.getParticipants().size()).sum();
+    }
+
+    /**
+     * @param ids event ids
+     * @return number of tags of the deleted events
+     */
+    @Override
+    public int deleteTagsOf(Collection<String> ids) {
+        call("deleteTagsOf");
+        return deletedOf(ids).mapToInt(e -> e.getTags().size()).sum();
+    }
+
+    /**
+     * @param ids event ids
+     * @return number of deleted events removed
+     */
+    @Override
+    public int deleteMarked(Collection<String> ids) {
+        call("deleteMarked");
+        int before = deleted.size();
+        deleted.removeIf(e -> ids.contains(e.getId()) && !archiving.contains(e));
+        return before - deleted.size();
+    }
+
+    /**
+     * @param ids event ids
+     * @return number of events marked for archiving removed
+     */
+    @Override
+    public int deleteArchived(Collection<String> ids) {
+        call("deleteArchived");
+        List<Event> removed = archiving.stream().filter(e -> ids.contains(e.getId())).toList();
+        archiving.removeAll(removed);
+        deleted.removeAll(removed);
+        return removed.size();
+    }
+
+    /**
+     * @param ids event ids
+     * @return the deleted events with one of the ids
+     */
+    private Stream<Event> deletedOf(Collection<String> ids) {
+        return deleted.stream().filter(e -> ids.contains(e.getId()));
+    }
+}
@@ -25,8 +25,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 import server.database.ExpenseRepository;
+import server.database.Split;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -417,4 +421,91 @@ public class TestExpenseRepository implements ExpenseRepository {
         return null;
     }
 
+    /**
+     * @param eventID event id
+     * @param participantID id of the author
+     * @return ids of the expenses the participant paid
+     */
+    @Override
+    public List<Long> findIdsByAuthor(String eventID, long participantID) {
+        call("findIdsByAuthor");
+        return expensesOf(eventID).stream().filter(e -> isPaidBy(e, participantID))
+                .map(Expense::getId).toList();
+    }
+
+    /**
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return splits of the expenses the participant is split into but did not pay
+     */
+    @Override
+    public List<Split> findSplitsSharedWith(String eventID, long participantID) {
+        call("findSplitsSharedWith");
+        return expensesOf(eventID).stream()
+                .filter(e -> !isPaidBy(e, participantID) && e.getExpenseParticipants().stream()
+                        .anyMatch(p -> p.getId() == participantID))
+                .sorted(Comparator.comparingLong(Expense::getId))
+                .flatMap(e -> e.getExpenseParticipants().stream()
+                        .map(p -> new Split(e.getId(), p.getId())))
+                .toList();
+    }
+
+    /**
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return number of participants taken out of expenses
+     */
+    @Override
+    public int deleteSplitsOf(String eventID, long participantID) {
+        call("deleteSplitsOf");
+        int deleted = 0;
+        for (Expense e : expensesOf(eventID)) {
+            List<Participant> kept = e.getExpenseParticipants().stream()
+                    .filter(p -> !isPaidBy(e, participantID) && p.getId() != participantID)
+                    .collect(Collectors.toList());
+            deleted += e.getExpenseParticipants().size() - kept.size();
+            e.setExpenseParticipants(kept);
+        }
+        return deleted;
+    }
+
+    /**
+     * @param eventID event id
+     * @param participantID id of the author
+     * @return number of expenses deleted
+     */
+    @Override
+    public int deleteByAuthor(String eventID, long participantID) {
+        call("deleteByAuthor");
+        List<Expense> paid = expensesOf(eventID).stream()
+                .filter(e -> isPaidBy(e, participantID)).toList();
+        expenses.removeAll(paid);
+        if (eventRepo != null) eventRepo.getEvents().stream()
+                .filter(e -> e.getId().equals(eventID))
+                .forEach(e -> e.getExpenses().removeAll(paid));
+        return paid.size();
+    }
+
+    /**
+     * @param eventID event id
+     * @return the stored expenses of the event, also the ones only in the event repository
+     */
+    private List<Expense> expensesOf(String eventID) {
+        Set<Expense> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        expenses.stream().filter(e -> eventID.equals(e.getEventID())).forEach(found::add);
+        if (eventRepo != null) eventRepo.getEvents().stream()
+                .filter(e -> e.getId().equals(eventID))
+                .forEach(e -> found.addAll(e.getExpenses()));
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * @param expense expense
+     * @param participantID id of a participant
+     * @return true iff the participant paid the expense
+     */
+    private static boolean isPaidBy(Expense expense, long participantID) {
+        return expense.getExpenseAuthor() != null
+                && expense.getExpenseAuthor().getId() == participantID;
+    }
 }
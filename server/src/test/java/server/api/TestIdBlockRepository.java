@@ -0,0 +1,72 @@
+package server.api;
+
+import server.database.IdBlock;
+import server.database.IdBlockRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class TestIdBlockRepository implements IdBlockRepository {
+    private final Map<String, IdBlock> blocks = new HashMap<>();
+    private final List<String> calledMethods = new ArrayList<>();
+
+    /**
+     * @param name name of the allocator
+     * @return its stored state
+     */
+    @Override
+    public synchronized Optional<IdBlock> findById(String name) {
+        calledMethods.add("findById");
+        return Optional.ofNullable(blocks.get(name));
+    }
+
+    /**
+     * @param block state of a new allocator
+     * @return the saved state
+     */
+    @Override
+    public synchronized IdBlock save(IdBlock block) {
+        calledMethods.add("save");
+        blocks.put(block.getName(), block);
+        return block;
+    }
+
+    /**
+     * @param name name of the allocator
+     * @param size number of counter values to reserve
+     * @return number of allocators updated
+     */
+    @Override
+    public synchronized int advance(String name, long size) {
+        calledMethods.add("advance");
+        IdBlock block = blocks.get(name);
+        if (block == null) return 0;
+        blocks.put(name, new IdBlock(name, block.getHighWater() + size,
+                block.getPermutationKey()));
+        return 1;
+    }
+
+    /**
+     * Like the row lock of the database, one reservation at a time
+     *
+     * @param name name of the allocator
+     * @param size number of counter values to reserve
+     * @param newKey permutation key used if the allocator does not exist yet
+     * @return the state after the reservation
+     */
+    @Override
+    public synchronized IdBlock reserve(String name, long size, long newKey) {
+        calledMethods.add("reserve");
+        return IdBlockRepository.super.reserve(name, size, newKey);
+    }
+
+    /**
+     * @return names of the called methods
+     */
+    public synchronized List<String> getCalledMethods() {
+        return new ArrayList<>(calledMethods);
+    }
+}
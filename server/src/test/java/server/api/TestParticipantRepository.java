@@ -410,4 +410,23 @@ public class TestParticipantRepository implements ParticipantRepository {
         // TODO Auto-generated method stub
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return number of participants deleted
+     */
+    @Override
+    public int deleteFromEvent(String eventID, long participantID) {
+        calledMethods.add("deleteFromEvent");
+        boolean removed = participants.removeIf(p -> p.getId() == participantID
+                && p.getEventID().equals(eventID));
+        boolean removedFromEvent = false;
+        for (Event event : eventRepo.getEvents()) {
+            if (event.getId().equals(eventID))
+                removedFromEvent = event.getParticipants()
+                        .removeIf(p -> p.getId() == participantID);
+        }
+        return removed || removedFromEvent ? 1 : 0;
+    }
+}
@@ -0,0 +1,48 @@
+package server.api;
+
+import server.RateProvider;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Returns the same rates for every day, scaled by the day of the month
+ * so different days have different rates
+ */
+public class TestRateProvider implements RateProvider {
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile boolean failing;
+
+    /**
+     * @param date day of the rates
+     * @return units of each currency per USD
+     * @throws IOException if failing is set
+     */
+    @Override
+    public Map<String, Double> fetch(LocalDate date) throws IOException {
+        calls.incrementAndGet();
+        if (failing) throw new IOException("unavailable");
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("USD", 1.0);
+        rates.put("EUR", 0.9 + date.getDayOfMonth() / 1000.0);
+        rates.put("CHF", 0.88);
+        return rates;
+    }
+
+    /**
+     * @return number of fetches
+     */
+    public int getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * @param failing true to make every fetch fail
+     */
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+}
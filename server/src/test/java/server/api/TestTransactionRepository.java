@@ -397,4 +397,44 @@ public class TestTransactionRepository implements TransactionRepository {
         // TODO Auto-generated method stub
         return null;
     }
+
+    /**
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return ids of the transactions the participant gave or received
+     */
+    @Override
+    public List<Long> findIdsByParticipant(String eventID, long participantID) {
+        call("findIdsByParticipant");
+        return transactions.stream().filter(t -> involves(t, eventID, participantID))
+                .map(Transaction::getId).toList();
+    }
+
+    /**
+     * @param eventID event id
+     * @param participantID id of the participant
+     * @return number of transactions deleted
+     */
+    @Override
+    public int deleteByParticipant(String eventID, long participantID) {
+        call("deleteByParticipant");
+        List<Transaction> involved = transactions.stream()
+                .filter(t -> involves(t, eventID, participantID)).toList();
+        transactions.removeAll(involved);
+        eventRepo.getEvents().stream().filter(e -> e.getId().equals(eventID))
+                .forEach(e -> e.getTransactions().removeAll(involved));
+        return involved.size();
+    }
+
+    /**
+     * @param transaction transaction
+     * @param eventID event id
+     * @param participantID id of a participant
+     * @return true iff the participant gave or received the transaction of the event
+     */
+    private static boolean involves(Transaction transaction, String eventID, long participantID) {
+        return eventID.equals(transaction.getEventID())
+                && (transaction.getGiver().getId() == participantID
+                || transaction.getReceiver().getId() == participantID);
+    }
 }
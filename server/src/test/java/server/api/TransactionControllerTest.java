@@ -1,13 +1,16 @@
 package server.api;
 
+import commons.BatchOperation;
 import commons.Event;
+import commons.EventBatch;
 import commons.Participant;
 import commons.Transaction;
 import commons.WebsocketActions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
-import server.AdminService;
+
+import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,7 +28,7 @@ public class TransactionControllerTest {
     private Participant receiver;
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws IOException {
         TestExpenseRepository expenseRepo = new TestExpenseRepository();
         participantRepo = new TestParticipantRepository();
         eventRepo = new TestEventRepository(participantRepo, expenseRepo);
@@ -33,13 +36,12 @@ public class TransactionControllerTest {
         expenseRepo.setEventRepo(eventRepo);
         transactionRepo = new TestTransactionRepository(eventRepo);
         eventRepo.setTransactionRepo(transactionRepo);
-        template = new TestSimpMessagingTemplate((message, timeout) -> false);
-        TestRandom random = new TestRandom();
-        AdminController adminController = new AdminController(eventRepo, new AdminService(random));
-        eventController = new EventController(eventRepo, random, template, adminController);
-        transactionController = new TransactionController(eventRepo, transactionRepo, template, adminController);
-        participantController = new ParticipantController(participantRepo, eventRepo,
-                template, adminController, expenseRepo);
+        TestControllers controllers = new TestControllers(eventRepo);
+        template = controllers.getTemplate();
+        eventController = controllers.getEventController();
+        transactionController = controllers.transactions(transactionRepo);
+        participantController =
+                controllers.participants(participantRepo, expenseRepo, transactionRepo);
         event = eventController.add(new Event("title")).getBody();
         assert event != null;
         participantController.add(new Participant("giver"), event.getId());
@@ -141,8 +143,9 @@ public class TransactionControllerTest {
         Transaction added = transactionController.add(event.getId(), transaction).getBody();
         assert added != null;
         participantController.deleteById(added.getGiver().getId(), event.getId());
-        assertTrue(template.getAllHeaders().stream().map(map -> map.get("action"))
-                .toList().contains(WebsocketActions.REMOVE_TRANSACTION));
+        assertEquals(WebsocketActions.BATCH, template.getHeaders().get("action"));
+        assertTrue(((EventBatch) template.getPayload()).getOperations()
+                .contains(BatchOperation.removeTransaction(added.getId())));
     }
 
     @Test
@@ -0,0 +1,175 @@
+package server.database;
+
+import commons.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.EventPurger;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static server.database.TestEvents.EXPENSES;
+import static server.database.TestEvents.ID;
+
+/**
+ * Checks that the number of SQL statements used to load an event
+ * does not grow with the number of expenses, participants and transactions
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EventRepositoryQueryCountTest {
+    @Autowired
+    private EventRepository eventRepo;
+    @Autowired
+    private ParticipantRepository participantRepo;
+    @Autowired
+    private ExpenseRepository expenseRepo;
+    @Autowired
+    private TransactionRepository transactionRepo;
+    @Autowired
+    private TagRepository tagRepo;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TestEvents events;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        events = new TestEvents(eventRepo, participantRepo, tagRepo, expenseRepo,
+                transactionRepo);
+        events.store();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        events.deleteAll();
+    }
+
+    @Test
+    public void fullEventIsLoadedInBoundedQueries() {
+        Optional<Event> found = eventRepo.findFullById(ID);
+        assertTrue(found.isPresent());
+        // event with participants, expenses, participants of expenses in batches of 64,
+        // transactions and tags
+        assertTrue(statistics.getPrepareStatementCount() <= 4 + (EXPENSES + 63) / 64,
+                "statements: " + statistics.getPrepareStatementCount());
+
+        // usable outside the persistence context, for example from the cache
+        for (Expense expense : found.get().getExpenses()) {
+            assertTrue(Hibernate.isInitialized(expense.getExpenseParticipants()));
+        }
+    }
+
+    @Test
+    public void participantsOnly() {
+        Event event = eventRepo.findWithParticipantsById(ID).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(event.getExpenses()));
+        assertFalse(Hibernate.isInitialized(event.getTransactions()));
+    }
+
+    @Test
+    public void expensesPage() {
+        // the endpoint serializes the participants of every expense
+        // while the request still has the persistence context open
+        int splits = new TransactionTemplate(transactionManager).execute(status -> {
+            Event event = eventRepo.findWithExpensesById(ID).orElseThrow();
+            assertFalse(Hibernate.isInitialized(event.getParticipants()));
+            int total = 0;
+            for (Expense expense : event.getExpenses()) {
+                total += expense.getExpenseParticipants().size();
+            }
+            return total;
+        });
+        assertTrue(splits > EXPENSES);
+        assertTrue(statistics.getPrepareStatementCount() <= 1 + (EXPENSES + 63) / 64,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void summaryPageInTwoQueries() {
+        eventRepo.findSummaries(PageRequest.of(0, 1,
+                JpaSort.unsafe(Sort.Direction.DESC, "size(e.participants)")));
+        // the page and the total count
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void summariesByIdsInOneQuery() {
+        eventRepo.findSummariesByIds(List.of(ID, "NONE"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void lastActivityWithoutLoadingTheEvent() {
+        Date later = new Date(System.currentTimeMillis() + 60_000);
+        eventRepo.updateLastActivities(Map.of(ID, later, "NONE", later));
+        // one update per event, nothing is selected
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void participantIsRemovedInBoundedQueries() {
+        long id = participantRepo.findAll().stream()
+                .filter(p -> p.getName().equals("p0")).findFirst().orElseThrow().getId();
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            expenseRepo.deleteSplitsOf(ID, id);
+            expenseRepo.deleteByAuthor(ID, id);
+            transactionRepo.deleteByParticipant(ID, id);
+            return participantRepo.deleteFromEvent(ID, id);
+        });
+        // a statement per table, however many expenses the participant was in,
+        // Hibernate also clears the join table before the bulk delete of expenses
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void deletedEventIsPurgedInBoundedQueries() {
+        eventRepo.markDeleted(ID);
+        statistics.clear();
+
+        new EventPurger(eventRepo, 10).purge();
+        // finding the deleted events, then a statement per table
+        assertTrue(statistics.getPrepareStatementCount() <= 7,
+                "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void importedEventIsInsertedInBatches() {
+        Event event = TestEvents.imported("FGHIJ");
+        statistics.clear();
+
+        eventRepo.saveWithNewIds(event);
+        // inserts are batched per table and no item is selected before it is inserted
+        assertTrue(statistics.getPrepareStatementCount() <= 20,
+                "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
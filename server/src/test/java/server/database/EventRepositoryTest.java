@@ -0,0 +1,226 @@
+package server.database;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import server.ActivityTracker;
+import server.AdminService;
+import server.BalanceLedger;
+import server.EventArchive;
+import server.EventArchiver;
+import server.EventCache;
+import server.EventIdAllocator;
+import server.EventPurger;
+import server.api.AdminController;
+import server.api.TestIdBlockRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static server.database.TestEvents.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EventRepositoryTest {
+    @Autowired
+    private EventRepository eventRepo;
+    @Autowired
+    private ParticipantRepository participantRepo;
+    @Autowired
+    private ExpenseRepository expenseRepo;
+    @Autowired
+    private TransactionRepository transactionRepo;
+    @Autowired
+    private TagRepository tagRepo;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestEvents events;
+
+    @BeforeEach
+    public void setUp() {
+        events = new TestEvents(eventRepo, participantRepo, tagRepo, expenseRepo,
+                transactionRepo);
+        events.store();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        events.deleteAll();
+    }
+
+    @Test
+    public void fullEventHasAllCollections() {
+        Event event = eventRepo.findFullById(ID).orElseThrow();
+        assertEquals(PARTICIPANTS, event.getParticipants().size());
+        assertEquals(EXPENSES, event.getExpenses().size());
+        assertEquals(TRANSACTIONS, event.getTransactions().size());
+        assertEquals(1, event.getTags().size());
+    }
+
+    @Test
+    public void summariesAreSortedAndCounted() {
+        Event empty = new Event("another");
+        empty.setId("FGHIJ");
+        eventRepo.save(empty);
+
+        Page<EventSummary> page = eventRepo.findSummaries(PageRequest.of(0, 1,
+                JpaSort.unsafe(Sort.Direction.DESC, "size(e.participants)")));
+        assertEquals(2, page.getTotalElements());
+        EventSummary summary = page.getContent().getFirst();
+        assertEquals("title", summary.getTitle());
+        assertEquals(PARTICIPANTS, summary.getParticipantCount());
+        assertEquals(EXPENSES, summary.getExpenseCount());
+        long total = 0;
+        for (int i = 0; i < EXPENSES; i++) total += 100 + i;
+        assertEquals(new Money(total, "USD"), summary.getTotal());
+
+        EventSummary byTitle = eventRepo.findSummaries(PageRequest.of(0, 1,
+                Sort.by("title").and(Sort.by("id")))).getContent().getFirst();
+        assertEquals("another", byTitle.getTitle());
+        assertEquals(0, byTitle.getParticipantCount());
+        assertEquals(new Money(0, "USD"), byTitle.getTotal());
+    }
+
+    @Test
+    public void summariesByIdsSkipUnknownIds() {
+        List<EventSummary> summaries = eventRepo.findSummariesByIds(List.of(ID, "NONE"));
+        assertEquals(1, summaries.size());
+        assertEquals(EXPENSES, summaries.getFirst().getExpenseCount());
+    }
+
+    @Test
+    public void lastActivityOnlyMovesForward() {
+        Date later = new Date(System.currentTimeMillis() + 60_000);
+        eventRepo.updateLastActivities(Map.of(ID, later, "NONE", later));
+        assertEquals(later.getTime(),
+                eventRepo.findById(ID).orElseThrow().getLastActivity().getTime());
+
+        eventRepo.updateLastActivities(Map.of(ID, new Date(0)));
+        assertEquals(later.getTime(),
+                eventRepo.findById(ID).orElseThrow().getLastActivity().getTime());
+    }
+
+    @Test
+    public void deletedEventIsHiddenThenPurged() {
+        assertEquals(1, eventRepo.markDeleted(ID));
+        assertEquals(0, eventRepo.markDeleted(ID));
+        assertTrue(eventRepo.findFullById(ID).isEmpty());
+        assertFalse(eventRepo.existsById(ID));
+        assertTrue(eventRepo.findSummariesByIds(List.of(ID)).isEmpty());
+        // the id stays taken until the rows are gone
+        assertEquals(1, eventRepo.countIncludingDeleted(ID));
+        assertEquals(EXPENSES, expenseRepo.count());
+
+        assertEquals(1, new EventPurger(eventRepo, 10).purge());
+        assertEquals(0, eventRepo.countIncludingDeleted(ID));
+        assertEquals(0, expenseRepo.count());
+        assertEquals(0, transactionRepo.count());
+        assertEquals(0, participantRepo.count());
+        assertEquals(0, tagRepo.count());
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM expense_expense_participants", Long.class));
+    }
+
+    @Test
+    public void insertDoesNotOverwriteExistingEvent() {
+        Event created = new Event("created");
+        created.setId("FGHIJ");
+        created.setLastActivity(new Date());
+        eventRepo.insert(created);
+        assertTrue(eventRepo.existsById("FGHIJ"));
+
+        Event duplicate = new Event("duplicate");
+        duplicate.setId(ID);
+        duplicate.setLastActivity(new Date());
+        assertThrows(DataIntegrityViolationException.class, () -> eventRepo.insert(duplicate));
+        Event stored = eventRepo.findFullById(ID).orElseThrow();
+        assertEquals("title", stored.getTitle());
+        assertEquals(EXPENSES, stored.getExpenses().size());
+    }
+
+    @Test
+    public void activeEventIsNotMarkedInactive() {
+        assertEquals(0, eventRepo.markInactive(ID, new Date(0)));
+        assertTrue(eventRepo.existsById(ID));
+        assertEquals(1, eventRepo.markInactive(ID, new Date()));
+        assertFalse(eventRepo.existsById(ID));
+        // the purger leaves an event being archived alone
+        assertTrue(eventRepo.findDeletedIds(10).isEmpty());
+        assertEquals(List.of(ID), eventRepo.findArchivingIds());
+        Event marked = eventRepo.findFullIncludingDeletedById(ID).orElseThrow();
+        assertEquals(EXPENSES, marked.getExpenses().size());
+        assertEquals(1, eventRepo.unmarkArchiving(List.of(ID)));
+        assertTrue(eventRepo.existsById(ID));
+    }
+
+    @Test
+    public void inactiveEventIsArchivedAndRestored(@TempDir Path directory) throws IOException {
+        jdbcTemplate.update("UPDATE event SET last_activity = ? WHERE id = ?", new Date(0), ID);
+        EventArchive archive = new EventArchive(directory, new ObjectMapper());
+        EventCache cache = new EventCache(16);
+        ActivityTracker activity = new ActivityTracker(eventRepo, cache);
+        AdminController adminController = new AdminController(eventRepo,
+                new AdminService(new Random()), cache, activity, archive,
+                new EventIdAllocator(new TestIdBlockRepository(), Set::of, 16, new Random()));
+        EventArchiver archiver = new EventArchiver(eventRepo, archive, cache, new BalanceLedger(),
+                activity, adminController, Duration.ofDays(90), 10, Clock.systemUTC());
+        assertEquals(1, archiver.archive());
+        assertEquals(0, eventRepo.countIncludingDeleted(ID));
+        assertEquals(0, expenseRepo.count());
+        assertEquals(0, participantRepo.count());
+
+        Event restored = archiver.restore(ID).orElseThrow();
+        assertEquals(PARTICIPANTS, restored.getParticipants().size());
+        assertEquals(EXPENSES, restored.getExpenses().size());
+        assertEquals(TRANSACTIONS, restored.getTransactions().size());
+        assertEquals(1, restored.getTags().size());
+        long splits = 0;
+        for (Expense expense : restored.getExpenses()) {
+            splits += expense.getExpenseParticipants().size();
+            assertTrue(restored.getParticipants().contains(expense.getExpenseAuthor()));
+        }
+        // every expense i is split between 1 + i % 5 participants
+        assertEquals(EXPENSES * 3, splits);
+        assertTrue(restored.getLastActivity().after(new Date(0)));
+        assertEquals(0, archiver.archive());
+    }
+
+    @Test
+    public void importedEventGetsNewIds() {
+        eventRepo.saveWithNewIds(TestEvents.imported("FGHIJ"));
+
+        Event saved = eventRepo.findFullById("FGHIJ").orElseThrow();
+        assertEquals(PARTICIPANTS, saved.getParticipants().size());
+        assertEquals(EXPENSES, saved.getExpenses().size());
+        Tag tag = saved.getTags().getFirst();
+        assertEquals(tag, saved.getExpenses().getFirst().getType());
+        for (Expense expense : saved.getExpenses()) {
+            assertTrue(saved.getParticipants().contains(expense.getExpenseAuthor()));
+        }
+        assertEquals((long) EXPENSES * 3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM expense_expense_participants"
+                + " WHERE expense_event_id = 'FGHIJ'", Long.class));
+    }
+}
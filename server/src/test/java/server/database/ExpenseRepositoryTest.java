@@ -0,0 +1,90 @@
+package server.database;
+
+import commons.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static server.database.TestEvents.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ExpenseRepositoryTest {
+    @Autowired
+    private EventRepository eventRepo;
+    @Autowired
+    private ParticipantRepository participantRepo;
+    @Autowired
+    private ExpenseRepository expenseRepo;
+    @Autowired
+    private TransactionRepository transactionRepo;
+    @Autowired
+    private TagRepository tagRepo;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestEvents events;
+
+    @BeforeEach
+    public void setUp() {
+        events = new TestEvents(eventRepo, participantRepo, tagRepo, expenseRepo,
+                transactionRepo);
+        events.store();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        events.deleteAll();
+    }
+
+    @Test
+    public void participantIsRemovedWithItsExpensesAndSplits() {
+        long id = participantRepo.findAll().stream()
+                .filter(p -> p.getName().equals("p0")).findFirst().orElseThrow().getId();
+        List<Long> paid = expenseRepo.findIdsByAuthor(ID, id);
+        List<Long> involved = transactionRepo.findIdsByParticipant(ID, id);
+        // every 20th expense, and 3 transactions given and 2 received
+        assertEquals(8, paid.size());
+        assertEquals(5, involved.size());
+        // p0 is in every split, the expenses it paid are removed instead of changed
+        List<Split> shared = expenseRepo.findSplitsSharedWith(ID, id);
+        assertEquals(EXPENSES - paid.size(),
+                shared.stream().map(Split::expenseId).distinct().count());
+        assertTrue(shared.stream().noneMatch(split -> paid.contains(split.expenseId())));
+
+        int deleted = new TransactionTemplate(transactionManager).execute(status -> {
+            expenseRepo.deleteSplitsOf(ID, id);
+            expenseRepo.deleteByAuthor(ID, id);
+            transactionRepo.deleteByParticipant(ID, id);
+            return participantRepo.deleteFromEvent(ID, id);
+        });
+        assertEquals(1, deleted);
+
+        Event event = eventRepo.findFullById(ID).orElseThrow();
+        assertEquals(PARTICIPANTS - 1, event.getParticipants().size());
+        assertEquals(EXPENSES - paid.size(), event.getExpenses().size());
+        assertEquals(TRANSACTIONS - involved.size(), event.getTransactions().size());
+        assertTrue(event.getExpenses().stream().allMatch(e -> e.getExpenseParticipants()
+                .stream().noneMatch(p -> p.getId() == id)));
+    }
+
+    @Test
+    public void participantLookupsAreIndexed() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES", String.class);
+        assertTrue(indexes.containsAll(List.of("idx_expense_author", "idx_expense_participant",
+                "idx_transaction_giver", "idx_transaction_receiver")), indexes.toString());
+    }
+}
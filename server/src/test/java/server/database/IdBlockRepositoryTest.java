@@ -0,0 +1,47 @@
+package server.database;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdBlockRepositoryTest {
+    @Autowired
+    private IdBlockRepository idBlockRepo;
+
+    @Test
+    public void concurrentReservationsGetDisjointBlocks() throws Exception {
+        assertEquals(10, idBlockRepo.reserve("test", 10, 7).getHighWater());
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        Set<Long> ends = new HashSet<>();
+        try {
+            List<Future<IdBlock>> reserved = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                reserved.add(threads.submit(() -> idBlockRepo.reserve("test", 10, 99)));
+            }
+            for (Future<IdBlock> block : reserved) {
+                assertEquals(7, block.get().getPermutationKey());
+                ends.add(block.get().getHighWater());
+            }
+        } finally {
+            threads.shutdown();
+        }
+        // each reservation ends at a different multiple of the block size
+        assertEquals(20, ends.size());
+        assertEquals(210, Collections.max(ends));
+    }
+}
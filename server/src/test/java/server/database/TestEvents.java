@@ -0,0 +1,119 @@
+package server.database;
+
+import commons.Event;
+import commons.Expense;
+import commons.Money;
+import commons.Participant;
+import commons.Tag;
+import commons.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the event the repository tests run against and removes everything afterwards.
+ * Expense i is paid by participant i % {@link #PARTICIPANTS}, split between the first
+ * 1 + i % 5 participants and every other expense has the tag.
+ */
+public class TestEvents {
+    public static final String ID = "ABCDE";
+    public static final int PARTICIPANTS = 20;
+    public static final int EXPENSES = 150;
+    public static final int TRANSACTIONS = 50;
+
+    private final EventRepository eventRepo;
+    private final ParticipantRepository participantRepo;
+    private final TagRepository tagRepo;
+    private final ExpenseRepository expenseRepo;
+    private final TransactionRepository transactionRepo;
+
+    /**
+     * @param eventRepo event repository
+     * @param participantRepo participant repository
+     * @param tagRepo tag repository
+     * @param expenseRepo expense repository
+     * @param transactionRepo transaction repository
+     */
+    public TestEvents(EventRepository eventRepo, ParticipantRepository participantRepo,
+                      TagRepository tagRepo, ExpenseRepository expenseRepo,
+                      TransactionRepository transactionRepo) {
+        this.eventRepo = eventRepo;
+        this.participantRepo = participantRepo;
+        this.tagRepo = tagRepo;
+        this.expenseRepo = expenseRepo;
+        this.transactionRepo = transactionRepo;
+    }
+
+    /**
+     * Stores the event {@link #ID} with its participants, tag, expenses and transactions
+     */
+    public void store() {
+        Event event = new Event("title");
+        event.setId(ID);
+        eventRepo.save(event);
+
+        List<Participant> participants = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            Participant participant = new Participant("p" + i);
+            participant.setEventID(ID);
+            participants.add(participantRepo.save(participant));
+        }
+        Tag tag = new Tag("food", "#00FF00");
+        tag.setEventID(ID);
+        tag = tagRepo.save(tag);
+        for (int i = 0; i < EXPENSES; i++) {
+            List<Participant> split = new ArrayList<>(participants.subList(0, 1 + i % 5));
+            Expense expense = new Expense(participants.get(i % PARTICIPANTS), "e" + i,
+                    new Money(100 + i, "USD"), "USD", split, i % 2 == 0 ? tag : null);
+            expense.setEventID(ID);
+            expenseRepo.save(expense);
+        }
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction transaction = new Transaction(participants.get(i % PARTICIPANTS),
+                    participants.get((i + 1) % PARTICIPANTS), new Money(50, "USD"), "USD");
+            transaction.setEventID(ID);
+            transactionRepo.save(transaction);
+        }
+    }
+
+    /**
+     * Removes all events and their rows, children first
+     */
+    public void deleteAll() {
+        transactionRepo.deleteAll();
+        expenseRepo.deleteAll();
+        tagRepo.deleteAll();
+        participantRepo.deleteAll();
+        eventRepo.deleteAll();
+    }
+
+    /**
+     * An event that is not stored yet, with ids as if it was exported from another server.
+     * Every expense refers to its own copy of its author.
+     *
+     * @param id event id
+     * @return the event with {@link #PARTICIPANTS} participants and {@link #EXPENSES} expenses
+     */
+    public static Event imported(String id) {
+        Event event = new Event("imported");
+        event.setId(id);
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            Participant participant = new Participant("p" + i);
+            participant.setId(1000 + i);
+            event.getParticipants().add(participant);
+        }
+        Tag tag = new Tag("food", "#00FF00");
+        tag.setId(7);
+        event.getTags().add(tag);
+        List<Participant> participants = event.getParticipants();
+        for (int i = 0; i < EXPENSES; i++) {
+            Participant author = new Participant("p");
+            author.setId(participants.get(i % PARTICIPANTS).getId());
+            Expense expense = new Expense(author, "e" + i, new Money(100 + i, "USD"), "USD",
+                    new ArrayList<>(participants.subList(0, 1 + i % 5)), tag);
+            expense.setId(5000 + i);
+            event.getExpenses().add(expense);
+        }
+        return event;
+    }
+}